@@ -0,0 +1,183 @@
+import java.util.Iterator;
+import java.util.Spliterator;
+
+/**
+ * A SimpleSet that puts a blocked Bloom filter in front of a SimpleHashSet, to answer most searches for missing
+ * elements without searching the hash set. Each element sets K bits within a single block of 512 bits (a 64 byte cache
+ * line) chosen by its hash code, so a search reads one cache line of the filter, and searches the hash set only if all
+ * K bits are set. The filter has FILTER_BITS_PER_CELL bits per cell of the hash set, and is re-built whenever the hash
+ * set is resized, and when deleted elements (whose bits stay set) reach the number of elements in the set.
+ * The hash set must only be modified through this set. Since the filter is built by traversing the hash set, a hash
+ * set with incremental resize completes each resize at once, when it starts.
+ */
+public class BloomFilteredSet implements SimpleSet {
+    /* Class members - constant variables */
+    private static final int FILTER_BITS_PER_CELL = 8; // Filter bits per cell of the hash set.
+    private static final int BLOCK_WORDS = 8; // Filter words per block, a 64 byte cache line.
+    private static final int BLOCK_SHIFT = 3; // log2(BLOCK_WORDS).
+    private static final int BLOCK_BIT_MASK = BLOCK_WORDS * Long.SIZE - 1; // Bit index mask within a block.
+    private static final int BLOCK_BIT_BITS = 9; // Hash bits per bit index within a block (log2(512)).
+    private static final int K = 6; // Number of bits set by each element.
+    /* Class members - variables */
+    private final SimpleHashSet set; // The filtered hash set.
+    private long[] filter; // Filter blocks, BLOCK_WORDS words each.
+    private int filterCapacity; // Capacity of the hash set the filter was built for.
+    private int deletions = 0; // Elements deleted since the filter was built, their bits are still set.
+
+    /* Constructors */
+
+    /**
+     * Constructs a set filtering a hash set, with a filter built from the elements the hash set already holds.
+     *
+     * @param set Hash set to filter, only modified through this set from now on.
+     */
+    public BloomFilteredSet(SimpleHashSet set) {
+        this.set = set;
+        this.rebuild();
+    }
+
+    /**
+     * A default constructor. Constructs a new, empty set, filtering a new OpenHashSet.
+     */
+    public BloomFilteredSet() {
+        this(new OpenHashSet());
+    }
+
+    /* Public instance Methods */
+
+    /**
+     * Add a specified element to the set if it's not already in it, and sets its bits in the filter. The filter is
+     * re-built instead if the addition resized the hash set.
+     *
+     * @param newValue New value to add to the set
+     * @return False iff newValue already exists in the set.
+     */
+    public boolean add(String newValue) {
+        if (!this.set.add(newValue))
+            return false;
+        if (this.set.capacity() != this.filterCapacity)
+            this.rebuild();
+        else
+            this.setBits(hash(newValue));
+        return true;
+    }
+
+    /**
+     * Look for a specified value in the set: searches the hash set only if the filter might contain it.
+     *
+     * @param searchVal Value to search for
+     * @return True iff searchVal is found in the set.
+     */
+    public boolean contains(String searchVal) {
+        return this.mightContain(searchVal) && this.set.contains(searchVal);
+    }
+
+    /**
+     * Remove the input element from the set. Its bits stay set in the filter, until the filter is re-built: when the
+     * deletion resized the hash set, or the deleted elements reach the number of elements left.
+     *
+     * @param toDelete Value to delete
+     * @return True iff toDelete is found and deleted.
+     */
+    public boolean delete(String toDelete) {
+        if (!this.mightContain(toDelete) || !this.set.delete(toDelete))
+            return false;
+        this.deletions++;
+        if (this.set.capacity() != this.filterCapacity || this.deletions > this.set.size())
+            this.rebuild();
+        return true;
+    }
+
+    /**
+     * @return The number of elements currently in the set.
+     */
+    public int size() {
+        return this.set.size();
+    }
+
+    /**
+     * @return An iterator over the elements of the hash set.
+     */
+    public Iterator<String> iterator() {
+        return this.set.iterator();
+    }
+
+    /**
+     * @return A spliterator over the elements of the hash set.
+     */
+    public Spliterator<String> spliterator() {
+        return this.set.spliterator();
+    }
+
+    /**
+     * Checks the filter alone: a String that is in the set always passes, and one that is not passes only as a false
+     * positive.
+     *
+     * @param searchVal Value to check.
+     * @return False iff searchVal is certainly not in the set.
+     */
+    public boolean mightContain(String searchVal) {
+        long hash = hash(searchVal);
+        int block = this.blockOf(hash);
+        for (int bit = 0; bit < K; bit++) {
+            int index = (int) (hash >>> (bit * BLOCK_BIT_BITS)) & BLOCK_BIT_MASK;
+            if ((this.filter[block + (index >>> 6)] & (1L << index)) == 0)
+                return false;
+        }
+        return true;
+    }
+
+    /* Private instance Methods */
+
+    /**
+     * Re-builds the filter for the current capacity of the hash set, from its elements.
+     */
+    private void rebuild() {
+        this.filterCapacity = this.set.capacity();
+        int blocks = Math.max(1, (int) ((long) this.filterCapacity * FILTER_BITS_PER_CELL / (BLOCK_WORDS * Long.SIZE)));
+        this.filter = new long[blocks * BLOCK_WORDS];
+        this.deletions = 0;
+        this.set.forEach(item -> this.setBits(hash(item)));
+    }
+
+    /**
+     * Sets the K bits of an element in its block.
+     *
+     * @param hash Hash of the element (see hash()).
+     */
+    private void setBits(long hash) {
+        int block = this.blockOf(hash);
+        for (int bit = 0; bit < K; bit++) {
+            int index = (int) (hash >>> (bit * BLOCK_BIT_BITS)) & BLOCK_BIT_MASK;
+            this.filter[block + (index >>> 6)] |= 1L << index;
+        }
+    }
+
+    /**
+     * Chooses the block of an element by the high 32 bits of its hash, which the bit indexes (the low 54 bits) use
+     * only in part, scaled to the number of blocks.
+     *
+     * @param hash Hash of the element (see hash()).
+     * @return Index of the first word of the element's block.
+     */
+    private int blockOf(long hash) {
+        long blocks = this.filter.length >>> BLOCK_SHIFT;
+        return (int) (((hash >>> 32) * blocks) >>> 32) << BLOCK_SHIFT;
+    }
+
+    /* Private static Methods */
+
+    /**
+     * Mixes the String hash code (cached by String, so the chars are read once) to 64 bits by the SplitMix64
+     * finalizer, so the block and the bit indexes depend on all its bits.
+     *
+     * @param item String to hash.
+     * @return 64 bit hash of item.
+     */
+    private static long hash(String item) {
+        long hash = item.hashCode() * 0x9E3779B97F4A7C15L;
+        hash = (hash ^ (hash >>> 30)) * 0xBF58476D1CE4E5B9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94D049BB133111EBL;
+        return hash ^ (hash >>> 31);
+    }
+}
@@ -1 +1,615 @@
-/** * A hash-set based on closed-hashing with quadratic probing. Extends SimpleHashSet */public class ClosedHashSet extends SimpleHashSet {    /* Class members - variables */    private String[] table = new String[INITIAL_CAPACITY]; // Hash table representation.    private boolean[] ignoreList = new boolean[INITIAL_CAPACITY]; // Ignore list boolean array to hold deleted indexes.    private int elementCounter = 0; // Table's element counter. Updated on each successful add/delete.    /* Constructors */    /**     * A default constructor. Constructs a new, empty table with default initial capacity (16),     * upper load factor (0.75) and lower load factor (0.25).     */    public ClosedHashSet() {        super();    }    /**     * Constructs a new, empty table with the specified load factors, and the default initial capacity (16).     *     * @param upperLoadFactor The upper load factor of the hash table.     * @param lowerLoadFactor The lower load factor of the hash table.     */    public ClosedHashSet(float upperLoadFactor, float lowerLoadFactor) {        super(upperLoadFactor, lowerLoadFactor);    }    /**     * Data constructor - builds the hash set by adding the elements one by one. Duplicate values should be ignored.     * The new table has the default values of initial capacity (16), upper load factor (0.75),     * and lower load factor (0.25).     *     * @param data Values to add to the set.     */    public ClosedHashSet(String[] data) {        super();        for (String item : data)            this.add(item);    }    /* Public instance Methods */    /**     * Add a specified element to the set if it's not already in it.     *     * @param newValue New value to add to the set     * @return False iff newValue already exists in the set.     */    public boolean add(String newValue) {        int predictResize = this.predictResize(newValue); // Assign resize simulation test result to int.        // If result states that resize is needed and item is not in table yet, performs resize and return true.        if (predictResize == 1) {            this.elementCounter++; // Appends element counter by 1;            if (this.shouldIncrease()) {                this.resize(true, newValue);                return true;            }            // If resize was needed but item exists in table, do nothing and return false.        } else if (predictResize == -1)            return false;        // Iterates over probing index, until empty slot found.        for (int i = 0; i < this.table.length; i++) {            int index = this.clamp(this.hash(newValue, i)); // Clamps string hash code to fit array index.            // If index is null, assign item to index and return true.            if (this.table[index] == null) {                this.elementCounter++; // Appends element counter by 1;                this.table[index] = newValue;                if (this.ignoreList[index])                    this.ignoreList[index] = false; // If index in ignore list, remove it from there.                return true;                // If item exists in table, do nothing and return false.            } else if (this.table[index].equals(newValue))                return false;        }        return false;    }    /**     * Look for a specified value in the set.     *     * @param searchVal Value to search for     * @return True iff searchVal is found in the set.     */    public boolean contains(String searchVal) {        // Iterates over probing index, until relevant slot found or iteration reached null slot.        for (int i = 0; i < this.table.length; i++) {            int index = this.clamp(this.hash(searchVal, i)); // Clamps string hash code to fit array index.            // Null slot reached, item not in table, return false.            if (this.ignoreList[index])                continue;            else if (this.table[index] == null)                return false;                // Index equals search val, item found, return true.            else if (this.table[index].equals(searchVal))                return true;        }        return false; // If iteration completed and no null or equal val found.    }    /**     * Remove the input element from the set.     *     * @param toDelete Value to delete     * @return True iff toDelete is found and deleted.     */    public boolean delete(String toDelete) {        for (int i = 0; i < this.table.length; i++) {            int index = this.clamp(this.hash(toDelete, i)); // Clamps string hash code to fit array index.            // Null slot reached, item not in table therefore cannot be deleted, return false.            if (this.ignoreList[index])                continue;            else if (this.table[index] == null)                return false;                // Index equals search val, item found: delete it, re-hash table and return true.            else if (this.table[index].equals(toDelete)) {                this.table[index] = null; // Delete index value.                this.ignoreList[index] = true;                this.elementCounter--; // Removes 1 from element counter.                if (this.shouldDecrease())                    this.resize(false, toDelete); // Checks if decrease-resizing is needed.                return true;            }        }        return false;    }    /**     * @return The number of elements currently in the set.     */    public int size() {        return this.elementCounter;    }    /**     * Specified by: capacity in class SimpleHashSet.     *     * @return The current capacity (number of cells) of the table.     */    public int capacity() {        return this.table.length;    }    /* Protected instance Methods */    /**     * Calls super method and adds ignore list reinitialization.     *     * @param increase True if increase is performed, False if decrease.     * @param lastItem Item that was added/deleted before table resize.     */    @Override    protected void resize(boolean increase, String lastItem) {        int newCapacity = increase ? this.capacity() * 2 : this.capacity() / 2;        this.ignoreList = new boolean[newCapacity];        super.resize(increase, lastItem);    }    /**     * Reinitialize hash table based on new capacity.     *     * @param newCapacity New table capacity.     */    protected void newTable(int newCapacity) {        this.table = new String[newCapacity]; // Creates new empty table with specified capacity.    }    /**     * Creates an array representation of the current table elements (no duplicates, no null).     *     * @return Array that contains all String elements in the current table.     */    protected String[] assignTableElementsToArray() {        String[] tempTable = new String[this.size()]; // Assign new array the size of total elements in table.        int index = 0;        for (String item : this.table) // Go over all the String items of the table.            // If index not null, assign String to the result array.            if (item != null) {                tempTable[index] = item;                index++;            }        return tempTable;    }    /**     * Adds String element (no duplicates, no null) to new resized table.     *     * @param item Element to add.     */    protected void addUnique(String item) {        // Iterates over probing index, until empty slot found.        for (int i = 0; i < this.table.length; i++) {            int index = this.clamp(this.hash(item, i)); // Clamps string hash code to fit array index.            // If index is null, assign item to index and return true.            if (this.table[index] == null) {                this.table[index] = item;                return;            }        }    }    /* Private instance Methods */    /**     * @param item  String to hash.     * @param index Index of current probing.     * @return Hash code for String input, based on quadratic probing algorithm.     */    private int hash(String item, int index) {        return item.hashCode() + ((index + index * index) / 2);    }    /**     * Checks when adding a new item if this addition will require a resize.     *     * @param item The new item to add.     * @return (1) If adding the item indeed requires a resize && item is not in the table already.     * (0) If adding the item doesn't require a resize.     * (-1) If item is already in the table.     */    private int predictResize(String item) {        if (!addSimulation())            return 0; // If when adding a dummy-item a resize is not needed.        else if (this.contains(item))            return -1; // If a resize is needed, but item already in the table.        return 1; // If a resize is needed, and item is not already in the table.    }    /**     * Helper for predictResize() method. Simulates adding an item to the counter and checks if then resize is required.     *     * @return True if resize is required with this item added, false if otherwise.     */    private boolean addSimulation() {        this.elementCounter++; // Add dummy-item to the counter.        boolean result = this.shouldIncrease(); // Assign to boolean if in the current situation, a resize is needed.        this.elementCounter--; // Removes the dummy-item from the counter.        return result; // Return the simulation result.    }}
\ No newline at end of file
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * A hash-set based on closed-hashing with quadratic probing. Extends SimpleHashSet
+ */
+public class ClosedHashSet extends SimpleHashSet {
+    /* Class members - constant variables */
+    private static final int NOT_FOUND = -1; // Index returned when probing did not find the requested cell.
+    /* Class members - variables */
+    private String[] table = new String[INITIAL_CAPACITY]; // Hash table representation.
+    private int[] hashes = new int[INITIAL_CAPACITY]; // Cached hash code of each table element, by index.
+    private boolean[] ignoreList = new boolean[INITIAL_CAPACITY]; // Ignore list boolean array to hold deleted indexes.
+    // Table, hash cache and ignore list before last resize, while its elements are being migrated.
+    private String[] previousTable = null;
+    private int[] previousHashes = null;
+    private boolean[] previousIgnoreList = null;
+    private int migrationIndex = 0; // Next previous table index to migrate.
+    private int elementCounter = 0; // Table's element counter. Updated on each successful add/delete.
+    private int deletedCounter = 0; // Number of indexes currently marked in the ignore list.
+
+    /* Constructors */
+
+    /**
+     * A default constructor. Constructs a new, empty table with default initial capacity (16),
+     * upper load factor (0.75) and lower load factor (0.25).
+     */
+    public ClosedHashSet() {
+        super();
+    }
+
+    /**
+     * Constructs a new, empty table with the specified load factors, and the default initial capacity (16).
+     *
+     * @param upperLoadFactor The upper load factor of the hash table.
+     * @param lowerLoadFactor The lower load factor of the hash table.
+     */
+    public ClosedHashSet(float upperLoadFactor, float lowerLoadFactor) {
+        super(upperLoadFactor, lowerLoadFactor);
+    }
+
+    /**
+     * Constructs a new, empty table with the specified load factors and resize mode, and the default initial
+     * capacity (16).
+     *
+     * @param upperLoadFactor   The upper load factor of the hash table.
+     * @param lowerLoadFactor   The lower load factor of the hash table.
+     * @param incrementalResize True to migrate cells a few at a time after a resize, false to migrate all at once.
+     */
+    public ClosedHashSet(float upperLoadFactor, float lowerLoadFactor, boolean incrementalResize) {
+        super(upperLoadFactor, lowerLoadFactor, incrementalResize);
+    }
+
+    /**
+     * Constructs a new, empty table with the specified load factors, pre-sized to hold the expected number of elements
+     * without increasing. The table is never decreased below this initial capacity, so deleting elements of a set
+     * that is expected to grow back does not re-hash it.
+     *
+     * @param expectedSize    The expected number of elements in the set.
+     * @param upperLoadFactor The upper load factor of the hash table.
+     * @param lowerLoadFactor The lower load factor of the hash table.
+     */
+    public ClosedHashSet(int expectedSize, float upperLoadFactor, float lowerLoadFactor) {
+        super(upperLoadFactor, lowerLoadFactor);
+        this.createTable(capacityFor(expectedSize, upperLoadFactor));
+        this.setMinCapacity(this.capacity());
+    }
+
+    /**
+     * Data constructor - builds the hash set by adding the elements one by one. Duplicate values should be ignored.
+     * The new table has the default values of upper load factor (0.75) and lower load factor (0.25), and an initial
+     * capacity large enough to hold all the elements without increasing (at least 16).
+     *
+     * @param data Values to add to the set.
+     */
+    public ClosedHashSet(String[] data) {
+        super();
+        this.createTable(Math.max(INITIAL_CAPACITY, capacityFor(data.length, DEFAULT_HIGHER_CAPACITY)));
+        for (String item : data)
+            this.add(item);
+    }
+
+    /* Public instance Methods */
+
+    /**
+     * Add a specified element to the set if it's not already in it.
+     *
+     * @param newValue New value to add to the set
+     * @return False iff newValue already exists in the set.
+     */
+    public boolean add(String newValue) {
+        this.migrationStep();
+        return this.add(newValue, this.hash(newValue));
+    }
+
+    /**
+     * Look for a specified value in the set.
+     *
+     * @param searchVal Value to search for
+     * @return True iff searchVal is found in the set.
+     */
+    public boolean contains(String searchVal) {
+        this.migrationStep();
+        int hash = this.hash(searchVal);
+        if (findIndex(this.table, this.hashes, this.ignoreList, searchVal, hash) != NOT_FOUND)
+            return true;
+        // If a resize is in progress, item may still be in the previous table.
+        return this.itemInPreviousTable(searchVal, hash);
+    }
+
+    /**
+     * Look for the value of a char sequence in the set, hashing and comparing it in place, with no String created.
+     *
+     * @param searchVal Value to search for
+     * @return True iff a String equal to searchVal is found in the set.
+     */
+    public boolean contains(CharSequence searchVal) {
+        return this.containsKey(searchVal, 0, 0);
+    }
+
+    /**
+     * Look for the value of a range of UTF-8 bytes in the set, hashing and comparing the decoded chars in place, with
+     * no String created. Malformed UTF-8 is searched decoded to a String, as new String(bytes, UTF_8) replaces it.
+     *
+     * @param bytes  Array holding the value to search for
+     * @param offset Index of the first byte of the value
+     * @param length Number of bytes of the value
+     * @return True iff the decoded value is found in the set.
+     * @throws IndexOutOfBoundsException If the range is not within the array.
+     */
+    public boolean contains(byte[] bytes, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, bytes.length);
+        return this.containsKey(bytes, offset, length);
+    }
+
+    /**
+     * Look for the value of the remaining UTF-8 bytes of a buffer in the set, as contains(byte[], int, int) does. The
+     * bytes are read by absolute index, so the buffer position is not changed, and a direct or mapped buffer is
+     * searched with no copy.
+     *
+     * @param bytes Buffer holding the value to search for
+     * @return True iff the decoded value is found in the set.
+     */
+    public boolean contains(ByteBuffer bytes) {
+        return this.containsKey(bytes, bytes.position(), bytes.remaining());
+    }
+
+    /**
+     * Remove the input element from the set.
+     *
+     * @param toDelete Value to delete
+     * @return True iff toDelete is found and deleted.
+     */
+    public boolean delete(String toDelete) {
+        this.migrationStep();
+        return this.delete(toDelete, this.hash(toDelete));
+    }
+
+    /**
+     * Add the specified elements to the set, each if it's not already in it. Looks the elements up BATCH_SIZE at a
+     * time (see containsAll), and adds only the ones that were not found.
+     *
+     * @param newValues New values to add to the set
+     * @return Number of values that were added, i.e. did not already exist in the set.
+     */
+    public int addAll(String[] newValues) {
+        int added = 0;
+        int[] hashes = new int[BATCH_SIZE];
+        String[] firstCells = new String[BATCH_SIZE];
+        boolean[] found = new boolean[BATCH_SIZE];
+        for (int start = 0; start < newValues.length; start += BATCH_SIZE) {
+            int end = Math.min(newValues.length, start + BATCH_SIZE);
+            this.findAll(newValues, start, end, hashes, firstCells, found);
+            // An element that was found is still in the set, since adding never removes elements.
+            for (int i = start; i < end; i++) {
+                if (found[i - start])
+                    continue;
+                this.migrationStep();
+                if (this.add(newValues[i], hashes[i - start]))
+                    added++;
+            }
+        }
+        return added;
+    }
+
+    /**
+     * Look for the specified values in the set, BATCH_SIZE at a time: first hashes all the values of a batch and
+     * loads the first cell of each probing sequence, and only then searches for each value, so the cache misses of
+     * loading the first cells overlap.
+     *
+     * @param searchVals Values to search for
+     * @param found      Set to true at the index of each value that is found in the set, false at the others.
+     * @return Number of values that were found in the set.
+     */
+    public int containsAll(String[] searchVals, boolean[] found) {
+        int count = 0;
+        int[] hashes = new int[BATCH_SIZE];
+        String[] firstCells = new String[BATCH_SIZE];
+        boolean[] batchFound = new boolean[BATCH_SIZE];
+        for (int start = 0; start < searchVals.length; start += BATCH_SIZE) {
+            int end = Math.min(searchVals.length, start + BATCH_SIZE);
+            this.migrationSteps(end - start);
+            count += this.findAll(searchVals, start, end, hashes, firstCells, batchFound);
+            System.arraycopy(batchFound, 0, found, start, end - start);
+        }
+        return count;
+    }
+
+    /**
+     * Remove the specified elements from the set. Looks the elements up BATCH_SIZE at a time (see containsAll), and
+     * deletes only the ones that were found.
+     *
+     * @param toDelete Values to delete
+     * @return Number of values that were found and deleted.
+     */
+    public int deleteAll(String[] toDelete) {
+        int deleted = 0;
+        int[] hashes = new int[BATCH_SIZE];
+        String[] firstCells = new String[BATCH_SIZE];
+        boolean[] found = new boolean[BATCH_SIZE];
+        for (int start = 0; start < toDelete.length; start += BATCH_SIZE) {
+            int end = Math.min(toDelete.length, start + BATCH_SIZE);
+            this.findAll(toDelete, start, end, hashes, firstCells, found);
+            // An element that was not found is still not in the set, since deleting never adds elements.
+            for (int i = start; i < end; i++) {
+                if (!found[i - start])
+                    continue;
+                this.migrationStep();
+                if (this.delete(toDelete[i], hashes[i - start]))
+                    deleted++;
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * @return The number of elements currently in the set.
+     */
+    public int size() {
+        return this.elementCounter;
+    }
+
+    /**
+     * Specified by: capacity in class SimpleHashSet.
+     *
+     * @return The current capacity (number of cells) of the table.
+     */
+    public int capacity() {
+        return this.table.length;
+    }
+
+    /* Protected instance Methods */
+
+    /**
+     * Reinitialize hash table, hash cache and ignore list based on new capacity. The current ones are kept as the
+     * previous table, until all its elements are migrated to the new table.
+     *
+     * @param newCapacity New table capacity.
+     */
+    protected void newTable(int newCapacity) {
+        this.previousTable = this.table;
+        this.previousHashes = this.hashes;
+        this.previousIgnoreList = this.ignoreList;
+        this.migrationIndex = 0;
+        this.createTable(newCapacity); // Creates new empty table with specified capacity.
+    }
+
+    /**
+     * Moves the elements of the previous table cells (if any) to the current table, continuing from the last migrated
+     * cell. A migrated cell is marked as deleted in the previous table, so probing there still continues beyond it.
+     * Once all the previous table cells were migrated, the previous table is released.
+     *
+     * @param maxCells Maximal number of previous table cells to migrate.
+     */
+    protected void migrate(int maxCells) {
+        if (this.previousTable == null)
+            return; // No resize in progress.
+        int end = (int) Math.min(this.previousTable.length, (long) this.migrationIndex + maxCells);
+        for (; this.migrationIndex < end; this.migrationIndex++) {
+            String item = this.previousTable[this.migrationIndex];
+            if (item == null)
+                continue;
+            // Cached hash code is re-used, so the element is not hashed again.
+            this.addUnique(item, this.previousHashes[this.migrationIndex]);
+            this.previousTable[this.migrationIndex] = null;
+            this.previousIgnoreList[this.migrationIndex] = true;
+        }
+        if (this.migrationIndex == this.previousTable.length) {
+            // All cells migrated.
+            this.previousTable = null;
+            this.previousHashes = null;
+            this.previousIgnoreList = null;
+        }
+    }
+
+    /**
+     * Adds String element (no duplicates, no null) to new resized table.
+     *
+     * @param item Element to add.
+     */
+    protected void addUnique(String item) {
+        this.addUnique(item, this.hash(item));
+    }
+
+    /**
+     * Specified by: probeLengths in class SimpleHashSet. Follows the probing sequence of each element from its hash
+     * code to its index.
+     *
+     * @return Number of cells probed to find each element of the current table.
+     */
+    protected int[] probeLengths() {
+        String[] cells = this.table;
+        int[] cellHashes = this.hashes;
+        int mask = cells.length - 1;
+        int[] lengths = new int[cells.length];
+        int count = 0;
+        for (int cell = 0; cell < cells.length; cell++) {
+            if (cells[cell] == null)
+                continue;
+            int index = cellHashes[cell] & mask;
+            int attempt = 0;
+            while (index != cell && attempt < cells.length)
+                index = (index + ++attempt) & mask; // Quadratic probing by triangular numbers.
+            lengths[count++] = attempt + 1;
+        }
+        return Arrays.copyOf(lengths, count);
+    }
+
+    /**
+     * Specified by: deletedCells in class SimpleHashSet.
+     *
+     * @return Number of cells of the current table that are marked as deleted.
+     */
+    protected int deletedCells() {
+        return this.deletedCounter;
+    }
+
+    /**
+     * Specified by: cellElement in class SimpleHashSet.
+     *
+     * @param index    Index of the cell.
+     * @param position Position of the element in the cell.
+     * @return The element of the cell if position is 0, null if the cell is empty or position is not 0.
+     */
+    protected String cellElement(int index, int position) {
+        return position == 0 ? this.table[index] : null;
+    }
+
+    /* Private instance Methods */
+
+    /**
+     * @param item String to hash.
+     * @return Hash code for String input, mixed (see SimpleHashSet.mix()).
+     */
+    private int hash(String item) {
+        return mix(item.hashCode());
+    }
+
+    /**
+     * Searches a key that is not a String (see SimpleHashSet.keyHash()) in place: hashes it as the equal String
+     * would be, and probes for it in the table and in the table being migrated.
+     *
+     * @param key    A CharSequence, a byte array or a ByteBuffer.
+     * @param offset Index of the first byte of a byte key, ignored for a CharSequence.
+     * @param length Number of bytes of a byte key, ignored for a CharSequence.
+     * @return True iff an element equal to the key is in the set.
+     */
+    private boolean containsKey(Object key, int offset, int length) {
+        long keyHash = keyHash(key, offset, length);
+        if (keyHash == MALFORMED_KEY)
+            return this.contains(keyString(key, offset, length));
+        this.migrationStep();
+        int hash = mix((int) keyHash);
+        return findKeyIndex(this.table, this.hashes, this.ignoreList, key, offset, length, hash) != NOT_FOUND ||
+                (this.previousTable != null && findKeyIndex(this.previousTable, this.previousHashes,
+                        this.previousIgnoreList, key, offset, length, hash) != NOT_FOUND);
+    }
+
+    /**
+     * Creates new empty table, hash cache and ignore list with specified capacity, replacing the current ones.
+     *
+     * @param capacity New table capacity.
+     */
+    private void createTable(int capacity) {
+        this.table = new String[capacity];
+        this.hashes = new int[capacity];
+        this.ignoreList = new boolean[capacity];
+        this.deletedCounter = 0;
+    }
+
+    /**
+     * Adds an element if it's not already in the set.
+     *
+     * @param newValue New value to add to the set.
+     * @param hash     Hash code of newValue.
+     * @return False iff newValue already exists in the set.
+     */
+    private boolean add(String newValue, int hash) {
+        int freeIndex = NOT_FOUND; // First empty or deleted index on the probing sequence.
+        int index = this.clamp(hash);
+        // Iterates over probing sequence until item found, or an index that was never used is reached.
+        for (int attempt = 1; attempt <= this.table.length; attempt++) {
+            String current = this.table[index];
+            if (current == null) {
+                if (freeIndex == NOT_FOUND)
+                    freeIndex = index;
+                if (!this.ignoreList[index])
+                    break; // Item cannot be found beyond an index that was never used.
+            } else if (this.hashes[index] == hash && current.equals(newValue))
+                return false; // If item exists in table, do nothing and return false.
+            index = this.clamp(index + attempt); // Quadratic probing by triangular numbers.
+        }
+        // If a resize is in progress, item may still be in the previous table.
+        if (this.itemInPreviousTable(newValue, hash))
+            return false;
+        this.elementCounter++; // Item not in table. Appends element counter by 1.
+        this.countModification();
+        // Checks if increasing table is needed, if so call method and resize/re-hash table, also with new value.
+        if (freeIndex == NOT_FOUND || this.shouldIncrease()) {
+            this.resize(true, newValue);
+            return true;
+        }
+        // If free index was deleted before, reuse it and remove it from the ignore list.
+        if (this.ignoreList[freeIndex]) {
+            this.ignoreList[freeIndex] = false;
+            this.deletedCounter--;
+        }
+        this.store(freeIndex, newValue, hash);
+        // Deleted indexes only lengthen the probing, so when too many of them pile up re-hash in the same capacity.
+        if (this.shouldPurge())
+            this.rehash(this.capacity(), null);
+        return true;
+    }
+
+    /**
+     * Removes an element from the set.
+     *
+     * @param toDelete Value to delete.
+     * @param hash     Hash code of toDelete.
+     * @return True iff toDelete is found and deleted.
+     */
+    private boolean delete(String toDelete, int hash) {
+        int index = findIndex(this.table, this.hashes, this.ignoreList, toDelete, hash);
+        if (index != NOT_FOUND) {
+            this.table[index] = null; // Delete index value.
+            this.ignoreList[index] = true; // Mark index as deleted, so later probing continues beyond it.
+            this.deletedCounter++;
+        } else {
+            // If a resize is in progress, item may still be in the previous table.
+            if (this.previousTable != null)
+                index = findIndex(this.previousTable, this.previousHashes, this.previousIgnoreList, toDelete, hash);
+            if (index == NOT_FOUND)
+                return false; // Item not in table therefore cannot be deleted, return false.
+            this.previousTable[index] = null;
+            this.previousIgnoreList[index] = true;
+        }
+        this.elementCounter--; // Removes 1 from element counter.
+        this.countModification();
+        if (this.shouldDecrease())
+            this.resize(false, toDelete); // Checks if decrease-resizing is needed.
+        return true;
+    }
+
+    /**
+     * Looks up a batch of elements in two passes: the first hashes each element and loads the first cell of its
+     * probing sequence, with no dependency between the loads, and the second resolves each element. An element
+     * whose first cell holds it, or was never used, is resolved there; any other element is probed in full.
+     *
+     * @param items      Elements to look up.
+     * @param start      Index of the first element of the batch.
+     * @param end        Index after the last element of the batch (at most BATCH_SIZE after start).
+     * @param hashes     Filled with the hash code of each element of the batch, by index from start.
+     * @param firstCells Filled with the first probed cell of each element of the batch, by index from start.
+     * @param found      Filled with true for each element of the batch that is in the set, by index from start.
+     * @return Number of elements of the batch that are in the set.
+     */
+    private int findAll(String[] items, int start, int end, int[] hashes, String[] firstCells, boolean[] found) {
+        String[] cells = this.table;
+        int mask = cells.length - 1;
+        for (int i = start; i < end; i++) {
+            int hash = this.hash(items[i]);
+            hashes[i - start] = hash;
+            firstCells[i - start] = cells[hash & mask];
+        }
+        int count = 0;
+        for (int i = start; i < end; i++) {
+            String first = firstCells[i - start];
+            int hash = hashes[i - start];
+            int index = hash & mask;
+            boolean inTable;
+            if (first != null && this.hashes[index] == hash && first.equals(items[i]))
+                inTable = true;
+            else if (first == null && !this.ignoreList[index])
+                inTable = false; // Item cannot be found beyond an index that was never used.
+            else
+                inTable = findIndex(cells, this.hashes, this.ignoreList, items[i], hash) != NOT_FOUND;
+            found[i - start] = inTable || this.itemInPreviousTable(items[i], hash);
+            if (found[i - start])
+                count++;
+        }
+        return count;
+    }
+
+    /**
+     * Adds String element (no duplicates, no null) to the table, in the first empty or deleted index of its probing
+     * sequence.
+     *
+     * @param item Element to add.
+     * @param hash Hash code of item.
+     */
+    private void addUnique(String item, int hash) {
+        int index = this.clamp(hash);
+        // Iterates over probing sequence, until empty slot found.
+        for (int attempt = 1; this.table[index] != null; attempt++)
+            index = this.clamp(index + attempt);
+        // If index was deleted before, reuse it and remove it from the ignore list.
+        if (this.ignoreList[index]) {
+            this.ignoreList[index] = false;
+            this.deletedCounter--;
+        }
+        this.store(index, item, hash);
+    }
+
+    /**
+     * Finds the index of an item in a table. Cached hash codes are compared first, so String.equals is only called
+     * on indexes whose element has the same hash code.
+     *
+     * @param cells      Table to search, its length is a power of 2.
+     * @param cellHashes Cached hash codes of the table elements.
+     * @param deleted    Ignore list of the table.
+     * @param item       String value to look for.
+     * @param hash       Hash code of item.
+     * @return Index of item in table, NOT_FOUND if item is not in table.
+     */
+    private static int findIndex(String[] cells, int[] cellHashes, boolean[] deleted, String item, int hash) {
+        int mask = cells.length - 1;
+        int index = hash & mask;
+        // Iterates over probing sequence, until relevant slot found or iteration reached a never used slot.
+        for (int attempt = 1; attempt <= cells.length; attempt++) {
+            String current = cells[index];
+            if (current == null) {
+                if (!deleted[index])
+                    return NOT_FOUND;
+            } else if (cellHashes[index] == hash && current.equals(item))
+                return index;
+            index = (index + attempt) & mask; // Quadratic probing by triangular numbers.
+        }
+        return NOT_FOUND; // If iteration completed and no null or equal val found.
+    }
+
+    /**
+     * Finds the index of a key that is not a String in a table, probing as findIndex does, and comparing in place.
+     *
+     * @param cells      Table to search, its length is a power of 2.
+     * @param cellHashes Cached hash codes of the table elements.
+     * @param deleted    Ignore list of the table.
+     * @param key        A CharSequence, or a byte array or ByteBuffer holding well-formed UTF-8.
+     * @param offset     Index of the first byte of a byte key, ignored for a CharSequence.
+     * @param length     Number of bytes of a byte key, ignored for a CharSequence.
+     * @param hash       Hash code of the key, as of the equal String.
+     * @return Index of the key in table, NOT_FOUND if the key is not in table.
+     */
+    private static int findKeyIndex(String[] cells, int[] cellHashes, boolean[] deleted, Object key, int offset,
+                                    int length, int hash) {
+        int mask = cells.length - 1;
+        int index = hash & mask;
+        for (int attempt = 1; attempt <= cells.length; attempt++) {
+            String current = cells[index];
+            if (current == null) {
+                if (!deleted[index])
+                    return NOT_FOUND;
+            } else if (cellHashes[index] == hash && keyEquals(current, key, offset, length))
+                return index;
+            index = (index + attempt) & mask; // Quadratic probing by triangular numbers.
+        }
+        return NOT_FOUND; // If iteration completed and no null or equal key found.
+    }
+
+    /**
+     * Checks if item exists in the previous table, while a resize is in progress.
+     *
+     * @param item String value to check if exists.
+     * @param hash Hash code of item.
+     * @return True if item exists, false if otherwise (or no resize in progress).
+     */
+    private boolean itemInPreviousTable(String item, int hash) {
+        return this.previousTable != null &&
+                findIndex(this.previousTable, this.previousHashes, this.previousIgnoreList, item, hash) != NOT_FOUND;
+    }
+
+    /**
+     * Stores item and its hash code in specified index.
+     *
+     * @param index Index to store item in.
+     * @param item  Item to store.
+     * @param hash  Hash code of item.
+     */
+    private void store(int index, String item, int hash) {
+        this.table[index] = item;
+        this.hashes[index] = hash;
+    }
+
+    /**
+     * Checks if the deleted indexes should be cleared by re-hashing the table in its current capacity: once elements
+     * and deleted indexes together take more than half the space left above the upper load factor.
+     *
+     * @return True if table should be re-hashed in place, false otherwise.
+     */
+    private boolean shouldPurge() {
+        float maxUsedFactor = (1 + this.getUpperLoadFactor()) / 2;
+        return this.deletedCounter > 0 &&
+                this.elementCounter + this.deletedCounter > maxUsedFactor * this.capacity();
+    }
+}
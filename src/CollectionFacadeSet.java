@@ -57,4 +57,18 @@ public class CollectionFacadeSet implements SimpleSet {
     public int size() {
         return this.collection.size();
     }
+
+    /**
+     * @return An iterator over the elements of the wrapped collection.
+     */
+    public java.util.Iterator<String> iterator() {
+        return this.collection.iterator();
+    }
+
+    /**
+     * @return The spliterator of the wrapped collection.
+     */
+    public java.util.Spliterator<String> spliterator() {
+        return this.collection.spliterator();
+    }
 }
@@ -0,0 +1,381 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A stress test for the thread-safe data-structs, LockFreeHashSet and ConcurrentSimpleHashSet. Runs threads that
+ * concurrently add, delete and search keys of a set while it grows and shrinks through many (and, for
+ * LockFreeHashSet, nested) resizes, and checks that every result is one a linearizable set could have returned:
+ * <ul>
+ * <li>Each thread owns a range of keys that only it adds and deletes, so the operations on an owned key are sequential,
+ * and each of their results must be the one a sequential set would return. A key that was lost, or re-added after it
+ * was deleted, while its cell was copied by a resize fails the next operation on it.</li>
+ * <li>All threads add and delete a few shared keys. Successful adds and deletes of a key must alternate, so at the end
+ * the key was added successfully as many times as it was deleted, or once more, and is in the set iff once more.</li>
+ * <li>Stable keys are added before the threads start and never deleted, and absent keys are never added: searching
+ * them must always find the stable keys, and never the absent ones.</li>
+ * </ul>
+ * Once the threads are done, the set size and the elements it traverses must match what the threads added. A round
+ * whose threads do not finish in time, e.g. on a livelocked resize, is reported too. Each round then fills and
+ * empties another set on a single thread, traversing it after every add and delete, so traversals also start while a
+ * resize is pending (a set whose threads are done may have completed its resizes). Exits with status 1 if any result
+ * violates these rules.
+ * <p>
+ * Usage: java ConcurrentSetStress [-s structs] [-t threads] [-r rounds] [-n keys] [-seed seed]
+ */
+public class ConcurrentSetStress {
+    /* Arguments constant variables */
+    private static final String USAGE = "Usage: java ConcurrentSetStress [-s structs] [-t threads] [-r rounds] " +
+            "[-n keys] [-seed seed]\n" +
+            "  structs: comma separated of LockFreeHashSet, ConcurrentSimpleHashSet, default all\n" +
+            "  threads: number of concurrent threads, default the number of processors (at least 4)\n" +
+            "  rounds:  number of rounds, each on a new set, default 10\n" +
+            "  keys:    number of keys owned by each thread, default 2048";
+    private static final String LIST_SEPARATOR = ","; // Separates values of a list argument.
+    private static final int ARGUMENTS_ERROR = 2; // Exit status on invalid arguments.
+    private static final int VIOLATION_ERROR = 1; // Exit status when a result violates linearizability.
+    private static final String[] STRUCTS = {"LockFreeHashSet", "ConcurrentSimpleHashSet"}; // Thread-safe structs.
+    /* Stress constant variables */
+    private static final int OPERATIONS_PER_THREAD = 1 << 18; // Operations run by each thread in a round.
+    // Operations per phase of a thread, that alternately adds and deletes more owned keys, so the set keeps resizing.
+    private static final int PHASE_LENGTH = 1 << 12;
+    private static final int SHARED_KEYS = 64; // Number of keys that all threads add and delete.
+    private static final int STABLE_KEYS = 256; // Number of keys in the set throughout a round.
+    private static final int ABSENT_KEYS = 256; // Number of keys never added.
+    private static final int MAX_REPORTED_VIOLATIONS = 10; // Violations kept per struct, the rest only counted.
+    // Time a round may take before it is reported as stuck (e.g. a livelocked resize), in milliseconds.
+    private static final long ROUND_TIMEOUT_MILLIS = 120_000;
+    /* Configuration variables, assigned from arguments */
+    private static List<String> structNames = List.of(STRUCTS); // Chosen data-struct names.
+    private static int threads = Math.max(4, Runtime.getRuntime().availableProcessors()); // Concurrent threads.
+    private static int rounds = 10; // Number of rounds, each on a new set.
+    private static int ownedKeys = 2048; // Number of keys owned by each thread.
+    private static long seed = 42; // Seed of the operations of the first round.
+
+    /**
+     * Main method that parses the arguments, and stresses each chosen data-struct.
+     *
+     * @param args Command line args, see USAGE.
+     */
+    public static void main(String[] args) {
+        if (!parseArguments(args)) {
+            System.err.println(USAGE);
+            System.exit(ARGUMENTS_ERROR);
+        }
+        boolean violated = false;
+        for (String name : structNames) {
+            Violations violations = new Violations();
+            for (int round = 0; round < rounds; round++) {
+                runRound(name, round, violations);
+                runTraversalRound(name, round, violations);
+            }
+            System.out.println(name + ": " + rounds + " rounds, " + threads + " threads, " + violations.count.sum() +
+                    " violations");
+            for (String violation : violations.reported)
+                System.err.println("  " + violation);
+            violated |= violations.count.sum() > 0;
+        }
+        if (violated)
+            System.exit(VIOLATION_ERROR);
+    }
+
+    /* Private static Methods */
+
+    /**
+     * Parses the command line arguments into the configuration variables.
+     *
+     * @param args Command line args.
+     * @return True if all arguments are valid, false otherwise.
+     */
+    private static boolean parseArguments(String[] args) {
+        try {
+            for (int i = 0; i < args.length; i += 2) {
+                if (i + 1 == args.length)
+                    return false; // Every flag is followed by a value.
+                String value = args[i + 1];
+                switch (args[i]) {
+                    case "-s":
+                        structNames = List.of(value.split(LIST_SEPARATOR));
+                        if (!List.of(STRUCTS).containsAll(structNames))
+                            return false;
+                        break;
+                    case "-t":
+                        threads = Integer.parseInt(value);
+                        break;
+                    case "-r":
+                        rounds = Integer.parseInt(value);
+                        break;
+                    case "-n":
+                        ownedKeys = Integer.parseInt(value);
+                        break;
+                    case "-seed":
+                        seed = Long.parseLong(value);
+                        break;
+                    default:
+                        return false;
+                }
+            }
+        } catch (NumberFormatException e) {
+            return false;
+        }
+        return threads > 0 && rounds > 0 && ownedKeys > 0;
+    }
+
+    /**
+     * @param name Data-struct name, one of STRUCTS.
+     * @return A new, empty data-struct.
+     */
+    private static SimpleSet newDataStruct(String name) {
+        return name.equals("LockFreeHashSet") ? new LockFreeHashSet() : new ConcurrentSimpleHashSet();
+    }
+
+    /**
+     * Runs a round: all threads operate on a new set, which is then checked against the results they saw.
+     *
+     * @param name       Data-struct name.
+     * @param round      Round number, that seeds the operations of the threads.
+     * @param violations Filled with a description of every violation found.
+     */
+    private static void runRound(String name, int round, Violations violations) {
+        SimpleSet dataStruct = newDataStruct(name);
+        String[] stableKeys = keys("stable:", STABLE_KEYS);
+        String[] absentKeys = keys("absent:", ABSENT_KEYS);
+        String[] sharedKeys = keys("shared:", SHARED_KEYS);
+        for (String key : stableKeys)
+            dataStruct.add(key);
+        AtomicIntegerArray sharedAdds = new AtomicIntegerArray(SHARED_KEYS); // Successful adds of each shared key.
+        AtomicIntegerArray sharedDeletes = new AtomicIntegerArray(SHARED_KEYS); // Successful deletes of each one.
+        String[][] threadKeys = new String[threads][];
+        boolean[][] threadPresent = new boolean[threads][]; // Whether each owned key is in the set, by thread.
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            threadKeys[t] = keys("owned:" + t + ":", ownedKeys);
+            threadPresent[t] = new boolean[ownedKeys];
+            Random random = new Random(seed + (long) round * threads + t);
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                    runOperations(dataStruct, random, threadKeys[thread], threadPresent[thread], sharedKeys,
+                            sharedAdds, sharedDeletes, stableKeys, absentKeys, violations);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (RuntimeException | Error e) {
+                    violations.add(name + " round " + round + ": thread " + thread + " failed: " + e);
+                }
+            });
+            worker.setDaemon(true); // A stuck worker must not keep the JVM from exiting.
+            worker.start();
+            workers.add(worker);
+        }
+        start.countDown();
+        long deadline = System.currentTimeMillis() + ROUND_TIMEOUT_MILLIS;
+        for (Thread worker : workers) {
+            try {
+                worker.join(Math.max(1, deadline - System.currentTimeMillis()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (worker.isAlive()) {
+                violations.add(name + " round " + round + ": threads did not finish within " + ROUND_TIMEOUT_MILLIS +
+                        " ms");
+                return;
+            }
+        }
+        Set<String> expected = new HashSet<>(List.of(stableKeys));
+        for (int t = 0; t < threads; t++)
+            for (int k = 0; k < ownedKeys; k++)
+                if (threadPresent[t][k])
+                    expected.add(threadKeys[t][k]);
+        for (int k = 0; k < SHARED_KEYS; k++) {
+            int added = sharedAdds.get(k) - sharedDeletes.get(k);
+            if (added != 0 && added != 1)
+                violations.add(name + " round " + round + ": " + sharedKeys[k] + " added " + sharedAdds.get(k) +
+                        " times, deleted " + sharedDeletes.get(k) + " times");
+            else if (added == 1)
+                expected.add(sharedKeys[k]);
+        }
+        checkContents(name + " round " + round, dataStruct, expected, violations);
+    }
+
+    /**
+     * Runs a single-threaded round: adds the keys of a new set one by one, and then deletes them, in random orders,
+     * checking the set contents after each operation. The set grows and shrinks through several resizes, and a
+     * traversal may start at any point of them.
+     *
+     * @param name       Data-struct name.
+     * @param round      Round number, that seeds the order of the operations.
+     * @param violations Filled with a description of every violation found.
+     */
+    private static void runTraversalRound(String name, int round, Violations violations) {
+        SimpleSet dataStruct = newDataStruct(name);
+        List<String> keys = new ArrayList<>(List.of(keys("single:", ownedKeys)));
+        Random random = new Random(seed + round);
+        Set<String> expected = new HashSet<>();
+        Collections.shuffle(keys, random);
+        for (String key : keys) {
+            dataStruct.add(key);
+            expected.add(key);
+            checkContents(name + " traversal round " + round + " after add(" + key + ")", dataStruct, expected,
+                    violations);
+        }
+        Collections.shuffle(keys, random);
+        for (String key : keys) {
+            dataStruct.delete(key);
+            expected.remove(key);
+            checkContents(name + " traversal round " + round + " after delete(" + key + ")", dataStruct, expected,
+                    violations);
+        }
+    }
+
+    /**
+     * Runs the operations of a thread, checking the result of each one that has a single valid result.
+     *
+     * @param dataStruct    Set to operate on.
+     * @param random        Chooses the operations and keys of the thread.
+     * @param keys          Keys owned by the thread.
+     * @param present       Whether each owned key is in the set, updated as they are added and deleted.
+     * @param sharedKeys    Keys that all threads add and delete.
+     * @param sharedAdds    Counts the successful adds of each shared key.
+     * @param sharedDeletes Counts the successful deletes of each shared key.
+     * @param stableKeys    Keys that are in the set throughout the round.
+     * @param absentKeys    Keys that are never added.
+     * @param violations    Filled with a description of every violation found.
+     */
+    private static void runOperations(SimpleSet dataStruct, Random random, String[] keys, boolean[] present,
+                                      String[] sharedKeys, AtomicIntegerArray sharedAdds,
+                                      AtomicIntegerArray sharedDeletes, String[] stableKeys, String[] absentKeys,
+                                      Violations violations) {
+        for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+            boolean growing = (i / PHASE_LENGTH) % 2 == 0;
+            int kind = random.nextInt(10);
+            int operation = random.nextInt(10);
+            if (kind < 6) {
+                int k = random.nextInt(keys.length);
+                String key = anyInstance(keys[k], random);
+                boolean result;
+                boolean expected;
+                String name;
+                if (operation < (growing ? 6 : 2)) {
+                    name = "add";
+                    result = dataStruct.add(key);
+                    expected = !present[k];
+                    present[k] = true;
+                } else if (operation < 8) {
+                    name = "delete";
+                    result = dataStruct.delete(key);
+                    expected = present[k];
+                    present[k] = false;
+                } else {
+                    name = "contains";
+                    result = dataStruct.contains(key);
+                    expected = present[k];
+                }
+                if (result != expected)
+                    violations.add(name + "(" + key + ") returned " + result + ", expected " + expected);
+            } else if (kind < 8) {
+                int k = random.nextInt(sharedKeys.length);
+                String key = anyInstance(sharedKeys[k], random);
+                if (operation < 4 && dataStruct.add(key))
+                    sharedAdds.incrementAndGet(k);
+                else if (operation >= 4 && operation < 8 && dataStruct.delete(key))
+                    sharedDeletes.incrementAndGet(k);
+                else if (operation >= 8)
+                    dataStruct.contains(key); // Any result is valid while other threads update it.
+            } else if (operation < 5) {
+                String key = anyInstance(stableKeys[random.nextInt(stableKeys.length)], random);
+                if (!dataStruct.contains(key))
+                    violations.add("contains(" + key + ") returned false for a key that is never deleted");
+            } else {
+                String key = anyInstance(absentKeys[random.nextInt(absentKeys.length)], random);
+                if (dataStruct.contains(key))
+                    violations.add("contains(" + key + ") returned true for a key that is never added");
+            }
+        }
+    }
+
+    /**
+     * Checks that a set, once no thread updates it, holds exactly the expected elements, and traverses each of them
+     * once.
+     *
+     * @param round      Description of the round, for violation messages.
+     * @param dataStruct Set to check.
+     * @param expected   Elements the set should hold.
+     * @param violations Filled with a description of every violation found.
+     */
+    private static void checkContents(String round, SimpleSet dataStruct, Set<String> expected,
+                                      Violations violations) {
+        if (dataStruct.size() != expected.size())
+            violations.add(round + ": size " + dataStruct.size() + ", expected " + expected.size());
+        for (String element : expected)
+            if (!dataStruct.contains(element))
+                violations.add(round + ": contains(" + element + ") returned false for an element of the set");
+        Set<String> traversed = new HashSet<>();
+        for (String element : dataStruct)
+            if (!traversed.add(element))
+                violations.add(round + ": " + element + " traversed twice");
+        if (!traversed.equals(expected))
+            violations.add(round + ": traversed " + traversed.size() + " elements, " +
+                    traversed.stream().filter(element -> !expected.contains(element)).count() + " unexpected, " +
+                    expected.stream().filter(element -> !traversed.contains(element)).count() + " missing");
+    }
+
+    /**
+     * Sets may find a key by reference before comparing hash codes and values, so half of the operations pass an equal
+     * copy of the key, which can only be found by its hash code and value.
+     *
+     * @param key    A key.
+     * @param random Chooses the instance.
+     * @return The key, or a new String equal to it.
+     */
+    private static String anyInstance(String key, Random random) {
+        return random.nextBoolean() ? key : new String(key);
+    }
+
+    /**
+     * @param prefix Prefix of the keys.
+     * @param count  Number of keys.
+     * @return Keys made of the prefix and a number, from 0 to count - 1.
+     */
+    private static String[] keys(String prefix, int count) {
+        String[] keys = new String[count];
+        for (int i = 0; i < count; i++)
+            keys[i] = prefix + i;
+        return keys;
+    }
+
+    /* Nested classes */
+
+    /**
+     * Violations found by the threads of all rounds of a data-struct: all are counted, and the first few are kept to be
+     * reported, so a broken set does not fill the memory with messages.
+     */
+    private static final class Violations {
+        /* Class members - variables */
+        private final LongAdder count = new LongAdder(); // Number of violations found.
+        private final Queue<String> reported = new ConcurrentLinkedQueue<>(); // First violations found.
+
+        /* Private instance Methods */
+
+        /**
+         * Records a violation.
+         *
+         * @param violation Description of the violation.
+         */
+        private void add(String violation) {
+            this.count.increment();
+            if (this.count.sum() <= MAX_REPORTED_VIOLATIONS)
+                this.reported.add(violation);
+        }
+    }
+}
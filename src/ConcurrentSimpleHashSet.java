@@ -0,0 +1,543 @@
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * A thread-safe hash-set that partitions its elements into independently locked segments. Each segment is a hash set
+ * based on closed-hashing with quadratic probing (as in ClosedHashSet), that resizes on its own. Adding and deleting
+ * lock only the segment of the element, and searching is an optimistic read that takes no lock unless a write to that
+ * segment happened meanwhile.
+ * Traversals are weakly consistent: they never fail on concurrent updates, and return each element that is in the set
+ * throughout the traversal exactly once, while elements added or deleted meanwhile may or may not be returned.
+ */
+public class ConcurrentSimpleHashSet implements SimpleSet {
+    /* Class members - constant variables */
+    private static final int DEFAULT_CONCURRENCY_LEVEL = 16; // Number of segments of a newly created set.
+    private static final int MAX_SEGMENTS = 1 << 16; // Maximal number of segments.
+    /* Class members - variables */
+    private final Segment[] segments; // Independently locked segments, number of segments is a power of 2.
+    private final int segmentShift; // Right shift that keeps the top bits of a mixed hash code as segment index.
+
+    /* Constructors */
+
+    /**
+     * A default constructor. Constructs a new, empty set with default number of segments (16), each with default
+     * initial capacity (16), upper load factor (0.75) and lower load factor (0.25).
+     */
+    public ConcurrentSimpleHashSet() {
+        this(SimpleHashSet.DEFAULT_HIGHER_CAPACITY, SimpleHashSet.DEFAULT_LOWER_CAPACITY, DEFAULT_CONCURRENCY_LEVEL);
+    }
+
+    /**
+     * Constructs a new, empty set with the specified load factors, and the default number of segments (16).
+     *
+     * @param upperLoadFactor The upper load factor of each segment.
+     * @param lowerLoadFactor The lower load factor of each segment.
+     */
+    public ConcurrentSimpleHashSet(float upperLoadFactor, float lowerLoadFactor) {
+        this(upperLoadFactor, lowerLoadFactor, DEFAULT_CONCURRENCY_LEVEL);
+    }
+
+    /**
+     * Constructs a new, empty set with the specified load factors and number of segments.
+     *
+     * @param upperLoadFactor  The upper load factor of each segment.
+     * @param lowerLoadFactor  The lower load factor of each segment.
+     * @param concurrencyLevel Expected number of concurrently writing threads, rounded up to a power of 2 to give the
+     *                         number of segments.
+     */
+    public ConcurrentSimpleHashSet(float upperLoadFactor, float lowerLoadFactor, int concurrencyLevel) {
+        int segmentCount = 1;
+        int segmentBits = 0;
+        while (segmentCount < Math.min(concurrencyLevel, MAX_SEGMENTS)) {
+            segmentCount *= 2;
+            segmentBits++;
+        }
+        this.segmentShift = Integer.SIZE - segmentBits;
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++)
+            this.segments[i] = new Segment(upperLoadFactor, lowerLoadFactor);
+    }
+
+    /**
+     * Data constructor - builds the set by adding the elements one by one. Duplicate values should be ignored.
+     * The new set has the default values of number of segments (16), upper load factor (0.75),
+     * and lower load factor (0.25).
+     *
+     * @param data Values to add to the set.
+     */
+    public ConcurrentSimpleHashSet(String[] data) {
+        this();
+        for (String item : data)
+            this.add(item);
+    }
+
+    /* Public instance Methods */
+
+    /**
+     * Add a specified element to the set if it's not already in it. Locks only the segment of the element.
+     *
+     * @param newValue New value to add to the set
+     * @return False iff newValue already exists in the set.
+     */
+    public boolean add(String newValue) {
+        int hash = hash(newValue);
+        return this.segmentFor(hash).add(newValue, hash);
+    }
+
+    /**
+     * Look for a specified value in the set. Takes no lock unless the segment of the value is being written.
+     *
+     * @param searchVal Value to search for
+     * @return True iff searchVal is found in the set.
+     */
+    public boolean contains(String searchVal) {
+        int hash = hash(searchVal);
+        return this.segmentFor(hash).contains(searchVal, hash);
+    }
+
+    /**
+     * Remove the input element from the set. Locks only the segment of the element.
+     *
+     * @param toDelete Value to delete
+     * @return True iff toDelete is found and deleted.
+     */
+    public boolean delete(String toDelete) {
+        int hash = hash(toDelete);
+        return this.segmentFor(hash).delete(toDelete, hash);
+    }
+
+    /**
+     * Sums the sizes of all segments, without locking them. While other threads add or delete elements, the result
+     * may not reflect their latest changes.
+     *
+     * @return The number of elements currently in the set.
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment : this.segments)
+            size += segment.size();
+        return size;
+    }
+
+    /**
+     * Creates a weakly consistent iterator over the elements of the set, that traverses the segments one by one.
+     * Each segment table is read holding its read lock only for a moment, to see all the writes completed before.
+     *
+     * @return An iterator over the elements of the set.
+     */
+    public Iterator<String> iterator() {
+        return new ElementIterator();
+    }
+
+    /**
+     * @return A weakly consistent spliterator over the elements of the set (see iterator()), of unknown size.
+     */
+    public Spliterator<String> spliterator() {
+        return Spliterators.spliteratorUnknownSize(this.iterator(),
+                Spliterator.DISTINCT | Spliterator.NONNULL | Spliterator.CONCURRENT);
+    }
+
+    /* Private instance Methods */
+
+    /**
+     * Selects the segment of an item by the top bits of its mixed hash code, so that segments and indexes inside a
+     * segment (clamped from the low bits) are chosen by different bits.
+     *
+     * @param hash Mixed hash code of the item (see hash()).
+     * @return The segment that holds the item, if it is in the set.
+     */
+    private Segment segmentFor(int hash) {
+        return this.segments[hash >>> this.segmentShift & (this.segments.length - 1)];
+    }
+
+    /* Private static Methods */
+
+    /**
+     * @param item String to hash.
+     * @return Hash code for String input, mixed (see SimpleHashSet.mix()): its top bits choose the segment, and its
+     * low bits the first probed index in the segment.
+     */
+    private static int hash(String item) {
+        return SimpleHashSet.mix(item.hashCode());
+    }
+
+    /* Nested classes */
+
+    /**
+     * A segment of the set: a hash set based on closed-hashing with quadratic probing, guarded by a StampedLock.
+     * The table is published through a volatile field, and all its arrays are sized together, so an optimistic read
+     * always sees a table it can probe safely, even if its result is later discarded.
+     */
+    private static final class Segment extends SimpleHashSet {
+        /* Class members - constant variables */
+        private static final int NOT_FOUND = -1; // Index returned when probing did not find the requested cell.
+        // Marks a deleted cell, compared by reference, so probing continues beyond it.
+        private static final String DELETED = new String();
+        /* Class members - variables */
+        private final StampedLock lock = new StampedLock(); // Guards all writes to this segment.
+        private volatile Table table = new Table(INITIAL_CAPACITY); // Hash table representation.
+        private Table previousTable = null; // Table before last resize, while its elements are being migrated.
+        private volatile int elementCounter = 0; // Segment's element counter. Updated on each successful add/delete.
+        private int deletedCounter = 0; // Number of cells currently marked as deleted.
+
+        /* Constructors */
+
+        /**
+         * Constructs a new, empty segment with the specified load factors, and the default initial capacity (16).
+         *
+         * @param upperLoadFactor The upper load factor of the segment.
+         * @param lowerLoadFactor The lower load factor of the segment.
+         */
+        private Segment(float upperLoadFactor, float lowerLoadFactor) {
+            super(upperLoadFactor, lowerLoadFactor);
+        }
+
+        /* Public instance Methods */
+
+        /**
+         * Add a specified element to the segment if it's not already in it, holding the write lock.
+         *
+         * @param newValue New value to add to the segment
+         * @return False iff newValue already exists in the segment.
+         */
+        public boolean add(String newValue) {
+            return this.add(newValue, hash(newValue));
+        }
+
+        /**
+         * Look for a specified value in the segment (see contains(String, int)).
+         *
+         * @param searchVal Value to search for
+         * @return True iff searchVal is found in the segment.
+         */
+        public boolean contains(String searchVal) {
+            return this.contains(searchVal, hash(searchVal));
+        }
+
+        /**
+         * Remove the input element from the segment, holding the write lock.
+         *
+         * @param toDelete Value to delete
+         * @return True iff toDelete is found and deleted.
+         */
+        public boolean delete(String toDelete) {
+            return this.delete(toDelete, hash(toDelete));
+        }
+
+        /**
+         * @return The number of elements currently in the segment.
+         */
+        public int size() {
+            return this.elementCounter;
+        }
+
+        /**
+         * @return The current capacity (number of cells) of the segment table.
+         */
+        public int capacity() {
+            return this.table.cells.length;
+        }
+
+        /* Protected instance Methods */
+
+        /**
+         * Publishes a new empty table with specified capacity, keeping the current one as the previous table.
+         *
+         * @param newCapacity New table capacity.
+         */
+        protected void newTable(int newCapacity) {
+            this.previousTable = this.table;
+            this.table = new Table(newCapacity);
+            this.deletedCounter = 0;
+        }
+
+        /**
+         * Moves all the elements of the previous table (if any) to the current table. Segments always resize all at
+         * once, under the write lock.
+         *
+         * @param maxCells Not used, the whole previous table is migrated.
+         */
+        protected void migrate(int maxCells) {
+            if (this.previousTable == null)
+                return; // No resize in progress.
+            for (int i = 0; i < this.previousTable.cells.length; i++) {
+                String item = this.previousTable.cells[i];
+                if (item != null && item != DELETED)
+                    this.addUnique(item, this.previousTable.hashes[i]);
+            }
+            this.previousTable = null;
+        }
+
+        /**
+         * Adds String element (no duplicates, no null) to new resized table.
+         *
+         * @param item Element to add.
+         */
+        protected void addUnique(String item) {
+            this.addUnique(item, hash(item));
+        }
+
+        /**
+         * Specified by: cellElement in class SimpleHashSet.
+         *
+         * @param index    Index of the cell.
+         * @param position Position of the element in the cell.
+         * @return The element of the cell if position is 0, null if the cell is not in use or position is not 0.
+         */
+        protected String cellElement(int index, int position) {
+            String cell = this.table.cells[index];
+            return position == 0 && cell != DELETED ? cell : null;
+        }
+
+        /* Private instance Methods */
+
+        /**
+         * Add a specified element to the segment if it's not already in it, holding the write lock.
+         *
+         * @param newValue New value to add to the segment
+         * @param hash     Mixed hash code of newValue.
+         * @return False iff newValue already exists in the segment.
+         */
+        private boolean add(String newValue, int hash) {
+            long stamp = this.lock.writeLock();
+            try {
+                Table current = this.table;
+                int freeIndex = NOT_FOUND; // First empty or deleted index on the probing sequence.
+                int index = this.clamp(hash);
+                for (int attempt = 1; attempt <= current.cells.length; attempt++) {
+                    String cell = current.cells[index];
+                    if (cell == null || cell == DELETED) {
+                        if (freeIndex == NOT_FOUND)
+                            freeIndex = index;
+                        if (cell == null)
+                            break; // Item cannot be found beyond a cell that was never used.
+                    } else if (current.hashes[index] == hash && cell.equals(newValue))
+                        return false;
+                    index = this.clamp(index + attempt); // Quadratic probing by triangular numbers.
+                }
+                this.elementCounter++;
+                this.countModification();
+                if (freeIndex == NOT_FOUND || this.shouldIncrease()) {
+                    this.resize(true, newValue);
+                    return true;
+                }
+                if (current.cells[freeIndex] == DELETED)
+                    this.deletedCounter--;
+                current.store(freeIndex, newValue, hash);
+                if (this.shouldPurge())
+                    this.rehash(this.capacity(), null);
+                return true;
+            } finally {
+                this.lock.unlockWrite(stamp);
+            }
+        }
+
+        /**
+         * Look for a specified value in the segment. First probes without locking, and only if a write happened
+         * meanwhile probes again holding the read lock.
+         *
+         * @param searchVal Value to search for
+         * @param hash      Mixed hash code of searchVal.
+         * @return True iff searchVal is found in the segment.
+         */
+        private boolean contains(String searchVal, int hash) {
+            long stamp = this.lock.tryOptimisticRead();
+            if (stamp != 0) {
+                boolean found = findIndex(this.table, searchVal, hash) != NOT_FOUND;
+                if (this.lock.validate(stamp))
+                    return found;
+            }
+            stamp = this.lock.readLock();
+            try {
+                return findIndex(this.table, searchVal, hash) != NOT_FOUND;
+            } finally {
+                this.lock.unlockRead(stamp);
+            }
+        }
+
+        /**
+         * Remove the input element from the segment, holding the write lock.
+         *
+         * @param toDelete Value to delete
+         * @param hash     Mixed hash code of toDelete.
+         * @return True iff toDelete is found and deleted.
+         */
+        private boolean delete(String toDelete, int hash) {
+            long stamp = this.lock.writeLock();
+            try {
+                Table current = this.table;
+                int index = findIndex(current, toDelete, hash);
+                if (index == NOT_FOUND)
+                    return false;
+                current.cells[index] = DELETED;
+                this.deletedCounter++;
+                this.elementCounter--;
+                this.countModification();
+                if (this.shouldDecrease())
+                    this.resize(false, toDelete);
+                return true;
+            } finally {
+                this.lock.unlockWrite(stamp);
+            }
+        }
+
+        /**
+         * Reads the current table holding the read lock, so all the writes to it that completed before are visible.
+         *
+         * @return The current table.
+         */
+        private Table currentTable() {
+            long stamp = this.lock.readLock();
+            try {
+                return this.table;
+            } finally {
+                this.lock.unlockRead(stamp);
+            }
+        }
+
+        /**
+         * Adds String element (no duplicates, no null) to the first never used cell of its probing sequence in the
+         * table. Only called on a new table, which has no deleted cells.
+         *
+         * @param item Element to add.
+         * @param hash Hash code of item.
+         */
+        private void addUnique(String item, int hash) {
+            Table current = this.table;
+            int index = this.clamp(hash);
+            for (int attempt = 1; current.cells[index] != null; attempt++)
+                index = this.clamp(index + attempt);
+            current.store(index, item, hash);
+        }
+
+        /**
+         * Checks if the deleted cells should be cleared by re-hashing the table in its current capacity, as in
+         * ClosedHashSet.
+         *
+         * @return True if table should be re-hashed in place, false otherwise.
+         */
+        private boolean shouldPurge() {
+            float maxUsedFactor = (1 + this.getUpperLoadFactor()) / 2;
+            return this.deletedCounter > 0 &&
+                    this.elementCounter + this.deletedCounter > maxUsedFactor * this.capacity();
+        }
+
+        /* Private static Methods */
+
+        /**
+         * Finds the index of an item in a table. Safe to call without a lock: the table arrays never change length,
+         * and any String read from them is immutable.
+         *
+         * @param current Table to search.
+         * @param item    String value to look for.
+         * @param hash    Hash code of item.
+         * @return Index of item in table, NOT_FOUND if item is not in table.
+         */
+        private static int findIndex(Table current, String item, int hash) {
+            String[] cells = current.cells;
+            int mask = cells.length - 1;
+            int index = hash & mask;
+            for (int attempt = 1; attempt <= cells.length; attempt++) {
+                String cell = cells[index];
+                if (cell == null)
+                    return NOT_FOUND; // Item cannot be found beyond a cell that was never used.
+                if (cell != DELETED && current.hashes[index] == hash && cell.equals(item))
+                    return index;
+                index = (index + attempt) & mask; // Quadratic probing by triangular numbers.
+            }
+            return NOT_FOUND;
+        }
+    }
+
+    /**
+     * A weakly consistent iterator over the elements of the set. Traverses the table of each segment as read when the
+     * iterator gets to it: a resize replaces the table rather than changing it, and an element is in a single cell of
+     * a table, so no element is returned twice.
+     */
+    private final class ElementIterator implements Iterator<String> {
+        /* Class members - variables */
+        private int segmentIndex = 0; // Index of the next segment to traverse.
+        private Table current = new Table(0); // Table of the segment being traversed.
+        private int index = 0; // Index of the next cell of the table to traverse.
+        private String next = this.advance(); // Next element to return, null if no element is left.
+
+        /* Public instance Methods */
+
+        /**
+         * @return True iff an element is left.
+         */
+        public boolean hasNext() {
+            return this.next != null;
+        }
+
+        /**
+         * @return The next element.
+         * @throws NoSuchElementException If no element is left.
+         */
+        public String next() {
+            if (this.next == null)
+                throw new NoSuchElementException();
+            String element = this.next;
+            this.next = this.advance();
+            return element;
+        }
+
+        /* Private instance Methods */
+
+        /**
+         * @return The element of the next cell in use, moving on to the next segments as needed, null if none is left.
+         */
+        private String advance() {
+            while (true) {
+                while (this.index < this.current.cells.length) {
+                    String cell = this.current.cells[this.index++];
+                    if (cell != null && cell != Segment.DELETED)
+                        return cell;
+                }
+                if (this.segmentIndex == segments.length)
+                    return null;
+                this.current = segments[this.segmentIndex++].currentTable();
+                this.index = 0;
+            }
+        }
+    }
+
+    /**
+     * The arrays of a segment table, created together so they always have the same length.
+     */
+    private static final class Table {
+        /* Class members - variables */
+        private final String[] cells; // Table elements, null for never used cells and DELETED for deleted ones.
+        private final int[] hashes; // Cached hash code of each table element, by index.
+
+        /* Constructors */
+
+        /**
+         * Constructs a new empty table with specified capacity.
+         *
+         * @param capacity Table capacity.
+         */
+        private Table(int capacity) {
+            this.cells = new String[capacity];
+            this.hashes = new int[capacity];
+        }
+
+        /* Private instance Methods */
+
+        /**
+         * Stores item in specified index, writing its hash code first, so a reader that sees the item in the cell
+         * usually sees its hash code too (a stale hash code only makes a lock-free read miss and retry).
+         *
+         * @param index Index to store item in.
+         * @param item  Item to store.
+         * @param hash  Hash code of item.
+         */
+        private void store(int index, String item, int hash) {
+            this.hashes[index] = hash;
+            this.cells[index] = item;
+        }
+    }
+}
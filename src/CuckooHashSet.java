@@ -0,0 +1,385 @@
+import java.security.SecureRandom;
+import java.util.Arrays;
+
+/**
+ * A hash-set based on bucketized cuckoo hashing. Extends SimpleHashSet. The table is divided into buckets of SLOTS
+ * cells, and every element is in one of two buckets, chosen by two independent hash functions of its chars: a search
+ * reads at most these two buckets, whatever the elements are. An element whose buckets are both full evicts an element
+ * of one of them to that element's other bucket, and so on, up to MAX_EVICTIONS times; if an element is still left
+ * without a cell, the table is increased. Deleted elements leave no marks in the table.
+ * The table is always resized all at once, since the previous table of an incremental resize would have to be searched
+ * as well, doubling the cost of every search.
+ */
+public class CuckooHashSet extends SimpleHashSet {
+    /* Class members - constant variables */
+    private static final SecureRandom SEED_SOURCE = new SecureRandom(); // Source of hash sets' seeds.
+    private static final long HASH_MULTIPLIER = 0x9E3779B97F4A7C15L; // Odd constant (golden ratio) of the hash.
+    private static final int HASH_ROTATION = 29; // Rotation of the hash state, before mixing in each char.
+    private static final int SLOTS = 4; // Cells per bucket.
+    private static final int SLOTS_SHIFT = 2; // log2(SLOTS).
+    private static final int MAX_EVICTIONS = 500; // Evictions by a single addition before the table is increased.
+    private static final int MAX_CAPACITY = 1 << 30; // Hash set maximum capacity (largest power of 2 array length).
+    private static final int NOT_FOUND = -1; // Index returned when no requested cell was found.
+    /* Class members - variables */
+    private final long hashSeed = SEED_SOURCE.nextLong(); // Random seed of the hash functions.
+    private long evictionState = this.hashSeed | 1; // Xorshift state choosing the evicted elements, never 0.
+    private String[] table = new String[INITIAL_CAPACITY]; // Hash table representation, SLOTS cells per bucket.
+    private long[] hashes = new long[INITIAL_CAPACITY]; // Cached 64 bit hash of each table element, by index.
+    // Table and hash cache before last resize, while its elements are being migrated.
+    private String[] previousTable = null;
+    private long[] previousHashes = null;
+    private int migrationIndex = 0; // Next previous table index to migrate.
+    private int elementCounter = 0; // Table's element counter. Updated on each successful add/delete.
+
+    /* Constructors */
+
+    /**
+     * A default constructor. Constructs a new, empty table with default initial capacity (16),
+     * upper load factor (0.75) and lower load factor (0.25).
+     */
+    public CuckooHashSet() {
+        super();
+        this.setMinCapacity(SLOTS);
+    }
+
+    /**
+     * Constructs a new, empty table with the specified load factors, and the default initial capacity (16). Buckets of
+     * 4 cells hold elements at upper load factors up to about 0.9 before evictions start failing.
+     *
+     * @param upperLoadFactor The upper load factor of the hash table.
+     * @param lowerLoadFactor The lower load factor of the hash table.
+     */
+    public CuckooHashSet(float upperLoadFactor, float lowerLoadFactor) {
+        super(upperLoadFactor, lowerLoadFactor);
+        this.setMinCapacity(SLOTS);
+    }
+
+    /**
+     * Constructs a new, empty table with the specified load factors, pre-sized to hold the expected number of elements
+     * without increasing. The table is never decreased below this initial capacity, so deleting elements of a set
+     * that is expected to grow back does not re-hash it.
+     *
+     * @param expectedSize    The expected number of elements in the set.
+     * @param upperLoadFactor The upper load factor of the hash table.
+     * @param lowerLoadFactor The lower load factor of the hash table.
+     */
+    public CuckooHashSet(int expectedSize, float upperLoadFactor, float lowerLoadFactor) {
+        super(upperLoadFactor, lowerLoadFactor);
+        this.createTable(Math.max(SLOTS, capacityFor(expectedSize, upperLoadFactor)));
+        this.setMinCapacity(this.capacity());
+    }
+
+    /**
+     * Data constructor - builds the hash set by adding the elements one by one. Duplicate values should be ignored.
+     * The new table has the default values of upper load factor (0.75) and lower load factor (0.25), and an initial
+     * capacity large enough to hold all the elements without increasing (at least 16).
+     *
+     * @param data Values to add to the set.
+     */
+    public CuckooHashSet(String[] data) {
+        super();
+        this.setMinCapacity(SLOTS);
+        this.createTable(Math.max(INITIAL_CAPACITY, capacityFor(data.length, DEFAULT_HIGHER_CAPACITY)));
+        for (String item : data)
+            this.add(item);
+    }
+
+    /* Public instance Methods */
+
+    /**
+     * Add a specified element to the set if it's not already in it. If the element, or an element it evicted, is left
+     * without a cell after MAX_EVICTIONS evictions, the table is increased with that element.
+     *
+     * @param newValue New value to add to the set
+     * @return False iff newValue already exists in the set.
+     * @throws IllegalStateException If the table is at its maximal capacity, and an element is left without a cell.
+     */
+    public boolean add(String newValue) {
+        long hash = this.hash(newValue);
+        if (findIndex(this.table, this.hashes, newValue, hash) != NOT_FOUND)
+            return false; // If item exists in table, do nothing and return false.
+        this.elementCounter++; // Item not in table. Appends element counter by 1.
+        this.countModification();
+        // Checks if increasing table is needed, if so call method and resize/re-hash table, also with new value.
+        if (this.shouldIncrease()) {
+            this.resize(true, newValue);
+            return true;
+        }
+        String homeless = this.place(newValue, hash);
+        if (homeless != null) {
+            if (this.capacity() == MAX_CAPACITY)
+                throw new IllegalStateException("Cuckoo hash set is full at its maximal capacity");
+            this.rehash(this.capacity() * 2, homeless); // Evictions failed, increases with the homeless element.
+        }
+        return true;
+    }
+
+    /**
+     * Look for a specified value in the set: in its two buckets only.
+     *
+     * @param searchVal Value to search for
+     * @return True iff searchVal is found in the set.
+     */
+    public boolean contains(String searchVal) {
+        return findIndex(this.table, this.hashes, searchVal, this.hash(searchVal)) != NOT_FOUND;
+    }
+
+    /**
+     * Remove the input element from the set. Its cell is emptied, since no search depends on it.
+     *
+     * @param toDelete Value to delete
+     * @return True iff toDelete is found and deleted.
+     */
+    public boolean delete(String toDelete) {
+        int index = findIndex(this.table, this.hashes, toDelete, this.hash(toDelete));
+        if (index == NOT_FOUND)
+            return false; // Item not in table therefore cannot be deleted, return false.
+        this.table[index] = null;
+        this.elementCounter--; // Removes 1 from element counter.
+        this.countModification();
+        if (this.shouldDecrease())
+            this.resize(false, toDelete); // Checks if decrease-resizing is needed.
+        return true;
+    }
+
+    /**
+     * @return The number of elements currently in the set.
+     */
+    public int size() {
+        return this.elementCounter;
+    }
+
+    /**
+     * Specified by: capacity in class SimpleHashSet.
+     *
+     * @return The current capacity (number of cells) of the table.
+     */
+    public int capacity() {
+        return this.table.length;
+    }
+
+    /* Protected instance Methods */
+
+    /**
+     * Reinitialize hash table and hash cache based on new capacity. The current ones are kept as the previous table,
+     * until all its elements are migrated to the new table.
+     *
+     * @param newCapacity New table capacity.
+     */
+    protected void newTable(int newCapacity) {
+        this.previousTable = this.table;
+        this.previousHashes = this.hashes;
+        this.migrationIndex = 0;
+        this.createTable(newCapacity); // Creates new empty table with specified capacity.
+    }
+
+    /**
+     * Moves the elements of the previous table cells (if any) to the current table, continuing from the last migrated
+     * cell. Once all the previous table cells were migrated, the previous table is released.
+     *
+     * @param maxCells Maximal number of previous table cells to migrate.
+     * @throws IllegalStateException If an element is left without a cell (see addUnique()).
+     */
+    protected void migrate(int maxCells) {
+        if (this.previousTable == null)
+            return; // No resize in progress.
+        int end = (int) Math.min(this.previousTable.length, (long) this.migrationIndex + maxCells);
+        for (; this.migrationIndex < end; this.migrationIndex++) {
+            String item = this.previousTable[this.migrationIndex];
+            if (item != null)
+                this.addUnique(item, this.previousHashes[this.migrationIndex]); // Cached hash is re-used.
+        }
+        if (this.migrationIndex == this.previousTable.length) {
+            // All cells migrated.
+            this.previousTable = null;
+            this.previousHashes = null;
+        }
+    }
+
+    /**
+     * Adds String element (no duplicates, no null) to new resized table.
+     *
+     * @param item Element to add.
+     * @throws IllegalStateException If an element is left without a cell (see addUnique()).
+     */
+    protected void addUnique(String item) {
+        this.addUnique(item, this.hash(item));
+    }
+
+    /**
+     * Specified by: probeLengths in class SimpleHashSet.
+     *
+     * @return Number of cells probed to find each element of the current table: its slot in its first bucket, or
+     * SLOTS more in its second bucket.
+     */
+    protected int[] probeLengths() {
+        int[] lengths = new int[this.elementCounter];
+        int count = 0;
+        int bucketMask = (this.table.length >>> SLOTS_SHIFT) - 1;
+        for (int index = 0; index < this.table.length && count < lengths.length; index++) {
+            if (this.table[index] == null)
+                continue;
+            int slot = (index & (SLOTS - 1)) + 1;
+            boolean inFirst = (index >>> SLOTS_SHIFT) == firstBucket(this.hashes[index], bucketMask);
+            lengths[count++] = inFirst ? slot : SLOTS + slot;
+        }
+        return Arrays.copyOf(lengths, count);
+    }
+
+    /**
+     * Specified by: cellElement in class SimpleHashSet.
+     *
+     * @param index    Index of the cell.
+     * @param position Position of the element in the cell.
+     * @return The element of the cell if position is 0, null if the cell is empty or position is not 0.
+     */
+    protected String cellElement(int index, int position) {
+        return position == 0 ? this.table[index] : null;
+    }
+
+    /* Private instance Methods */
+
+    /**
+     * Hashes an element with this instance's seed: mixes each char into a 64 bit state by rotating and multiplying,
+     * and then mixes the state bits with the finalizer of MurmurHash3. The low and high 32 bits choose the two
+     * buckets: after the finalizer, each depends on every char, and neither tells anything about the other, so
+     * elements that share a String hash code (or one bucket) are still spread over the other bucket.
+     *
+     * @param item String to hash.
+     * @return 64 bit hash for String input.
+     */
+    private long hash(String item) {
+        long state = this.hashSeed;
+        for (int i = 0; i < item.length(); i++)
+            state = Long.rotateLeft(state ^ item.charAt(i), HASH_ROTATION) * HASH_MULTIPLIER;
+        state ^= state >>> 33;
+        state *= 0xFF51AFD7ED558CCDL;
+        state ^= state >>> 33;
+        state *= 0xC4CEB9FE1A85EC53L;
+        state ^= state >>> 33;
+        return state;
+    }
+
+    /**
+     * Creates new empty table and hash cache with specified capacity, replacing the current ones.
+     *
+     * @param capacity New table capacity.
+     */
+    private void createTable(int capacity) {
+        this.table = new String[capacity];
+        this.hashes = new long[capacity];
+    }
+
+    /**
+     * Adds String element (no duplicates, no null) to the table, while it is being re-built.
+     *
+     * @param item Element to add.
+     * @param hash Hash of item.
+     * @throws IllegalStateException If an element is left without a cell, which at the load factor of a resized table
+     *                               means more than 2 * SLOTS elements share their 64 bit hash.
+     */
+    private void addUnique(String item, long hash) {
+        if (this.place(item, hash) != null)
+            throw new IllegalStateException("Cuckoo hash set cannot place an element while resizing");
+    }
+
+    /**
+     * Places an element in a free cell of one of its buckets. If both are full, the element takes the cell of a random
+     * element of either bucket, which is then placed the same way in its own other bucket, up to MAX_EVICTIONS times.
+     *
+     * @param item Element to place (not in the table).
+     * @param hash Hash of item.
+     * @return The element left without a cell after MAX_EVICTIONS evictions (item or an evicted one), null if none.
+     */
+    private String place(String item, long hash) {
+        int bucketMask = (this.table.length >>> SLOTS_SHIFT) - 1;
+        for (int evictions = 0; evictions <= MAX_EVICTIONS; evictions++) {
+            int first = firstBucket(hash, bucketMask) << SLOTS_SHIFT;
+            int second = secondBucket(hash, bucketMask) << SLOTS_SHIFT;
+            int index = this.freeCell(first);
+            if (index == NOT_FOUND)
+                index = this.freeCell(second);
+            if (index != NOT_FOUND) {
+                this.store(index, item, hash);
+                return null;
+            }
+            // Both buckets are full: evicts a random element of either one, and goes on to place it.
+            this.evictionState ^= this.evictionState << 13;
+            this.evictionState ^= this.evictionState >>> 7;
+            this.evictionState ^= this.evictionState << 17;
+            int choice = (int) this.evictionState;
+            index = ((choice & SLOTS) == 0 ? first : second) + (choice & (SLOTS - 1));
+            String evicted = this.table[index];
+            long evictedHash = this.hashes[index];
+            this.store(index, item, hash);
+            item = evicted;
+            hash = evictedHash;
+        }
+        return item;
+    }
+
+    /**
+     * @param bucketStart Index of the first cell of a bucket.
+     * @return Index of the first empty cell of the bucket, NOT_FOUND if it is full.
+     */
+    private int freeCell(int bucketStart) {
+        for (int index = bucketStart; index < bucketStart + SLOTS; index++)
+            if (this.table[index] == null)
+                return index;
+        return NOT_FOUND;
+    }
+
+    /**
+     * Stores item and its hash in specified index.
+     *
+     * @param index Index to store item in.
+     * @param item  Item to store.
+     * @param hash  Hash of item.
+     */
+    private void store(int index, String item, long hash) {
+        this.table[index] = item;
+        this.hashes[index] = hash;
+    }
+
+    /* Private static Methods */
+
+    /**
+     * Finds the index of an item in a table, searching its two buckets.
+     *
+     * @param cells      Table to search, its length is a power of 2 and at least SLOTS.
+     * @param cellHashes Cached hashes of the table elements.
+     * @param item       String value to look for.
+     * @param hash       Hash of item.
+     * @return Index of item in table, NOT_FOUND if item is not in table.
+     */
+    private static int findIndex(String[] cells, long[] cellHashes, String item, long hash) {
+        int bucketMask = (cells.length >>> SLOTS_SHIFT) - 1;
+        int first = firstBucket(hash, bucketMask) << SLOTS_SHIFT;
+        for (int index = first; index < first + SLOTS; index++)
+            if (cellHashes[index] == hash && cells[index] != null && cells[index].equals(item))
+                return index;
+        int second = secondBucket(hash, bucketMask) << SLOTS_SHIFT;
+        for (int index = second; index < second + SLOTS; index++)
+            if (cellHashes[index] == hash && cells[index] != null && cells[index].equals(item))
+                return index;
+        return NOT_FOUND;
+    }
+
+    /**
+     * @param hash       Hash of an element.
+     * @param bucketMask Number of buckets - 1.
+     * @return Index of the first bucket of the element, by the low 32 bits of its hash.
+     */
+    private static int firstBucket(long hash, int bucketMask) {
+        return (int) hash & bucketMask;
+    }
+
+    /**
+     * @param hash       Hash of an element.
+     * @param bucketMask Number of buckets - 1.
+     * @return Index of the second bucket of the element, by the high 32 bits of its hash.
+     */
+    private static int secondBucket(long hash, int bucketMask) {
+        return (int) (hash >>> 32) & bucketMask;
+    }
+}
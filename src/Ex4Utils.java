@@ -17,7 +17,10 @@ public class Ex4Utils {
 	 * and returns a string array of its lines.
 	 * @param fileName Text file to read.
 	 * @return Array with the file's content (returns null if the IOException occurred).
+	 * @deprecated Reads the file on a single thread through a growing list, and hides errors as null.
+	 * Use SimpleSetLoader.readLines, or SimpleSetLoader.addAll to load a file straight into a set.
 	 */
+	@Deprecated
 	public static String[] file2array(String fileName) {
 		// A list to hold the file's content
 		List<String> fileContent = new ArrayList<String>();
@@ -0,0 +1,443 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * A read-only set of Strings, built once from the elements of another set (or an array), indexed by a minimal perfect
+ * hash function: a function that maps each of the n elements to a different position between 0 and n - 1, and is
+ * stored in about 3 bits per element (BBHash). The elements are kept as UTF-8 bytes in a single byte array (the heap),
+ * in the order of their positions, so a search hashes the searched String to a position and compares it with the one
+ * element stored there: a single probe, with no empty cells and no chains.
+ * A String that is not valid UTF-16 (has a lone surrogate) is stored with '?' in place of the surrogate, as
+ * String.getBytes does. The set can be saved to a file and loaded back with no re-building.
+ */
+public class FrozenStringSet implements SimpleSet {
+    /* Class members - constant variables */
+    private static final int NOT_FOUND = -1; // Position of a String that is not in the set.
+    private static final int MAX_LEVELS = 64; // Levels of the hash function, elements colliding in all are sorted.
+    private static final int RANK_WORDS = 8; // Bit array words per rank entry (512 bits).
+    private static final long HASH_BASIS = 0xCBF29CE484222325L; // FNV-1a 64 bit offset basis.
+    private static final long HASH_PRIME = 0x100000001B3L; // FNV-1a 64 bit prime.
+    private static final long LEVEL_INCREMENT = 0x9E3779B97F4A7C15L; // Added to the hash per level (golden ratio).
+    private static final int MAX_HEAP_BYTES = Integer.MAX_VALUE - 8; // Largest heap size.
+    private static final int FILE_MAGIC = 0x31535346; // First int of a saved set file, "FSS1" in ASCII.
+    private static final int VARINT_BITS = 7; // Length bits per byte in a saved set, the high bit marks a next byte.
+    private static final int VARINT_MORE = 0x80; // Length byte bit marking a following byte.
+    /* Class members - variables */
+    private final int size; // Number of elements.
+    private final long[] bits; // Bit arrays of all levels: a set bit is the position of a single element.
+    private final int[] levelStarts; // First bit array word of each level, and the number of words after the last.
+    private final int[] ranks; // Number of set bits before each RANK_WORDS words of the bit arrays.
+    private final String[] overflow; // Sorted elements that collided in every level, at the last positions.
+    private final int[] offsets; // Heap offset of the element in each position, and the heap length after the last.
+    private final byte[] heap; // UTF-8 bytes of the elements, by position.
+
+    /* Constructors */
+
+    /**
+     * Builds the set from the elements of another set. Each level of the hash function has a bit per element that is
+     * still not placed: the elements are hashed to the bits, and the bit of each element that no other element hashed
+     * to is set, and becomes its position. The other elements go on to the next level, which is smaller, since about
+     * 37% of the elements are placed in each level. So the levels take about 2.7 bits per element (e), and their rank
+     * index (set bits before each block of 512 bits) adds 0.2 bits.
+     *
+     * @param source Set whose elements the set holds.
+     * @throws IllegalStateException If the elements take more bytes than an array can hold.
+     */
+    public FrozenStringSet(SimpleSet source) {
+        String[] keys = source.stream().toArray(String[]::new);
+        this.size = keys.length;
+        long[] hashes = new long[keys.length];
+        int[] remaining = new int[keys.length]; // Indexes of the elements that are not placed yet.
+        for (int i = 0; i < keys.length; i++) {
+            hashes[i] = hash(keys[i]);
+            remaining[i] = i;
+        }
+        long[][] levels = new long[MAX_LEVELS][];
+        int levelCount = 0;
+        int remainingCount = keys.length;
+        for (; remainingCount > 0 && levelCount < MAX_LEVELS; levelCount++) {
+            long[] placed = new long[(remainingCount + Long.SIZE - 1) / Long.SIZE];
+            long[] collided = new long[placed.length];
+            long levelBits = (long) placed.length * Long.SIZE;
+            for (int i = 0; i < remainingCount; i++) {
+                long bit = levelBit(hashes[remaining[i]], levelCount, levelBits);
+                if (isSet(placed, bit))
+                    collided[(int) (bit >>> 6)] |= 1L << bit;
+                placed[(int) (bit >>> 6)] |= 1L << bit;
+            }
+            int kept = 0;
+            for (int i = 0; i < remainingCount; i++)
+                if (isSet(collided, levelBit(hashes[remaining[i]], levelCount, levelBits)))
+                    remaining[kept++] = remaining[i];
+            for (int word = 0; word < placed.length; word++)
+                placed[word] &= ~collided[word];
+            levels[levelCount] = placed;
+            remainingCount = kept;
+        }
+        this.levelStarts = new int[levelCount + 1];
+        for (int level = 0; level < levelCount; level++)
+            this.levelStarts[level + 1] = this.levelStarts[level] + levels[level].length;
+        this.bits = new long[this.levelStarts[levelCount]];
+        for (int level = 0; level < levelCount; level++)
+            System.arraycopy(levels[level], 0, this.bits, this.levelStarts[level], levels[level].length);
+        this.ranks = ranks(this.bits);
+        this.overflow = new String[remainingCount];
+        for (int i = 0; i < remainingCount; i++)
+            this.overflow[i] = keys[remaining[i]];
+        Arrays.sort(this.overflow);
+        // Lays the elements out in the heap by position: first sums their lengths, and then copies their bytes.
+        int[] positions = remaining; // Not needed anymore, re-used for the position of each element.
+        this.offsets = new int[this.size + 1];
+        for (int i = 0; i < keys.length; i++) {
+            positions[i] = this.position(hashes[i], keys[i]);
+            this.offsets[positions[i] + 1] = utf8Length(keys[i]);
+        }
+        long heapLength = 0;
+        for (int position = 0; position < this.size; position++) {
+            heapLength += this.offsets[position + 1];
+            if (heapLength > MAX_HEAP_BYTES)
+                throw new IllegalStateException("Elements take more than " + MAX_HEAP_BYTES + " bytes");
+            this.offsets[position + 1] = (int) heapLength;
+        }
+        this.heap = new byte[(int) heapLength];
+        for (int i = 0; i < keys.length; i++) {
+            byte[] bytes = keys[i].getBytes(StandardCharsets.UTF_8);
+            System.arraycopy(bytes, 0, this.heap, this.offsets[positions[i]], bytes.length);
+        }
+    }
+
+    /**
+     * Data constructor - builds the set from the elements of an array. Duplicate values are ignored.
+     *
+     * @param data Values the set holds.
+     * @throws IllegalStateException If the elements take more bytes than an array can hold.
+     */
+    public FrozenStringSet(String[] data) {
+        this(new OpenHashSet(data));
+    }
+
+    /**
+     * Constructs a set from its loaded parts (see load()).
+     *
+     * @param bits        Bit arrays of all levels.
+     * @param levelStarts First bit array word of each level, and the number of words after the last.
+     * @param offsets     Heap offset of the element in each position, and the heap length after the last.
+     * @param heap        UTF-8 bytes of the elements, by position.
+     * @param overflow    Number of elements that collided in every level.
+     */
+    private FrozenStringSet(long[] bits, int[] levelStarts, int[] offsets, byte[] heap, int overflow) {
+        this.size = offsets.length - 1;
+        this.bits = bits;
+        this.levelStarts = levelStarts;
+        this.ranks = ranks(bits);
+        this.offsets = offsets;
+        this.heap = heap;
+        this.overflow = new String[overflow];
+        for (int i = 0; i < overflow; i++)
+            this.overflow[i] = this.elementAt(this.size - overflow + i);
+    }
+
+    /* Public instance Methods */
+
+    /**
+     * Not supported, the set is read-only.
+     *
+     * @param newValue New value to add to the set
+     * @return Never returns.
+     * @throws UnsupportedOperationException Always.
+     */
+    public boolean add(String newValue) {
+        throw new UnsupportedOperationException("A frozen set cannot be modified");
+    }
+
+    /**
+     * Look for a specified value in the set: hashes it to its position, and compares it with the element there.
+     *
+     * @param searchVal Value to search for
+     * @return True iff searchVal is found in the set.
+     */
+    public boolean contains(String searchVal) {
+        int position = this.position(hash(searchVal), searchVal);
+        return position != NOT_FOUND && this.elementEquals(position, searchVal);
+    }
+
+    /**
+     * Not supported, the set is read-only.
+     *
+     * @param toDelete Value to delete
+     * @return Never returns.
+     * @throws UnsupportedOperationException Always.
+     */
+    public boolean delete(String toDelete) {
+        throw new UnsupportedOperationException("A frozen set cannot be modified");
+    }
+
+    /**
+     * @return The number of elements in the set.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * @return An iterator over the elements of the set, by position.
+     */
+    public Iterator<String> iterator() {
+        return this.stream().iterator();
+    }
+
+    /**
+     * @return A spliterator over the elements of the set, by position, that splits in exact halves.
+     */
+    public Spliterator<String> spliterator() {
+        return this.stream().spliterator();
+    }
+
+    /**
+     * Each element is decoded from the heap to a new String as it is traversed.
+     *
+     * @return A sequential stream of the elements of the set, by position.
+     */
+    public Stream<String> stream() {
+        return IntStream.range(0, this.size).mapToObj(this::elementAt);
+    }
+
+    /**
+     * @return Number of bits of the hash function (its levels and their rank index) per element.
+     */
+    public double bitsPerElement() {
+        return this.size == 0 ? 0 :
+                (double) ((long) this.bits.length * Long.SIZE + (long) this.ranks.length * Integer.SIZE) / this.size;
+    }
+
+    /**
+     * Saves the set to a file: the levels bit arrays, the UTF-8 length of each element (a byte for most elements),
+     * and the heap. The rank index and the element offsets are re-built when the set is loaded. The file is replaced
+     * if it exists.
+     *
+     * @param file Path of the file.
+     * @throws IOException If the file cannot be written.
+     */
+    public void save(Path file) throws IOException {
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            output.writeInt(FILE_MAGIC);
+            output.writeInt(this.size);
+            output.writeInt(this.overflow.length);
+            output.writeInt(this.levelStarts.length);
+            for (int levelStart : this.levelStarts)
+                output.writeInt(levelStart);
+            for (long word : this.bits)
+                output.writeLong(word);
+            for (int position = 0; position < this.size; position++) {
+                int length = this.offsets[position + 1] - this.offsets[position];
+                for (; length >= VARINT_MORE; length >>>= VARINT_BITS)
+                    output.writeByte(length | VARINT_MORE);
+                output.writeByte(length);
+            }
+            output.write(this.heap);
+        }
+    }
+
+    /* Public static Methods */
+
+    /**
+     * Loads a set saved by save().
+     *
+     * @param file Path of the file.
+     * @return The loaded set.
+     * @throws IOException If the file cannot be read, or is not a saved set.
+     */
+    public static FrozenStringSet load(Path file) throws IOException {
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (input.readInt() != FILE_MAGIC)
+                throw new IOException("Not a frozen set file: " + file);
+            int size = input.readInt();
+            int overflow = input.readInt();
+            int[] levelStarts = new int[input.readInt()];
+            if (size < 0 || overflow < 0 || overflow > size || levelStarts.length < 1)
+                throw new IOException("Corrupt frozen set file: " + file);
+            for (int level = 0; level < levelStarts.length; level++)
+                levelStarts[level] = input.readInt();
+            long[] bits = new long[levelStarts[levelStarts.length - 1]];
+            for (int word = 0; word < bits.length; word++)
+                bits[word] = input.readLong();
+            int[] offsets = new int[size + 1];
+            long heapLength = 0;
+            for (int position = 0; position < size; position++) {
+                int length = 0;
+                for (int shift = 0; ; shift += VARINT_BITS) {
+                    int lengthByte = input.readUnsignedByte();
+                    length |= (lengthByte & (VARINT_MORE - 1)) << shift;
+                    if ((lengthByte & VARINT_MORE) == 0)
+                        break;
+                }
+                heapLength += length;
+                if (heapLength > MAX_HEAP_BYTES)
+                    throw new IOException("Corrupt frozen set file: " + file);
+                offsets[position + 1] = (int) heapLength;
+            }
+            byte[] heap = new byte[(int) heapLength];
+            input.readFully(heap);
+            return new FrozenStringSet(bits, levelStarts, offsets, heap, overflow);
+        }
+    }
+
+    /* Private instance Methods */
+
+    /**
+     * Finds the position of an element: its bit in the first level where that bit is set, ranked among all the set
+     * bits. An element that is not in the set still gets a position, unless no level has its bit set.
+     *
+     * @param hash Hash code of item (see hash()).
+     * @param item String to find the position of.
+     * @return Position of item if it is in the set, NOT_FOUND or a position of another element otherwise.
+     */
+    private int position(long hash, String item) {
+        for (int level = 0; level < this.levelStarts.length - 1; level++) {
+            long levelBits = (long) (this.levelStarts[level + 1] - this.levelStarts[level]) * Long.SIZE;
+            long bit = (long) this.levelStarts[level] * Long.SIZE + levelBit(hash, level, levelBits);
+            if (isSet(this.bits, bit))
+                return this.rank(bit);
+        }
+        int overflowIndex = Arrays.binarySearch(this.overflow, item);
+        return overflowIndex < 0 ? NOT_FOUND : this.size - this.overflow.length + overflowIndex;
+    }
+
+    /**
+     * @param bit Index of a bit of the levels bit arrays.
+     * @return Number of set bits before bit.
+     */
+    private int rank(long bit) {
+        int word = (int) (bit >>> 6);
+        int rank = this.ranks[word / RANK_WORDS];
+        for (int previous = word - word % RANK_WORDS; previous < word; previous++)
+            rank += Long.bitCount(this.bits[previous]);
+        return rank + Long.bitCount(this.bits[word] & ((1L << bit) - 1));
+    }
+
+    /**
+     * Compares the element in a position with a String: char by char while the String is ASCII, and by its UTF-8
+     * bytes from the first other char.
+     *
+     * @param position Position of an element.
+     * @param item     String to compare with.
+     * @return True iff the element in position is item.
+     */
+    private boolean elementEquals(int position, String item) {
+        int offset = this.offsets[position];
+        int length = this.offsets[position + 1] - offset;
+        if (item.length() > length)
+            return false; // A char takes at least one UTF-8 byte.
+        for (int index = 0; index < item.length(); index++) {
+            char current = item.charAt(index);
+            if (current >= 0x80) {
+                byte[] bytes = item.getBytes(StandardCharsets.UTF_8);
+                return Arrays.equals(this.heap, offset, offset + length, bytes, 0, bytes.length);
+            }
+            if (this.heap[offset + index] != current)
+                return false;
+        }
+        return item.length() == length;
+    }
+
+    /**
+     * @param position Position of an element.
+     * @return The element in position, decoded from the heap.
+     */
+    private String elementAt(int position) {
+        int offset = this.offsets[position];
+        return new String(this.heap, offset, this.offsets[position + 1] - offset, StandardCharsets.UTF_8);
+    }
+
+    /* Private static Methods */
+
+    /**
+     * Hashes a String to 64 bits with FNV-1a over its chars, so that distinct elements (unlike their 32 bit String
+     * hash codes) practically never share a hash code, which would make them collide in every level.
+     *
+     * @param item String to hash.
+     * @return 64 bit hash code of item.
+     */
+    private static long hash(String item) {
+        long hash = HASH_BASIS;
+        for (int index = 0; index < item.length(); index++)
+            hash = (hash ^ item.charAt(index)) * HASH_PRIME;
+        return hash;
+    }
+
+    /**
+     * Chooses the bit of an element in a level: mixes its hash code with the level by the SplitMix64 finalizer, and
+     * scales the high 32 bits to the level size.
+     *
+     * @param hash      Hash code of the element (see hash()).
+     * @param level     Level index.
+     * @param levelBits Number of bits of the level.
+     * @return Index of the element's bit within the level.
+     */
+    private static long levelBit(long hash, int level, long levelBits) {
+        long mixed = hash + (level + 1) * LEVEL_INCREMENT;
+        mixed = (mixed ^ (mixed >>> 30)) * 0xBF58476D1CE4E5B9L;
+        mixed = (mixed ^ (mixed >>> 27)) * 0x94D049BB133111EBL;
+        mixed ^= mixed >>> 31;
+        return ((mixed >>> 32) * levelBits) >>> 32;
+    }
+
+    /**
+     * @param words A bit array.
+     * @param bit   Index of a bit.
+     * @return True iff the bit is set.
+     */
+    private static boolean isSet(long[] words, long bit) {
+        return (words[(int) (bit >>> 6)] & (1L << bit)) != 0;
+    }
+
+    /**
+     * @param bits Bit arrays of all levels.
+     * @return Number of set bits before each RANK_WORDS words.
+     */
+    private static int[] ranks(long[] bits) {
+        int[] ranks = new int[bits.length / RANK_WORDS + 1];
+        int rank = 0;
+        for (int word = 0; word < bits.length; word++) {
+            if (word % RANK_WORDS == 0)
+                ranks[word / RANK_WORDS] = rank;
+            rank += Long.bitCount(bits[word]);
+        }
+        return ranks;
+    }
+
+    /**
+     * @param item A String.
+     * @return Number of bytes of the UTF-8 encoding of item, as String.getBytes encodes it.
+     */
+    private static int utf8Length(String item) {
+        int length = 0;
+        for (int index = 0; index < item.length(); index++) {
+            char current = item.charAt(index);
+            if (current < 0x80)
+                length++;
+            else if (current < 0x800)
+                length += 2;
+            else if (Character.isHighSurrogate(current) && index + 1 < item.length() &&
+                    Character.isLowSurrogate(item.charAt(index + 1))) {
+                length += 4; // A surrogate pair is a single 4 bytes code point.
+                index++;
+            } else if (Character.isSurrogate(current))
+                length++; // A lone surrogate is encoded as '?'.
+            else
+                length += 3;
+        }
+        return length;
+    }
+}
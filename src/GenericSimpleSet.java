@@ -0,0 +1,59 @@
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A set of elements of any type. Its elements can be traversed in no particular order, by iterator(), forEach() or
+ * stream(). SimpleSet is the set of Strings, and ObjectOpenHashSet a hash set of any type, that hashes and compares
+ * its elements by a HashStrategy.
+ *
+ * @param <E> Type of the elements of the set.
+ */
+public interface GenericSimpleSet<E> extends Iterable<E> {
+    /**
+     * Add a specified element to the set if it's not already in it.
+     *
+     * @param newValue New value to add to the set
+     * @return False iff newValue already exists in the set
+     */
+    boolean add(E newValue);
+
+    /**
+     * Look for a specified value in the set.
+     *
+     * @param searchVal Value to search for
+     * @return True iff searchVal is found in the set
+     */
+    boolean contains(E searchVal);
+
+    /**
+     * Remove the input element from the set.
+     *
+     * @param toDelete Value to delete
+     * @return True iff toDelete is found and deleted
+     */
+    boolean delete(E toDelete);
+
+    /**
+     * @return The number of elements currently in the set
+     */
+    int size();
+
+    /**
+     * Creates a spliterator over the elements of the set, of the set size. Implementations may split it, so that a
+     * parallel stream traverses the set on several threads.
+     *
+     * @return A spliterator over the elements of the set
+     */
+    default Spliterator<E> spliterator() {
+        return Spliterators.spliterator(this.iterator(), this.size(), Spliterator.DISTINCT | Spliterator.NONNULL);
+    }
+
+    /**
+     * @return A sequential stream of the elements of the set, that can be made parallel by stream().parallel()
+     */
+    default Stream<E> stream() {
+        return StreamSupport.stream(this.spliterator(), false);
+    }
+}
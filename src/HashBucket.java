@@ -0,0 +1,226 @@
+import java.util.Arrays;
+
+/**
+ * A bucket of a chaining based hash-set. Holds its String elements in a compact array, alongside an array of their
+ * cached hash codes, so searching the bucket compares hash codes first and calls String.equals only on a match.
+ * A bucket that grows beyond INDEX_THRESHOLD elements (e.g. under colliding hash codes) also keeps the positions of
+ * its elements sorted by element value, so searching it takes O(log n) comparisons instead of a linear scan, also for
+ * keys that are compared in place (see SimpleHashSet.keyCompare()).
+ */
+public class HashBucket {
+    /* Class members - constant variables */
+    private static final int INITIAL_BUCKET_CAPACITY = 2; // Number of cells of a newly created bucket.
+    private static final int NOT_FOUND = -1; // Position returned when item is not in bucket.
+    private static final int INDEX_THRESHOLD = 8; // Number of elements above which the bucket is indexed.
+    // Number of elements below which the sorted index is dropped. Lower than INDEX_THRESHOLD, so a bucket that is
+    // around the threshold is not indexed and un-indexed over and over.
+    private static final int UNINDEX_THRESHOLD = 6;
+    /* Class members - variables */
+    private String[] items = new String[INITIAL_BUCKET_CAPACITY]; // Bucket elements, in positions 0 to size - 1.
+    private int[] hashes = new int[INITIAL_BUCKET_CAPACITY]; // Cached hash code of each element, by position.
+    private int size = 0; // Number of elements in bucket.
+    // Positions of the elements, sorted by element value, in indexes 0 to size - 1. Null while bucket is small.
+    private int[] sortedPositions = null;
+
+    /* Constructors */
+
+    /**
+     * Constructor for HashBucket object, that creates a new bucket that holds 1 item, and will expand with later
+     * additions.
+     *
+     * @param item String to add to bucket.
+     * @param hash Hash code of item.
+     */
+    public HashBucket(String item, int hash) {
+        this.addItem(item, hash);
+    }
+
+    /* Public instance Methods */
+
+    /**
+     * @return The number of elements in bucket.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * @return True if bucket holds no elements, false otherwise.
+     */
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * @param position Position in bucket, between 0 and size - 1.
+     * @return The element in specified position.
+     */
+    public String getItem(int position) {
+        return this.items[position];
+    }
+
+    /**
+     * @param position Position in bucket, between 0 and size - 1.
+     * @return The cached hash code of the element in specified position.
+     */
+    public int getHash(int position) {
+        return this.hashes[position];
+    }
+
+    /**
+     * Adds item to bucket (no duplicates check), doubling the bucket arrays when full. Indexes the bucket once it
+     * holds more than INDEX_THRESHOLD elements.
+     *
+     * @param item String to add to bucket.
+     * @param hash Hash code of item.
+     */
+    public void addItem(String item, int hash) {
+        if (this.size == this.items.length) {
+            this.items = Arrays.copyOf(this.items, this.size * 2);
+            this.hashes = Arrays.copyOf(this.hashes, this.size * 2);
+            if (this.sortedPositions != null)
+                this.sortedPositions = Arrays.copyOf(this.sortedPositions, this.size * 2);
+        }
+        this.items[this.size] = item;
+        this.hashes[this.size] = hash;
+        if (this.sortedPositions != null) {
+            int index = -this.sortedIndex(item) - 1; // Insertion point, item is not in bucket.
+            System.arraycopy(this.sortedPositions, index, this.sortedPositions, index + 1, this.size - index);
+            this.sortedPositions[index] = this.size;
+        }
+        this.size++;
+        if (this.sortedPositions == null && this.size > INDEX_THRESHOLD)
+            this.index();
+    }
+
+    /**
+     * Checks if String item already exits in bucket (based on value).
+     *
+     * @param item String to check if is in bucket.
+     * @param hash Hash code of item.
+     * @return True if String already in bucket, false otherwise.
+     */
+    public boolean contains(String item, int hash) {
+        return this.find(item, hash) != NOT_FOUND;
+    }
+
+    /**
+     * Checks if a key that is not a String (see SimpleHashSet.keyHash()) is in bucket, comparing it in place, by a
+     * binary search of the sorted positions once the bucket is indexed.
+     *
+     * @param key    A CharSequence, or a byte array or ByteBuffer holding well-formed UTF-8.
+     * @param offset Index of the first byte of a byte key, ignored for a CharSequence.
+     * @param length Number of bytes of a byte key, ignored for a CharSequence.
+     * @param hash   Hash code of the key, as of the equal String.
+     * @return True if an element equal to the key is in bucket, false otherwise.
+     */
+    public boolean containsKey(Object key, int offset, int length, int hash) {
+        if (this.sortedPositions != null) {
+            int low = 0;
+            int high = this.size - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                int order = SimpleHashSet.keyCompare(this.items[this.sortedPositions[middle]], key, offset, length);
+                if (order == 0)
+                    return true;
+                if (order < 0)
+                    low = middle + 1;
+                else
+                    high = middle - 1;
+            }
+            return false;
+        }
+        for (int position = 0; position < this.size; position++)
+            if (this.hashes[position] == hash && SimpleHashSet.keyEquals(this.items[position], key, offset, length))
+                return true;
+        return false;
+    }
+
+    /**
+     * Attempts to find item doomed to be deleted. If found, removes item by moving the last element to its position.
+     * Drops the sorted index once the bucket holds less than UNINDEX_THRESHOLD elements.
+     *
+     * @param item String to remove from bucket.
+     * @param hash Hash code of item.
+     * @return True if item found and removed, false if otherwise.
+     */
+    public boolean findAndDelete(String item, int hash) {
+        int position;
+        if (this.sortedPositions != null) {
+            int index = this.sortedIndex(item);
+            if (index < 0)
+                return false; // If item not found.
+            position = this.sortedPositions[index];
+            System.arraycopy(this.sortedPositions, index + 1, this.sortedPositions, index, this.size - 1 - index);
+        } else {
+            position = this.find(item, hash);
+            if (position == NOT_FOUND)
+                return false; // If item not found.
+        }
+        this.size--;
+        if (this.sortedPositions != null && position < this.size)
+            this.sortedPositions[this.sortedIndex(this.items[this.size])] = position; // Moved element position.
+        this.items[position] = this.items[this.size];
+        this.hashes[position] = this.hashes[this.size];
+        this.items[this.size] = null; // Release reference to the moved element.
+        if (this.sortedPositions != null && this.size < UNINDEX_THRESHOLD)
+            this.sortedPositions = null;
+        return true;
+    }
+
+    /* Private instance Methods */
+
+    /**
+     * @param item String to look for.
+     * @param hash Hash code of item.
+     * @return Position of item in bucket, NOT_FOUND if item not in bucket.
+     */
+    private int find(String item, int hash) {
+        if (this.sortedPositions != null) {
+            int index = this.sortedIndex(item);
+            return index < 0 ? NOT_FOUND : this.sortedPositions[index];
+        }
+        for (int position = 0; position < this.size; position++)
+            if (this.hashes[position] == hash && this.items[position].equals(item))
+                return position;
+        return NOT_FOUND;
+    }
+
+    /**
+     * Binary searches the sorted positions for an element value.
+     *
+     * @param item String to look for.
+     * @return Index of item's position in the sorted positions, or (-(insertion point) - 1) if item not in bucket.
+     */
+    private int sortedIndex(String item) {
+        int low = 0;
+        int high = this.size - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int order = this.items[this.sortedPositions[middle]].compareTo(item);
+            if (order == 0)
+                return middle;
+            if (order < 0)
+                low = middle + 1;
+            else
+                high = middle - 1;
+        }
+        return -low - 1;
+    }
+
+    /**
+     * Indexes the bucket: sorts the positions of all its elements by element value.
+     */
+    private void index() {
+        this.sortedPositions = new int[this.items.length];
+        // Insertion sort, the bucket has just reached INDEX_THRESHOLD + 1 elements.
+        for (int position = 0; position < this.size; position++) {
+            int index = position;
+            while (index > 0 && this.items[this.sortedPositions[index - 1]].compareTo(this.items[position]) > 0) {
+                this.sortedPositions[index] = this.sortedPositions[index - 1];
+                index--;
+            }
+            this.sortedPositions[index] = position;
+        }
+    }
+}
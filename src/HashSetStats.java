@@ -0,0 +1,131 @@
+/**
+ * An immutable snapshot of the statistics of a SimpleHashSet: its resize counters, and the chain lengths, probe
+ * lengths and deleted cells of its current table. A long chain or probe length relative to the mean shows a bad hash
+ * distribution, that degrades the set towards linear-time operations.
+ */
+public class HashSetStats implements HashSetStatsMXBean {
+    /* Class members - variables */
+    private final int size; // Number of elements in the set.
+    private final int capacity; // Capacity of the table.
+    private final long increases; // Number of capacity increases.
+    private final long decreases; // Number of capacity decreases.
+    private final long purges; // Number of re-hashes in the same capacity.
+    private final long resizeNanos; // Total time spent re-hashing.
+    private final int maxChainLength; // Number of elements in the longest bucket.
+    private final double meanChainLength; // Mean number of elements in a non-empty bucket.
+    private final int maxProbeLength; // Longest number of cells probed to find an element.
+    private final double meanProbeLength; // Mean number of cells probed to find an element.
+    private final double tombstoneRatio; // Fraction of the table cells that are marked as deleted.
+
+    /* Constructors */
+
+    /**
+     * Constructs a snapshot of the statistics of a hash set.
+     *
+     * @param size         Number of elements in the set.
+     * @param capacity     Capacity of the table.
+     * @param increases    Number of capacity increases.
+     * @param decreases    Number of capacity decreases.
+     * @param purges       Number of re-hashes in the same capacity.
+     * @param resizeNanos  Total time spent re-hashing, in nanoseconds.
+     * @param chainLengths Number of elements in each non-empty bucket of the table (empty for closed-hashing).
+     * @param probeLengths Number of cells probed to find each element of the table (empty for chaining).
+     * @param deletedCells Number of table cells that are marked as deleted.
+     */
+    public HashSetStats(int size, int capacity, long increases, long decreases, long purges, long resizeNanos,
+                        int[] chainLengths, int[] probeLengths, int deletedCells) {
+        this.size = size;
+        this.capacity = capacity;
+        this.increases = increases;
+        this.decreases = decreases;
+        this.purges = purges;
+        this.resizeNanos = resizeNanos;
+        this.maxChainLength = max(chainLengths);
+        this.meanChainLength = mean(chainLengths);
+        this.maxProbeLength = max(probeLengths);
+        this.meanProbeLength = mean(probeLengths);
+        this.tombstoneRatio = (double) deletedCells / capacity;
+    }
+
+    /* Public instance Methods */
+
+    public int getSize() {
+        return this.size;
+    }
+
+    public int getCapacity() {
+        return this.capacity;
+    }
+
+    public long getIncreases() {
+        return this.increases;
+    }
+
+    public long getDecreases() {
+        return this.decreases;
+    }
+
+    public long getPurges() {
+        return this.purges;
+    }
+
+    public long getResizeNanos() {
+        return this.resizeNanos;
+    }
+
+    public int getMaxChainLength() {
+        return this.maxChainLength;
+    }
+
+    public double getMeanChainLength() {
+        return this.meanChainLength;
+    }
+
+    public int getMaxProbeLength() {
+        return this.maxProbeLength;
+    }
+
+    public double getMeanProbeLength() {
+        return this.meanProbeLength;
+    }
+
+    public double getTombstoneRatio() {
+        return this.tombstoneRatio;
+    }
+
+    /**
+     * @return The statistics, as a single line of name=value pairs.
+     */
+    @Override
+    public String toString() {
+        return "size=" + this.size + " capacity=" + this.capacity + " increases=" + this.increases +
+                " decreases=" + this.decreases + " purges=" + this.purges + " resizeNanos=" + this.resizeNanos +
+                " maxChainLength=" + this.maxChainLength + " meanChainLength=" + this.meanChainLength +
+                " maxProbeLength=" + this.maxProbeLength + " meanProbeLength=" + this.meanProbeLength +
+                " tombstoneRatio=" + this.tombstoneRatio;
+    }
+
+    /* Private static Methods */
+
+    /**
+     * @param lengths Lengths to check.
+     * @return Maximal length, 0 if there are none.
+     */
+    private static int max(int[] lengths) {
+        int max = 0;
+        for (int length : lengths)
+            max = Math.max(max, length);
+        return max;
+    }
+
+    /**
+     * @param lengths Lengths to average.
+     * @return Mean length, 0 if there are none.
+     */
+    private static double mean(int[] lengths) {
+        long sum = 0;
+        for (int length : lengths)
+            sum += length;
+        return lengths.length == 0 ? 0 : (double) sum / lengths.length;
+    }
+}
@@ -0,0 +1,60 @@
+/**
+ * The statistics of a SimpleHashSet, as exposed over JMX (see SimpleHashSet.registerStats). Each attribute read takes
+ * a new snapshot of the set statistics.
+ */
+public interface HashSetStatsMXBean {
+    /**
+     * @return The number of elements in the set.
+     */
+    int getSize();
+
+    /**
+     * @return The capacity (number of cells) of the table.
+     */
+    int getCapacity();
+
+    /**
+     * @return The number of times the table capacity was increased.
+     */
+    long getIncreases();
+
+    /**
+     * @return The number of times the table capacity was decreased.
+     */
+    long getDecreases();
+
+    /**
+     * @return The number of times the table was re-hashed in its current capacity (e.g. to clear deleted cells).
+     */
+    long getPurges();
+
+    /**
+     * @return The total number of nanoseconds spent re-hashing the table.
+     */
+    long getResizeNanos();
+
+    /**
+     * @return The number of elements in the longest bucket, 0 for a closed-hashing set.
+     */
+    int getMaxChainLength();
+
+    /**
+     * @return The mean number of elements in a non-empty bucket, 0 for a closed-hashing set.
+     */
+    double getMeanChainLength();
+
+    /**
+     * @return The longest number of cells probed to find an element, 0 for a chaining set.
+     */
+    int getMaxProbeLength();
+
+    /**
+     * @return The mean number of cells probed to find an element, 0 for a chaining set.
+     */
+    double getMeanProbeLength();
+
+    /**
+     * @return The fraction of the table cells that are marked as deleted, 0 for a chaining set.
+     */
+    double getTombstoneRatio();
+}
@@ -0,0 +1,55 @@
+/**
+ * How a hash set of any type hashes and compares its elements (see ObjectOpenHashSet). Two elements that are equal by
+ * a strategy must have the same hash code by it. A strategy lets a set hash elements by a part of them, or by fields
+ * of a class that does not override hashCode()/equals(), without wrapping each element.
+ *
+ * @param <E> Type of the hashed elements.
+ */
+public interface HashStrategy<E> {
+    /**
+     * @param element Element to hash.
+     * @return The hash code of element.
+     */
+    int hashCode(E element);
+
+    /**
+     * @param first  An element.
+     * @param second Another element.
+     * @return True iff both elements are equal.
+     */
+    boolean equals(E first, E second);
+
+    /* Public static Methods */
+
+    /**
+     * @param <E> Type of the hashed elements.
+     * @return The strategy of the elements' own hashCode() and equals().
+     */
+    static <E> HashStrategy<E> natural() {
+        return new HashStrategy<>() {
+            public int hashCode(E element) {
+                return element.hashCode();
+            }
+
+            public boolean equals(E first, E second) {
+                return first.equals(second);
+            }
+        };
+    }
+
+    /**
+     * @param <E> Type of the hashed elements.
+     * @return The strategy of the elements' identity, as IdentityHashMap's: System.identityHashCode() and ==.
+     */
+    static <E> HashStrategy<E> identity() {
+        return new HashStrategy<>() {
+            public int hashCode(E element) {
+                return System.identityHashCode(element);
+            }
+
+            public boolean equals(E first, E second) {
+                return first == second;
+            }
+        };
+    }
+}
@@ -0,0 +1,314 @@
+// Generated by OpenHashSetGenerator from TypedOpenHashSet.template:
+// edit the template and re-run the generator rather than this file.
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.IntConsumer;
+
+/**
+ * A hash-set of primitive int values, that never boxes them. Based on open-hashing like OpenHashSet, over flat
+ * arrays instead of buckets: the values are kept in the first size() entries of a primitive array, and each table
+ * cell links to a chain of entries (by index + 1, so 0 is the end of a chain) through a parallel links array. Values
+ * are mixed by a finalizer, so that sequential or otherwise structured values spread over the whole table.
+ * A deleted entry is replaced by the last one, so the entries stay dense and are traversed in array order.
+ * Resizes like SimpleHashSet: doubles above the upper load factor, and halves below the lower load factor.
+ */
+public class IntOpenHashSet {
+    /* Class members - constant variables */
+    private static final int INITIAL_CAPACITY = 16; // Describes the capacity of a newly created hash set.
+    private static final int MAX_CAPACITY = 1 << 30; // Hash set maximum capacity (largest power of 2 array length).
+    private static final int NONE = 0; // Link of no entry: the end of a chain, or an empty table cell.
+    /* Class members - variables */
+    private final float upperLoadFactor; // Higher load factor of this hash set.
+    private final float lowerLoadFactor; // Lower load factor of this hash set.
+    private int minCapacity = 1; // Capacity below which this hash set is never decreased.
+    private int[] table = new int[INITIAL_CAPACITY]; // Link to the first entry of each cell's chain.
+    private int[] links = new int[INITIAL_CAPACITY]; // Link to the next entry of each entry's chain.
+    private int[] keys = new int[INITIAL_CAPACITY]; // The values of the set, in its first size() entries.
+    private int elementCounter = 0; // Number of values in the set. Updated on each add/delete.
+    private int modificationCounter = 0; // Number of successful adds/deletes, checked by iterators to fail fast.
+
+    /* Constructors */
+
+    /**
+     * A default constructor. Constructs a new, empty table with default initial capacity (16),
+     * upper load factor (0.75) and lower load factor (0.25).
+     */
+    public IntOpenHashSet() {
+        this(SimpleHashSet.DEFAULT_HIGHER_CAPACITY, SimpleHashSet.DEFAULT_LOWER_CAPACITY);
+    }
+
+    /**
+     * Constructs a new, empty table with the specified load factors, and the default initial capacity (16).
+     *
+     * @param upperLoadFactor The upper load factor of the hash table.
+     * @param lowerLoadFactor The lower load factor of the hash table.
+     */
+    public IntOpenHashSet(float upperLoadFactor, float lowerLoadFactor) {
+        this.upperLoadFactor = upperLoadFactor;
+        this.lowerLoadFactor = lowerLoadFactor;
+    }
+
+    /**
+     * Constructs a new, empty table with the specified load factors, pre-sized to hold the expected number of values
+     * without increasing. The table is never decreased below this initial capacity.
+     *
+     * @param expectedSize    The expected number of values in the set.
+     * @param upperLoadFactor The upper load factor of the hash table.
+     * @param lowerLoadFactor The lower load factor of the hash table.
+     */
+    public IntOpenHashSet(int expectedSize, float upperLoadFactor, float lowerLoadFactor) {
+        this(upperLoadFactor, lowerLoadFactor);
+        int capacity = SimpleHashSet.capacityFor(expectedSize, upperLoadFactor);
+        this.rehash(capacity);
+        this.minCapacity = capacity;
+    }
+
+    /* Public instance Methods */
+
+    /**
+     * Add a specified value to the set if it's not already in it, as the last entry.
+     *
+     * @param newValue New value to add to the set
+     * @return False iff newValue already exists in the set.
+     */
+    public boolean add(int newValue) {
+        int hash = this.hash(newValue);
+        if (this.find(newValue, hash) != NONE)
+            return false; // If value exists in table, do nothing and return false.
+        if (this.elementCounter + 1 > this.upperLoadFactor * this.table.length && this.table.length < MAX_CAPACITY)
+            this.rehash(this.table.length * 2);
+        else if (this.elementCounter == this.keys.length)
+            this.resizeEntries(this.keys.length * 2); // Only at MAX_CAPACITY, or for an upper load factor above 1.
+        int entry = this.elementCounter++;
+        this.keys[entry] = newValue;
+        this.linkEntry(entry, hash & (this.table.length - 1));
+        this.modificationCounter++;
+        return true;
+    }
+
+    /**
+     * Look for a specified value in the set.
+     *
+     * @param searchVal Value to search for
+     * @return True iff searchVal is found in the set.
+     */
+    public boolean contains(int searchVal) {
+        return this.find(searchVal, this.hash(searchVal)) != NONE;
+    }
+
+    /**
+     * Remove the input value from the set. Its entry is unlinked from its chain, and the last entry is moved into
+     * it, so the entries stay dense.
+     *
+     * @param toDelete Value to delete
+     * @return True iff toDelete is found and deleted.
+     */
+    public boolean delete(int toDelete) {
+        int hash = this.hash(toDelete);
+        int cell = hash & (this.table.length - 1);
+        int previous = NONE; // Link to the entry before the deleted one in its chain, NONE if it is the first.
+        int link = this.table[cell];
+        while (link != NONE && !this.keyEquals(link - 1, toDelete, hash)) {
+            previous = link;
+            link = this.links[link - 1];
+        }
+        if (link == NONE)
+            return false; // Value not in table therefore cannot be deleted, return false.
+        if (previous == NONE)
+            this.table[cell] = this.links[link - 1];
+        else
+            this.links[previous - 1] = this.links[link - 1];
+        this.moveLastEntry(link - 1);
+        this.modificationCounter++;
+        // Decreases only if the decreased table is not about to be increased or decreased again.
+        float loadFactor = (float) this.elementCounter / this.table.length;
+        if (loadFactor < this.lowerLoadFactor && 2 * loadFactor < (this.lowerLoadFactor + this.upperLoadFactor) / 2 &&
+                this.table.length > this.minCapacity)
+            this.rehash(this.table.length / 2);
+        return true;
+    }
+
+    /**
+     * @return The number of values currently in the set.
+     */
+    public int size() {
+        return this.elementCounter;
+    }
+
+    /**
+     * @return The current capacity (number of cells) of the table.
+     */
+    public int capacity() {
+        return this.table.length;
+    }
+
+    /**
+     * Passes every value of the set to an action, in entry order.
+     *
+     * @param action Action to perform on each value.
+     * @throws ConcurrentModificationException If the action added or deleted a value.
+     */
+    public void forEach(IntConsumer action) {
+        int expectedModifications = this.modificationCounter;
+        for (int entry = 0; entry < this.elementCounter && this.modificationCounter == expectedModifications; entry++)
+            action.accept(this.keyAt(entry));
+        if (this.modificationCounter != expectedModifications)
+            throw new ConcurrentModificationException();
+    }
+
+    /**
+     * Creates an iterator over the values of the set, in entry order. It fails fast: adding or deleting a value
+     * while it traverses the set makes it throw ConcurrentModificationException.
+     *
+     * @return An iterator over the values of the set.
+     */
+    public PrimitiveIterator.OfInt iterator() {
+        return new KeyIterator();
+    }
+
+    /* Private instance Methods */
+
+    /**
+     * Re-links all the entries into a new table with the specified capacity, and resizes the entry arrays to hold
+     * the values the new table holds before it is increased.
+     *
+     * @param newCapacity New table capacity (power of 2).
+     */
+    private void rehash(int newCapacity) {
+        this.resizeEntries(Math.max(this.elementCounter + 1, (int) (this.upperLoadFactor * newCapacity) + 1));
+        this.table = new int[newCapacity];
+        int mask = newCapacity - 1;
+        for (int entry = 0; entry < this.elementCounter; entry++)
+            this.linkEntry(entry, this.entryHash(entry) & mask);
+    }
+
+    /**
+     * Resizes the entry arrays, keeping the entries in use and their links.
+     *
+     * @param entryCapacity New length of the entry arrays, more than size().
+     */
+    private void resizeEntries(int entryCapacity) {
+        this.keys = Arrays.copyOf(this.keys, entryCapacity);
+        this.links = Arrays.copyOf(this.links, entryCapacity);
+    }
+
+    /**
+     * Links an entry as the first of a cell's chain.
+     *
+     * @param entry Index of the entry.
+     * @param cell  Index of the table cell.
+     */
+    private void linkEntry(int entry, int cell) {
+        this.links[entry] = this.table[cell];
+        this.table[cell] = entry + 1;
+    }
+
+    /**
+     * Moves the last entry into an entry that was unlinked, re-pointing the link to it in its chain, and drops the
+     * last entry.
+     *
+     * @param entry Index of the unlinked entry.
+     */
+    private void moveLastEntry(int entry) {
+        int last = --this.elementCounter;
+        if (entry != last) {
+            int cell = this.entryHash(last) & (this.table.length - 1);
+            if (this.table[cell] == last + 1) {
+                this.table[cell] = entry + 1;
+            } else {
+                int link = this.table[cell];
+                while (this.links[link - 1] != last + 1)
+                    link = this.links[link - 1];
+                this.links[link - 1] = entry + 1;
+            }
+            this.keys[entry] = this.keys[last];
+            this.links[entry] = this.links[last];
+        }
+    }
+
+    /**
+     * @param key  Value to look for.
+     * @param hash Hash of key (see hash()).
+     * @return Link to the entry of key, NONE if key is not in the set.
+     */
+    private int find(int key, int hash) {
+        for (int link = this.table[hash & (this.table.length - 1)]; link != NONE; link = this.links[link - 1])
+            if (this.keyEquals(link - 1, key, hash))
+                return link;
+        return NONE;
+    }
+
+    /**
+     * @param entry Index of an entry in use.
+     * @param key   Value to compare to.
+     * @param hash  Hash of key (see hash()).
+     * @return True iff the entry holds key.
+     */
+    private boolean keyEquals(int entry, int key, int hash) {
+        return this.keys[entry] == key;
+    }
+
+    /**
+     * @param entry Index of an entry in use.
+     * @return Hash of the entry's value (see hash()).
+     */
+    private int entryHash(int entry) {
+        return this.hash(this.keys[entry]);
+    }
+
+    /**
+     * @param entry Index of an entry in use.
+     * @return The value of the entry.
+     */
+    private int keyAt(int entry) {
+        return this.keys[entry];
+    }
+
+    /**
+     * Mixes a value by the Murmur3 32 bit finalizer, so every bit of it affects the low bits that choose the cell.
+     *
+     * @param key Value to hash.
+     * @return The hash of key.
+     */
+    private int hash(int key) {
+        int hash = (key ^ (key >>> 16)) * 0x85EBCA6B;
+        hash = (hash ^ (hash >>> 13)) * 0xC2B2AE35;
+        return hash ^ (hash >>> 16);
+    }
+
+    /* Nested classes */
+
+    /**
+     * A fail-fast iterator over the values of the set, in entry order.
+     */
+    private final class KeyIterator implements PrimitiveIterator.OfInt {
+        /* Class members - variables */
+        private final int expectedModifications = modificationCounter; // Modification counter at creation.
+        private int entry = 0; // Index of the next entry to traverse.
+
+        /* Public instance Methods */
+
+        /**
+         * @return True iff a value is left.
+         * @throws ConcurrentModificationException If the set was modified since the iterator was created.
+         */
+        public boolean hasNext() {
+            if (modificationCounter != this.expectedModifications)
+                throw new ConcurrentModificationException();
+            return this.entry < elementCounter;
+        }
+
+        /**
+         * @return The next value.
+         * @throws NoSuchElementException          If no value is left.
+         * @throws ConcurrentModificationException If the set was modified since the iterator was created.
+         */
+        public int nextInt() {
+            if (!this.hasNext())
+                throw new NoSuchElementException();
+            return keyAt(this.entry++);
+        }
+    }
+}
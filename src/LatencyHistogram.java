@@ -0,0 +1,94 @@
+/**
+ * A histogram of latencies (in nanoseconds) with logarithmic buckets, each split into linear sub-buckets, in the
+ * manner of HdrHistogram. Values are recorded with a relative error below 1 / SUB_BUCKET_HALF_COUNT (under 1.6%) over
+ * the whole range of long values, in a fixed array of counts, so recording never allocates.
+ */
+public class LatencyHistogram {
+    /* Class members - constant variables */
+    private static final int SUB_BUCKET_BITS = 7; // Values up to 2^SUB_BUCKET_BITS are recorded exactly.
+    private static final int SUB_BUCKET_HALF_COUNT = 1 << (SUB_BUCKET_BITS - 1); // Sub-buckets added by each bucket.
+    // Number of counts: exact values below 2^SUB_BUCKET_BITS, and then half a bucket of sub-buckets per power of 2.
+    private static final int COUNTS_LENGTH = (Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKET_HALF_COUNT +
+            SUB_BUCKET_HALF_COUNT;
+    private static final double MAX_PERCENTILE = 100; // Percentile of the maximal value.
+    /* Class members - variables */
+    private final long[] counts = new long[COUNTS_LENGTH]; // Number of recorded values, by sub-bucket index.
+    private long totalCount = 0; // Number of recorded values.
+    private long maxValue = 0; // Maximal recorded value (exact).
+
+    /* Public instance Methods */
+
+    /**
+     * Records a value.
+     *
+     * @param value Value to record (negative values are recorded as 0).
+     */
+    public void recordValue(long value) {
+        long nonNegative = Math.max(value, 0);
+        this.counts[countsIndex(nonNegative)]++;
+        this.totalCount++;
+        this.maxValue = Math.max(this.maxValue, nonNegative);
+    }
+
+    /**
+     * Finds the value at a percentile of the recorded values: the highest value that is equivalent (within the
+     * histogram precision) to the value that at least the percentile of the recorded values are lower or equal to.
+     *
+     * @param percentile Percentile, between 0 and 100.
+     * @return Value at percentile, 0 if no value was recorded. For 100, the exact maximal value.
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (percentile >= MAX_PERCENTILE)
+            return this.maxValue;
+        // Number of values that are lower or equal to the percentile value (at least 1).
+        long countAtPercentile = Math.max(1, (long) Math.ceil(percentile / MAX_PERCENTILE * this.totalCount));
+        long count = 0;
+        for (int index = 0; index < this.counts.length; index++) {
+            count += this.counts[index];
+            if (count >= countAtPercentile)
+                return Math.min(highestEquivalentValue(index), this.maxValue);
+        }
+        return 0;
+    }
+
+    /**
+     * @return The number of recorded values.
+     */
+    public long getTotalCount() {
+        return this.totalCount;
+    }
+
+    /**
+     * @return The maximal recorded value.
+     */
+    public long getMaxValue() {
+        return this.maxValue;
+    }
+
+    /* Private static Methods */
+
+    /**
+     * Computes the sub-bucket index of a value. Values below 2^SUB_BUCKET_BITS have their own index. For larger values,
+     * the bucket is the number of low bits dropped to keep SUB_BUCKET_BITS significant bits, and the sub-bucket is the
+     * value of the kept bits (between SUB_BUCKET_HALF_COUNT and 2^SUB_BUCKET_BITS - 1).
+     *
+     * @param value Non-negative value.
+     * @return Index of the value in the counts array.
+     */
+    private static int countsIndex(long value) {
+        int bucket = Math.max(0, Long.SIZE - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS);
+        return bucket * SUB_BUCKET_HALF_COUNT + (int) (value >>> bucket);
+    }
+
+    /**
+     * @param index Index in the counts array.
+     * @return The highest value that is recorded at index.
+     */
+    private static long highestEquivalentValue(int index) {
+        if (index < 2 * SUB_BUCKET_HALF_COUNT)
+            return index; // Exact values.
+        int bucket = index / SUB_BUCKET_HALF_COUNT - 1;
+        long subBucket = index - bucket * SUB_BUCKET_HALF_COUNT;
+        return ((subBucket + 1) << bucket) - 1;
+    }
+}
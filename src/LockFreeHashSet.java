@@ -0,0 +1,572 @@
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A thread-safe, non-blocking hash-set based on closed-hashing with quadratic probing. No operation takes a lock:
+ * all table changes are compare-and-set operations, and 'contains' only reads. When the table is resized, the threads
+ * that add or delete elements cooperatively move the table cells to the new table.
+ * Traversals are weakly consistent: they never fail on concurrent updates, and return each element that is in the set
+ * throughout the traversal exactly once, while elements added or deleted meanwhile may or may not be returned.
+ */
+public class LockFreeHashSet implements SimpleSet {
+    /* Class members - constant variables */
+    // Cell states, held next to each claimed key.
+    private static final Object PRESENT = new Object(); // Key is in the set.
+    private static final Object ABSENT = new Object(); // Key was deleted (a null state: key was never added).
+    private static final Object FROZEN = new Object(); // Key is in the set, and is being copied to the next table.
+    private static final Object MOVED = new Object(); // Key's cell was copied, look for it in the next table.
+    // Key was deleted when its cell was copied, so nothing was copied. Unlike a MOVED cell, whose key (if it was being
+    // copied from the previous table) may still be on its way to the next table.
+    private static final Object DROPPED = new Object();
+    // Key of a never used cell that was sealed by a resize, so no key can claim it anymore. Compared by reference.
+    private static final String SEALED = new String();
+    private static final int NOT_FOUND = -1; // Probing reached a never used cell.
+    private static final int FORWARDED = -2; // Probing reached a sealed cell, look in the next table.
+    private static final int EXHAUSTED = -3; // Probing went over all the table cells.
+    private static final int COPY_CHUNK = 64; // Number of cells copied by a thread each time it helps a resize.
+    /* Class members - variables */
+    private final float upperLoadFactor; // Higher load factor of this set, counting deleted cells too.
+    private final float lowerLoadFactor; // Lower load factor of this set.
+    private final AtomicReference<Table> table; // Current table. Replaced once all its cells were copied.
+    private final LongAdder elementCounter = new LongAdder(); // Updated on each successful add/delete.
+
+    /* Constructors */
+
+    /**
+     * A default constructor. Constructs a new, empty set with default initial capacity (16),
+     * upper load factor (0.75) and lower load factor (0.25).
+     */
+    public LockFreeHashSet() {
+        this(SimpleHashSet.DEFAULT_HIGHER_CAPACITY, SimpleHashSet.DEFAULT_LOWER_CAPACITY);
+    }
+
+    /**
+     * Constructs a new, empty set with the specified load factors, and the default initial capacity (16).
+     *
+     * @param upperLoadFactor The upper load factor of the hash table, counting deleted cells too.
+     * @param lowerLoadFactor The lower load factor of the hash table.
+     */
+    public LockFreeHashSet(float upperLoadFactor, float lowerLoadFactor) {
+        this.upperLoadFactor = upperLoadFactor;
+        this.lowerLoadFactor = lowerLoadFactor;
+        this.table = new AtomicReference<>(new Table(SimpleHashSet.INITIAL_CAPACITY));
+    }
+
+    /**
+     * Data constructor - builds the set by adding the elements one by one. Duplicate values should be ignored.
+     * The new table has the default values of initial capacity (16), upper load factor (0.75),
+     * and lower load factor (0.25).
+     *
+     * @param data Values to add to the set.
+     */
+    public LockFreeHashSet(String[] data) {
+        this();
+        for (String item : data)
+            this.add(item);
+    }
+
+    /* Public instance Methods */
+
+    /**
+     * Add a specified element to the set if it's not already in it.
+     *
+     * @param newValue New value to add to the set
+     * @return False iff newValue already exists in the set.
+     */
+    public boolean add(String newValue) {
+        int hash = hash(newValue);
+        Table current = this.table.get();
+        while (true) {
+            int index = claimCell(current, newValue, hash);
+            if (index < 0) {
+                current = this.resizeAndHelp(current); // Cannot claim a cell here, continue in the next table.
+                continue;
+            }
+            if (current.claimed.get() > this.upperLoadFactor * current.capacity)
+                this.startResize(current);
+            Table next = current.next.get();
+            // While resizing, the element's cell is copied first, so it is added only to the next table.
+            if (next != null) {
+                this.copyCell(current, index, next);
+                this.helpCopy(current);
+                current = next;
+                continue;
+            }
+            Object state = current.cells.get(stateIndex(index));
+            if (state == PRESENT || state == FROZEN)
+                return false; // If item exists in table, do nothing and return false.
+            if (state != MOVED && state != DROPPED && current.cells.compareAndSet(stateIndex(index), state, PRESENT)) {
+                this.elementCounter.increment();
+                return true;
+            }
+            // Cell state changed meanwhile (or the cell was copied by a resize), try again.
+        }
+    }
+
+    /**
+     * Look for a specified value in the set. Only reads the table, and never waits for other threads.
+     *
+     * @param searchVal Value to search for
+     * @return True iff searchVal is found in the set.
+     */
+    public boolean contains(String searchVal) {
+        int hash = hash(searchVal);
+        Table current = this.table.get();
+        while (true) {
+            int index = findCell(current, searchVal, hash);
+            if (index == NOT_FOUND)
+                return false;
+            if (index >= 0) {
+                Object state = current.cells.get(stateIndex(index));
+                if (state != MOVED && state != DROPPED)
+                    return state == PRESENT || state == FROZEN;
+            }
+            // Cell was copied or sealed, or the table is full: item can only be in the next table, if there is one.
+            current = current.next.get();
+            if (current == null)
+                return false;
+        }
+    }
+
+    /**
+     * Remove the input element from the set.
+     *
+     * @param toDelete Value to delete
+     * @return True iff toDelete is found and deleted.
+     */
+    public boolean delete(String toDelete) {
+        int hash = hash(toDelete);
+        Table current = this.table.get();
+        while (true) {
+            int index = findCell(current, toDelete, hash);
+            if (index == NOT_FOUND)
+                return false; // Item not in table therefore cannot be deleted, return false.
+            if (index < 0) {
+                Table next = current.next.get();
+                if (next == null)
+                    return false; // Table is full and has no next table, item is not in the set.
+                this.helpCopy(current);
+                current = next;
+                continue;
+            }
+            Object state = current.cells.get(stateIndex(index));
+            if (state == FROZEN || state == MOVED || state == DROPPED) {
+                // Cell is being copied: finish copying it and delete from the next table.
+                Table next = current.next.get(); // Set before any cell is frozen or moved.
+                this.copyCell(current, index, next);
+                this.helpCopy(current);
+                current = next;
+            } else if (state != PRESENT)
+                return false; // Item was never added or already deleted.
+            else if (current.cells.compareAndSet(stateIndex(index), PRESENT, ABSENT)) {
+                this.elementCounter.decrement();
+                if (this.shouldDecrease(current))
+                    this.startResize(current);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * While other threads add or delete elements, the result may not reflect their latest changes.
+     *
+     * @return The number of elements currently in the set.
+     */
+    public int size() {
+        return (int) this.elementCounter.sum();
+    }
+
+    /**
+     * @return The current capacity (number of cells) of the table.
+     */
+    public int capacity() {
+        return this.table.get().capacity;
+    }
+
+    /**
+     * Creates a weakly consistent iterator over the elements of the set. First helps a pending resize to complete,
+     * since a key added during a resize may have no cell but in the next table. Then traverses the table that is
+     * current, even if it is replaced meanwhile: a key whose cell was copied to a next table is returned if it is
+     * still in the set.
+     *
+     * @return An iterator over the elements of the set.
+     */
+    public Iterator<String> iterator() {
+        return new KeyIterator(this.completeResize());
+    }
+
+    /**
+     * @return A weakly consistent spliterator over the elements of the set (see iterator()), of unknown size.
+     */
+    public Spliterator<String> spliterator() {
+        return Spliterators.spliteratorUnknownSize(this.iterator(),
+                Spliterator.DISTINCT | Spliterator.NONNULL | Spliterator.CONCURRENT);
+    }
+
+    /* Private instance Methods */
+
+    /**
+     * Checks if the table should be replaced by a smaller one, if the current load factor is lower than the lower load
+     * factor, and the table that would hold the current elements is indeed smaller.
+     *
+     * @param current Table an element was deleted from.
+     * @return True if table should decrease, false otherwise.
+     */
+    private boolean shouldDecrease(Table current) {
+        if (current.capacity <= SimpleHashSet.INITIAL_CAPACITY || current.next.get() != null)
+            return false;
+        int size = this.size();
+        return size < this.lowerLoadFactor * current.capacity && this.capacityFor(size) < current.capacity;
+    }
+
+    /**
+     * Starts a resize of specified table, unless one was already started, by setting its next table.
+     * The next table capacity is based on the number of elements, so deleted cells are not copied to it.
+     *
+     * @param current Table to resize.
+     * @return The next table.
+     */
+    private Table startResize(Table current) {
+        Table next = current.next.get();
+        if (next != null)
+            return next;
+        Table candidate = new Table(this.capacityFor(this.size()));
+        // If another thread started the resize meanwhile, its table is used and this one is discarded.
+        return current.next.compareAndSet(null, candidate) ? candidate : current.next.get();
+    }
+
+    /**
+     * Makes sure specified table is being resized, and helps copying its cells.
+     *
+     * @param current Table to resize.
+     * @return The next table.
+     */
+    private Table resizeAndHelp(Table current) {
+        Table next = this.startResize(current);
+        this.helpCopy(current);
+        return next;
+    }
+
+    /**
+     * Helps the resizes of the current table until the current table is not being resized, so it holds a cell for
+     * every key in the set. If the cells of the current table were all copied but it was not replaced yet (the thread
+     * that copied the last cell is about to), replaces it.
+     *
+     * @return The current table, that was not being resized when it was read.
+     */
+    private Table completeResize() {
+        Table current = this.table.get();
+        for (Table next = current.next.get(); next != null; next = current.next.get()) {
+            if (current.copied.get() < current.capacity)
+                this.helpCopy(current);
+            else
+                this.table.compareAndSet(current, next);
+            current = this.table.get();
+        }
+        return current;
+    }
+
+    /**
+     * Copies the next chunk of cells of specified table to its next table. Once all chunks were taken, threads keep
+     * going over the table from its beginning (skipping copied cells), so a thread that took a chunk and stalled
+     * cannot prevent the resize from completing.
+     *
+     * @param current Table being resized.
+     */
+    private void helpCopy(Table current) {
+        Table next = current.next.get();
+        if (current.copied.get() == current.capacity)
+            return;
+        int start = Math.floorMod(current.copyIndex.getAndAdd(COPY_CHUNK), current.capacity);
+        int end = Math.min(start + COPY_CHUNK, current.capacity);
+        for (int index = start; index < end; index++)
+            this.copyCell(current, index, next);
+    }
+
+    /**
+     * Copies a cell of specified table to the next table. A never used cell is sealed, a deleted one is marked as
+     * dropped, a claimed one whose key was never added is marked as moved, and a present key is frozen (so it can be
+     * neither deleted nor re-added here), copied, and then marked as moved. Safe to call concurrently by several
+     * threads on the same cell.
+     *
+     * @param current Table being resized.
+     * @param index   Index of the cell to copy.
+     * @param next    The next table of current.
+     */
+    private void copyCell(Table current, int index, Table next) {
+        Object key = current.cells.get(keyIndex(index));
+        while (key == null) {
+            if (current.cells.compareAndSet(keyIndex(index), null, SEALED)) {
+                this.cellCopied(current);
+                return;
+            }
+            key = current.cells.get(keyIndex(index));
+        }
+        if (key == SEALED)
+            return; // Already sealed by another thread.
+        Object state = current.cells.get(stateIndex(index));
+        while (state != MOVED && state != DROPPED) {
+            if (state == PRESENT) {
+                if (current.cells.compareAndSet(stateIndex(index), PRESENT, FROZEN))
+                    state = FROZEN;
+            } else if (state == FROZEN) {
+                this.copyKey(next, (String) key);
+                if (current.cells.compareAndSet(stateIndex(index), FROZEN, MOVED))
+                    this.cellCopied(current);
+                return;
+            } else if (current.cells.compareAndSet(stateIndex(index), state, state == null ? MOVED : DROPPED)) {
+                this.cellCopied(current); // Deleted or never added key, nothing to copy.
+                return;
+            }
+            state = current.cells.get(stateIndex(index));
+        }
+    }
+
+    /**
+     * Adds a key that was frozen in the previous table to specified table. The key's state there is set only if it was
+     * never set, since any later change to it (made after the copy completed) must not be overridden. If its cell was
+     * moved before its state was set, the key is copied on to the next table; but if its cell was dropped, the copy
+     * was completed by another thread and the key deleted since, so it must not be copied again.
+     *
+     * @param target Table to copy to.
+     * @param key    Key to copy.
+     */
+    private void copyKey(Table target, String key) {
+        int hash = hash(key);
+        while (true) {
+            int index = claimCell(target, key, hash);
+            if (index < 0) {
+                target = this.resizeAndHelp(target);
+                continue;
+            }
+            Table next = target.next.get();
+            // If target is also being resized, the key's cell is moved there first, and then followed if it was moved.
+            if (next != null)
+                this.copyCell(target, index, next);
+            else if (target.cells.compareAndSet(stateIndex(index), null, PRESENT))
+                return;
+            Object state = target.cells.get(stateIndex(index));
+            if (state == MOVED)
+                target = target.next.get(); // Set before any cell is moved.
+            else if (state != FROZEN)
+                return; // Already copied by another thread, and maybe deleted or dropped since.
+        }
+    }
+
+    /**
+     * Counts a cell of specified table as copied. Once all the cells of the current table were copied, the current
+     * table is replaced by its next table.
+     *
+     * @param current Table being resized.
+     */
+    private void cellCopied(Table current) {
+        if (current.copied.incrementAndGet() < current.capacity)
+            return;
+        // Promotes every fully copied table, which may include tables that were resized before becoming current.
+        Table top = this.table.get();
+        while (top.copied.get() == top.capacity) {
+            this.table.compareAndSet(top, top.next.get());
+            top = this.table.get();
+        }
+    }
+
+    /**
+     * Calculates the capacity of a new table for the specified number of elements, leaving room for the same number
+     * of additions before it is resized again.
+     *
+     * @param size Number of elements.
+     * @return Capacity of the new table (power of 2).
+     */
+    private int capacityFor(int size) {
+        int expectedSize = (int) Math.min(Integer.MAX_VALUE, 2L * size);
+        return Math.max(SimpleHashSet.INITIAL_CAPACITY, SimpleHashSet.capacityFor(expectedSize, this.upperLoadFactor));
+    }
+
+    /* Private static Methods */
+
+    /**
+     * Finds the cell of an item in a table.
+     *
+     * @param current Table to search.
+     * @param item    String value to look for.
+     * @param hash    Hash code of item.
+     * @return Index of item's cell, or NOT_FOUND, FORWARDED or EXHAUSTED if it has no cell in this table.
+     */
+    private static int findCell(Table current, String item, int hash) {
+        int mask = current.capacity - 1;
+        int index = hash & mask;
+        for (int attempt = 1; attempt <= current.capacity; attempt++) {
+            Object key = current.cells.get(keyIndex(index));
+            if (key == null)
+                return NOT_FOUND; // Item cannot be found beyond a cell that was never used.
+            if (key == SEALED)
+                return FORWARDED; // Sealed cell was never used too, but may be used in the next table.
+            if (matches(key, item, hash))
+                return index;
+            index = (index + attempt) & mask; // Quadratic probing by triangular numbers.
+        }
+        return EXHAUSTED;
+    }
+
+    /**
+     * Finds the cell of an item in a table, claiming the first never used cell of its probing sequence if it has none.
+     * A claimed cell belongs to its key for the life of the table, even after the key is deleted.
+     *
+     * @param current Table to search.
+     * @param item    String value to look for.
+     * @param hash    Hash code of item.
+     * @return Index of item's cell, or FORWARDED or EXHAUSTED if no cell can be claimed in this table.
+     */
+    private static int claimCell(Table current, String item, int hash) {
+        int mask = current.capacity - 1;
+        int index = hash & mask;
+        for (int attempt = 1; attempt <= current.capacity; attempt++) {
+            Object key = current.cells.get(keyIndex(index));
+            if (key == null) {
+                if (current.cells.compareAndSet(keyIndex(index), null, item)) {
+                    current.claimed.incrementAndGet();
+                    return index;
+                }
+                key = current.cells.get(keyIndex(index)); // Another thread claimed this cell meanwhile.
+            }
+            if (key == SEALED)
+                return FORWARDED;
+            if (matches(key, item, hash))
+                return index;
+            index = (index + attempt) & mask; // Quadratic probing by triangular numbers.
+        }
+        return EXHAUSTED;
+    }
+
+    /**
+     * Compares a table key to an item, by reference, then by (String cached, and mixed) hash code, and only then by
+     * value.
+     *
+     * @param key  Key read from the table.
+     * @param item String value to compare.
+     * @param hash Hash code of item.
+     * @return True if key equals item, false otherwise.
+     */
+    private static boolean matches(Object key, String item, int hash) {
+        return key == item || (hash((String) key) == hash && key.equals(item));
+    }
+
+    /**
+     * @param item String to hash.
+     * @return Hash code for String input, mixed (see SimpleHashSet.mix()).
+     */
+    private static int hash(String item) {
+        return SimpleHashSet.mix(item.hashCode());
+    }
+
+    /**
+     * @param index Cell index.
+     * @return Position of the cell's key in the cells array.
+     */
+    private static int keyIndex(int index) {
+        return 2 * index;
+    }
+
+    /**
+     * @param index Cell index.
+     * @return Position of the cell's state in the cells array.
+     */
+    private static int stateIndex(int index) {
+        return 2 * index + 1;
+    }
+
+    /* Nested classes */
+
+    /**
+     * A weakly consistent iterator over the keys of a table. A key is in a single cell of a table, so no key is
+     * returned twice.
+     */
+    private final class KeyIterator implements Iterator<String> {
+        /* Class members - variables */
+        private final Table current; // Table being traversed.
+        private int index = 0; // Index of the next cell to traverse.
+        private String next; // Next element to return, null if no element is left.
+
+        /* Constructors */
+
+        /**
+         * @param current Table to traverse.
+         */
+        private KeyIterator(Table current) {
+            this.current = current;
+            this.next = this.advance();
+        }
+
+        /* Public instance Methods */
+
+        /**
+         * @return True iff an element is left.
+         */
+        public boolean hasNext() {
+            return this.next != null;
+        }
+
+        /**
+         * @return The next element.
+         * @throws NoSuchElementException If no element is left.
+         */
+        public String next() {
+            if (this.next == null)
+                throw new NoSuchElementException();
+            String element = this.next;
+            this.next = this.advance();
+            return element;
+        }
+
+        /* Private instance Methods */
+
+        /**
+         * @return The key of the next cell that is in the set, null if none is left.
+         */
+        private String advance() {
+            while (this.index < this.current.capacity) {
+                int cell = this.index++;
+                Object key = this.current.cells.get(keyIndex(cell));
+                if (key == null || key == SEALED)
+                    continue;
+                Object state = this.current.cells.get(stateIndex(cell));
+                // A copied key is in the next table, where it may have been deleted since.
+                if (state == PRESENT || state == FROZEN || (state == MOVED && contains((String) key)))
+                    return (String) key;
+            }
+            return null;
+        }
+    }
+
+    /**
+     * A table of the set: keys and their states interleaved in one array, so a cell's key and state usually share a
+     * cache line, and the counters that coordinate its resize.
+     */
+    private static final class Table {
+        /* Class members - variables */
+        private final int capacity; // Number of cells (power of 2).
+        private final AtomicReferenceArray<Object> cells; // Key of cell i at 2 * i, its state at 2 * i + 1.
+        private final AtomicInteger claimed = new AtomicInteger(); // Number of cells claimed by a key.
+        private final AtomicReference<Table> next = new AtomicReference<>(); // Set once a resize was started.
+        private final AtomicInteger copyIndex = new AtomicInteger(); // Start of the next chunk of cells to copy.
+        private final AtomicInteger copied = new AtomicInteger(); // Number of cells copied to the next table.
+
+        /* Constructors */
+
+        /**
+         * Constructs a new empty table with specified capacity.
+         *
+         * @param capacity Table capacity.
+         */
+        private Table(int capacity) {
+            this.capacity = capacity;
+            this.cells = new AtomicReferenceArray<>(2 * capacity);
+        }
+    }
+}
@@ -0,0 +1,293 @@
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * A hash-set of primitive long values, based on closed-hashing with linear probing over a long array, with backward
+ * shift deletion. An empty cell holds 0 (EMPTY), so 0 itself is kept in a flag rather than in the table. Values are
+ * mixed by the SplitMix64 finalizer, so that sequential or otherwise structured values spread over the whole table.
+ * Resizes like SimpleHashSet: doubles above the upper load factor, and halves below the lower load factor.
+ */
+public class LongHashSet {
+    /* Class members - constant variables */
+    private static final long EMPTY = 0; // Value of an empty cell.
+    private static final int INITIAL_CAPACITY = 16; // Describes the capacity of a newly created hash set.
+    private static final int MAX_CAPACITY = 1 << 30; // Hash set maximum capacity (largest power of 2 array length).
+    private static final int NOT_FOUND = -1; // Index returned when probing did not find the requested cell.
+    /* Class members - variables */
+    private final float upperLoadFactor; // Higher load factor of this hash set.
+    private final float lowerLoadFactor; // Lower load factor of this hash set.
+    private int minCapacity = 1; // Capacity below which this hash set is never decreased.
+    private long[] table = new long[INITIAL_CAPACITY]; // Hash table representation.
+    private boolean containsEmpty = false; // True iff EMPTY is in the set.
+    private int elementCounter = 0; // Number of values in the set, EMPTY included. Updated on each add/delete.
+    private int modificationCounter = 0; // Number of successful adds/deletes, checked by iterators to fail fast.
+
+    /* Constructors */
+
+    /**
+     * A default constructor. Constructs a new, empty table with default initial capacity (16),
+     * upper load factor (0.75) and lower load factor (0.25).
+     */
+    public LongHashSet() {
+        this(SimpleHashSet.DEFAULT_HIGHER_CAPACITY, SimpleHashSet.DEFAULT_LOWER_CAPACITY);
+    }
+
+    /**
+     * Constructs a new, empty table with the specified load factors, and the default initial capacity (16).
+     *
+     * @param upperLoadFactor The upper load factor of the hash table.
+     * @param lowerLoadFactor The lower load factor of the hash table.
+     */
+    public LongHashSet(float upperLoadFactor, float lowerLoadFactor) {
+        this.upperLoadFactor = upperLoadFactor;
+        this.lowerLoadFactor = lowerLoadFactor;
+    }
+
+    /**
+     * Constructs a new, empty table with the specified load factors, pre-sized to hold the expected number of values
+     * without increasing. The table is never decreased below this initial capacity.
+     *
+     * @param expectedSize    The expected number of values in the set.
+     * @param upperLoadFactor The upper load factor of the hash table.
+     * @param lowerLoadFactor The lower load factor of the hash table.
+     */
+    public LongHashSet(int expectedSize, float upperLoadFactor, float lowerLoadFactor) {
+        this(upperLoadFactor, lowerLoadFactor);
+        int capacity = 1;
+        while (capacity < MAX_CAPACITY && expectedSize > upperLoadFactor * capacity)
+            capacity *= 2;
+        this.table = new long[capacity];
+        this.minCapacity = capacity;
+    }
+
+    /* Public instance Methods */
+
+    /**
+     * Add a specified value to the set if it's not already in it.
+     *
+     * @param newValue New value to add to the set
+     * @return False iff newValue already exists in the set.
+     */
+    public boolean add(long newValue) {
+        if (newValue == EMPTY) {
+            if (this.containsEmpty)
+                return false;
+            this.containsEmpty = true;
+            this.elementCounter++;
+            this.modificationCounter++;
+            return true;
+        }
+        if (findIndex(this.table, newValue) != NOT_FOUND)
+            return false; // If value exists in table, do nothing and return false.
+        this.elementCounter++;
+        this.modificationCounter++;
+        if (this.elementCounter > this.upperLoadFactor * this.table.length && this.table.length < MAX_CAPACITY)
+            this.rehash(this.table.length * 2);
+        addUnique(this.table, newValue);
+        return true;
+    }
+
+    /**
+     * Look for a specified value in the set.
+     *
+     * @param searchVal Value to search for
+     * @return True iff searchVal is found in the set.
+     */
+    public boolean contains(long searchVal) {
+        if (searchVal == EMPTY)
+            return this.containsEmpty;
+        return findIndex(this.table, searchVal) != NOT_FOUND;
+    }
+
+    /**
+     * Remove the input value from the set. The following values of its probing run that may be placed before it are
+     * shifted back, so no deleted cell is left behind.
+     *
+     * @param toDelete Value to delete
+     * @return True iff toDelete is found and deleted.
+     */
+    public boolean delete(long toDelete) {
+        if (toDelete == EMPTY) {
+            if (!this.containsEmpty)
+                return false;
+            this.containsEmpty = false;
+            this.elementCounter--;
+            this.modificationCounter++;
+            return true;
+        }
+        int index = findIndex(this.table, toDelete);
+        if (index == NOT_FOUND)
+            return false; // Value not in table therefore cannot be deleted, return false.
+        this.removeIndex(index);
+        this.elementCounter--;
+        this.modificationCounter++;
+        // Decreases only if the decreased table is not about to be increased or decreased again.
+        float loadFactor = (float) this.elementCounter / this.table.length;
+        if (loadFactor < this.lowerLoadFactor && 2 * loadFactor < (this.lowerLoadFactor + this.upperLoadFactor) / 2 &&
+                this.table.length > this.minCapacity)
+            this.rehash(this.table.length / 2);
+        return true;
+    }
+
+    /**
+     * @return The number of values currently in the set.
+     */
+    public int size() {
+        return this.elementCounter;
+    }
+
+    /**
+     * @return The current capacity (number of cells) of the table.
+     */
+    public int capacity() {
+        return this.table.length;
+    }
+
+    /**
+     * Creates an iterator over the values of the set, in table order (EMPTY first, if in the set). It fails fast:
+     * adding or deleting a value while it traverses the set makes it throw ConcurrentModificationException.
+     *
+     * @return An iterator over the values of the set.
+     */
+    public PrimitiveIterator.OfLong iterator() {
+        return new ValueIterator();
+    }
+
+    /* Private instance Methods */
+
+    /**
+     * Re-hashes all the table values into a new table with the specified capacity.
+     *
+     * @param newCapacity New table capacity (power of 2).
+     */
+    private void rehash(int newCapacity) {
+        long[] newTable = new long[newCapacity];
+        for (long value : this.table)
+            if (value != EMPTY)
+                addUnique(newTable, value);
+        this.table = newTable;
+    }
+
+    /**
+     * Empties a table cell, and shifts back the following values of its probing run that may be placed in it: those
+     * whose hash index is not after the empty cell (cyclically). Repeats for the cell each shifted value left.
+     *
+     * @param index Index of the cell to empty.
+     */
+    private void removeIndex(int index) {
+        int mask = this.table.length - 1;
+        int next = (index + 1) & mask;
+        while (this.table[next] != EMPTY) {
+            // A value may be shifted back if its distance from its hash index reaches back to the empty cell.
+            if (((next - hashIndex(this.table[next], mask)) & mask) >= ((next - index) & mask)) {
+                this.table[index] = this.table[next];
+                index = next;
+            }
+            next = (next + 1) & mask;
+        }
+        this.table[index] = EMPTY;
+    }
+
+    /* Private static Methods */
+
+    /**
+     * Adds a value (not EMPTY, not in the table) to the first empty cell of its probing run.
+     *
+     * @param cells Table to add to.
+     * @param value Value to add.
+     */
+    private static void addUnique(long[] cells, long value) {
+        int mask = cells.length - 1;
+        int index = hashIndex(value, mask);
+        while (cells[index] != EMPTY)
+            index = (index + 1) & mask; // Linear probing.
+        cells[index] = value;
+    }
+
+    /**
+     * Finds the index of a value (not EMPTY) in a table.
+     *
+     * @param cells Table to search, its length is a power of 2.
+     * @param value Value to look for.
+     * @return Index of value in table, NOT_FOUND if value is not in table.
+     */
+    private static int findIndex(long[] cells, long value) {
+        int mask = cells.length - 1;
+        int index = hashIndex(value, mask);
+        for (int probe = 0; probe < cells.length; probe++) {
+            long current = cells[index];
+            if (current == value)
+                return index;
+            if (current == EMPTY)
+                return NOT_FOUND;
+            index = (index + 1) & mask; // Linear probing.
+        }
+        return NOT_FOUND; // If iteration completed and no empty cell or equal value found.
+    }
+
+    /**
+     * Mixes a value by the SplitMix64 finalizer, so every bit of it affects the low bits that choose the cell.
+     *
+     * @param value Value to hash.
+     * @param mask  Table capacity - 1.
+     * @return The hash index of value.
+     */
+    private static int hashIndex(long value, int mask) {
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return (int) (value ^ (value >>> 31)) & mask;
+    }
+
+    /* Nested classes */
+
+    /**
+     * A fail-fast iterator over the values of the set.
+     */
+    private final class ValueIterator implements PrimitiveIterator.OfLong {
+        /* Class members - variables */
+        private final int expectedModifications = modificationCounter; // Modification counter at creation.
+        private boolean emptyLeft = containsEmpty; // True while EMPTY is in the set and was not returned yet.
+        private int index = 0; // Index of the next cell to traverse.
+
+        /* Public instance Methods */
+
+        /**
+         * @return True iff a value is left.
+         * @throws ConcurrentModificationException If the set was modified since the iterator was created.
+         */
+        public boolean hasNext() {
+            this.checkModifications();
+            if (this.emptyLeft)
+                return true;
+            while (this.index < table.length && table[this.index] == EMPTY)
+                this.index++;
+            return this.index < table.length;
+        }
+
+        /**
+         * @return The next value.
+         * @throws NoSuchElementException          If no value is left.
+         * @throws ConcurrentModificationException If the set was modified since the iterator was created.
+         */
+        public long nextLong() {
+            if (!this.hasNext())
+                throw new NoSuchElementException();
+            if (this.emptyLeft) {
+                this.emptyLeft = false;
+                return EMPTY;
+            }
+            return table[this.index++];
+        }
+
+        /* Private instance Methods */
+
+        /**
+         * @throws ConcurrentModificationException If the set was modified since the iterator was created.
+         */
+        private void checkModifications() {
+            if (modificationCounter != this.expectedModifications)
+                throw new ConcurrentModificationException();
+        }
+    }
+}
@@ -0,0 +1,163 @@
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A set of Strings that keeps decimal integers as primitive longs in a LongHashSet, and any other String in a string
+ * set. Only the canonical form of a number is kept as a long, the one Long.toString returns (no '+' sign, no leading
+ * zeros, no "-0"), so each long stands for a single String: "7" is kept as a long, and "07" as a String.
+ * For a set of numbers, this saves the String object, its byte array and the table entry of each element, and
+ * compares longs instead of calling String.equals.
+ */
+public class NumericStringSet implements SimpleSet {
+    /* Class members - constant variables */
+    private static final int MAX_DIGITS = 19; // Number of digits of Long.MAX_VALUE and Long.MIN_VALUE.
+    private static final String MAX_VALUE_DIGITS = "9223372036854775807"; // Digits of Long.MAX_VALUE.
+    private static final String MIN_VALUE_DIGITS = "9223372036854775808"; // Digits of Long.MIN_VALUE.
+    /* Class members - variables */
+    private final LongHashSet numbers; // Elements that are canonical decimal longs.
+    private final SimpleSet strings; // All the other elements.
+
+    /* Constructors */
+
+    /**
+     * A default constructor. Constructs a new, empty set, that keeps non-numeric elements in an OpenHashSet.
+     */
+    public NumericStringSet() {
+        this(new OpenHashSet());
+    }
+
+    /**
+     * Constructs a new, empty set, that keeps non-numeric elements in the specified set.
+     *
+     * @param strings Empty set to keep the non-numeric elements in.
+     */
+    public NumericStringSet(SimpleSet strings) {
+        this.numbers = new LongHashSet();
+        this.strings = strings;
+    }
+
+    /**
+     * Data constructor - builds the set by adding the elements one by one. Duplicate values should be ignored.
+     * Non-numeric elements are kept in an OpenHashSet.
+     *
+     * @param data Values to add to the set.
+     */
+    public NumericStringSet(String[] data) {
+        this();
+        for (String item : data)
+            this.add(item);
+    }
+
+    /* Public instance Methods */
+
+    /**
+     * Add a specified element to the set if it's not already in it.
+     *
+     * @param newValue New value to add to the set
+     * @return False iff newValue already exists in the set.
+     */
+    public boolean add(String newValue) {
+        return isCanonicalLong(newValue) ? this.numbers.add(parseLong(newValue)) : this.strings.add(newValue);
+    }
+
+    /**
+     * Look for a specified value in the set.
+     *
+     * @param searchVal Value to search for
+     * @return True iff searchVal is found in the set.
+     */
+    public boolean contains(String searchVal) {
+        return isCanonicalLong(searchVal) ? this.numbers.contains(parseLong(searchVal)) :
+                this.strings.contains(searchVal);
+    }
+
+    /**
+     * Remove the input element from the set.
+     *
+     * @param toDelete Value to delete
+     * @return True iff toDelete is found and deleted.
+     */
+    public boolean delete(String toDelete) {
+        return isCanonicalLong(toDelete) ? this.numbers.delete(parseLong(toDelete)) : this.strings.delete(toDelete);
+    }
+
+    /**
+     * @return The number of elements currently in the set.
+     */
+    public int size() {
+        return this.numbers.size() + this.strings.size();
+    }
+
+    /**
+     * @return An iterator over the elements of the set: the numbers (as Strings), and then the other elements.
+     */
+    public Iterator<String> iterator() {
+        return this.stream().iterator();
+    }
+
+    /**
+     * Creates a spliterator over the numbers (converted to Strings as they are traversed) followed by the other
+     * elements, that splits between the two, and then as the other elements set splits.
+     *
+     * @return A spliterator over the elements of the set.
+     */
+    public Spliterator<String> spliterator() {
+        Spliterator.OfLong longs = Spliterators.spliterator(this.numbers.iterator(), this.numbers.size(),
+                Spliterator.DISTINCT | Spliterator.NONNULL);
+        Stream<String> numbers = StreamSupport.longStream(longs, false).mapToObj(Long::toString);
+        return Stream.concat(numbers, this.strings.stream()).spliterator();
+    }
+
+    /* Private static Methods */
+
+    /**
+     * Checks if a String is a long in the form Long.toString returns: an optional '-', and then either "0" alone (not
+     * after '-'), or digits with no leading zero, within the long range.
+     *
+     * @param item String to check.
+     * @return True iff item is the canonical decimal form of a long.
+     */
+    private static boolean isCanonicalLong(String item) {
+        boolean negative = !item.isEmpty() && item.charAt(0) == '-';
+        int start = negative ? 1 : 0;
+        int digits = item.length() - start;
+        if (digits == 0 || digits > MAX_DIGITS)
+            return false;
+        char first = item.charAt(start);
+        if (first == '0')
+            return digits == 1 && !negative; // Only "0" itself may start with a zero.
+        for (int index = start; index < item.length(); index++) {
+            char digit = item.charAt(index);
+            if (digit < '0' || digit > '9')
+                return false;
+        }
+        if (digits < MAX_DIGITS)
+            return true;
+        // Digits of a number with as many digits as the long limit are compared to the limit, digit by digit.
+        String limit = negative ? MIN_VALUE_DIGITS : MAX_VALUE_DIGITS;
+        for (int index = 0; index < MAX_DIGITS; index++) {
+            char digit = item.charAt(start + index);
+            if (digit != limit.charAt(index))
+                return digit < limit.charAt(index);
+        }
+        return true; // Equal to the limit.
+    }
+
+    /**
+     * Parses a canonical decimal long, with no checks (see isCanonicalLong). Accumulates the value negated, as
+     * Long.parseLong does, since Long.MIN_VALUE has no positive counterpart.
+     *
+     * @param item Canonical decimal form of a long.
+     * @return The long value of item.
+     */
+    private static long parseLong(String item) {
+        boolean negative = item.charAt(0) == '-';
+        long negated = 0;
+        for (int index = negative ? 1 : 0; index < item.length(); index++)
+            negated = negated * 10 - (item.charAt(index) - '0');
+        return negative ? negated : -negated;
+    }
+}
@@ -0,0 +1,337 @@
+// Generated by OpenHashSetGenerator from TypedOpenHashSet.template:
+// edit the template and re-run the generator rather than this file.
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+/**
+ * A hash-set of elements of any type, hashed and compared by a HashStrategy (by default, their own hashCode() and
+ * equals()). Null elements are not supported. Based on open-hashing like OpenHashSet, over flat arrays instead of
+ * buckets: the elements are kept, with their spread hash codes, in the first size() entries of an array, and each
+ * table cell links to a chain of entries (by index + 1, so 0 is the end of a chain) through a parallel links array.
+ * A deleted entry is replaced by the last one, so the entries stay dense and are traversed in array order.
+ * Resizes like SimpleHashSet: doubles above the upper load factor, and halves below the lower load factor.
+ *
+ * @param <E> Type of the elements of the set.
+ */
+public class ObjectOpenHashSet<E> implements GenericSimpleSet<E> {
+    /* Class members - constant variables */
+    private static final int INITIAL_CAPACITY = 16; // Describes the capacity of a newly created hash set.
+    private static final int MAX_CAPACITY = 1 << 30; // Hash set maximum capacity (largest power of 2 array length).
+    private static final int NONE = 0; // Link of no entry: the end of a chain, or an empty table cell.
+    /* Class members - variables */
+    private final HashStrategy<? super E> strategy; // Hashes and compares the elements.
+    private final float upperLoadFactor; // Higher load factor of this hash set.
+    private final float lowerLoadFactor; // Lower load factor of this hash set.
+    private int minCapacity = 1; // Capacity below which this hash set is never decreased.
+    private int[] table = new int[INITIAL_CAPACITY]; // Link to the first entry of each cell's chain.
+    private int[] links = new int[INITIAL_CAPACITY]; // Link to the next entry of each entry's chain.
+    private Object[] keys = new Object[INITIAL_CAPACITY]; // The elements of the set, in its first size() entries.
+    private int[] hashes = new int[INITIAL_CAPACITY]; // Spread hash code of each entry's element.
+    private int elementCounter = 0; // Number of elements in the set. Updated on each add/delete.
+    private int modificationCounter = 0; // Number of successful adds/deletes, checked by iterators to fail fast.
+
+    /* Constructors */
+
+    /**
+     * A default constructor. Constructs a new, empty table with default initial capacity (16), upper load factor
+     * (0.75) and lower load factor (0.25), that hashes and compares elements by their hashCode() and equals().
+     */
+    public ObjectOpenHashSet() {
+        this(HashStrategy.natural());
+    }
+
+    /**
+     * Constructs a new, empty table with default initial capacity (16), upper load factor (0.75) and lower load
+     * factor (0.25).
+     *
+     * @param strategy Hashes and compares the elements.
+     */
+    public ObjectOpenHashSet(HashStrategy<? super E> strategy) {
+        this(strategy, SimpleHashSet.DEFAULT_HIGHER_CAPACITY, SimpleHashSet.DEFAULT_LOWER_CAPACITY);
+    }
+
+    /**
+     * Constructs a new, empty table with the specified load factors, and the default initial capacity (16).
+     *
+     * @param strategy        Hashes and compares the elements.
+     * @param upperLoadFactor The upper load factor of the hash table.
+     * @param lowerLoadFactor The lower load factor of the hash table.
+     */
+    public ObjectOpenHashSet(HashStrategy<? super E> strategy, float upperLoadFactor, float lowerLoadFactor) {
+        this.strategy = strategy;
+        this.upperLoadFactor = upperLoadFactor;
+        this.lowerLoadFactor = lowerLoadFactor;
+    }
+
+    /**
+     * Constructs a new, empty table with the specified load factors, pre-sized to hold the expected number of
+     * elements without increasing. The table is never decreased below this initial capacity.
+     *
+     * @param strategy        Hashes and compares the elements.
+     * @param expectedSize    The expected number of elements in the set.
+     * @param upperLoadFactor The upper load factor of the hash table.
+     * @param lowerLoadFactor The lower load factor of the hash table.
+     */
+    public ObjectOpenHashSet(HashStrategy<? super E> strategy, int expectedSize, float upperLoadFactor,
+                             float lowerLoadFactor) {
+        this(strategy, upperLoadFactor, lowerLoadFactor);
+        int capacity = SimpleHashSet.capacityFor(expectedSize, upperLoadFactor);
+        this.rehash(capacity);
+        this.minCapacity = capacity;
+    }
+
+    /* Public instance Methods */
+
+    /**
+     * Add a specified element to the set if it's not already in it, as the last entry.
+     *
+     * @param newValue New value to add to the set
+     * @return False iff newValue already exists in the set.
+     */
+    public boolean add(E newValue) {
+        int hash = this.hash(newValue);
+        if (this.find(newValue, hash) != NONE)
+            return false; // If value exists in table, do nothing and return false.
+        if (this.elementCounter + 1 > this.upperLoadFactor * this.table.length && this.table.length < MAX_CAPACITY)
+            this.rehash(this.table.length * 2);
+        else if (this.elementCounter == this.keys.length)
+            this.resizeEntries(this.keys.length * 2); // Only at MAX_CAPACITY, or for an upper load factor above 1.
+        int entry = this.elementCounter++;
+        this.keys[entry] = newValue;
+        this.hashes[entry] = hash;
+        this.linkEntry(entry, hash & (this.table.length - 1));
+        this.modificationCounter++;
+        return true;
+    }
+
+    /**
+     * Look for a specified element in the set.
+     *
+     * @param searchVal Value to search for
+     * @return True iff searchVal is found in the set.
+     */
+    public boolean contains(E searchVal) {
+        return this.find(searchVal, this.hash(searchVal)) != NONE;
+    }
+
+    /**
+     * Remove the input element from the set. Its entry is unlinked from its chain, and the last entry is moved into
+     * it, so the entries stay dense.
+     *
+     * @param toDelete Value to delete
+     * @return True iff toDelete is found and deleted.
+     */
+    public boolean delete(E toDelete) {
+        int hash = this.hash(toDelete);
+        int cell = hash & (this.table.length - 1);
+        int previous = NONE; // Link to the entry before the deleted one in its chain, NONE if it is the first.
+        int link = this.table[cell];
+        while (link != NONE && !this.keyEquals(link - 1, toDelete, hash)) {
+            previous = link;
+            link = this.links[link - 1];
+        }
+        if (link == NONE)
+            return false; // Value not in table therefore cannot be deleted, return false.
+        if (previous == NONE)
+            this.table[cell] = this.links[link - 1];
+        else
+            this.links[previous - 1] = this.links[link - 1];
+        this.moveLastEntry(link - 1);
+        this.modificationCounter++;
+        // Decreases only if the decreased table is not about to be increased or decreased again.
+        float loadFactor = (float) this.elementCounter / this.table.length;
+        if (loadFactor < this.lowerLoadFactor && 2 * loadFactor < (this.lowerLoadFactor + this.upperLoadFactor) / 2 &&
+                this.table.length > this.minCapacity)
+            this.rehash(this.table.length / 2);
+        return true;
+    }
+
+    /**
+     * @return The number of elements currently in the set.
+     */
+    public int size() {
+        return this.elementCounter;
+    }
+
+    /**
+     * @return The current capacity (number of cells) of the table.
+     */
+    public int capacity() {
+        return this.table.length;
+    }
+
+    /**
+     * Passes every element of the set to an action, in entry order.
+     *
+     * @param action Action to perform on each element.
+     * @throws ConcurrentModificationException If the action added or deleted a element.
+     */
+    public void forEach(Consumer<? super E> action) {
+        int expectedModifications = this.modificationCounter;
+        for (int entry = 0; entry < this.elementCounter && this.modificationCounter == expectedModifications; entry++)
+            action.accept(this.keyAt(entry));
+        if (this.modificationCounter != expectedModifications)
+            throw new ConcurrentModificationException();
+    }
+
+    /**
+     * Creates an iterator over the elements of the set, in entry order. It fails fast: adding or deleting a element
+     * while it traverses the set makes it throw ConcurrentModificationException.
+     *
+     * @return An iterator over the elements of the set.
+     */
+    public Iterator<E> iterator() {
+        return new KeyIterator();
+    }
+
+    /* Private instance Methods */
+
+    /**
+     * Re-links all the entries into a new table with the specified capacity, and resizes the entry arrays to hold
+     * the elements the new table holds before it is increased.
+     *
+     * @param newCapacity New table capacity (power of 2).
+     */
+    private void rehash(int newCapacity) {
+        this.resizeEntries(Math.max(this.elementCounter + 1, (int) (this.upperLoadFactor * newCapacity) + 1));
+        this.table = new int[newCapacity];
+        int mask = newCapacity - 1;
+        for (int entry = 0; entry < this.elementCounter; entry++)
+            this.linkEntry(entry, this.entryHash(entry) & mask);
+    }
+
+    /**
+     * Resizes the entry arrays, keeping the entries in use and their links.
+     *
+     * @param entryCapacity New length of the entry arrays, more than size().
+     */
+    private void resizeEntries(int entryCapacity) {
+        this.keys = Arrays.copyOf(this.keys, entryCapacity);
+        this.links = Arrays.copyOf(this.links, entryCapacity);
+        this.hashes = Arrays.copyOf(this.hashes, entryCapacity);
+    }
+
+    /**
+     * Links an entry as the first of a cell's chain.
+     *
+     * @param entry Index of the entry.
+     * @param cell  Index of the table cell.
+     */
+    private void linkEntry(int entry, int cell) {
+        this.links[entry] = this.table[cell];
+        this.table[cell] = entry + 1;
+    }
+
+    /**
+     * Moves the last entry into an entry that was unlinked, re-pointing the link to it in its chain, and drops the
+     * last entry.
+     *
+     * @param entry Index of the unlinked entry.
+     */
+    private void moveLastEntry(int entry) {
+        int last = --this.elementCounter;
+        if (entry != last) {
+            int cell = this.entryHash(last) & (this.table.length - 1);
+            if (this.table[cell] == last + 1) {
+                this.table[cell] = entry + 1;
+            } else {
+                int link = this.table[cell];
+                while (this.links[link - 1] != last + 1)
+                    link = this.links[link - 1];
+                this.links[link - 1] = entry + 1;
+            }
+            this.keys[entry] = this.keys[last];
+            this.links[entry] = this.links[last];
+            this.hashes[entry] = this.hashes[last];
+        }
+        this.keys[last] = null; // Not referenced by the set anymore.
+    }
+
+    /**
+     * @param key  Element to look for.
+     * @param hash Hash of key (see hash()).
+     * @return Link to the entry of key, NONE if key is not in the set.
+     */
+    private int find(E key, int hash) {
+        for (int link = this.table[hash & (this.table.length - 1)]; link != NONE; link = this.links[link - 1])
+            if (this.keyEquals(link - 1, key, hash))
+                return link;
+        return NONE;
+    }
+
+    /**
+     * @param entry Index of an entry in use.
+     * @param key   Element to compare to.
+     * @param hash  Hash of key (see hash()).
+     * @return True iff the entry holds key.
+     */
+    private boolean keyEquals(int entry, E key, int hash) {
+        return this.hashes[entry] == hash && this.strategy.equals(this.keyAt(entry), key);
+    }
+
+    /**
+     * @param entry Index of an entry in use.
+     * @return Hash of the entry's element (see hash()).
+     */
+    private int entryHash(int entry) {
+        return this.hashes[entry]; // Cached, so rehashing calls no hashCode().
+    }
+
+    /**
+     * @param entry Index of an entry in use.
+     * @return The element of the entry.
+     */
+    @SuppressWarnings("unchecked") // Only elements of type E are ever stored in keys.
+    private E keyAt(int entry) {
+        return (E) this.keys[entry];
+    }
+
+    /**
+     * Spreads the strategy hash code, as OpenHashSet spreads the String hash code: its high bits are mixed into the
+     * low bits, that choose the cell.
+     *
+     * @param key Element to hash.
+     * @return The hash of key.
+     */
+    private int hash(E key) {
+        int hash = this.strategy.hashCode(key);
+        return hash ^ (hash >>> 16);
+    }
+
+    /* Nested classes */
+
+    /**
+     * A fail-fast iterator over the elements of the set, in entry order.
+     */
+    private final class KeyIterator implements Iterator<E> {
+        /* Class members - variables */
+        private final int expectedModifications = modificationCounter; // Modification counter at creation.
+        private int entry = 0; // Index of the next entry to traverse.
+
+        /* Public instance Methods */
+
+        /**
+         * @return True iff a element is left.
+         * @throws ConcurrentModificationException If the set was modified since the iterator was created.
+         */
+        public boolean hasNext() {
+            if (modificationCounter != this.expectedModifications)
+                throw new ConcurrentModificationException();
+            return this.entry < elementCounter;
+        }
+
+        /**
+         * @return The next element.
+         * @throws NoSuchElementException          If no element is left.
+         * @throws ConcurrentModificationException If the set was modified since the iterator was created.
+         */
+        public E next() {
+            if (!this.hasNext())
+                throw new NoSuchElementException();
+            return keyAt(this.entry++);
+        }
+    }
+}
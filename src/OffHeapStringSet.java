@@ -0,0 +1,755 @@
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Spliterator;
+
+/**
+ * A hash-set that keeps its elements off the Java heap. Extends SimpleHashSet. Elements are stored as length-prefixed
+ * UTF-8 bytes in a direct buffer (the arena), and indexed by an open-addressing table of (hash, arena offset) slots
+ * in a second direct buffer, with linear probing and backward shift deletion. Searches compare the searched String
+ * with the stored bytes in place, so neither the set nor its searches create objects per element, and the garbage
+ * collector sees only a few objects regardless of the set size. A String that is not valid UTF-16 (has a lone
+ * surrogate) is stored exactly, with the surrogate encoded in 3 bytes as any other char of its range (as in WTF-8),
+ * so every String is stored and iterated as it was added, and valid Strings are stored as UTF-8.
+ * The buffers are freed by close(), after which the set cannot be used. The table is always resized all at once,
+ * into a new arena holding only the elements still in the set.
+ * A set can be saved to a snapshot file, which holds a header followed by the table and arena bytes as they are, and
+ * opened from it by mapping the file to memory: searches then read the mapped file, with no re-hashing, and the first
+ * add or delete copies it to memory.
+ */
+public class OffHeapStringSet extends SimpleHashSet implements AutoCloseable {
+    /* Class members - constant variables */
+    private static final int NOT_FOUND = -1; // Slot returned when probing did not find the requested element.
+    private static final int SLOT_BYTES = 2 * Integer.BYTES; // A slot holds the element hash and arena position.
+    private static final int POSITION_OFFSET = Integer.BYTES; // Offset of the arena position within a slot.
+    private static final int EMPTY = 0; // Arena position of an empty slot, stored positions are offsets + 1.
+    private static final int MAX_TABLE_CAPACITY = 1 << 27; // Largest capacity whose slots fit a buffer.
+    private static final int INITIAL_ARENA_BYTES = 256; // Arena size of a newly created set.
+    private static final int MAX_ARENA_BYTES = Integer.MAX_VALUE - 8; // Largest arena size.
+    private static final int VARINT_BITS = 7; // Length prefix bits per byte, the high bit marks a following byte.
+    private static final int VARINT_MORE = 0x80; // Length prefix byte bit marking a following byte.
+    private static final int SURROGATE_LEAD = 0xED; // Leading byte of the 3 bytes encoding of a surrogate.
+    private static final int SURROGATE_SECOND = 0xA0; // Second byte of that encoding is at least this (up to 0xBF).
+    private static final int SNAPSHOT_MAGIC = 0x31534853; // First int of a snapshot file, "SHS1" in ASCII.
+    // Snapshot header: magic, capacity, size, upper and lower load factors, arena end and dead bytes.
+    private static final int SNAPSHOT_HEADER_BYTES = 7 * Integer.BYTES;
+    // Frees a direct buffer right away, null if the running JVM does not provide it.
+    private static final MethodHandle INVOKE_CLEANER = lookupInvokeCleaner();
+    /* Class members - variables */
+    private ByteBuffer table = allocate(INITIAL_CAPACITY * SLOT_BYTES); // Slots of the hash table.
+    private ByteBuffer arena = allocate(INITIAL_ARENA_BYTES); // Length-prefixed UTF-8 bytes of the elements.
+    private int capacity = INITIAL_CAPACITY; // Number of slots in the table.
+    private int arenaEnd = 0; // Arena offset to store the next element at.
+    private int deadBytes = 0; // Arena bytes of the elements that were deleted since the arena was created.
+    // Table and arena before last resize, while their elements are being migrated.
+    private ByteBuffer previousTable = null;
+    private ByteBuffer previousArena = null;
+    private int elementCounter = 0; // Table's element counter. Updated on each successful add/delete.
+
+    /* Constructors */
+
+    /**
+     * A default constructor. Constructs a new, empty table with default initial capacity (16),
+     * upper load factor (0.75) and lower load factor (0.25).
+     */
+    public OffHeapStringSet() {
+        super();
+    }
+
+    /**
+     * Constructs a new, empty table with the specified load factors, and the default initial capacity (16).
+     *
+     * @param upperLoadFactor The upper load factor of the hash table.
+     * @param lowerLoadFactor The lower load factor of the hash table.
+     */
+    public OffHeapStringSet(float upperLoadFactor, float lowerLoadFactor) {
+        super(upperLoadFactor, lowerLoadFactor);
+    }
+
+    /**
+     * Constructs a new, empty table with the specified load factors, pre-sized to hold the expected number of elements
+     * without increasing. The table is never decreased below this initial capacity, so deleting elements of a set
+     * that is expected to grow back does not re-hash it.
+     *
+     * @param expectedSize    The expected number of elements in the set.
+     * @param upperLoadFactor The upper load factor of the hash table.
+     * @param lowerLoadFactor The lower load factor of the hash table.
+     */
+    public OffHeapStringSet(int expectedSize, float upperLoadFactor, float lowerLoadFactor) {
+        super(upperLoadFactor, lowerLoadFactor);
+        this.createTable(capacityFor(expectedSize, upperLoadFactor));
+        this.setMinCapacity(this.capacity());
+    }
+
+    /**
+     * Data constructor - builds the hash set by adding the elements one by one. Duplicate values should be ignored.
+     * The new table has the default values of upper load factor (0.75) and lower load factor (0.25), and an initial
+     * capacity large enough to hold all the elements without increasing (at least 16).
+     *
+     * @param data Values to add to the set.
+     */
+    public OffHeapStringSet(String[] data) {
+        super();
+        this.createTable(Math.max(INITIAL_CAPACITY, capacityFor(data.length, DEFAULT_HIGHER_CAPACITY)));
+        for (String item : data)
+            this.add(item);
+    }
+
+    /* Public instance Methods */
+
+    /**
+     * Add a specified element to the set if it's not already in it.
+     *
+     * @param newValue New value to add to the set
+     * @return False iff newValue already exists in the set.
+     * @throws IllegalStateException If the set was closed, or its arena cannot grow to hold newValue.
+     */
+    public boolean add(String newValue) {
+        this.ensureOpen();
+        this.ensureWritable();
+        int hash = hash(newValue);
+        if (this.findSlot(newValue, hash) != NOT_FOUND)
+            return false; // If item exists in table, do nothing and return false.
+        this.elementCounter++; // Item not in table. Appends element counter by 1.
+        this.countModification();
+        // Checks if increasing table is needed, if so call method and resize/re-hash table, also with new value.
+        if (this.shouldIncrease()) {
+            this.resize(true, newValue);
+            return true;
+        }
+        // A full arena that is mostly deleted elements is re-built in place, rather than grown.
+        if (this.arenaEnd + recordLength(newValue) > this.arena.capacity() && this.deadBytes > this.arenaEnd / 2) {
+            this.rehash(this.capacity(), newValue);
+            return true;
+        }
+        this.addUnique(newValue, hash);
+        return true;
+    }
+
+    /**
+     * Look for a specified value in the set.
+     *
+     * @param searchVal Value to search for
+     * @return True iff searchVal is found in the set.
+     * @throws IllegalStateException If the set was closed.
+     */
+    public boolean contains(String searchVal) {
+        this.ensureOpen();
+        return this.findSlot(searchVal, hash(searchVal)) != NOT_FOUND;
+    }
+
+    /**
+     * Remove the input element from the set. The following elements of its probing run that may be placed before it
+     * are shifted back, so no deleted slot is left behind. The element bytes stay in the arena until it is re-built.
+     *
+     * @param toDelete Value to delete
+     * @return True iff toDelete is found and deleted.
+     * @throws IllegalStateException If the set was closed.
+     */
+    public boolean delete(String toDelete) {
+        this.ensureOpen();
+        this.ensureWritable();
+        int slot = this.findSlot(toDelete, hash(toDelete));
+        if (slot == NOT_FOUND)
+            return false; // Item not in table therefore cannot be deleted, return false.
+        this.deadBytes += recordLength(this.arena, this.positionAt(this.table, slot) - 1);
+        this.removeSlot(slot);
+        this.elementCounter--; // Removes 1 from element counter.
+        this.countModification();
+        if (this.elementCounter == 0) {
+            // Nothing in the arena is in use anymore, so it is re-used from its start.
+            this.arenaEnd = 0;
+            this.deadBytes = 0;
+        }
+        if (this.shouldDecrease())
+            this.resize(false, toDelete); // Checks if decrease-resizing is needed.
+        return true;
+    }
+
+    /**
+     * @return The number of elements currently in the set.
+     */
+    public int size() {
+        return this.elementCounter;
+    }
+
+    /**
+     * Specified by: capacity in class SimpleHashSet.
+     *
+     * @return The current capacity (number of slots) of the table.
+     */
+    public int capacity() {
+        return this.capacity;
+    }
+
+    /**
+     * Creates a spliterator over the elements of the set (see SimpleHashSet.spliterator()). Each element is decoded
+     * from the arena to a new String as it is traversed.
+     *
+     * @return A spliterator over the elements of the set.
+     * @throws IllegalStateException If the set was closed.
+     */
+    public Spliterator<String> spliterator() {
+        this.ensureOpen();
+        return super.spliterator();
+    }
+
+    /**
+     * Saves the set to a snapshot file in one sequential write: a header, the table slots and the arena bytes (deleted
+     * elements bytes included, until the arena is re-built). The file is replaced if it exists.
+     *
+     * @param snapshot Path of the snapshot file.
+     * @throws IOException           If the file cannot be written.
+     * @throws IllegalStateException If the set was closed.
+     */
+    public void save(Path snapshot) throws IOException {
+        this.ensureOpen();
+        ByteBuffer header = ByteBuffer.allocate(SNAPSHOT_HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(SNAPSHOT_MAGIC).putInt(this.capacity).putInt(this.elementCounter)
+                .putFloat(this.getUpperLoadFactor()).putFloat(this.getLowerLoadFactor())
+                .putInt(this.arenaEnd).putInt(this.deadBytes).flip();
+        // Views of the buffers, so writing them does not move the buffers positions.
+        ByteBuffer[] contents = {header, this.table.duplicate().clear(), this.arena.duplicate().limit(this.arenaEnd)};
+        long remaining = SNAPSHOT_HEADER_BYTES + (long) this.capacity * SLOT_BYTES + this.arenaEnd;
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (remaining > 0)
+                remaining -= channel.write(contents);
+        }
+    }
+
+    /**
+     * Frees the off-heap memory of the set. The set cannot be used after it is closed. Closing a closed set does
+     * nothing.
+     */
+    public void close() {
+        if (this.table == null)
+            return; // Already closed.
+        free(this.table);
+        free(this.arena);
+        this.table = null;
+        this.arena = null;
+    }
+
+    /* Public static Methods */
+
+    /**
+     * Opens a set saved by save(), by mapping the snapshot file to memory, read-only. The table and arena are not read
+     * or re-hashed: searches read the mapped file, loading only the pages they touch. The first add or delete copies
+     * the table and arena to memory and unmaps the file, so changing the set never changes the file. The set starts
+     * with its saved capacity as the capacity below which it is never decreased, and with new statistics counters.
+     *
+     * @param snapshot Path of the snapshot file.
+     * @return The saved set. Must be closed to unmap the file.
+     * @throws IOException If the file cannot be read, or is not a valid snapshot.
+     */
+    public static OffHeapStringSet open(Path snapshot) throws IOException {
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(SNAPSHOT_HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining())
+                if (channel.read(header) < 0)
+                    throw new IOException("Snapshot file " + snapshot + " is truncated");
+            header.flip();
+            int magic = header.getInt();
+            int capacity = header.getInt();
+            int size = header.getInt();
+            float upperLoadFactor = header.getFloat();
+            float lowerLoadFactor = header.getFloat();
+            int arenaEnd = header.getInt();
+            int deadBytes = header.getInt();
+            long tableBytes = (long) capacity * SLOT_BYTES;
+            if (magic != SNAPSHOT_MAGIC || capacity <= 0 || capacity > MAX_TABLE_CAPACITY ||
+                    Integer.bitCount(capacity) != 1 || size < 0 || size > capacity || arenaEnd < 0 ||
+                    deadBytes < 0 || deadBytes > arenaEnd ||
+                    channel.size() != SNAPSHOT_HEADER_BYTES + tableBytes + arenaEnd)
+                throw new IOException("File " + snapshot + " is not a valid set snapshot");
+            ByteBuffer table = channel.map(FileChannel.MapMode.READ_ONLY, SNAPSHOT_HEADER_BYTES, tableBytes);
+            ByteBuffer arena = channel.map(FileChannel.MapMode.READ_ONLY, SNAPSHOT_HEADER_BYTES + tableBytes, arenaEnd);
+            OffHeapStringSet set = new OffHeapStringSet(upperLoadFactor, lowerLoadFactor);
+            set.setMinCapacity(capacity);
+            set.replaceBuffers(table.order(ByteOrder.LITTLE_ENDIAN), arena.order(ByteOrder.LITTLE_ENDIAN), capacity);
+            set.elementCounter = size;
+            set.arenaEnd = arenaEnd;
+            set.deadBytes = deadBytes;
+            return set;
+        }
+    }
+
+    /* Protected instance Methods */
+
+    /**
+     * Reinitialize the table and arena based on new capacity. The current ones are kept as the previous table and
+     * arena, until all their elements are migrated. The new arena is sized to hold the elements still in the set.
+     *
+     * @param newCapacity New table capacity.
+     * @throws IllegalStateException If the new capacity is above MAX_TABLE_CAPACITY.
+     */
+    protected void newTable(int newCapacity) {
+        this.previousTable = this.table;
+        this.previousArena = this.arena;
+        int liveBytes = this.arenaEnd - this.deadBytes;
+        this.table = null;
+        this.createTable(newCapacity); // Creates new empty table with specified capacity.
+        this.arena = allocate((int) Math.min(MAX_ARENA_BYTES, Math.max(INITIAL_ARENA_BYTES, 2L * liveBytes)));
+        this.arenaEnd = 0;
+        this.deadBytes = 0;
+    }
+
+    /**
+     * Moves the elements of the previous table (if any) to the current table, and their bytes to the current arena
+     * with no decoding. The previous table and arena are then freed. Always migrates all the previous table slots,
+     * since this set resizes all at once.
+     *
+     * @param maxCells Ignored.
+     */
+    protected void migrate(int maxCells) {
+        if (this.previousTable == null)
+            return; // No resize in progress.
+        int previousCapacity = this.previousTable.capacity() / SLOT_BYTES;
+        for (int slot = 0; slot < previousCapacity; slot++) {
+            int position = this.positionAt(this.previousTable, slot);
+            if (position == EMPTY)
+                continue;
+            int length = recordLength(this.previousArena, position - 1);
+            this.ensureArena(length);
+            this.arena.put(this.arenaEnd, this.previousArena, position - 1, length);
+            this.insert(this.previousTable.getInt(slot * SLOT_BYTES), this.arenaEnd);
+            this.arenaEnd += length;
+        }
+        free(this.previousTable);
+        free(this.previousArena);
+        this.previousTable = null;
+        this.previousArena = null;
+    }
+
+    /**
+     * Adds String element (no duplicates, no null) to new resized table.
+     *
+     * @param item Element to add.
+     */
+    protected void addUnique(String item) {
+        this.addUnique(item, hash(item));
+    }
+
+    /**
+     * Specified by: probeLengths in class SimpleHashSet.
+     *
+     * @return Number of slots probed to find each element of the table, empty if the set was closed.
+     */
+    protected int[] probeLengths() {
+        if (this.table == null)
+            return new int[0];
+        int[] lengths = new int[this.elementCounter];
+        int count = 0;
+        for (int slot = 0; slot < this.capacity && count < lengths.length; slot++)
+            if (this.positionAt(this.table, slot) != EMPTY)
+                lengths[count++] = this.distance(slot) + 1;
+        return Arrays.copyOf(lengths, count);
+    }
+
+    /**
+     * Specified by: cellElement in class SimpleHashSet.
+     *
+     * @param index    Slot of the table.
+     * @param position Position of the element in the slot.
+     * @return The element of the slot decoded from the arena if position is 0, null if the slot is empty or position
+     * is not 0.
+     * @throws IllegalStateException If the set was closed.
+     */
+    protected String cellElement(int index, int position) {
+        this.ensureOpen();
+        int arenaPosition = this.positionAt(this.table, index);
+        return position == 0 && arenaPosition != EMPTY ? this.readRecord(arenaPosition - 1) : null;
+    }
+
+    /* Private instance Methods */
+
+    /**
+     * @throws IllegalStateException If the set was closed.
+     */
+    private void ensureOpen() {
+        if (this.table == null)
+            throw new IllegalStateException("The set was closed");
+    }
+
+    /**
+     * Copies a table and arena that are mapped read-only from a snapshot file to new buffers, and unmaps the file.
+     */
+    private void ensureWritable() {
+        if (!this.table.isReadOnly())
+            return;
+        ByteBuffer newTable = allocate(this.table.capacity());
+        newTable.put(0, this.table, 0, this.table.capacity());
+        ByteBuffer newArena = allocate(Math.max(INITIAL_ARENA_BYTES, this.arenaEnd));
+        newArena.put(0, this.arena, 0, this.arenaEnd);
+        this.replaceBuffers(newTable, newArena, this.capacity);
+    }
+
+    /**
+     * Creates new empty table with specified capacity, replacing (and freeing) the current one.
+     *
+     * @param newCapacity New table capacity.
+     * @throws IllegalStateException If the new capacity is above MAX_TABLE_CAPACITY.
+     */
+    private void createTable(int newCapacity) {
+        if (newCapacity > MAX_TABLE_CAPACITY)
+            throw new IllegalStateException("Cannot increase table capacity above " + MAX_TABLE_CAPACITY);
+        if (this.table != null)
+            free(this.table);
+        this.table = allocate(newCapacity * SLOT_BYTES);
+        this.capacity = newCapacity;
+    }
+
+    /**
+     * Replaces (and frees) the table and arena.
+     *
+     * @param newTable    New table.
+     * @param newArena    New arena.
+     * @param newCapacity Number of slots in newTable.
+     */
+    private void replaceBuffers(ByteBuffer newTable, ByteBuffer newArena, int newCapacity) {
+        free(this.table);
+        free(this.arena);
+        this.table = newTable;
+        this.arena = newArena;
+        this.capacity = newCapacity;
+    }
+
+    /**
+     * Stores String element (no duplicates, no null) in the arena, and adds it to the table.
+     *
+     * @param item Element to add.
+     * @param hash Hash code of item.
+     */
+    private void addUnique(String item, int hash) {
+        int utf8Length = utf8Length(item);
+        int length = varintLength(utf8Length) + utf8Length;
+        this.ensureArena(length);
+        this.writeRecord(this.arenaEnd, item, utf8Length);
+        this.insert(hash, this.arenaEnd);
+        this.arenaEnd += length;
+    }
+
+    /**
+     * Adds an element stored in the arena to the table, in the first empty slot of its probing run. The table has an
+     * empty slot for it, since an upper load factor of at most 1 is only reached by the element that fills the table.
+     *
+     * @param hash   Hash code of the element.
+     * @param offset Arena offset of the element.
+     */
+    private void insert(int hash, int offset) {
+        int slot = this.clamp(hash);
+        for (int probe = 1; probe < this.capacity && this.positionAt(this.table, slot) != EMPTY; probe++)
+            slot = this.clamp(slot + 1); // Linear probing.
+        this.table.putInt(slot * SLOT_BYTES, hash);
+        this.table.putInt(slot * SLOT_BYTES + POSITION_OFFSET, offset + 1);
+    }
+
+    /**
+     * Empties a table slot, and shifts back the following elements of its probing run that may be placed in it:
+     * those whose hash slot is not after the empty slot (cyclically). Repeats for the slot each shifted element left.
+     * Stops at the next empty slot, or, in a full table (an upper load factor of 1), once it wraps around to the slot
+     * being emptied.
+     *
+     * @param slot Slot to empty.
+     */
+    private void removeSlot(int slot) {
+        int next = this.clamp(slot + 1);
+        while (next != slot && this.positionAt(this.table, next) != EMPTY) {
+            // An element may be shifted back if its distance from its hash slot reaches back to the empty slot.
+            if (this.distance(next) >= this.clamp(next - slot)) {
+                this.table.putLong(slot * SLOT_BYTES, this.table.getLong(next * SLOT_BYTES));
+                slot = next;
+            }
+            next = this.clamp(next + 1);
+        }
+        this.table.putLong(slot * SLOT_BYTES, 0L);
+    }
+
+    /**
+     * Finds the table slot of an element.
+     *
+     * @param item String value to look for.
+     * @param hash Hash code of item.
+     * @return Slot of item in table, NOT_FOUND if item is not in table.
+     */
+    private int findSlot(String item, int hash) {
+        int slot = this.clamp(hash);
+        for (int probe = 0; probe < this.capacity; probe++) {
+            int position = this.positionAt(this.table, slot);
+            if (position == EMPTY)
+                return NOT_FOUND;
+            if (this.table.getInt(slot * SLOT_BYTES) == hash && this.recordEquals(position - 1, item))
+                return slot;
+            slot = this.clamp(slot + 1); // Linear probing.
+        }
+        return NOT_FOUND; // If iteration completed and no empty slot or equal val found.
+    }
+
+    /**
+     * @param slots Table to read.
+     * @param slot  Slot of the table.
+     * @return Arena position stored in slot (arena offset + 1), EMPTY if the slot is empty.
+     */
+    private int positionAt(ByteBuffer slots, int slot) {
+        return slots.getInt(slot * SLOT_BYTES + POSITION_OFFSET);
+    }
+
+    /**
+     * @param slot Non-empty slot of the table.
+     * @return The distance of the slot element from its hash slot.
+     */
+    private int distance(int slot) {
+        return this.clamp(slot - this.table.getInt(slot * SLOT_BYTES));
+    }
+
+    /**
+     * Makes room in the arena for a record, by moving it to a larger arena if needed.
+     *
+     * @param length Record length, in bytes.
+     * @throws IllegalStateException If the arena cannot grow to hold the record.
+     */
+    private void ensureArena(int length) {
+        long required = (long) this.arenaEnd + length;
+        if (required <= this.arena.capacity())
+            return;
+        if (required > MAX_ARENA_BYTES)
+            throw new IllegalStateException("Cannot increase arena size above " + MAX_ARENA_BYTES + " bytes");
+        ByteBuffer grown = allocate((int) Math.min(MAX_ARENA_BYTES, Math.max(required, 2L * this.arena.capacity())));
+        grown.put(0, this.arena, 0, this.arenaEnd);
+        free(this.arena);
+        this.arena = grown;
+    }
+
+    /**
+     * Writes a String as a record: its UTF-8 length as a prefix, followed by its UTF-8 bytes (a lone surrogate encoded
+     * as a code point of its own).
+     *
+     * @param offset Arena offset to write at, with room for the record.
+     * @param item   String to write.
+     * @param length UTF-8 length of item.
+     */
+    private void writeRecord(int offset, String item, int length) {
+        for (; length >= VARINT_MORE; length >>>= VARINT_BITS)
+            this.arena.put(offset++, (byte) (length | VARINT_MORE));
+        this.arena.put(offset++, (byte) length);
+        for (int index = 0; index < item.length(); ) {
+            int codePoint = item.codePointAt(index);
+            int byteCount = utf8Length(codePoint);
+            for (int byteIndex = 0; byteIndex < byteCount; byteIndex++)
+                this.arena.put(offset++, utf8Byte(codePoint, byteCount, byteIndex));
+            index += Character.charCount(codePoint);
+        }
+    }
+
+    /**
+     * Compares a record with a String, by encoding the String one character at a time.
+     *
+     * @param offset Arena offset of the record.
+     * @param item   String to compare with.
+     * @return True iff the record holds the encoding of item.
+     */
+    private boolean recordEquals(int offset, String item) {
+        int length = readLength(this.arena, offset);
+        int position = offset + varintLength(length);
+        int end = position + length;
+        for (int index = 0; index < item.length(); ) {
+            int codePoint = item.codePointAt(index);
+            int byteCount = utf8Length(codePoint);
+            if (end - position < byteCount)
+                return false;
+            for (int byteIndex = 0; byteIndex < byteCount; byteIndex++)
+                if (this.arena.get(position++) != utf8Byte(codePoint, byteCount, byteIndex))
+                    return false;
+            index += Character.charCount(codePoint);
+        }
+        return position == end;
+    }
+
+    /**
+     * Decodes a record to a String. Reads the arena with absolute gets only, so records can be decoded concurrently.
+     *
+     * @param offset Arena offset of the record.
+     * @return The String whose encoding the record holds.
+     */
+    private String readRecord(int offset) {
+        int length = readLength(this.arena, offset);
+        byte[] bytes = new byte[length];
+        this.arena.get(offset + varintLength(length), bytes);
+        // The UTF-8 decoder would replace an encoded lone surrogate, so only records that hold one are decoded here.
+        return hasSurrogate(bytes) ? decode(bytes) : new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /* Private static Methods */
+
+    /**
+     * @param item String to hash.
+     * @return Hash code for String input, mixed (see SimpleHashSet.mix()).
+     */
+    private static int hash(String item) {
+        return mix(item.hashCode());
+    }
+
+    /**
+     * @param bytes Number of bytes to allocate.
+     * @return A new zeroed direct buffer of the specified size, in the byte order of snapshot files.
+     */
+    private static ByteBuffer allocate(int bytes) {
+        return ByteBuffer.allocateDirect(bytes).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Frees a direct buffer (or unmaps a mapped one) right away, if the running JVM provides the means to; otherwise
+     * leaves it to be freed once the buffer is garbage collected. The buffer must not be accessed afterwards.
+     *
+     * @param buffer Direct buffer returned by allocate, or a mapped buffer.
+     */
+    private static void free(ByteBuffer buffer) {
+        if (INVOKE_CLEANER == null)
+            return;
+        try {
+            INVOKE_CLEANER.invokeExact(buffer);
+        } catch (Throwable e) {
+            // Left to be freed once the buffer is garbage collected.
+        }
+    }
+
+    /**
+     * Looks up sun.misc.Unsafe.invokeCleaner, which frees a direct buffer right away. Looked up by reflection, since
+     * the class is not part of the standard API.
+     *
+     * @return Handle taking a direct buffer to free, null if the running JVM does not provide it.
+     */
+    private static MethodHandle lookupInvokeCleaner() {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            return MethodHandles.lookup().findVirtual(unsafeClass, "invokeCleaner",
+                    MethodType.methodType(void.class, ByteBuffer.class)).bindTo(theUnsafe.get(null));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @param bytes Bytes of a record.
+     * @return True iff the bytes encode a lone surrogate.
+     */
+    private static boolean hasSurrogate(byte[] bytes) {
+        for (int index = 0; index < bytes.length - 1; index++)
+            if ((bytes[index] & 0xFF) == SURROGATE_LEAD && (bytes[index + 1] & 0xFF) >= SURROGATE_SECOND)
+                return true;
+        return false;
+    }
+
+    /**
+     * Decodes the bytes of a record one code point at a time, keeping lone surrogates.
+     *
+     * @param bytes Bytes of a record.
+     * @return The String whose encoding the bytes are.
+     */
+    private static String decode(byte[] bytes) {
+        StringBuilder decoded = new StringBuilder(bytes.length);
+        for (int index = 0; index < bytes.length; ) {
+            int lead = bytes[index++] & 0xFF;
+            int byteCount = lead < 0x80 ? 1 : lead < 0xE0 ? 2 : lead < 0xF0 ? 3 : 4;
+            int codePoint = byteCount == 1 ? lead : lead & (0x7F >> byteCount); // Bits after the leading 1 bits.
+            for (int byteIndex = 1; byteIndex < byteCount; byteIndex++)
+                codePoint = codePoint << 6 | (bytes[index++] & 0x3F);
+            decoded.appendCodePoint(codePoint); // A lone surrogate is appended as a single char.
+        }
+        return decoded.toString();
+    }
+
+    /**
+     * @param codePoint Code point to encode.
+     * @return Number of bytes of its UTF-8 encoding.
+     */
+    private static int utf8Length(int codePoint) {
+        return codePoint < 0x80 ? 1 : codePoint < 0x800 ? 2 : codePoint < 0x10000 ? 3 : 4;
+    }
+
+    /**
+     * @param codePoint Code point to encode.
+     * @param byteCount Number of bytes of its UTF-8 encoding.
+     * @param byteIndex Index of the byte to return.
+     * @return A byte of the UTF-8 encoding of the code point.
+     */
+    private static byte utf8Byte(int codePoint, int byteCount, int byteIndex) {
+        if (byteCount == 1)
+            return (byte) codePoint;
+        int bits = codePoint >>> (6 * (byteCount - 1 - byteIndex)); // Bits from the byte on are moved to the bottom.
+        if (byteIndex == 0)
+            return (byte) ((0xF00 >> byteCount) | bits); // Leading byte: byteCount high bits set, then a zero bit.
+        return (byte) (0x80 | (bits & 0x3F)); // Continuation byte: 10xxxxxx.
+    }
+
+    /**
+     * @param item String to encode.
+     * @return Number of bytes of its UTF-8 encoding.
+     */
+    private static int utf8Length(String item) {
+        int length = 0;
+        for (int index = 0; index < item.length(); ) {
+            int codePoint = item.codePointAt(index);
+            length += utf8Length(codePoint);
+            index += Character.charCount(codePoint);
+        }
+        return length;
+    }
+
+    /**
+     * @param item String to store.
+     * @return Number of arena bytes of its record.
+     */
+    private static int recordLength(String item) {
+        int length = utf8Length(item);
+        return varintLength(length) + length;
+    }
+
+    /**
+     * @param bytes  Arena to read.
+     * @param offset Arena offset of a record.
+     * @return Number of arena bytes of the record.
+     */
+    private static int recordLength(ByteBuffer bytes, int offset) {
+        int length = readLength(bytes, offset);
+        return varintLength(length) + length;
+    }
+
+    /**
+     * @param bytes  Arena to read.
+     * @param offset Arena offset of a record.
+     * @return UTF-8 length stored in the record prefix.
+     */
+    private static int readLength(ByteBuffer bytes, int offset) {
+        int length = 0;
+        for (int shift = 0; ; shift += VARINT_BITS) {
+            byte prefixByte = bytes.get(offset++);
+            length |= (prefixByte & (VARINT_MORE - 1)) << shift;
+            if ((prefixByte & VARINT_MORE) == 0)
+                return length;
+        }
+    }
+
+    /**
+     * @param length UTF-8 length of a record.
+     * @return Number of bytes of the record prefix.
+     */
+    private static int varintLength(int length) {
+        int bytes = 1;
+        for (; length >= VARINT_MORE; length >>>= VARINT_BITS)
+            bytes++;
+        return bytes;
+    }
+}
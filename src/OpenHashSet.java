@@ -1,11 +1,24 @@
+import java.nio.ByteBuffer;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Objects;
+
 /**
  * A hash-set based on chaining. Extends SimpleHashSet. Note: the capacity of a chaining based hash-set is simply the
  * number of buckets (the length of the array of lists)
  */
 public class OpenHashSet extends SimpleHashSet {
+    /* Class members - constant variables */
+    private static final SecureRandom SEED_SOURCE = new SecureRandom(); // Source of seeded hash sets' seeds.
+    private static final long HASH_MULTIPLIER = 0x9E3779B97F4A7C15L; // Odd constant (golden ratio) of seeded hash.
+    private static final int HASH_ROTATION = 29; // Rotation of the seeded hash state, before mixing in each char.
     /* Class members - variables */
-    private LinkedListContainer[] table = new LinkedListContainer[INITIAL_CAPACITY]; // Hash table representation.
+    private HashBucket[] table = new HashBucket[INITIAL_CAPACITY]; // Hash table representation.
+    private HashBucket[] previousTable = null; // Table before last resize, while its elements are being migrated.
+    private int migrationIndex = 0; // Next previous table index to migrate.
     private int elementCounter = 0; // Table's element counter. Updated on each successful add/delete.
+    private boolean seededHash = false; // True if elements are hashed with a per-instance seed, false by hash code.
+    private long hashSeed = 0; // Random seed of seeded hash, 0 if not seeded.
 
     /* Constructors */
 
@@ -27,15 +40,62 @@ public class OpenHashSet extends SimpleHashSet {
         super(upperLoadFactor, lowerLoadFactor);
     }
 
+    /**
+     * Constructs a new, empty table with the specified load factors and resize mode, and the default initial
+     * capacity (16).
+     *
+     * @param upperLoadFactor   The upper load factor of the hash table.
+     * @param lowerLoadFactor   The lower load factor of the hash table.
+     * @param incrementalResize True to migrate buckets a few at a time after a resize, false to migrate all at once.
+     */
+    public OpenHashSet(float upperLoadFactor, float lowerLoadFactor, boolean incrementalResize) {
+        super(upperLoadFactor, lowerLoadFactor, incrementalResize);
+    }
+
+    /**
+     * Constructs a new, empty table with the specified load factors, resize mode and hash function, and the default
+     * initial capacity (16). A seeded hash mixes every char of an element with a random seed of this instance, so
+     * elements that share a String hash code (by chance or by design) are spread over different buckets, and which
+     * elements collide cannot be predicted from outside. It costs hashing the whole element on every operation, since
+     * unlike String.hashCode it is not cached.
+     *
+     * @param upperLoadFactor   The upper load factor of the hash table.
+     * @param lowerLoadFactor   The lower load factor of the hash table.
+     * @param incrementalResize True to migrate buckets a few at a time after a resize, false to migrate all at once.
+     * @param seededHash        True to hash elements with a random per-instance seed, false by String hash code.
+     */
+    public OpenHashSet(float upperLoadFactor, float lowerLoadFactor, boolean incrementalResize, boolean seededHash) {
+        super(upperLoadFactor, lowerLoadFactor, incrementalResize);
+        this.seededHash = seededHash;
+        if (seededHash)
+            this.hashSeed = SEED_SOURCE.nextLong();
+    }
+
+    /**
+     * Constructs a new, empty table with the specified load factors, pre-sized to hold the expected number of elements
+     * without increasing. The table is never decreased below this initial capacity, so deleting elements of a set
+     * that is expected to grow back does not re-hash it.
+     *
+     * @param expectedSize    The expected number of elements in the set.
+     * @param upperLoadFactor The upper load factor of the hash table.
+     * @param lowerLoadFactor The lower load factor of the hash table.
+     */
+    public OpenHashSet(int expectedSize, float upperLoadFactor, float lowerLoadFactor) {
+        super(upperLoadFactor, lowerLoadFactor);
+        this.createTable(capacityFor(expectedSize, upperLoadFactor));
+        this.setMinCapacity(this.capacity());
+    }
+
     /**
      * Data constructor - builds the hash set by adding the elements one by one. Duplicate values should be ignored.
-     * The new table has the default values of initial capacity (16), upper load factor (0.75),
-     * and lower load factor (0.25).
+     * The new table has the default values of upper load factor (0.75) and lower load factor (0.25), and an initial
+     * capacity large enough to hold all the elements without increasing (at least 16).
      *
      * @param data Values to add to the set.
      */
     public OpenHashSet(String[] data) {
         super();
+        this.createTable(Math.max(INITIAL_CAPACITY, capacityFor(data.length, DEFAULT_HIGHER_CAPACITY)));
         for (String item : data)
             this.add(item);
     }
@@ -49,23 +109,8 @@ public class OpenHashSet extends SimpleHashSet {
      * @return False iff newValue already exists in the set.
      */
     public boolean add(String newValue) {
-        int index = this.clamp(this.hash(newValue)); // Clamps string hash code to fit array index.
-        // If item exists in table, do nothing and return false.
-        if (this.itemInList(newValue, index))
-            return false;
-        this.elementCounter++; // Item not in table. Appends element counter by 1.
-        // Checks if increasing table is needed, if so call method and resize/re-hash table, also with new value.
-        if (this.shouldIncrease()) {
-            this.resize(true, newValue);
-            return true;
-        }
-        // If index is null, creates new linked list container.
-        else if (this.table[index] == null)
-            this.table[index] = new LinkedListContainer(newValue);
-            // Index has existing list with items that do not much new value. Adds item to list and return true.
-        else
-            this.table[index].addItem(newValue);
-        return true;
+        this.migrationStep();
+        return this.add(newValue, this.hash(newValue));
     }
 
     /**
@@ -75,8 +120,50 @@ public class OpenHashSet extends SimpleHashSet {
      * @return True iff searchVal is found in the set.
      */
     public boolean contains(String searchVal) {
-        int index = this.clamp(this.hash(searchVal)); // Clamps string hash code to fit array index.
-        return this.itemInList(searchVal, index); // Returns boolean from dedicated method that checks if item exists.
+        this.migrationStep();
+        int hash = this.hash(searchVal);
+        int index = this.clamp(hash); // Clamps string hash code to fit array index.
+        // Returns boolean from methods that check if item exists, in the table or in the table being migrated.
+        return this.itemInBucket(searchVal, hash, index) || this.itemInPreviousTable(searchVal, hash);
+    }
+
+    /**
+     * Look for the value of a char sequence in the set, hashing and comparing it in place, with no String created.
+     * A set with a seeded hash searches it as a String, since its hash is not computed from String hash codes.
+     *
+     * @param searchVal Value to search for
+     * @return True iff a String equal to searchVal is found in the set.
+     */
+    public boolean contains(CharSequence searchVal) {
+        return this.containsKey(searchVal, 0, 0);
+    }
+
+    /**
+     * Look for the value of a range of UTF-8 bytes in the set, hashing and comparing the decoded chars in place, with
+     * no String created. Malformed UTF-8 is searched decoded to a String, as new String(bytes, UTF_8) replaces it.
+     * A set with a seeded hash searches every value decoded to a String.
+     *
+     * @param bytes  Array holding the value to search for
+     * @param offset Index of the first byte of the value
+     * @param length Number of bytes of the value
+     * @return True iff the decoded value is found in the set.
+     * @throws IndexOutOfBoundsException If the range is not within the array.
+     */
+    public boolean contains(byte[] bytes, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, bytes.length);
+        return this.containsKey(bytes, offset, length);
+    }
+
+    /**
+     * Look for the value of the remaining UTF-8 bytes of a buffer in the set, as contains(byte[], int, int) does. The
+     * bytes are read by absolute index, so the buffer position is not changed, and a direct or mapped buffer is
+     * searched with no copy.
+     *
+     * @param bytes Buffer holding the value to search for
+     * @return True iff the decoded value is found in the set.
+     */
+    public boolean contains(ByteBuffer bytes) {
+        return this.containsKey(bytes, bytes.position(), bytes.remaining());
     }
 
     /**
@@ -86,18 +173,84 @@ public class OpenHashSet extends SimpleHashSet {
      * @return True iff toDelete is found and deleted.
      */
     public boolean delete(String toDelete) {
-        int index = this.clamp(this.hash(toDelete)); // Clamps string hash code to fit array index.
-        if (this.table[index].findAndDelete(toDelete)) {
-            // If after deletion, list bucket is empty, nullify index.
-            if (this.table[index].getContainer().isEmpty())
-                this.table[index] = null;
-            this.elementCounter--; // Removes 1 from element counter.
-            // Checks if resizing is needed (decrease), and if so decrease table with dedicated method.
-            if (shouldDecrease())
-                this.resize(false, toDelete);
-            return true;
+        this.migrationStep();
+        return this.delete(toDelete, this.hash(toDelete));
+    }
+
+    /**
+     * Add the specified elements to the set, each if it's not already in it. Looks the elements up BATCH_SIZE at a
+     * time (see containsAll), and adds only the ones that were not found.
+     *
+     * @param newValues New values to add to the set
+     * @return Number of values that were added, i.e. did not already exist in the set.
+     */
+    public int addAll(String[] newValues) {
+        int added = 0;
+        int[] hashes = new int[BATCH_SIZE];
+        HashBucket[] buckets = new HashBucket[BATCH_SIZE];
+        boolean[] found = new boolean[BATCH_SIZE];
+        for (int start = 0; start < newValues.length; start += BATCH_SIZE) {
+            int end = Math.min(newValues.length, start + BATCH_SIZE);
+            this.findAll(newValues, start, end, hashes, buckets, found);
+            // An element that was found is still in the set, since adding never removes elements.
+            for (int i = start; i < end; i++) {
+                if (found[i - start])
+                    continue;
+                this.migrationStep();
+                if (this.add(newValues[i], hashes[i - start]))
+                    added++;
+            }
         }
-        return false;
+        return added;
+    }
+
+    /**
+     * Look for the specified values in the set, BATCH_SIZE at a time: first hashes all the values of a batch and
+     * loads their buckets, and only then searches each bucket, so the cache misses of loading the buckets overlap.
+     *
+     * @param searchVals Values to search for
+     * @param found      Set to true at the index of each value that is found in the set, false at the others.
+     * @return Number of values that were found in the set.
+     */
+    public int containsAll(String[] searchVals, boolean[] found) {
+        int count = 0;
+        int[] hashes = new int[BATCH_SIZE];
+        HashBucket[] buckets = new HashBucket[BATCH_SIZE];
+        boolean[] batchFound = new boolean[BATCH_SIZE];
+        for (int start = 0; start < searchVals.length; start += BATCH_SIZE) {
+            int end = Math.min(searchVals.length, start + BATCH_SIZE);
+            this.migrationSteps(end - start);
+            count += this.findAll(searchVals, start, end, hashes, buckets, batchFound);
+            System.arraycopy(batchFound, 0, found, start, end - start);
+        }
+        return count;
+    }
+
+    /**
+     * Remove the specified elements from the set. Looks the elements up BATCH_SIZE at a time (see containsAll), and
+     * deletes only the ones that were found.
+     *
+     * @param toDelete Values to delete
+     * @return Number of values that were found and deleted.
+     */
+    public int deleteAll(String[] toDelete) {
+        int deleted = 0;
+        int[] hashes = new int[BATCH_SIZE];
+        HashBucket[] buckets = new HashBucket[BATCH_SIZE];
+        boolean[] found = new boolean[BATCH_SIZE];
+        for (int start = 0; start < toDelete.length; start += BATCH_SIZE) {
+            int end = Math.min(toDelete.length, start + BATCH_SIZE);
+            this.findAll(toDelete, start, end, hashes, buckets, found);
+            // An element that was not found is still not in the set, since deleting never adds elements.
+            for (int i = start; i < end; i++) {
+                if (!found[i - start])
+                    continue;
+                this.migrationStep();
+                if (this.delete(toDelete[i], hashes[i - start]))
+                    deleted++;
+            }
+        }
+        return deleted;
     }
 
     /**
@@ -119,30 +272,40 @@ public class OpenHashSet extends SimpleHashSet {
     /* Protected instance Methods */
 
     /**
-     * Reinitialize hash table based on new capacity.
+     * Reinitialize hash table based on new capacity. The current table is kept as the previous table, until all its
+     * buckets are migrated to the new table.
      *
      * @param newCapacity New table capacity.
      */
     protected void newTable(int newCapacity) {
-        this.table = new LinkedListContainer[newCapacity]; // Creates new empty table with specified capacity.
+        this.previousTable = this.table;
+        this.migrationIndex = 0;
+        this.createTable(newCapacity); // Creates new empty table with specified capacity.
     }
 
     /**
-     * Creates an array representation of the current table elements (no duplicates, no null).
+     * Moves the elements of the previous table buckets (if any) to the current table, continuing from the last
+     * migrated bucket. Once all the previous table buckets were migrated, the previous table is released.
      *
-     * @return Array that contains all String elements in the current table.
+     * @param maxCells Maximal number of previous table buckets to migrate.
      */
-    protected String[] assignTableElementsToArray() {
-        String[] tempTable = new String[this.size()]; // Assign new array the size of total elements in table.
-        int index = 0;
-        for (LinkedListContainer list : this.table) // Go over all the list buckets of the table.
-            // If index not null, iterate over the linked list and assign String values to the result array.
-            if (list != null)
-                for (Object item : list.getContainer()) {
-                    tempTable[index] = item.toString();
-                    index++;
-                }
-        return tempTable;
+    protected void migrate(int maxCells) {
+        if (this.previousTable == null)
+            return; // No resize in progress.
+        int end = (int) Math.min(this.previousTable.length, (long) this.migrationIndex + maxCells);
+        for (; this.migrationIndex < end; this.migrationIndex++) {
+            HashBucket bucket = this.previousTable[this.migrationIndex];
+            if (bucket == null)
+                continue;
+            // Cached hash codes are re-used, so the elements are not hashed again.
+            for (int position = 0; position < bucket.size(); position++) {
+                int hash = bucket.getHash(position);
+                this.addUnique(bucket.getItem(position), hash, this.clamp(hash));
+            }
+            this.previousTable[this.migrationIndex] = null;
+        }
+        if (this.migrationIndex == this.previousTable.length)
+            this.previousTable = null; // All buckets migrated.
     }
 
     /**
@@ -151,36 +314,274 @@ public class OpenHashSet extends SimpleHashSet {
      * @param item Element to add.
      */
     protected void addUnique(String item) {
-        int index = this.clamp(this.hash(item)); // Clamps string hash code to fit array index.
-        // If index is null, creates new linked list container.
-        if (this.table[index] == null)
-            this.table[index] = new LinkedListContainer(item);
-            // Index has existing list with items that do not much new value. Adds item to list.
-        else
-            this.table[index].addItem(item);
+        int hash = this.hash(item);
+        this.addUnique(item, hash, this.clamp(hash));
+    }
+
+    /**
+     * Specified by: chainLengths in class SimpleHashSet.
+     *
+     * @return Number of elements in each non-empty bucket of the current table.
+     */
+    protected int[] chainLengths() {
+        HashBucket[] buckets = this.table;
+        int[] lengths = new int[buckets.length];
+        int count = 0;
+        for (HashBucket bucket : buckets)
+            if (bucket != null)
+                lengths[count++] = bucket.size();
+        return Arrays.copyOf(lengths, count);
+    }
+
+    /**
+     * @param index Index of a cell of the current table.
+     * @return The bucket of the cell, null if the cell has none.
+     */
+    protected HashBucket bucketAt(int index) {
+        return this.table[index];
+    }
+
+    /**
+     * Checks if another set hashes elements the same way as this set, so the cached hash codes of the elements of
+     * either set also choose the buckets of the other: both use String hash codes, or the same seed.
+     *
+     * @param other Set to compare with.
+     * @return True iff both sets hash every element to the same hash code.
+     */
+    protected boolean hashesLike(OpenHashSet other) {
+        return this.seededHash == other.seededHash && this.hashSeed == other.hashSeed;
+    }
+
+    /**
+     * Specified by: cellElement in class SimpleHashSet.
+     *
+     * @param index    Index of the cell.
+     * @param position Position of the element in the cell's bucket.
+     * @return The element in the specified position of the bucket, null if the cell has no bucket or the bucket has
+     * fewer elements.
+     */
+    protected String cellElement(int index, int position) {
+        HashBucket bucket = this.table[index];
+        return bucket != null && position < bucket.size() ? bucket.getItem(position) : null;
     }
 
     /* Private instance Methods */
 
     /**
+     * Hashes an element, and spreads the high bits of the hash into the low bits, since clamping keeps only the low
+     * bits: hash codes that differ only in their high bits would otherwise share a bucket.
+     *
      * @param item String to hash.
      * @return Hash code for String input.
      */
     private int hash(String item) {
-        return item.hashCode();
+        return spread(this.seededHash ? this.seededHash(item) : item.hashCode());
+    }
+
+    /**
+     * Searches a key that is not a String (see SimpleHashSet.keyHash()) in place: hashes it as the equal String
+     * would be, and compares it with the elements of its bucket, in the table and in the table being migrated.
+     *
+     * @param key    A CharSequence, a byte array or a ByteBuffer.
+     * @param offset Index of the first byte of a byte key, ignored for a CharSequence.
+     * @param length Number of bytes of a byte key, ignored for a CharSequence.
+     * @return True iff an element equal to the key is in the set.
+     */
+    private boolean containsKey(Object key, int offset, int length) {
+        long keyHash = this.seededHash ? MALFORMED_KEY : keyHash(key, offset, length);
+        if (keyHash == MALFORMED_KEY)
+            return this.contains(keyString(key, offset, length));
+        this.migrationStep();
+        int hash = spread((int) keyHash);
+        HashBucket bucket = this.table[this.clamp(hash)];
+        if (bucket != null && bucket.containsKey(key, offset, length, hash))
+            return true;
+        if (this.previousTable == null)
+            return false;
+        HashBucket previousBucket = this.previousTable[hash & (this.previousTable.length - 1)];
+        return previousBucket != null && previousBucket.containsKey(key, offset, length, hash);
+    }
+
+    /**
+     * Hashes an element with this instance's seed: mixes each char into a 64 bit state by rotating and multiplying,
+     * and then mixes the state bits with the finalizer of MurmurHash3.
+     *
+     * @param item String to hash.
+     * @return Seeded hash code for String input.
+     */
+    private int seededHash(String item) {
+        long state = this.hashSeed;
+        for (int i = 0; i < item.length(); i++)
+            state = Long.rotateLeft(state ^ item.charAt(i), HASH_ROTATION) * HASH_MULTIPLIER;
+        state ^= state >>> 33;
+        state *= 0xFF51AFD7ED558CCDL;
+        state ^= state >>> 33;
+        state *= 0xC4CEB9FE1A85EC53L;
+        state ^= state >>> 33;
+        return (int) state;
+    }
+
+    /**
+     * Creates new empty table with specified capacity, replacing the current one.
+     *
+     * @param capacity New table capacity.
+     */
+    private void createTable(int capacity) {
+        this.table = new HashBucket[capacity];
+    }
+
+    /**
+     * Adds String element (no duplicates, no null) to the table bucket in specified index.
+     *
+     * @param item  Element to add.
+     * @param hash  Hash code of item.
+     * @param index Array index to add the item to.
+     */
+    private void addUnique(String item, int hash, int index) {
+        // If index is null, creates new bucket.
+        if (this.table[index] == null)
+            this.table[index] = new HashBucket(item, hash);
+            // Index has existing bucket with items that do not much new value. Adds item to bucket.
+        else
+            this.table[index].addItem(item, hash);
+    }
+
+    /**
+     * Adds an element if it's not already in the set.
+     *
+     * @param newValue New value to add to the set.
+     * @param hash     Hash code of newValue.
+     * @return False iff newValue already exists in the set.
+     */
+    private boolean add(String newValue, int hash) {
+        int index = this.clamp(hash); // Clamps string hash code to fit array index.
+        // If item exists in table, do nothing and return false.
+        if (this.itemInBucket(newValue, hash, index) || this.itemInPreviousTable(newValue, hash))
+            return false;
+        this.elementCounter++; // Item not in table. Appends element counter by 1.
+        this.countModification();
+        // Checks if increasing table is needed, if so call method and resize/re-hash table, also with new value.
+        if (this.shouldIncrease()) {
+            this.resize(true, newValue);
+            return true;
+        }
+        this.addUnique(newValue, hash, index);
+        return true;
+    }
+
+    /**
+     * Removes an element from the set.
+     *
+     * @param toDelete Value to delete.
+     * @param hash     Hash code of toDelete.
+     * @return True iff toDelete is found and deleted.
+     */
+    private boolean delete(String toDelete, int hash) {
+        int index = this.clamp(hash); // Clamps string hash code to fit array index.
+        boolean deleted = deleteFromBucket(this.table, index, toDelete, hash);
+        // If item not found and a resize is in progress, it may still be in the previous table.
+        if (!deleted && this.previousTable != null)
+            deleted = deleteFromBucket(this.previousTable, hash & (this.previousTable.length - 1), toDelete, hash);
+        if (deleted) {
+            this.elementCounter--; // Removes 1 from element counter.
+            this.countModification();
+            // Checks if resizing is needed (decrease), and if so decrease table with dedicated method.
+            if (shouldDecrease())
+                this.resize(false, toDelete);
+        }
+        return deleted;
+    }
+
+    /**
+     * Looks up a batch of elements in two passes: the first hashes each element and loads its bucket, with no
+     * dependency between the loads, and the second searches the loaded buckets (and the previous table, while a
+     * resize is in progress).
+     *
+     * @param items   Elements to look up.
+     * @param start   Index of the first element of the batch.
+     * @param end     Index after the last element of the batch (at most BATCH_SIZE after start).
+     * @param hashes  Filled with the hash code of each element of the batch, by index from start.
+     * @param buckets Filled with the bucket of each element of the batch, by index from start.
+     * @param found   Filled with true for each element of the batch that is in the set, by index from start.
+     * @return Number of elements of the batch that are in the set.
+     */
+    private int findAll(String[] items, int start, int end, int[] hashes, HashBucket[] buckets, boolean[] found) {
+        HashBucket[] cells = this.table;
+        for (int i = start; i < end; i++) {
+            int hash = this.hash(items[i]);
+            hashes[i - start] = hash;
+            buckets[i - start] = cells[hash & (cells.length - 1)];
+        }
+        int count = 0;
+        for (int i = start; i < end; i++) {
+            HashBucket bucket = buckets[i - start];
+            int hash = hashes[i - start];
+            found[i - start] = bucket != null && bucket.contains(items[i], hash) ||
+                    this.itemInPreviousTable(items[i], hash);
+            if (found[i - start])
+                count++;
+        }
+        return count;
     }
 
     /**
-     * Checks if item exists on specific list in index.
+     * Checks if item exists on specific bucket in index.
      *
      * @param item  String value to check if exists.
+     * @param hash  Hash code of item.
      * @param index Array index where the item is supposed to be stored.
      * @return True if item exists, false if otherwise.
      */
-    private boolean itemInList(String item, int index) {
-        // If index not null, calls LinkedListContainer boolean dedicated method that checks if item exists there.
+    private boolean itemInBucket(String item, int hash, int index) {
+        // If index not null, calls HashBucket boolean dedicated method that checks if item exists there.
         if (this.table[index] != null)
-            return this.table[index].contains(item);
+            return this.table[index].contains(item, hash);
         return false;
     }
+
+    /**
+     * Checks if item exists in the previous table, while a resize is in progress.
+     *
+     * @param item String value to check if exists.
+     * @param hash Hash code of item.
+     * @return True if item exists, false if otherwise (or no resize in progress).
+     */
+    private boolean itemInPreviousTable(String item, int hash) {
+        if (this.previousTable == null)
+            return false;
+        HashBucket bucket = this.previousTable[hash & (this.previousTable.length - 1)];
+        return bucket != null && bucket.contains(item, hash);
+    }
+
+    /**
+     * Deletes item from the bucket in specified index of specified table, nullifying the index if the bucket is left
+     * empty.
+     *
+     * @param buckets Table to delete from.
+     * @param index   Array index where the item is supposed to be stored.
+     * @param item    Element to delete.
+     * @param hash    Hash code of item.
+     * @return True if item found and deleted, false otherwise.
+     */
+    private static boolean deleteFromBucket(HashBucket[] buckets, int index, String item, int hash) {
+        HashBucket bucket = buckets[index];
+        if (bucket == null || !bucket.findAndDelete(item, hash))
+            return false;
+        // If after deletion, bucket is empty, nullify index.
+        if (bucket.isEmpty())
+            buckets[index] = null;
+        return true;
+    }
+
+    /* Private static Methods */
+
+    /**
+     * Spreads the high bits of a hash code to the low bits, which choose the bucket.
+     *
+     * @param hash Hash code of an element.
+     * @return The spread hash code.
+     */
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
 }
@@ -0,0 +1,152 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Generates the specialized hash sets IntOpenHashSet, LongOpenHashSet and ObjectOpenHashSet from a single template,
+ * TypedOpenHashSet.template, so the primitive variants keep their values in raw int and long arrays with no boxing,
+ * and all three share one implementation. Re-run it after editing the template, and commit the generated sources.
+ * <p>
+ * The template is Java source with two kinds of markers: $name$ placeholders, replaced by the variant's value of the
+ * name (e.g. $key$ by int, long or E), and lines of "//#if FLAG", "//#else" and "//#endif", that keep the lines
+ * between them only in the variants that have (or, after "//#else", do not have) the flag: OBJECT, PRIMITIVE, INT or
+ * LONG. Conditional blocks may be nested.
+ * <p>
+ * Usage: java OpenHashSetGenerator [directory], the directory of the template and of the generated sources (default:
+ * the current directory).
+ */
+public class OpenHashSetGenerator {
+    /* Class members - constant variables */
+    private static final String TEMPLATE = "TypedOpenHashSet.template"; // File name of the template.
+    private static final String SOURCE_SUFFIX = ".java"; // Generated sources are named after their class.
+    // First lines of every generated source.
+    private static final List<String> GENERATED_HEADER = List.of("// Generated by OpenHashSetGenerator from " +
+            TEMPLATE + ":", "// edit the template and re-run the generator rather than this file.");
+    private static final String IF = "//#if "; // Starts a conditional block, followed by its flag.
+    private static final String ELSE = "//#else"; // Starts the lines kept in the variants without the flag.
+    private static final String END_IF = "//#endif"; // Ends a conditional block.
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\$(\\w+)\\$"); // A placeholder and its name.
+    private static final int GENERATION_ERROR = 1; // Exit status when the sources cannot be generated.
+    // The generated variants.
+    private static final Variant[] VARIANTS = {
+            new Variant("IntOpenHashSet", Set.of("PRIMITIVE", "INT"), Map.of("key", "int", "array", "int",
+                    "value", "value", "Value", "Value", "values", "values", "ConsumerType", "IntConsumer",
+                    "Consumer", "IntConsumer", "Iterator", "PrimitiveIterator.OfInt", "next", "nextInt")),
+            new Variant("LongOpenHashSet", Set.of("PRIMITIVE", "LONG"), Map.of("key", "long", "array", "long",
+                    "value", "value", "Value", "Value", "values", "values", "ConsumerType", "LongConsumer",
+                    "Consumer", "LongConsumer", "Iterator", "PrimitiveIterator.OfLong", "next", "nextLong")),
+            new Variant("ObjectOpenHashSet", Set.of("OBJECT"), Map.of("key", "E", "array", "Object",
+                    "value", "element", "Value", "Element", "values", "elements", "ConsumerType", "Consumer",
+                    "Consumer", "Consumer<? super E>", "Iterator", "Iterator<E>", "next", "next"))
+    };
+
+    /**
+     * Main method that generates the source of every variant.
+     *
+     * @param args Command line args - the directory of the template and generated sources, optional.
+     */
+    public static void main(String[] args) {
+        Path directory = Path.of(args.length > 0 ? args[0] : ".");
+        try {
+            List<String> template = Files.readAllLines(directory.resolve(TEMPLATE), StandardCharsets.UTF_8);
+            for (Variant variant : VARIANTS) {
+                Path source = directory.resolve(variant.name + SOURCE_SUFFIX);
+                Files.write(source, generate(template, variant), StandardCharsets.UTF_8);
+                System.out.println("Generated " + source);
+            }
+        } catch (IOException | IllegalStateException e) {
+            System.err.println("Cannot generate sources: " + e.getMessage());
+            System.exit(GENERATION_ERROR);
+        }
+    }
+
+    /* Private static Methods */
+
+    /**
+     * Generates the source of a variant: keeps the lines of the conditional blocks of its flags, drops the marker
+     * lines, and replaces the placeholders.
+     *
+     * @param template Lines of the template.
+     * @param variant  Variant to generate.
+     * @return Lines of the variant's source.
+     * @throws IllegalStateException If the conditional blocks are not balanced, or a placeholder is not defined.
+     */
+    private static List<String> generate(List<String> template, Variant variant) {
+        List<String> source = new ArrayList<>(GENERATED_HEADER);
+        // Condition of each open conditional block, innermost first: a line is kept iff all of them hold.
+        Deque<Boolean> conditions = new ArrayDeque<>();
+        for (int number = 1; number <= template.size(); number++) {
+            String line = template.get(number - 1);
+            String marker = line.trim();
+            if (marker.startsWith(IF)) {
+                conditions.push(variant.flags.contains(marker.substring(IF.length()).trim()));
+            } else if (marker.equals(ELSE) || marker.equals(END_IF)) {
+                if (conditions.isEmpty())
+                    throw new IllegalStateException(TEMPLATE + ":" + number + ": " + marker + " without " + IF);
+                boolean condition = conditions.pop();
+                if (marker.equals(ELSE))
+                    conditions.push(!condition);
+            } else if (!conditions.contains(false)) {
+                source.add(replacePlaceholders(line, variant, number));
+            }
+        }
+        if (!conditions.isEmpty())
+            throw new IllegalStateException(TEMPLATE + ": " + IF + " without " + END_IF);
+        return source;
+    }
+
+    /**
+     * @param line    A template line.
+     * @param variant Variant being generated.
+     * @param number  Line number, for error messages.
+     * @return The line with every placeholder replaced by its variant value.
+     * @throws IllegalStateException If a placeholder is not defined for the variant.
+     */
+    private static String replacePlaceholders(String line, Variant variant, int number) {
+        Matcher matcher = PLACEHOLDER.matcher(line);
+        StringBuilder replaced = new StringBuilder();
+        while (matcher.find()) {
+            String value = variant.values.get(matcher.group(1));
+            if (value == null)
+                throw new IllegalStateException(TEMPLATE + ":" + number + ": undefined placeholder " +
+                        matcher.group());
+            matcher.appendReplacement(replaced, Matcher.quoteReplacement(value));
+        }
+        matcher.appendTail(replaced);
+        return replaced.toString();
+    }
+
+    /* Nested classes */
+
+    /**
+     * A generated variant of the template.
+     */
+    private static class Variant {
+        private final String name; // Class name, also the placeholder $Set$.
+        private final Set<String> flags; // Flags of the conditional blocks kept in the variant.
+        private final Map<String, String> values; // Value of each placeholder name.
+
+        /**
+         * @param name   Class name.
+         * @param flags  Flags of the conditional blocks kept in the variant.
+         * @param values Value of each placeholder name, except Set (the class name).
+         */
+        Variant(String name, Set<String> flags, Map<String, String> values) {
+            this.name = name;
+            this.flags = flags;
+            Map<String, String> all = new HashMap<>(values);
+            all.put("Set", name);
+            this.values = all;
+        }
+    }
+}
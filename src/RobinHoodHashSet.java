@@ -0,0 +1,310 @@
+import java.util.Arrays;
+
+/**
+ * A hash-set based on closed-hashing with linear probing and Robin Hood insertion. Extends SimpleHashSet. An element
+ * that is added takes the cell of any element that is closer to its own hash index, so probing distances stay short
+ * and even. Deleted elements leave no marks in the table: the elements after them are shifted back instead.
+ * The table is always resized all at once, since the previous table of an incremental resize would have to be searched
+ * as well, and marked where its elements were migrated from.
+ */
+public class RobinHoodHashSet extends SimpleHashSet {
+    /* Class members - constant variables */
+    private static final int NOT_FOUND = -1; // Index returned when probing did not find the requested cell.
+    /* Class members - variables */
+    private String[] table = new String[INITIAL_CAPACITY]; // Hash table representation.
+    private int[] hashes = new int[INITIAL_CAPACITY]; // Cached hash code of each table element, by index.
+    // Table and hash cache before last resize, while its elements are being migrated.
+    private String[] previousTable = null;
+    private int[] previousHashes = null;
+    private int migrationIndex = 0; // Next previous table index to migrate.
+    private int elementCounter = 0; // Table's element counter. Updated on each successful add/delete.
+
+    /* Constructors */
+
+    /**
+     * A default constructor. Constructs a new, empty table with default initial capacity (16),
+     * upper load factor (0.75) and lower load factor (0.25).
+     */
+    public RobinHoodHashSet() {
+        super();
+    }
+
+    /**
+     * Constructs a new, empty table with the specified load factors, and the default initial capacity (16). Robin Hood
+     * probing keeps searches short at upper load factors that would slow down ClosedHashSet, e.g. 0.9.
+     *
+     * @param upperLoadFactor The upper load factor of the hash table.
+     * @param lowerLoadFactor The lower load factor of the hash table.
+     */
+    public RobinHoodHashSet(float upperLoadFactor, float lowerLoadFactor) {
+        super(upperLoadFactor, lowerLoadFactor);
+    }
+
+    /**
+     * Constructs a new, empty table with the specified load factors, pre-sized to hold the expected number of elements
+     * without increasing. The table is never decreased below this initial capacity, so deleting elements of a set
+     * that is expected to grow back does not re-hash it.
+     *
+     * @param expectedSize    The expected number of elements in the set.
+     * @param upperLoadFactor The upper load factor of the hash table.
+     * @param lowerLoadFactor The lower load factor of the hash table.
+     */
+    public RobinHoodHashSet(int expectedSize, float upperLoadFactor, float lowerLoadFactor) {
+        super(upperLoadFactor, lowerLoadFactor);
+        this.createTable(capacityFor(expectedSize, upperLoadFactor));
+        this.setMinCapacity(this.capacity());
+    }
+
+    /**
+     * Data constructor - builds the hash set by adding the elements one by one. Duplicate values should be ignored.
+     * The new table has the default values of upper load factor (0.75) and lower load factor (0.25), and an initial
+     * capacity large enough to hold all the elements without increasing (at least 16).
+     *
+     * @param data Values to add to the set.
+     */
+    public RobinHoodHashSet(String[] data) {
+        super();
+        this.createTable(Math.max(INITIAL_CAPACITY, capacityFor(data.length, DEFAULT_HIGHER_CAPACITY)));
+        for (String item : data)
+            this.add(item);
+    }
+
+    /* Public instance Methods */
+
+    /**
+     * Add a specified element to the set if it's not already in it.
+     *
+     * @param newValue New value to add to the set
+     * @return False iff newValue already exists in the set.
+     */
+    public boolean add(String newValue) {
+        int hash = this.hash(newValue);
+        if (findIndex(this.table, this.hashes, newValue, hash) != NOT_FOUND)
+            return false; // If item exists in table, do nothing and return false.
+        this.elementCounter++; // Item not in table. Appends element counter by 1.
+        this.countModification();
+        // Checks if increasing table is needed, if so call method and resize/re-hash table, also with new value.
+        if (this.shouldIncrease()) {
+            this.resize(true, newValue);
+            return true;
+        }
+        this.addUnique(newValue, hash);
+        return true;
+    }
+
+    /**
+     * Look for a specified value in the set. A missing value's search ends at the first element that is closer to its
+     * own hash index than the value would be, so misses are about as short as hits.
+     *
+     * @param searchVal Value to search for
+     * @return True iff searchVal is found in the set.
+     */
+    public boolean contains(String searchVal) {
+        return findIndex(this.table, this.hashes, searchVal, this.hash(searchVal)) != NOT_FOUND;
+    }
+
+    /**
+     * Remove the input element from the set. The following elements of its probing run are shifted back by one cell,
+     * until an empty cell or an element in its own hash index, so no deleted cell is left behind.
+     *
+     * @param toDelete Value to delete
+     * @return True iff toDelete is found and deleted.
+     */
+    public boolean delete(String toDelete) {
+        int index = findIndex(this.table, this.hashes, toDelete, this.hash(toDelete));
+        if (index == NOT_FOUND)
+            return false; // Item not in table therefore cannot be deleted, return false.
+        int next = this.clamp(index + 1);
+        while (this.table[next] != null && this.distance(next) > 0) {
+            this.store(index, this.table[next], this.hashes[next]); // Shifts next element back.
+            index = next;
+            next = this.clamp(next + 1);
+        }
+        this.table[index] = null;
+        this.elementCounter--; // Removes 1 from element counter.
+        this.countModification();
+        if (this.shouldDecrease())
+            this.resize(false, toDelete); // Checks if decrease-resizing is needed.
+        return true;
+    }
+
+    /**
+     * @return The number of elements currently in the set.
+     */
+    public int size() {
+        return this.elementCounter;
+    }
+
+    /**
+     * Specified by: capacity in class SimpleHashSet.
+     *
+     * @return The current capacity (number of cells) of the table.
+     */
+    public int capacity() {
+        return this.table.length;
+    }
+
+    /* Protected instance Methods */
+
+    /**
+     * Reinitialize hash table and hash cache based on new capacity. The current ones are kept as the previous table,
+     * until all its elements are migrated to the new table.
+     *
+     * @param newCapacity New table capacity.
+     */
+    protected void newTable(int newCapacity) {
+        this.previousTable = this.table;
+        this.previousHashes = this.hashes;
+        this.migrationIndex = 0;
+        this.createTable(newCapacity); // Creates new empty table with specified capacity.
+    }
+
+    /**
+     * Moves the elements of the previous table cells (if any) to the current table, continuing from the last migrated
+     * cell. Once all the previous table cells were migrated, the previous table is released.
+     *
+     * @param maxCells Maximal number of previous table cells to migrate.
+     */
+    protected void migrate(int maxCells) {
+        if (this.previousTable == null)
+            return; // No resize in progress.
+        int end = (int) Math.min(this.previousTable.length, (long) this.migrationIndex + maxCells);
+        for (; this.migrationIndex < end; this.migrationIndex++) {
+            String item = this.previousTable[this.migrationIndex];
+            if (item != null)
+                this.addUnique(item, this.previousHashes[this.migrationIndex]); // Cached hash code is re-used.
+        }
+        if (this.migrationIndex == this.previousTable.length) {
+            // All cells migrated.
+            this.previousTable = null;
+            this.previousHashes = null;
+        }
+    }
+
+    /**
+     * Adds String element (no duplicates, no null) to new resized table.
+     *
+     * @param item Element to add.
+     */
+    protected void addUnique(String item) {
+        this.addUnique(item, this.hash(item));
+    }
+
+    /**
+     * Specified by: probeLengths in class SimpleHashSet.
+     *
+     * @return Number of cells probed to find each element of the current table.
+     */
+    protected int[] probeLengths() {
+        int[] lengths = new int[this.elementCounter];
+        int count = 0;
+        for (int index = 0; index < this.table.length && count < lengths.length; index++)
+            if (this.table[index] != null)
+                lengths[count++] = this.distance(index) + 1;
+        return Arrays.copyOf(lengths, count);
+    }
+
+    /**
+     * Specified by: cellElement in class SimpleHashSet.
+     *
+     * @param index    Index of the cell.
+     * @param position Position of the element in the cell.
+     * @return The element of the cell if position is 0, null if the cell is empty or position is not 0.
+     */
+    protected String cellElement(int index, int position) {
+        return position == 0 ? this.table[index] : null;
+    }
+
+    /* Private instance Methods */
+
+    /**
+     * @param item String to hash.
+     * @return Hash code for String input, mixed (see SimpleHashSet.mix()).
+     */
+    private int hash(String item) {
+        return mix(item.hashCode());
+    }
+
+    /**
+     * Creates new empty table and hash cache with specified capacity, replacing the current ones.
+     *
+     * @param capacity New table capacity.
+     */
+    private void createTable(int capacity) {
+        this.table = new String[capacity];
+        this.hashes = new int[capacity];
+    }
+
+    /**
+     * Adds String element (no duplicates, no null) to the table. Probes from its hash index, and swaps it with the
+     * first element that is closer to its own hash index; then goes on to place the swapped element the same way,
+     * until an empty cell is reached.
+     *
+     * @param item Element to add.
+     * @param hash Hash code of item.
+     */
+    private void addUnique(String item, int hash) {
+        int index = this.clamp(hash);
+        // Iterates over probing sequence, until empty cell found.
+        for (int distance = 0; this.table[index] != null; distance++) {
+            int residentDistance = this.distance(index);
+            if (residentDistance < distance) {
+                // Takes the cell of the element that is closer to its hash index, and goes on to place that one.
+                String resident = this.table[index];
+                int residentHash = this.hashes[index];
+                this.store(index, item, hash);
+                item = resident;
+                hash = residentHash;
+                distance = residentDistance;
+            }
+            index = this.clamp(index + 1); // Linear probing.
+        }
+        this.store(index, item, hash);
+    }
+
+    /**
+     * @param index Index of a table element.
+     * @return The distance of the element from its hash index.
+     */
+    private int distance(int index) {
+        return this.clamp(index - this.hashes[index]);
+    }
+
+    /**
+     * Stores item and its hash code in specified index.
+     *
+     * @param index Index to store item in.
+     * @param item  Item to store.
+     * @param hash  Hash code of item.
+     */
+    private void store(int index, String item, int hash) {
+        this.table[index] = item;
+        this.hashes[index] = hash;
+    }
+
+    /* Private static Methods */
+
+    /**
+     * Finds the index of an item in a table. Stops at an empty cell, or at an element closer to its hash index than the
+     * item would be at that index, since Robin Hood insertion would have placed the item before that element.
+     *
+     * @param cells      Table to search, its length is a power of 2.
+     * @param cellHashes Cached hash codes of the table elements.
+     * @param item       String value to look for.
+     * @param hash       Hash code of item.
+     * @return Index of item in table, NOT_FOUND if item is not in table.
+     */
+    private static int findIndex(String[] cells, int[] cellHashes, String item, int hash) {
+        int mask = cells.length - 1;
+        int index = hash & mask;
+        for (int distance = 0; distance < cells.length; distance++) {
+            String current = cells[index];
+            if (current == null || ((index - cellHashes[index]) & mask) < distance)
+                return NOT_FOUND;
+            if (cellHashes[index] == hash && current.equals(item))
+                return index;
+            index = (index + 1) & mask; // Linear probing.
+        }
+        return NOT_FOUND; // If iteration completed and no null or equal val found.
+    }
+}
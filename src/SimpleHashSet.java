@@ -1,3 +1,17 @@
+import javax.management.JMException;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
 /**
  * A superclass for implementations of hash-sets implementing the SimpleSet interface.
  */
@@ -9,9 +23,25 @@ public abstract class SimpleHashSet implements SimpleSet {
     protected static final float DEFAULT_LOWER_CAPACITY = 0.25f;
     protected static final int INITIAL_CAPACITY = 16; // Describes the capacity of a newly created hash set.
     private static final int MIN_CAPACITY = 1; // Hash set minimum capacity.
+    private static final int MAX_CAPACITY = 1 << 30; // Hash set maximum capacity (largest power of 2 array length).
+    // Number of previous table cells migrated by each operation, while an incremental resize is in progress.
+    protected static final int MIGRATION_STEP = 8;
+    // Number of elements looked up together by the batch operations of subclasses: the table cells of all of them are
+    // loaded before any is compared, so that their cache misses overlap rather than follow each other.
+    protected static final int BATCH_SIZE = 64;
+    // Returned by keyHash() for bytes that are not well-formed UTF-8, which are searched decoded to a String instead.
+    protected static final long MALFORMED_KEY = -1;
     /* Class members - variables */
     private float upperLoadFactor; // Higher load factor of a this hash set.
     private float lowerLoadFactor; // Lower load factor of a this hash set.
+    private boolean incrementalResize; // True if resizing migrates the previous table a few cells per operation.
+    private int minCapacity = MIN_CAPACITY; // Capacity below which this hash set is never decreased.
+    private int modificationCounter = 0; // Number of successful adds/deletes, checked by traversals to fail fast.
+    // Statistics counters. Striped, so reading them (e.g. over JMX) never contends with a concurrent re-hash.
+    private final LongAdder increases = new LongAdder(); // Number of capacity increases.
+    private final LongAdder decreases = new LongAdder(); // Number of capacity decreases.
+    private final LongAdder purges = new LongAdder(); // Number of re-hashes in the same capacity.
+    private final LongAdder resizeNanos = new LongAdder(); // Total time spent in rehash.
 
     /* Constructors */
 
@@ -35,6 +65,19 @@ public abstract class SimpleHashSet implements SimpleSet {
         this.lowerLoadFactor = lowerLoadFactor;
     }
 
+    /**
+     * Constructs a new hash set with capacity INITIAL_CAPACITY, that resizes either all at once or incrementally.
+     *
+     * @param upperLoadFactor   the upper load factor before rehashing.
+     * @param lowerLoadFactor   the lower load factor before rehashing.
+     * @param incrementalResize True to migrate the previous table MIGRATION_STEP cells per operation after a resize,
+     *                          false to migrate the whole table during the resize.
+     */
+    protected SimpleHashSet(float upperLoadFactor, float lowerLoadFactor, boolean incrementalResize) {
+        this(upperLoadFactor, lowerLoadFactor);
+        this.incrementalResize = incrementalResize;
+    }
+
     /* Public instance Methods */
 
     /**
@@ -42,6 +85,85 @@ public abstract class SimpleHashSet implements SimpleSet {
      */
     public abstract int capacity();
 
+    /**
+     * @return True if this hash set resizes incrementally, false if it resizes all at once.
+     */
+    public boolean isIncrementalResize() {
+        return this.incrementalResize;
+    }
+
+    /**
+     * Takes a snapshot of the statistics of this hash set. The resize counters are kept as the set runs, and the
+     * chain lengths, probe lengths and deleted cells are computed here from the current table (the table being
+     * migrated by an incremental resize is not included), so the statistics cost the set operations nothing.
+     * Not thread-safe for sets that are not: when taken concurrently with updates, the snapshot is approximate.
+     *
+     * @return The statistics of this hash set.
+     */
+    public HashSetStats stats() {
+        return new HashSetStats(this.size(), this.capacity(), this.increases.sum(), this.decreases.sum(),
+                this.purges.sum(), this.resizeNanos.sum(), this.chainLengths(), this.probeLengths(),
+                this.deletedCells());
+    }
+
+    /**
+     * Registers the statistics of this hash set in the platform MBean server, as an MXBean named
+     * "SimpleHashSet:name=[name]". Each attribute read takes a new snapshot (see stats()).
+     *
+     * @param name Name of this hash set, unique among the registered hash sets.
+     * @return The registered MXBean name, to unregister it with.
+     * @throws JMException If the name is invalid or already registered.
+     */
+    public ObjectName registerStats(String name) throws JMException {
+        // A proxy that forwards every attribute read to a new snapshot.
+        HashSetStatsMXBean liveStats = (HashSetStatsMXBean) Proxy.newProxyInstance(
+                HashSetStatsMXBean.class.getClassLoader(), new Class<?>[]{HashSetStatsMXBean.class},
+                (proxy, method, args) -> method.invoke(this.stats(), args));
+        ObjectName objectName = new ObjectName("SimpleHashSet", "name", name);
+        ManagementFactory.getPlatformMBeanServer().registerMBean(
+                new StandardMBean(liveStats, HashSetStatsMXBean.class, true), objectName);
+        return objectName;
+    }
+
+    /**
+     * Creates an iterator over the elements of the set (see spliterator(), including why creating it is a write).
+     *
+     * @return An iterator over the elements of the set.
+     */
+    public Iterator<String> iterator() {
+        return Spliterators.iterator(this.spliterator());
+    }
+
+    /**
+     * Performs an action on each element of the set, in table order. Completes an incremental resize in progress
+     * first, so it is a write (see spliterator()).
+     *
+     * @param action Action to perform on each element.
+     * @throws ConcurrentModificationException If the set is modified while traversed (e.g. by the action).
+     */
+    public void forEach(Consumer<? super String> action) {
+        this.spliterator().forEachRemaining(action);
+    }
+
+    /**
+     * Creates a spliterator over the elements of the set, that traverses the table cells in place, and splits in
+     * halves of their index range, so a parallel stream traverses the set with no copying.
+     * Creating it modifies the set: an incremental resize in progress is completed first, moving all the remaining
+     * cells of the previous table, so only the current table is traversed. So unlike contains(), creating a
+     * spliterator (or an iterator, or a stream) must not run concurrently with any other use of the set, including
+     * another traversal; once created, the traversal and its splits only read the table.
+     * The spliterator is SIZED until it is split, and its size is the number of elements left to traverse, but it is
+     * not SUBSIZED: the number of elements in part of the table is not known without counting them, so the halves only
+     * estimate their sizes. It fails fast: adding or deleting an element while it traverses the set (other than
+     * through it) makes it throw ConcurrentModificationException.
+     *
+     * @return A spliterator over the elements of the set.
+     */
+    public Spliterator<String> spliterator() {
+        this.completeResize();
+        return new TableSpliterator(0, this.capacity(), this.size(), this.modificationCounter, true);
+    }
+
     /* Protected instance Methods */
 
     /**
@@ -54,6 +176,15 @@ public abstract class SimpleHashSet implements SimpleSet {
         return index & (this.capacity() - 1);
     }
 
+    /**
+     * Sets the capacity below which the table is never decreased, e.g. the capacity it was pre-sized to.
+     *
+     * @param minCapacity Minimal table capacity (power of 2).
+     */
+    protected void setMinCapacity(int minCapacity) {
+        this.minCapacity = Math.max(minCapacity, MIN_CAPACITY);
+    }
+
     /**
      * @return The lower load factor of the table.
      */
@@ -78,18 +209,25 @@ public abstract class SimpleHashSet implements SimpleSet {
     }
 
     /**
-     * Checks if table capacity should decrease, if current load factor is lower than lower load factor.
+     * Checks if table capacity should decrease, if current load factor is lower than lower load factor. Also, the load
+     * factor after decreasing (twice the current one) must be below the middle of the lower and upper load factors, so
+     * that neither an increase nor another decrease can follow right after it (e.g. with load factors 0.5 and 0.25,
+     * an increase leaves the table at 0.25, and a single deletion would have decreased it back).
      *
-     * @return True if (current load factor < lower load factor): should decrease. False otherwise.
+     * @return True if (current load factor < lower load factor) and the decreased table is not about to resize again:
+     * should decrease. False otherwise.
      */
     protected boolean shouldDecrease() {
-        return this.getCurrentLoadFactor() < this.getLowerLoadFactor() && this.capacity() > MIN_CAPACITY;
+        float currentLoadFactor = this.getCurrentLoadFactor();
+        float middleLoadFactor = (this.getLowerLoadFactor() + this.getUpperLoadFactor()) / 2;
+        return currentLoadFactor < this.getLowerLoadFactor() && 2 * currentLoadFactor < middleLoadFactor &&
+                this.capacity() > this.minCapacity;
     }
 
     /**
      * Attempts to resize the table. Assigns new table capacity, based on size divided/multiplied in 2 (capacity must
-     * be in powers of 2), creates new table with specified capacity, and adds and re-hashes all the previous elements
-     * to the new table.
+     * be in powers of 2), creates new table with specified capacity, and re-hashes all the previous elements to the
+     * new table (at once, or incrementally in later operations).
      *
      * @param increase True if increase is performed, False if decrease.
      * @param lastItem Item that was added/deleted before table resize.
@@ -97,26 +235,96 @@ public abstract class SimpleHashSet implements SimpleSet {
     protected void resize(boolean increase, String lastItem) {
         // New capacity based on (capacity * 2) for increase, (capacity / 2) for decrease.
         int newCapacity = increase ? this.capacity() * 2 : this.capacity() / 2;
-        String[] previousTable = this.assignTableElementsToArray(); // Assign current table elements to array.
-        // If increase, assign item that was added before resize to last place on the array.
-        if (increase) previousTable[previousTable.length - 1] = lastItem;
-        this.newTable(newCapacity); // Creates new empty table with specified capacity.
-        this.addUniqueArray(previousTable); // Adds and re-hash all previous table's elements to new table.
+        // Only an added item is still missing from the table, a deleted item is already gone.
+        this.rehash(newCapacity, increase ? lastItem : null);
+    }
+
+    /**
+     * Re-hashes all the table elements into a new table with the specified capacity. Also used by subclasses to
+     * rebuild the table in place (same capacity), e.g. to clear cells that were marked as deleted.
+     * The elements are moved directly from the previous table to the new one, with no intermediate copy. When resizing
+     * incrementally only the last item is added here, and later operations call migrationStep() to move the rest.
+     *
+     * @param newCapacity New table capacity (power of 2).
+     * @param lastItem    Item that is counted in the set size but not yet stored in the table, or null if none.
+     */
+    protected void rehash(int newCapacity, String lastItem) {
+        long timeBefore = System.nanoTime();
+        if (newCapacity > this.capacity())
+            this.increases.increment();
+        else if (newCapacity < this.capacity())
+            this.decreases.increment();
+        else
+            this.purges.increment();
+        this.migrate(Integer.MAX_VALUE); // Completes a previous incremental resize, if still in progress.
+        this.newTable(newCapacity); // Creates new empty table with specified capacity, keeping the previous one.
+        if (lastItem != null)
+            this.addUnique(lastItem); // Adds item that was added before resize to the new table.
+        if (!this.incrementalResize)
+            this.migrate(Integer.MAX_VALUE); // Adds and re-hash all previous table's elements to new table.
+        this.resizeNanos.add(System.nanoTime() - timeBefore);
+    }
+
+    /**
+     * Moves a bounded number of the previous table cells to the current table, if an incremental resize is in
+     * progress. Called by subclasses at the beginning of each add/contains/delete.
+     */
+    protected void migrationStep() {
+        if (this.incrementalResize)
+            this.migrate(MIGRATION_STEP);
+    }
+
+    /**
+     * Moves all the previous table cells to the current table, if an incremental resize is in progress. After it the
+     * set is read without writes, until it is next modified, so it can then be read from several threads at once.
+     */
+    protected void completeResize() {
+        this.migrate(Integer.MAX_VALUE);
     }
 
     /**
-     * Reinitialize hash table based on new capacity.
+     * Moves the previous table cells of a number of operations at once (see migrationStep()), if an incremental resize
+     * is in progress. Called by subclasses at the beginning of a batch of operations that do not call migrationStep().
+     *
+     * @param operations Number of operations in the batch.
+     */
+    protected void migrationSteps(int operations) {
+        if (this.incrementalResize)
+            this.migrate((int) Math.min(Integer.MAX_VALUE, (long) MIGRATION_STEP * operations));
+    }
+
+    /**
+     * Counts a successful add or delete, so traversals in progress fail fast. Called by subclasses.
+     */
+    protected void countModification() {
+        this.modificationCounter++;
+    }
+
+    /**
+     * Traversal hook: reads an element of a cell of the current table. A cell of a chaining based table holds its
+     * elements in positions 0 to its bucket size - 1, and a cell of any other table holds at most one, in position 0.
+     *
+     * @param index    Index of the cell.
+     * @param position Position of the element in the cell.
+     * @return The element in the specified position of the cell, null if the cell has no element in this position.
+     */
+    protected abstract String cellElement(int index, int position);
+
+    /**
+     * Reinitialize hash table based on new capacity. The current table is kept as the previous table, until all its
+     * elements are migrated to the new table.
      *
      * @param newCapacity New table capacity.
      */
     protected abstract void newTable(int newCapacity);
 
     /**
-     * Creates an array representation of the current table elements (no duplicates, no null).
+     * Moves elements of the previous table (if any) to the current table, continuing from the last migrated cell.
+     * Once all the previous table cells were migrated, the previous table is released.
      *
-     * @return Array that contains all String elements in the current table.
+     * @param maxCells Maximal number of previous table cells to migrate.
      */
-    protected abstract String[] assignTableElementsToArray();
+    protected abstract void migrate(int maxCells);
 
     /**
      * Adds String element (no duplicates, no null) to new resized table.
@@ -125,6 +333,179 @@ public abstract class SimpleHashSet implements SimpleSet {
      */
     protected abstract void addUnique(String item);
 
+    /**
+     * Statistics hook of chaining based subclasses.
+     *
+     * @return Number of elements in each non-empty bucket of the current table, empty if not chaining based.
+     */
+    protected int[] chainLengths() {
+        return new int[0];
+    }
+
+    /**
+     * Statistics hook of closed-hashing subclasses.
+     *
+     * @return Number of cells probed to find each element of the current table, empty if not closed-hashing.
+     */
+    protected int[] probeLengths() {
+        return new int[0];
+    }
+
+    /**
+     * Statistics hook of subclasses that mark deleted cells.
+     *
+     * @return Number of cells of the current table that are marked as deleted.
+     */
+    protected int deletedCells() {
+        return 0;
+    }
+
+    /* Protected static Methods */
+
+    /**
+     * Calculates the capacity a table needs to hold the expected number of elements without increasing.
+     *
+     * @param expectedSize    Expected number of elements.
+     * @param upperLoadFactor The upper load factor of the table.
+     * @return The smallest power of 2 capacity that holds expectedSize elements within the upper load factor.
+     */
+    protected static int capacityFor(int expectedSize, float upperLoadFactor) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < MAX_CAPACITY && expectedSize > upperLoadFactor * capacity)
+            capacity *= 2;
+        return capacity;
+    }
+
+    /**
+     * Mixes a String hash code by the Murmur3 finalizer, so every bit of it affects both its low bits, that choose the
+     * first probed index of a table, and its high bits. Hash codes of similar keys (e.g. numbers) share their low bits,
+     * and probing them all from the same first index turns them into long probing runs. Mixing is a bijection, so
+     * mixed hash codes are equal iff the String hash codes are.
+     *
+     * @param hash String hash code.
+     * @return The mixed hash code.
+     */
+    protected static int mix(int hash) {
+        hash = (hash ^ (hash >>> 16)) * 0x85EBCA6B;
+        hash = (hash ^ (hash >>> 13)) * 0xC2B2AE35;
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Computes the String hash code of a key without creating a String: of a CharSequence, or of the chars that a
+     * range of UTF-8 bytes decodes to (a code point above the BMP as its two surrogate chars).
+     *
+     * @param key    A CharSequence, a byte array or a ByteBuffer (read by absolute index, so its position is kept).
+     * @param offset Index of the first byte of a byte key, ignored for a CharSequence.
+     * @param length Number of bytes of a byte key, ignored for a CharSequence.
+     * @return The hash code, as an unsigned int, that String.hashCode returns for the key, or MALFORMED_KEY if the key
+     * bytes are not well-formed UTF-8.
+     */
+    protected static long keyHash(Object key, int offset, int length) {
+        if (key instanceof String)
+            return key.hashCode() & 0xFFFFFFFFL; // Cached by String.
+        int hash = 0;
+        if (key instanceof CharSequence) {
+            CharSequence chars = (CharSequence) key;
+            for (int index = 0; index < chars.length(); index++)
+                hash = 31 * hash + chars.charAt(index);
+            return hash & 0xFFFFFFFFL;
+        }
+        for (int index = offset; index < offset + length; ) {
+            int codePoint = utf8CodePoint(key, index, offset + length);
+            if (codePoint < 0)
+                return MALFORMED_KEY;
+            index += utf8Length(codePoint);
+            if (Character.isBmpCodePoint(codePoint))
+                hash = 31 * hash + codePoint;
+            else
+                hash = 31 * (31 * hash + Character.highSurrogate(codePoint)) + Character.lowSurrogate(codePoint);
+        }
+        return hash & 0xFFFFFFFFL;
+    }
+
+    /**
+     * Compares an element with a key without creating a String (see keyHash()).
+     *
+     * @param element An element.
+     * @param key     A CharSequence, or a byte array or ByteBuffer holding well-formed UTF-8 (see keyHash()).
+     * @param offset  Index of the first byte of a byte key, ignored for a CharSequence.
+     * @param length  Number of bytes of a byte key, ignored for a CharSequence.
+     * @return True iff element equals the key (decoded, for a byte key).
+     */
+    protected static boolean keyEquals(String element, Object key, int offset, int length) {
+        if (key instanceof CharSequence)
+            return element.contentEquals((CharSequence) key);
+        if (element.length() > length)
+            return false; // Every char takes at least one byte.
+        int position = 0; // Index of the next element char to compare.
+        for (int index = offset; index < offset + length; ) {
+            int codePoint = utf8CodePoint(key, index, offset + length);
+            index += utf8Length(codePoint);
+            if (Character.isBmpCodePoint(codePoint)) {
+                if (position == element.length() || element.charAt(position++) != codePoint)
+                    return false;
+            } else {
+                if (position + 1 >= element.length() ||
+                        element.charAt(position++) != Character.highSurrogate(codePoint) ||
+                        element.charAt(position++) != Character.lowSurrogate(codePoint))
+                    return false;
+            }
+        }
+        return position == element.length();
+    }
+
+    /**
+     * Orders an element and a key without creating a String (see keyHash()), as String.compareTo orders the element
+     * and the equal String: by their UTF-16 chars, a supplementary code point of a byte key as its surrogate pair.
+     *
+     * @param element An element.
+     * @param key     A CharSequence, or a byte array or ByteBuffer holding well-formed UTF-8 (see keyHash()).
+     * @param offset  Index of the first byte of a byte key, ignored for a CharSequence.
+     * @param length  Number of bytes of a byte key, ignored for a CharSequence.
+     * @return A negative number, zero or a positive number as element is less than, equal to or greater than the key.
+     */
+    protected static int keyCompare(String element, Object key, int offset, int length) {
+        if (key instanceof CharSequence)
+            return CharSequence.compare(element, (CharSequence) key);
+        int position = 0; // Index of the next element char to compare.
+        for (int index = offset; index < offset + length; ) {
+            int codePoint = utf8CodePoint(key, index, offset + length);
+            index += utf8Length(codePoint);
+            char first = Character.isBmpCodePoint(codePoint) ? (char) codePoint : Character.highSurrogate(codePoint);
+            if (position == element.length())
+                return -1; // Element is a prefix of the key.
+            if (element.charAt(position) != first)
+                return element.charAt(position) - first;
+            position++;
+            if (!Character.isBmpCodePoint(codePoint)) {
+                char second = Character.lowSurrogate(codePoint);
+                if (position == element.length())
+                    return -1;
+                if (element.charAt(position) != second)
+                    return element.charAt(position) - second;
+                position++;
+            }
+        }
+        return element.length() - position; // Key is a prefix of the element, or equals it.
+    }
+
+    /**
+     * Decodes a key to a String, for the searches that cannot be done in place (see keyHash()).
+     *
+     * @param key    A CharSequence, a byte array or a ByteBuffer (its position is kept).
+     * @param offset Index of the first byte of a byte key, ignored for a CharSequence.
+     * @param length Number of bytes of a byte key, ignored for a CharSequence.
+     * @return The key as a String, bytes decoded as UTF-8 with malformed input replaced.
+     */
+    protected static String keyString(Object key, int offset, int length) {
+        if (key instanceof CharSequence)
+            return key.toString();
+        if (key instanceof byte[])
+            return new String((byte[]) key, offset, length, StandardCharsets.UTF_8);
+        ByteBuffer range = ((ByteBuffer) key).duplicate().limit(offset + length).position(offset);
+        return StandardCharsets.UTF_8.decode(range).toString();
+    }
 
     /* Private instance Methods */
 
@@ -135,13 +516,171 @@ public abstract class SimpleHashSet implements SimpleSet {
         return (float) this.size() / (float) this.capacity();
     }
 
+    /* Private static Methods */
+
     /**
-     * Adds and re-hashes previous table String elements (no duplicates, no null) to new resized table.
+     * Decodes the code point of a UTF-8 sequence, checking that it is well-formed: a valid lead byte followed by the
+     * continuation bytes it requires, not overlong, not a surrogate and not above U+10FFFF.
      *
-     * @param tempTable Array representation of the previous table String elements before resizing.
+     * @param key   A byte array or a ByteBuffer.
+     * @param index Index of the lead byte of the sequence.
+     * @param end   Index after the last byte of the key.
+     * @return The code point, or -1 if the sequence is malformed.
+     */
+    private static int utf8CodePoint(Object key, int index, int end) {
+        int lead = byteAt(key, index);
+        if (lead < 0x80)
+            return lead;
+        int length = lead < 0xC2 ? 0 : lead < 0xE0 ? 2 : lead < 0xF0 ? 3 : lead < 0xF5 ? 4 : 0;
+        if (length == 0 || index + length > end)
+            return -1;
+        int codePoint = lead & (0x7F >> length); // Lead byte bits below its length bits and zero bit.
+        for (int continuation = 1; continuation < length; continuation++) {
+            int current = byteAt(key, index + continuation);
+            if ((current & 0xC0) != 0x80)
+                return -1;
+            codePoint = (codePoint << 6) | (current & 0x3F);
+        }
+        if (codePoint < (length == 2 ? 0x80 : length == 3 ? 0x800 : 0x10000) || codePoint > Character.MAX_CODE_POINT ||
+                (codePoint >= Character.MIN_SURROGATE && codePoint <= Character.MAX_SURROGATE))
+            return -1; // Overlong, out of range or a surrogate.
+        return codePoint;
+    }
+
+    /**
+     * @param codePoint A code point.
+     * @return Number of bytes of its UTF-8 sequence.
      */
-    private void addUniqueArray(String[] tempTable) {
-        for (String item : tempTable)
-            this.addUnique(item);
+    private static int utf8Length(int codePoint) {
+        return codePoint < 0x80 ? 1 : codePoint < 0x800 ? 2 : codePoint < 0x10000 ? 3 : 4;
+    }
+
+    /**
+     * @param key   A byte array or a ByteBuffer.
+     * @param index Index of a byte of the key.
+     * @return The unsigned value of the byte.
+     */
+    private static int byteAt(Object key, int index) {
+        return (key instanceof byte[] ? ((byte[]) key)[index] : ((ByteBuffer) key).get(index)) & 0xFF;
+    }
+
+    /* Nested classes */
+
+    /**
+     * A spliterator over a range of the current table cells, that reads the elements in place through cellElement().
+     */
+    private final class TableSpliterator implements Spliterator<String> {
+        /* Class members - variables */
+        private int index; // Index of the next cell to traverse.
+        private final int fence; // Index after the last cell of the range.
+        private int position = 0; // Position of the next element in its cell.
+        // Number of elements left in the range, exact while the spliterator is not split.
+        private long estimatedSize;
+        private final int expectedModifications; // Modification counter of the set when traversal started.
+        private boolean exactSize; // True while estimatedSize is the exact number of elements in the range.
+
+        /* Constructors */
+
+        /**
+         * @param index                 Index of the first cell of the range.
+         * @param fence                 Index after the last cell of the range.
+         * @param estimatedSize         Number of elements in the range, or its estimate.
+         * @param expectedModifications Modification counter of the set when traversal started.
+         * @param exactSize             True if estimatedSize is the exact number of elements in the range.
+         */
+        private TableSpliterator(int index, int fence, long estimatedSize, int expectedModifications,
+                                 boolean exactSize) {
+            this.index = index;
+            this.fence = fence;
+            this.estimatedSize = estimatedSize;
+            this.expectedModifications = expectedModifications;
+            this.exactSize = exactSize;
+        }
+
+        /* Public instance Methods */
+
+        /**
+         * Performs an action on the next element of the range, if any.
+         *
+         * @param action Action to perform.
+         * @return False iff no element is left in the range.
+         * @throws ConcurrentModificationException If the set was modified since traversal started.
+         */
+        public boolean tryAdvance(Consumer<? super String> action) {
+            while (this.index < this.fence) {
+                this.checkModifications();
+                String element = cellElement(this.index, this.position);
+                if (element != null) {
+                    this.position++;
+                    if (this.estimatedSize > 0)
+                        this.estimatedSize--; // An estimate may be lower than the number of elements left.
+                    action.accept(element);
+                    return true;
+                }
+                this.index++;
+                this.position = 0;
+            }
+            return false;
+        }
+
+        /**
+         * Performs an action on each remaining element of the range.
+         *
+         * @param action Action to perform.
+         * @throws ConcurrentModificationException If the set was modified since traversal started.
+         */
+        public void forEachRemaining(Consumer<? super String> action) {
+            for (; this.index < this.fence; this.index++, this.position = 0) {
+                this.checkModifications();
+                for (String element; (element = cellElement(this.index, this.position)) != null; this.position++) {
+                    if (this.estimatedSize > 0)
+                        this.estimatedSize--;
+                    action.accept(element);
+                    this.checkModifications();
+                }
+            }
+        }
+
+        /**
+         * Splits off the first half of the remaining cells, unless the range is down to a single cell or the next
+         * element is in the middle of a cell.
+         *
+         * @return A spliterator over the first half of the remaining cells, null if the range cannot be split.
+         */
+        public Spliterator<String> trySplit() {
+            int middle = (this.index + this.fence) >>> 1;
+            if (middle <= this.index || this.position != 0)
+                return null;
+            this.estimatedSize >>>= 1;
+            this.exactSize = false;
+            Spliterator<String> prefix = new TableSpliterator(this.index, middle, this.estimatedSize,
+                    this.expectedModifications, false);
+            this.index = middle;
+            return prefix;
+        }
+
+        /**
+         * @return The number of elements left to traverse in the range, or its estimate once split.
+         */
+        public long estimateSize() {
+            return this.estimatedSize;
+        }
+
+        /**
+         * @return DISTINCT and NONNULL, and SIZED while the spliterator is not split.
+         */
+        public int characteristics() {
+            return Spliterator.DISTINCT | Spliterator.NONNULL | (this.exactSize ? Spliterator.SIZED : 0);
+        }
+
+        /* Private instance Methods */
+
+        /**
+         * @throws ConcurrentModificationException If the set was modified since traversal started.
+         */
+        private void checkModifications() {
+            if (modificationCounter != this.expectedModifications)
+                throw new ConcurrentModificationException();
+        }
     }
 }
@@ -1,4 +1,12 @@
-public interface SimpleSet {
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A set of Strings. Its elements can be traversed in no particular order, by iterator(), forEach() or stream().
+ * Besides the operations of any GenericSimpleSet, it searches values given as chars or UTF-8 bytes, and adds, searches
+ * and deletes arrays of values at once.
+ */
+public interface SimpleSet extends GenericSimpleSet<String> {
     /**
      * Add a specified element to the set if it's not already in it.
      *
@@ -15,6 +23,41 @@ public interface SimpleSet {
      */
     boolean contains(String searchVal);
 
+    /**
+     * Look for the value of a char sequence in the set, e.g. of a StringBuilder or a CharBuffer. Implementations may
+     * search it without creating a String.
+     *
+     * @param searchVal Value to search for
+     * @return True iff a String equal to searchVal is found in the set
+     */
+    default boolean contains(CharSequence searchVal) {
+        return this.contains(searchVal.toString());
+    }
+
+    /**
+     * Look for the value of a range of UTF-8 bytes in the set, as decoded by new String(bytes, offset, length, UTF_8).
+     * Implementations may search it without decoding it to a String.
+     *
+     * @param bytes  Array holding the value to search for
+     * @param offset Index of the first byte of the value
+     * @param length Number of bytes of the value
+     * @return True iff the decoded value is found in the set
+     */
+    default boolean contains(byte[] bytes, int offset, int length) {
+        return this.contains(new String(bytes, offset, length, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Look for the value of the remaining UTF-8 bytes of a buffer (from its position to its limit) in the set. The
+     * buffer position is not changed. Implementations may search it without decoding it to a String.
+     *
+     * @param bytes Buffer holding the value to search for
+     * @return True iff the decoded value is found in the set
+     */
+    default boolean contains(ByteBuffer bytes) {
+        return this.contains(StandardCharsets.UTF_8.decode(bytes.duplicate()).toString());
+    }
+
     /**
      * Remove the input element from the set.
      *
@@ -27,4 +70,53 @@ public interface SimpleSet {
      * @return The number of elements currently in the set
      */
     public int size();
+
+    /**
+     * Add the specified elements to the set, each if it's not already in it. Implementations may look up several
+     * elements at once, to overlap their memory accesses.
+     *
+     * @param newValues New values to add to the set
+     * @return Number of values that were added, i.e. did not already exist in the set
+     */
+    default int addAll(String[] newValues) {
+        int added = 0;
+        for (String newValue : newValues)
+            if (this.add(newValue))
+                added++;
+        return added;
+    }
+
+    /**
+     * Look for the specified values in the set. Implementations may look up several values at once, to overlap their
+     * memory accesses.
+     *
+     * @param searchVals Values to search for
+     * @param found      Set to true at the index of each value that is found in the set, false at the others (at least
+     *                   as long as searchVals)
+     * @return Number of values that were found in the set
+     */
+    default int containsAll(String[] searchVals, boolean[] found) {
+        int count = 0;
+        for (int i = 0; i < searchVals.length; i++) {
+            found[i] = this.contains(searchVals[i]);
+            if (found[i])
+                count++;
+        }
+        return count;
+    }
+
+    /**
+     * Remove the specified elements from the set. Implementations may look up several elements at once, to overlap
+     * their memory accesses.
+     *
+     * @param toDelete Values to delete
+     * @return Number of values that were found and deleted
+     */
+    default int deleteAll(String[] toDelete) {
+        int deleted = 0;
+        for (String value : toDelete)
+            if (this.delete(value))
+                deleted++;
+        return deleted;
+    }
 }
@@ -0,0 +1,214 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Set algebra between two sets: union, intersection, difference and subset check. The elements of one set are looked
+ * up in the other in parallel, by fork-join tasks over ranges of its table (see SimpleHashSet.spliterator()), and the
+ * result is a new OpenHashSet, pre-sized to hold its elements without resizing.
+ * When both sets are OpenHashSets that hash elements the same way, the tasks walk the buckets of the first set, and
+ * search each element in the bucket its cached hash code chooses in the second set, with no hashing: when both have
+ * the same capacity, that is the bucket in the same index, so both tables are read in order.
+ * Neither set may be modified during an operation.
+ */
+public class SimpleSetAlgebra {
+    /* Class members - constant variables */
+    private static final int CHUNK_CELLS = 1 << 14; // Table cells walked by each worker task of a bucket walk.
+
+    /* Public static Methods */
+
+    /**
+     * @param first  A set.
+     * @param second Another set.
+     * @return A new set of the elements that are in either set.
+     */
+    public static SimpleSet union(SimpleSet first, SimpleSet second) {
+        String[] secondOnly = select(second, first, false);
+        OpenHashSet result = newResult(first.size() + secondOnly.length);
+        first.forEach(result::add);
+        result.addAll(secondOnly);
+        return result;
+    }
+
+    /**
+     * Walks the smaller set, and looks its elements up in the larger one.
+     *
+     * @param first  A set.
+     * @param second Another set.
+     * @return A new set of the elements that are in both sets.
+     */
+    public static SimpleSet intersect(SimpleSet first, SimpleSet second) {
+        String[] common = first.size() <= second.size() ? select(first, second, true) : select(second, first, true);
+        OpenHashSet result = newResult(common.length);
+        result.addAll(common);
+        return result;
+    }
+
+    /**
+     * @param first  A set.
+     * @param second Another set.
+     * @return A new set of the elements of first that are not in second.
+     */
+    public static SimpleSet difference(SimpleSet first, SimpleSet second) {
+        String[] firstOnly = select(first, second, false);
+        OpenHashSet result = newResult(firstOnly.length);
+        result.addAll(firstOnly);
+        return result;
+    }
+
+    /**
+     * @param first  A set.
+     * @param second Another set.
+     * @return True iff every element of first is in second.
+     */
+    public static boolean isSubsetOf(SimpleSet first, SimpleSet second) {
+        if (first.size() > second.size())
+            return false;
+        if (!bucketsMatch(first, second))
+            return first.stream().parallel().allMatch(second::contains);
+        AtomicBoolean missing = new AtomicBoolean(false);
+        walkBuckets((OpenHashSet) first, (OpenHashSet) second, false, (items, chunk) -> {
+            if (!items.isEmpty())
+                missing.set(true);
+        });
+        return !missing.get();
+    }
+
+    /* Private static Methods */
+
+    /**
+     * Selects, in parallel, the elements of a set that are in another set, or the ones that are not.
+     *
+     * @param source  Set to select elements of.
+     * @param other   Set to look the elements up in.
+     * @param inOther True to select the elements that are in other, false for the ones that are not.
+     * @return The selected elements.
+     */
+    private static String[] select(SimpleSet source, SimpleSet other, boolean inOther) {
+        if (!bucketsMatch(source, other))
+            return source.stream().parallel().filter(item -> other.contains(item) == inOther).toArray(String[]::new);
+        List<List<String>> chunks = new ArrayList<>();
+        walkBuckets((OpenHashSet) source, (OpenHashSet) other, inOther, (items, chunk) -> {
+            synchronized (chunks) {
+                while (chunks.size() <= chunk)
+                    chunks.add(null);
+                chunks.set(chunk, items);
+            }
+        });
+        int size = 0;
+        for (List<String> items : chunks)
+            size += items.size();
+        String[] result = new String[size];
+        int index = 0;
+        for (List<String> items : chunks)
+            for (String item : items)
+                result[index++] = item;
+        return result;
+    }
+
+    /**
+     * Checks if the elements of a set can be looked up in another set by walking their buckets. Completes any
+     * incremental resize in progress in either set first, so both are only read from then on.
+     *
+     * @param source Set to walk.
+     * @param other  Set to look the elements up in.
+     * @return True iff both sets are OpenHashSets that hash elements the same way.
+     */
+    private static boolean bucketsMatch(SimpleSet source, SimpleSet other) {
+        if (source instanceof SimpleHashSet)
+            ((SimpleHashSet) source).completeResize();
+        if (other instanceof SimpleHashSet)
+            ((SimpleHashSet) other).completeResize();
+        return source instanceof OpenHashSet && other instanceof OpenHashSet &&
+                ((OpenHashSet) source).hashesLike((OpenHashSet) other);
+    }
+
+    /**
+     * Walks the buckets of a set in chunks of CHUNK_CELLS, each in a fork-join task, and looks each element up in the
+     * bucket its cached hash code chooses in another set.
+     *
+     * @param source  Set to walk.
+     * @param other   Set to look the elements up in, that hashes elements like source.
+     * @param inOther True to select the elements that are in other, false for the ones that are not.
+     * @param handler Called by each task with the selected elements of its chunk, and the chunk index.
+     */
+    private static void walkBuckets(OpenHashSet source, OpenHashSet other, boolean inOther,
+                                    ObjIntConsumer<List<String>> handler) {
+        int chunks = (source.capacity() + CHUNK_CELLS - 1) / CHUNK_CELLS;
+        ForkJoinPool.commonPool().invoke(new BucketTask(source, other, inOther, 0, chunks, handler));
+    }
+
+    /**
+     * @param expectedSize Number of elements of the result.
+     * @return A new empty result set, pre-sized to hold expectedSize elements with the default load factors.
+     */
+    private static OpenHashSet newResult(int expectedSize) {
+        return new OpenHashSet(expectedSize, SimpleHashSet.DEFAULT_HIGHER_CAPACITY,
+                SimpleHashSet.DEFAULT_LOWER_CAPACITY);
+    }
+
+    /* Nested classes */
+
+    /**
+     * A fork-join task walking a range of chunks of a set's buckets, by splitting it in halves down to single chunks.
+     */
+    private static class BucketTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L; // Tasks are never serialized.
+        private final OpenHashSet source; // Set to walk.
+        private final OpenHashSet other; // Set to look the elements up in.
+        private final boolean inOther; // True to select the elements that are in other, false for the others.
+        private final int fromChunk; // First chunk of the range.
+        private final int toChunk; // Chunk after the range.
+        private final ObjIntConsumer<List<String>> handler; // Called with the selected elements of each chunk.
+
+        /**
+         * @param source    Set to walk.
+         * @param other     Set to look the elements up in.
+         * @param inOther   True to select the elements that are in other, false for the ones that are not.
+         * @param fromChunk First chunk of the range.
+         * @param toChunk   Chunk after the range.
+         * @param handler   Called with the selected elements of each chunk, and the chunk index.
+         */
+        BucketTask(OpenHashSet source, OpenHashSet other, boolean inOther, int fromChunk, int toChunk,
+                   ObjIntConsumer<List<String>> handler) {
+            this.source = source;
+            this.other = other;
+            this.inOther = inOther;
+            this.fromChunk = fromChunk;
+            this.toChunk = toChunk;
+            this.handler = handler;
+        }
+
+        /**
+         * Walks a single chunk, or forks tasks walking each half of the range.
+         */
+        @Override
+        protected void compute() {
+            if (this.toChunk - this.fromChunk > 1) {
+                int middle = (this.fromChunk + this.toChunk) >>> 1;
+                invokeAll(new BucketTask(this.source, this.other, this.inOther, this.fromChunk, middle, this.handler),
+                        new BucketTask(this.source, this.other, this.inOther, middle, this.toChunk, this.handler));
+                return;
+            }
+            int otherMask = this.other.capacity() - 1;
+            int end = Math.min(this.source.capacity(), (this.fromChunk + 1) * CHUNK_CELLS);
+            List<String> selected = new ArrayList<>();
+            for (int index = this.fromChunk * CHUNK_CELLS; index < end; index++) {
+                HashBucket bucket = this.source.bucketAt(index);
+                if (bucket == null)
+                    continue;
+                for (int position = 0; position < bucket.size(); position++) {
+                    String item = bucket.getItem(position);
+                    int hash = bucket.getHash(position);
+                    HashBucket otherBucket = this.other.bucketAt(hash & otherMask);
+                    if ((otherBucket != null && otherBucket.contains(item, hash)) == this.inOther)
+                        selected.add(item);
+                }
+            }
+            this.handler.accept(selected, this.fromChunk);
+        }
+    }
+}
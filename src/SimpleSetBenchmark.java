@@ -0,0 +1,964 @@
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * A non-interactive benchmark runner for all the data-structs of SimpleSetPerformanceAnalyzer. Runs every chosen
+ * operation on every chosen data-struct and data set, with warm-up and measurement iterations, and reports the average
+ * time per operation (with its standard deviation), the throughput and the allocation rate. In latency mode, times
+ * every single operation instead, and reports its latency percentiles (p50, p90, p99, p99.9 and max). The results can
+ * be written as CSV and compared to a previous run, failing (exit status 1) on regressions, for use in CI.
+ * <p>
+ * Latency mode can issue operations at a fixed rate. Each operation latency is then measured from the time it was
+ * scheduled to start, not from the time it actually started, so an operation that stalls (e.g. on a resize) is also
+ * charged to all the operations that were scheduled during the stall. Measuring from the actual start would omit
+ * those delays (coordinated omission), and report percentiles far lower than a client issuing requests at this rate
+ * would see.
+ * <p>
+ * The sets specialized by OpenHashSetGenerator, and a boxed Java HashSet to compare them to, run on the keys of a
+ * data set that are decimal numbers (data1, data2, sequential), as primitive or boxed values converted before
+ * measuring. They have no batch operations.
+ * <p>
+ * In throughput mode, the operations of an iteration can be split between several threads that share the data-struct,
+ * each running a contiguous range of them, to measure how the thread-safe data-structs scale. Only those run on more
+ * than one thread, and the batch operations, which are a single call, are skipped.
+ * <p>
+ * Usage: java SimpleSetBenchmark [-s structs] [-d data sets] [-o operations] [-n size] [-w warm-ups]
+ * [-i iterations] [-mix percent] [-seed seed] [-mode throughput|latency] [-rate ops] [-threads threads]
+ * [-format table|csv] [-baseline file] [-threshold percent]
+ */
+public class SimpleSetBenchmark {
+    /* Arguments constant variables */
+    private static final String USAGE = "Usage: java SimpleSetBenchmark [-s structs] [-d data sets] [-o operations] " +
+            "[-n size] [-w warm-ups] [-i iterations] [-mix percent] [-seed seed] [-mode throughput|latency] " +
+            "[-rate ops] [-threads threads] [-format table|csv] [-baseline file] [-threshold percent]\n" +
+            "  structs:    comma separated data-struct names, default all (see SimpleSetPerformanceAnalyzer), and " +
+            "the specialized IntOpenHashSet, LongOpenHashSet, ObjectOpenHashSet and JavaHashSet<Long>, that run on " +
+            "the decimal keys of a data set (IntOpenHashSet if all in the int range)\n" +
+            "  data sets:  comma separated of data1, data2 (files), uniform, sequential, colliding (synthetic), " +
+            "default uniform,sequential\n" +
+            "  operations: comma separated of add, contains-hit, contains-miss, delete, mixed, add-batch, " +
+            "contains-batch, delete-batch (batch operations are skipped in latency mode and with threads), " +
+            "default all\n" +
+            "  size:       number of keys of a synthetic data set, default 10000\n" +
+            "  mix:        percent of 'contains' in mixed operation (rest split between add and delete), default 90\n" +
+            "  ops:        operations per second issued in latency mode, default 0 (back-to-back)\n" +
+            "  threads:    threads that split the operations of an iteration in throughput mode (more than 1 only " +
+            "for ConcurrentSimpleHashSet and LockFreeHashSet, and no batch operations), default 0 (main thread)";
+    private static final String LIST_SEPARATOR = ","; // Separates values of a list argument and of CSV fields.
+    private static final int ARGUMENTS_ERROR = 2; // Exit status on invalid arguments.
+    private static final int REGRESSION_ERROR = 1; // Exit status when a regression against the baseline is found.
+    /* Data sets constant variables */
+    private static final String[] DATA_SETS = {"data1", "data2", "uniform", "sequential", "colliding"};
+    private static final String DATA_FILE_SUFFIX = ".txt"; // Data set files are named after the data set.
+    private static final String MISS_PREFIX = "miss:"; // Prefix that turns a data set key into a missing key.
+    private static final int UNIFORM_MIN_LENGTH = 8; // Minimal length of a uniform random key.
+    private static final int UNIFORM_MAX_LENGTH = 16; // Maximal length of a uniform random key.
+    private static final String[] COLLIDING_BLOCKS = {"Aa", "BB"}; // Blocks that have the same String hash code.
+    // Data-structs that may be shared by several threads.
+    private static final List<String> THREAD_SAFE_STRUCTS = List.of("ConcurrentSimpleHashSet", "LockFreeHashSet");
+    /* Operations constant variables */
+    private static final String[] OPERATIONS = {"add", "contains-hit", "contains-miss", "delete", "mixed", "add-batch",
+            "contains-batch", "delete-batch"};
+    private static final String BATCH_SUFFIX = "-batch"; // Suffix of operations that run as a single batch call.
+    private static final byte MIXED_CONTAINS = 0; // Mixed operation code of 'contains'.
+    private static final byte MIXED_ADD = 1; // Mixed operation code of 'add'.
+    private static final byte MIXED_DELETE = 2; // Mixed operation code of 'delete'.
+    /* Measurement constant variables */
+    private static final double NANOS_PER_SECOND = 1e9; // Conversion unit between nanoseconds and seconds.
+    private static final String CSV_HEADER =
+            "structure,dataset,operation,ns_per_op,ns_per_op_stddev,ops_per_second,bytes_per_op";
+    private static final String TABLE_FORMAT = "%-28s %-11s %-14s %12s %16s %14s %12s%n"; // Table row format.
+    private static final int REGRESSION_FIELD = 3; // Field of CSV_HEADER compared to the baseline (ns_per_op).
+    /* Latency mode constant variables */
+    private static final String LATENCY_CSV_HEADER =
+            "structure,dataset,operation,p50_ns,p90_ns,p99_ns,p99.9_ns,max_ns";
+    private static final String LATENCY_TABLE_FORMAT = "%-28s %-11s %-14s %10s %10s %10s %10s %12s%n";
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9, 100}; // Reported percentiles (100 is max).
+    private static final int LATENCY_REGRESSION_FIELD = 5; // LATENCY_CSV_HEADER field compared to the baseline (p99).
+    private static final long ALLOCATION_UNSUPPORTED = -1; // Allocated bytes when the JVM cannot measure them.
+    /* Configuration variables, assigned from arguments */
+    private static List<String> structNames = null; // Chosen data-struct names, null for all.
+    private static String[] dataSets = {"uniform", "sequential"}; // Chosen data sets.
+    private static String[] operations = OPERATIONS; // Chosen operations.
+    private static int syntheticSize = 10000; // Number of keys of a synthetic data set.
+    private static int warmUpIterations = 3; // Number of iterations run before measuring.
+    private static int measureIterations = 5; // Number of measured iterations.
+    private static int mixedContainsPercent = 90; // Percent of 'contains' in mixed operation.
+    private static long seed = 42; // Seed of synthetic data sets and mixed operations.
+    private static boolean latencyMode = false; // True to report latency percentiles, false average times.
+    private static double operationsPerSecond = 0; // Fixed rate of operations in latency mode, 0 for back-to-back.
+    private static int threads = 0; // Threads that split the operations of an iteration, 0 to run on the main thread.
+    private static boolean csvFormat = false; // True to print results as CSV, false as a table.
+    private static String baselineFile = null; // CSV results of a previous run to compare to, null for none.
+    private static double regressionThreshold = 10; // Percent of time per operation increase that is a regression.
+    /* Measurement variables */
+    // Sums the results of all operations, so the JIT cannot eliminate them as dead code.
+    private static volatile int sink;
+
+    /**
+     * Main method that parses the arguments, runs all chosen benchmarks and compares them to the baseline.
+     *
+     * @param args Command line args, see USAGE.
+     */
+    public static void main(String[] args) {
+        if (!parseArguments(args)) {
+            System.err.println(USAGE);
+            System.exit(ARGUMENTS_ERROR);
+        }
+        List<String[]> results = new ArrayList<>();
+        printHeader();
+        for (String dataSet : dataSets) {
+            String[] keys = loadDataSet(dataSet);
+            String[] missKeys = missingKeys(keys);
+            long[] values = valueKeys(keys);
+            for (String operation : operations) {
+                if ((latencyMode || threads > 0) && operation.endsWith(BATCH_SUFFIX))
+                    continue; // A batch operation is a single call, with no per-operation latency or thread split.
+                for (int i = 0; i < SimpleSetPerformanceAnalyzer.DATA_STRUCT_NAMES.length; i++) {
+                    String name = SimpleSetPerformanceAnalyzer.DATA_STRUCT_NAMES[i];
+                    if ((structNames != null && !structNames.contains(name)) ||
+                            (threads > 1 && !THREAD_SAFE_STRUCTS.contains(name)))
+                        continue;
+                    String[] result = runBenchmark(i, threadsName(name), dataSet, operation, keys, missKeys);
+                    printResult(result);
+                    results.add(result);
+                }
+                if (values == null || operation.endsWith(BATCH_SUFFIX) || threads > 1)
+                    continue; // No key is a decimal number, a batch operation they do not have, or not thread-safe.
+                for (int i = 0; i < SimpleSetPerformanceAnalyzer.VALUE_STRUCT_NAMES.length; i++) {
+                    String name = SimpleSetPerformanceAnalyzer.VALUE_STRUCT_NAMES[i];
+                    if ((structNames != null && !structNames.contains(name)) ||
+                            (i == SimpleSetPerformanceAnalyzer.INT_VALUE_STRUCT_INDEX && !intValues(values)))
+                        continue;
+                    String[] result = runValueBenchmark(i, threadsName(name), dataSet, operation, values);
+                    printResult(result);
+                    results.add(result);
+                }
+            }
+        }
+        if (baselineFile != null && findRegressions(results))
+            System.exit(REGRESSION_ERROR);
+    }
+
+    /**
+     * @param name Data-struct name.
+     * @return The name reported for the data-struct: followed by the number of threads that share it, if any.
+     */
+    private static String threadsName(String name) {
+        return threads == 0 ? name : name + "/" + threads + "t";
+    }
+
+    /**
+     * Parses the command line arguments into the configuration variables.
+     *
+     * @param args Command line args, see USAGE.
+     * @return True if all arguments are valid, false otherwise.
+     */
+    private static boolean parseArguments(String[] args) {
+        try {
+            for (int i = 0; i < args.length; i += 2) {
+                if (i + 1 == args.length)
+                    return false; // Every flag is followed by a value.
+                String value = args[i + 1];
+                switch (args[i]) {
+                    case "-s":
+                        structNames = List.of(value.split(LIST_SEPARATOR));
+                        break;
+                    case "-d":
+                        dataSets = value.split(LIST_SEPARATOR);
+                        if (!allIn(dataSets, DATA_SETS))
+                            return false;
+                        break;
+                    case "-o":
+                        operations = value.split(LIST_SEPARATOR);
+                        if (!allIn(operations, OPERATIONS))
+                            return false;
+                        break;
+                    case "-n":
+                        syntheticSize = Integer.parseInt(value);
+                        break;
+                    case "-w":
+                        warmUpIterations = Integer.parseInt(value);
+                        break;
+                    case "-i":
+                        measureIterations = Integer.parseInt(value);
+                        break;
+                    case "-mix":
+                        mixedContainsPercent = Integer.parseInt(value);
+                        break;
+                    case "-seed":
+                        seed = Long.parseLong(value);
+                        break;
+                    case "-mode":
+                        if (!value.equals("throughput") && !value.equals("latency"))
+                            return false;
+                        latencyMode = value.equals("latency");
+                        break;
+                    case "-rate":
+                        operationsPerSecond = Double.parseDouble(value);
+                        break;
+                    case "-threads":
+                        threads = Integer.parseInt(value);
+                        break;
+                    case "-format":
+                        if (!value.equals("table") && !value.equals("csv"))
+                            return false;
+                        csvFormat = value.equals("csv");
+                        break;
+                    case "-baseline":
+                        baselineFile = value;
+                        break;
+                    case "-threshold":
+                        regressionThreshold = Double.parseDouble(value);
+                        break;
+                    default:
+                        return false;
+                }
+            }
+        } catch (NumberFormatException e) {
+            return false;
+        }
+        return measureIterations > 0 && syntheticSize > 0 && mixedContainsPercent >= 0 && mixedContainsPercent <= 100 &&
+                operationsPerSecond >= 0 && threads >= 0 && !(latencyMode && threads > 0);
+    }
+
+    /**
+     * @param values  Values to check.
+     * @param options Valid options.
+     * @return True if every value is one of the options, false otherwise.
+     */
+    private static boolean allIn(String[] values, String[] options) {
+        for (String value : values)
+            if (!List.of(options).contains(value))
+                return false;
+        return true;
+    }
+
+    /**
+     * Loads the keys of a data set: the lines of its file for data1/data2, or generated keys for synthetic data sets.
+     *
+     * @param dataSet Data set name.
+     * @return The data set keys.
+     */
+    private static String[] loadDataSet(String dataSet) {
+        Random random = new Random(seed);
+        String[] keys = new String[syntheticSize];
+        switch (dataSet) {
+            case "uniform":
+                // Random lower-case keys of random length.
+                for (int i = 0; i < keys.length; i++) {
+                    char[] key = new char[UNIFORM_MIN_LENGTH +
+                            random.nextInt(UNIFORM_MAX_LENGTH - UNIFORM_MIN_LENGTH + 1)];
+                    for (int j = 0; j < key.length; j++)
+                        key[j] = (char) ('a' + random.nextInt('z' - 'a' + 1));
+                    keys[i] = new String(key);
+                }
+                return keys;
+            case "sequential":
+                for (int i = 0; i < keys.length; i++)
+                    keys[i] = Integer.toString(i);
+                return keys;
+            case "colliding":
+                // Each bit of i selects one of two blocks with the same hash code, so all keys share a hash code.
+                int blocks = Integer.SIZE - Integer.numberOfLeadingZeros(keys.length);
+                for (int i = 0; i < keys.length; i++) {
+                    StringBuilder key = new StringBuilder();
+                    for (int bit = 0; bit < blocks; bit++)
+                        key.append(COLLIDING_BLOCKS[(i >>> bit) & 1]);
+                    keys[i] = key.toString();
+                }
+                return keys;
+            default:
+                return readLines(dataSet + DATA_FILE_SUFFIX);
+        }
+    }
+
+    /**
+     * Reads a data set file, failing the run if it cannot be read.
+     *
+     * @param fileName Text file to read, a key per line.
+     * @return Array with the file's lines.
+     */
+    private static String[] readLines(String fileName) {
+        try {
+            return SimpleSetLoader.readLines(Path.of(fileName));
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read data set file " + fileName, e);
+        }
+    }
+
+    /**
+     * @param keys Data set keys.
+     * @return Keys that are not in the data set, one for each data set key.
+     */
+    private static String[] missingKeys(String[] keys) {
+        String[] missKeys = new String[keys.length];
+        for (int i = 0; i < keys.length; i++)
+            missKeys[i] = MISS_PREFIX + keys[i];
+        return missKeys;
+    }
+
+    /**
+     * Converts the keys of a data set that are decimal numbers to values for the specialized sets, and adds a value
+     * that is not among them for each of them: the key with its sign bit flipped (as an int if all the keys are in
+     * the int range, so the missing values are too), or the next value that is missing.
+     *
+     * @param keys Data set keys.
+     * @return The values of the keys that are decimal numbers, followed by as many missing values, null if no key is
+     * a decimal number.
+     */
+    private static long[] valueKeys(String[] keys) {
+        long[] hits = new long[keys.length];
+        int count = 0;
+        boolean intRange = true;
+        for (String key : keys) {
+            try {
+                hits[count] = Long.parseLong(key);
+            } catch (NumberFormatException e) {
+                continue; // Not a decimal number, left out.
+            }
+            intRange &= hits[count] == (int) hits[count];
+            count++;
+        }
+        if (count == 0)
+            return null;
+        Set<Long> present = new HashSet<>();
+        for (int i = 0; i < count; i++)
+            present.add(hits[i]);
+        long[] values = Arrays.copyOf(hits, 2 * count);
+        for (int i = 0; i < count; i++) {
+            long miss = intRange ? (int) hits[i] ^ Integer.MIN_VALUE : hits[i] ^ Long.MIN_VALUE;
+            while (present.contains(miss))
+                miss = intRange ? (int) (miss + 1) : miss + 1;
+            values[count + i] = miss;
+        }
+        return values;
+    }
+
+    /**
+     * @param values Values of the specialized sets.
+     * @return True iff all the values are in the int range, so IntOpenHashSet can hold them.
+     */
+    private static boolean intValues(long[] values) {
+        for (long value : values)
+            if (value != (int) value)
+                return false;
+        return true;
+    }
+
+    /**
+     * Runs the warm-up and measured iterations of one operation on one data-struct and data set (see
+     * runBenchmark(Target)).
+     *
+     * @param structIndex Index of the data-struct in SimpleSetPerformanceAnalyzer data-structs array.
+     * @param name        Data-struct name.
+     * @param dataSet     Data set name.
+     * @param operation   Operation name.
+     * @param keys        Data set keys.
+     * @param missKeys    Keys that are not in the data set.
+     * @return Result fields, in the chosen mode CSV header order.
+     */
+    private static String[] runBenchmark(int structIndex, String name, String dataSet, String operation,
+                                         String[] keys, String[] missKeys) {
+        byte[] mixedOperations = mixedOperations(keys.length);
+        String[] mixedKeys = mixedKeys(keys, missKeys, mixedOperations);
+        return runBenchmark(name, dataSet, operation, keys.length, new Target<SimpleSet>() {
+            public SimpleSet newStruct() {
+                return newDataStruct(structIndex, operation, keys);
+            }
+
+            public void closeStruct(SimpleSet dataStruct) {
+                if (dataStruct instanceof OffHeapStringSet)
+                    ((OffHeapStringSet) dataStruct).close(); // Frees its off-heap memory now, not on GC.
+            }
+
+            public int runOperation(SimpleSet dataStruct) {
+                return SimpleSetBenchmark.runOperation(operation, dataStruct, keys, missKeys, mixedOperations,
+                        mixedKeys);
+            }
+
+            public boolean runSingleOperation(SimpleSet dataStruct, int i) {
+                return SimpleSetBenchmark.runSingleOperation(operation, dataStruct, i, keys, missKeys,
+                        mixedOperations, mixedKeys);
+            }
+        });
+    }
+
+    /**
+     * Runs the warm-up and measured iterations of one operation on one specialized set and data set (see
+     * runBenchmark(Target)).
+     *
+     * @param structIndex Index of the set in SimpleSetPerformanceAnalyzer specialized sets array.
+     * @param name        Set name.
+     * @param dataSet     Data set name.
+     * @param operation   Operation name.
+     * @param values      Values of the data set keys, followed by as many missing values (see valueKeys()).
+     * @return Result fields, in the chosen mode CSV header order.
+     */
+    private static String[] runValueBenchmark(int structIndex, String name, String dataSet, String operation,
+                                              long[] values) {
+        int keyCount = values.length / 2;
+        byte[] mixedOperations = mixedOperations(keyCount);
+        int[] mixedIndexes = mixedKeyIndexes(keyCount, mixedOperations);
+        Long[] boxed = SimpleSetPerformanceAnalyzer.boxValues(values); // Boxed once, not on every iteration.
+        return runBenchmark(name, dataSet, operation, keyCount, new Target<ValueSet>() {
+            public ValueSet newStruct() {
+                return newValueStruct(structIndex, operation, values, boxed);
+            }
+
+            public void closeStruct(ValueSet valueStruct) {
+            }
+
+            public int runOperation(ValueSet valueStruct) {
+                return runValueOperation(operation, valueStruct, keyCount, mixedOperations, mixedIndexes);
+            }
+
+            public boolean runSingleOperation(ValueSet valueStruct, int i) {
+                return runSingleValueOperation(operation, valueStruct, i, keyCount, mixedOperations, mixedIndexes);
+            }
+        });
+    }
+
+    /**
+     * Runs the warm-up and measured iterations of one operation on one data-struct and data set. Each iteration gets
+     * a newly created data-struct, filled (before measuring) as the operation requires, and closed after it.
+     *
+     * @param name       Data-struct name.
+     * @param dataSet    Data set name.
+     * @param operation  Operation name.
+     * @param operations Number of single operations of an iteration.
+     * @param target     Creates the data-struct and runs the operation on it.
+     * @param <S>        Type of the data-struct.
+     * @return Result fields, in the chosen mode CSV header order.
+     */
+    private static <S> String[] runBenchmark(String name, String dataSet, String operation, int operations,
+                                             Target<S> target) {
+        if (latencyMode)
+            return runLatencyBenchmark(name, dataSet, operation, operations, target);
+        double[] nanosPerOperation = new double[measureIterations];
+        double[] bytesPerOperation = new double[measureIterations];
+        for (int iteration = -warmUpIterations; iteration < measureIterations; iteration++) {
+            S dataStruct = target.newStruct();
+            int operationsCount = operations;
+            long time;
+            long allocated;
+            try {
+                if (threads == 0) {
+                    long allocatedBefore = allocatedBytes();
+                    long timeBefore = System.nanoTime();
+                    operationsCount = target.runOperation(dataStruct);
+                    time = System.nanoTime() - timeBefore;
+                    allocated = allocatedBytes() - allocatedBefore;
+                } else {
+                    long[] threadsAllocated = new long[threads];
+                    time = runThreads(dataStruct, operations, target, threadsAllocated);
+                    allocated = Arrays.stream(threadsAllocated).sum();
+                }
+            } finally {
+                target.closeStruct(dataStruct);
+            }
+            if (iteration >= 0) {
+                nanosPerOperation[iteration] = (double) time / operationsCount;
+                bytesPerOperation[iteration] = (double) allocated / operationsCount;
+            }
+        }
+        double mean = mean(nanosPerOperation);
+        String bytes = allocatedBytes() == ALLOCATION_UNSUPPORTED ? "n/a" : format(mean(bytesPerOperation));
+        return new String[]{name, dataSet, operation, format(mean), format(standardDeviation(nanosPerOperation, mean)),
+                format(NANOS_PER_SECOND / mean), bytes};
+    }
+
+    /**
+     * Runs the warm-up and measured iterations of one operation on one data-struct and data set, timing every single
+     * operation of the measured iterations. With a fixed rate, each operation is timed from its scheduled start.
+     *
+     * @param name       Data-struct name.
+     * @param dataSet    Data set name.
+     * @param operation  Operation name.
+     * @param operations Number of single operations of an iteration.
+     * @param target     Creates the data-struct and runs the operation on it.
+     * @param <S>        Type of the data-struct.
+     * @return Result fields, in LATENCY_CSV_HEADER order.
+     */
+    private static <S> String[] runLatencyBenchmark(String name, String dataSet, String operation, int operations,
+                                                    Target<S> target) {
+        LatencyHistogram latencies = new LatencyHistogram(); // Latencies of all measured iterations.
+        double interval = operationsPerSecond == 0 ? 0 : NANOS_PER_SECOND / operationsPerSecond;
+        int results = 0; // Counts true results, so they are used.
+        for (int iteration = -warmUpIterations; iteration < measureIterations; iteration++) {
+            S dataStruct = target.newStruct();
+            try {
+                long iterationStart = System.nanoTime();
+                for (int i = 0; i < operations; i++) {
+                    long start = iterationStart + (long) (i * interval); // Scheduled start of operation.
+                    // Waits for the scheduled start (none when back-to-back).
+                    while (System.nanoTime() < start)
+                        Thread.onSpinWait();
+                    if (interval == 0)
+                        start = System.nanoTime();
+                    results += target.runSingleOperation(dataStruct, i) ? 1 : 0;
+                    long latency = System.nanoTime() - start;
+                    if (iteration >= 0)
+                        latencies.recordValue(latency);
+                }
+            } finally {
+                target.closeStruct(dataStruct);
+            }
+        }
+        sink += results;
+        String[] result = new String[3 + PERCENTILES.length];
+        result[0] = name;
+        result[1] = dataSet;
+        result[2] = operation;
+        for (int i = 0; i < PERCENTILES.length; i++)
+            result[3 + i] = Long.toString(latencies.getValueAtPercentile(PERCENTILES[i]));
+        return result;
+    }
+
+    /**
+     * Runs the single operations of an iteration on several threads that share the data-struct, each thread a
+     * contiguous range of them. The threads are started and wait for each other first, so only the operations are
+     * timed.
+     *
+     * @param dataStruct Data-struct to run the operations on.
+     * @param operations Number of single operations of the iteration.
+     * @param target     Runs the single operations.
+     * @param allocated  Filled with the number of bytes each thread allocated running its operations.
+     * @param <S>        Type of the data-struct.
+     * @return Time from the start of the first thread's operations to the end of the last thread's, in nanoseconds.
+     * @throws IllegalStateException If interrupted while waiting for the threads.
+     */
+    private static <S> long runThreads(S dataStruct, int operations, Target<S> target, long[] allocated) {
+        CountDownLatch ready = new CountDownLatch(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        int[] results = new int[threads]; // Counts true results of each thread, so they are used.
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            int first = (int) ((long) operations * t / threads);
+            int end = (int) ((long) operations * (t + 1) / threads);
+            workers[t] = new Thread(() -> {
+                ready.countDown();
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                long allocatedBefore = allocatedBytes();
+                for (int i = first; i < end; i++)
+                    results[thread] += target.runSingleOperation(dataStruct, i) ? 1 : 0;
+                allocated[thread] = allocatedBytes() - allocatedBefore;
+            });
+            workers[t].start();
+        }
+        try {
+            ready.await();
+            long timeBefore = System.nanoTime();
+            start.countDown();
+            for (Thread worker : workers)
+                worker.join();
+            long time = System.nanoTime() - timeBefore;
+            sink += Arrays.stream(results).sum();
+            return time;
+        } catch (InterruptedException e) {
+            for (Thread worker : workers)
+                worker.interrupt();
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while running the benchmark threads", e);
+        }
+    }
+
+    /**
+     * Creates a new data-struct for an iteration, filled (before measuring) as the operation requires: with all keys,
+     * except for 'add' and 'add-batch' (none) and 'mixed' (every other key).
+     *
+     * @param structIndex Index of the data-struct in SimpleSetPerformanceAnalyzer data-structs array.
+     * @param operation   Operation name.
+     * @param keys        Data set keys.
+     * @return The new data-struct.
+     */
+    private static SimpleSet newDataStruct(int structIndex, String operation, String[] keys) {
+        SimpleSet dataStruct = SimpleSetPerformanceAnalyzer.newDataStruct(structIndex);
+        if (!operation.startsWith("add"))
+            for (int i = 0; i < keys.length; i += operation.equals("mixed") ? 2 : 1)
+                dataStruct.add(keys[i]);
+        return dataStruct;
+    }
+
+    /**
+     * Creates a new specialized set for an iteration, filled (before measuring) as the operation requires, as
+     * newDataStruct() fills a data-struct.
+     *
+     * @param structIndex Index of the set in SimpleSetPerformanceAnalyzer specialized sets array.
+     * @param operation   Operation name.
+     * @param values      Values of the data set keys, followed by as many missing values.
+     * @param boxed       The same values, boxed.
+     * @return The new set.
+     */
+    private static ValueSet newValueStruct(int structIndex, String operation, long[] values, Long[] boxed) {
+        ValueSet valueStruct = SimpleSetPerformanceAnalyzer.newValueStruct(structIndex, values, boxed);
+        if (!operation.startsWith("add"))
+            for (int i = 0; i < values.length / 2; i += operation.equals("mixed") ? 2 : 1)
+                valueStruct.add.test(i);
+        return valueStruct;
+    }
+
+    /**
+     * Runs a single operation, the i-th one of the measured part of an operation.
+     *
+     * @param operation       Operation name.
+     * @param dataStruct      Data-struct to run the operation on.
+     * @param i               Index of the operation.
+     * @param keys            Data set keys.
+     * @param missKeys        Keys that are not in the data set.
+     * @param mixedOperations Operation codes of 'mixed' operation.
+     * @param mixedKeys       Keys of 'mixed' operation, by order of operation codes.
+     * @return The operation result.
+     */
+    private static boolean runSingleOperation(String operation, SimpleSet dataStruct, int i, String[] keys,
+                                              String[] missKeys, byte[] mixedOperations, String[] mixedKeys) {
+        switch (operation) {
+            case "add":
+                return dataStruct.add(keys[i]);
+            case "contains-hit":
+                return dataStruct.contains(keys[i]);
+            case "contains-miss":
+                return dataStruct.contains(missKeys[i]);
+            case "delete":
+                return dataStruct.delete(keys[i]);
+            default:
+                if (mixedOperations[i] == MIXED_CONTAINS)
+                    return dataStruct.contains(mixedKeys[i]);
+                if (mixedOperations[i] == MIXED_ADD)
+                    return dataStruct.add(mixedKeys[i]);
+                return dataStruct.delete(mixedKeys[i]);
+        }
+    }
+
+    /**
+     * Runs the measured part of an operation.
+     *
+     * @param operation       Operation name.
+     * @param dataStruct      Data-struct to run the operation on.
+     * @param keys            Data set keys.
+     * @param missKeys        Keys that are not in the data set.
+     * @param mixedOperations Operation codes of 'mixed' operation.
+     * @param mixedKeys       Keys of 'mixed' operation, by order of operation codes.
+     * @return Number of performed operations.
+     */
+    private static int runOperation(String operation, SimpleSet dataStruct, String[] keys, String[] missKeys,
+                                    byte[] mixedOperations, String[] mixedKeys) {
+        int results = 0; // Counts true results, so they are used.
+        switch (operation) {
+            case "add":
+                for (String key : keys)
+                    results += dataStruct.add(key) ? 1 : 0;
+                break;
+            case "contains-hit":
+                for (String key : keys)
+                    results += dataStruct.contains(key) ? 1 : 0;
+                break;
+            case "contains-miss":
+                for (String key : missKeys)
+                    results += dataStruct.contains(key) ? 1 : 0;
+                break;
+            case "delete":
+                for (String key : keys)
+                    results += dataStruct.delete(key) ? 1 : 0;
+                break;
+            case "add-batch":
+                results = dataStruct.addAll(keys);
+                break;
+            case "contains-batch":
+                results = dataStruct.containsAll(keys, new boolean[keys.length]);
+                break;
+            case "delete-batch":
+                results = dataStruct.deleteAll(keys);
+                break;
+            default:
+                for (int i = 0; i < mixedOperations.length; i++)
+                    if (mixedOperations[i] == MIXED_CONTAINS)
+                        results += dataStruct.contains(mixedKeys[i]) ? 1 : 0;
+                    else if (mixedOperations[i] == MIXED_ADD)
+                        results += dataStruct.add(mixedKeys[i]) ? 1 : 0;
+                    else
+                        results += dataStruct.delete(mixedKeys[i]) ? 1 : 0;
+                sink += results;
+                return mixedOperations.length;
+        }
+        sink += results;
+        return keys.length;
+    }
+
+    /**
+     * Runs a single operation on a specialized set, the i-th one of the measured part of an operation.
+     *
+     * @param operation       Operation name.
+     * @param valueStruct     Set to run the operation on.
+     * @param i               Index of the operation.
+     * @param keyCount        Number of data set values, the missing values follow them.
+     * @param mixedOperations Operation codes of 'mixed' operation.
+     * @param mixedIndexes    Value indexes of 'mixed' operation, by order of operation codes.
+     * @return The operation result.
+     */
+    private static boolean runSingleValueOperation(String operation, ValueSet valueStruct, int i, int keyCount,
+                                                   byte[] mixedOperations, int[] mixedIndexes) {
+        switch (operation) {
+            case "add":
+                return valueStruct.add.test(i);
+            case "contains-hit":
+                return valueStruct.contains.test(i);
+            case "contains-miss":
+                return valueStruct.contains.test(keyCount + i);
+            case "delete":
+                return valueStruct.delete.test(i);
+            default:
+                if (mixedOperations[i] == MIXED_CONTAINS)
+                    return valueStruct.contains.test(mixedIndexes[i]);
+                if (mixedOperations[i] == MIXED_ADD)
+                    return valueStruct.add.test(mixedIndexes[i]);
+                return valueStruct.delete.test(mixedIndexes[i]);
+        }
+    }
+
+    /**
+     * Runs the measured part of an operation on a specialized set.
+     *
+     * @param operation       Operation name.
+     * @param valueStruct     Set to run the operation on.
+     * @param keyCount        Number of data set values, the missing values follow them.
+     * @param mixedOperations Operation codes of 'mixed' operation.
+     * @param mixedIndexes    Value indexes of 'mixed' operation, by order of operation codes.
+     * @return Number of performed operations.
+     */
+    private static int runValueOperation(String operation, ValueSet valueStruct, int keyCount,
+                                         byte[] mixedOperations, int[] mixedIndexes) {
+        int results = 0; // Counts true results, so they are used.
+        switch (operation) {
+            case "add":
+                for (int i = 0; i < keyCount; i++)
+                    results += valueStruct.add.test(i) ? 1 : 0;
+                break;
+            case "contains-hit":
+                for (int i = 0; i < keyCount; i++)
+                    results += valueStruct.contains.test(i) ? 1 : 0;
+                break;
+            case "contains-miss":
+                for (int i = keyCount; i < 2 * keyCount; i++)
+                    results += valueStruct.contains.test(i) ? 1 : 0;
+                break;
+            case "delete":
+                for (int i = 0; i < keyCount; i++)
+                    results += valueStruct.delete.test(i) ? 1 : 0;
+                break;
+            default:
+                for (int i = 0; i < mixedOperations.length; i++)
+                    if (mixedOperations[i] == MIXED_CONTAINS)
+                        results += valueStruct.contains.test(mixedIndexes[i]) ? 1 : 0;
+                    else if (mixedOperations[i] == MIXED_ADD)
+                        results += valueStruct.add.test(mixedIndexes[i]) ? 1 : 0;
+                    else
+                        results += valueStruct.delete.test(mixedIndexes[i]) ? 1 : 0;
+        }
+        sink += results;
+        return keyCount;
+    }
+
+    /**
+     * @param length Number of operations.
+     * @return Random operation codes of 'mixed' operation, with mixedContainsPercent 'contains'.
+     */
+    private static byte[] mixedOperations(int length) {
+        Random random = new Random(seed);
+        byte[] codes = new byte[length];
+        for (int i = 0; i < length; i++)
+            if (random.nextInt(100) < mixedContainsPercent)
+                codes[i] = MIXED_CONTAINS;
+            else
+                codes[i] = random.nextBoolean() ? MIXED_ADD : MIXED_DELETE;
+        return codes;
+    }
+
+    /**
+     * @param keys            Data set keys.
+     * @param missKeys        Keys that are not in the data set.
+     * @param mixedOperations Operation codes of 'mixed' operation.
+     * @return Random keys of 'mixed' operation, chosen by mixedKeyIndexes().
+     */
+    private static String[] mixedKeys(String[] keys, String[] missKeys, byte[] mixedOperations) {
+        int[] mixedIndexes = mixedKeyIndexes(keys.length, mixedOperations);
+        String[] mixedKeys = new String[mixedIndexes.length];
+        for (int i = 0; i < mixedKeys.length; i++)
+            mixedKeys[i] = mixedIndexes[i] < keys.length ? keys[mixedIndexes[i]] :
+                    missKeys[mixedIndexes[i] - keys.length];
+        return mixedKeys;
+    }
+
+    /**
+     * @param keyCount        Number of data set keys.
+     * @param mixedOperations Operation codes of 'mixed' operation.
+     * @return Random key indexes of 'mixed' operation: of a data set key for 'add' and 'delete', and for 'contains' of
+     * a data set key or (keyCount + index) of a missing key at equal chances.
+     */
+    private static int[] mixedKeyIndexes(int keyCount, byte[] mixedOperations) {
+        Random random = new Random(seed + 1);
+        int[] mixedIndexes = new int[mixedOperations.length];
+        for (int i = 0; i < mixedIndexes.length; i++) {
+            int index = random.nextInt(keyCount);
+            boolean miss = mixedOperations[i] == MIXED_CONTAINS && random.nextBoolean();
+            mixedIndexes[i] = miss ? keyCount + index : index;
+        }
+        return mixedIndexes;
+    }
+
+    /**
+     * @return Number of bytes allocated so far by the current thread, ALLOCATION_UNSUPPORTED if cannot be measured.
+     */
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean)
+            return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        return ALLOCATION_UNSUPPORTED;
+    }
+
+    /**
+     * @param values Measured values.
+     * @return Mean of values.
+     */
+    private static double mean(double[] values) {
+        double sum = 0;
+        for (double value : values)
+            sum += value;
+        return sum / values.length;
+    }
+
+    /**
+     * @param values Measured values.
+     * @param mean   Mean of values.
+     * @return Sample standard deviation of values (0 for a single value).
+     */
+    private static double standardDeviation(double[] values, double mean) {
+        if (values.length < 2)
+            return 0;
+        double sum = 0;
+        for (double value : values)
+            sum += (value - mean) * (value - mean);
+        return Math.sqrt(sum / (values.length - 1));
+    }
+
+    /**
+     * @param value Measured value.
+     * @return Value with 2 decimal digits.
+     */
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.2f", value); // Root locale, so the CSV decimal separator is a dot.
+    }
+
+    /**
+     * @return The CSV header of the results of the chosen mode.
+     */
+    private static String csvHeader() {
+        return latencyMode ? LATENCY_CSV_HEADER : CSV_HEADER;
+    }
+
+    /**
+     * Prints the CSV header, or the table header.
+     */
+    private static void printHeader() {
+        if (csvFormat)
+            System.out.println(csvHeader());
+        else
+            printResult(csvHeader().split(LIST_SEPARATOR));
+    }
+
+    /**
+     * Prints a result as CSV line, or as table row.
+     *
+     * @param result Result fields, in the chosen mode CSV header order.
+     */
+    private static void printResult(String[] result) {
+        if (csvFormat)
+            System.out.println(String.join(LIST_SEPARATOR, result));
+        else
+            System.out.printf(latencyMode ? LATENCY_TABLE_FORMAT : TABLE_FORMAT, (Object[]) result);
+    }
+
+    /**
+     * Compares the average time per operation (p99 latency in latency mode) of each result to the baseline result of
+     * the same data-struct, data set and operation, and prints (to the error stream) every result that is slower by
+     * more than the threshold.
+     *
+     * @param results Results of this run, fields in the chosen mode CSV header order.
+     * @return True if any regression was found, false otherwise.
+     */
+    private static boolean findRegressions(List<String[]> results) {
+        int field = latencyMode ? LATENCY_REGRESSION_FIELD : REGRESSION_FIELD;
+        Map<String, Double> baseline = new HashMap<>();
+        for (String line : readLines(baselineFile)) {
+            String[] fields = line.split(LIST_SEPARATOR);
+            if (!line.equals(csvHeader()))
+                baseline.put(fields[0] + LIST_SEPARATOR + fields[1] + LIST_SEPARATOR + fields[2],
+                        Double.parseDouble(fields[field]));
+        }
+        boolean regression = false;
+        for (String[] result : results) {
+            Double baselineNanos = baseline.get(result[0] + LIST_SEPARATOR + result[1] + LIST_SEPARATOR + result[2]);
+            double nanos = Double.parseDouble(result[field]);
+            if (baselineNanos != null && nanos > baselineNanos * (1 + regressionThreshold / 100)) {
+                System.err.println("REGRESSION: " + result[0] + " " + result[1] + " " + result[2] + ": " +
+                        format(baselineNanos) + " -> " + format(nanos) + " ns" + (latencyMode ? " p99" : "/op"));
+                regression = true;
+            }
+        }
+        return regression;
+    }
+
+    /* Nested classes */
+
+    /**
+     * A benchmarked data-struct type, that runs the operations of one benchmark.
+     *
+     * @param <S> Type of the data-struct.
+     */
+    private interface Target<S> {
+        /**
+         * @return A new data-struct, filled as the operation requires.
+         */
+        S newStruct();
+
+        /**
+         * Frees the resources of a data-struct of newStruct() that are not garbage collected, after its iteration.
+         *
+         * @param dataStruct Data-struct to close.
+         */
+        void closeStruct(S dataStruct);
+
+        /**
+         * Runs the measured part of the operation.
+         *
+         * @param dataStruct Data-struct to run the operation on.
+         * @return Number of performed operations.
+         */
+        int runOperation(S dataStruct);
+
+        /**
+         * Runs the i-th single operation of the measured part of the operation.
+         *
+         * @param dataStruct Data-struct to run the operation on.
+         * @param i          Index of the operation.
+         * @return The operation result.
+         */
+        boolean runSingleOperation(S dataStruct, int i);
+    }
+}
@@ -0,0 +1,282 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Loads text files that hold a key per line (UTF-8, lines ending with '\n' or "\r\n") into sets, in parallel. The file
+ * is split into chunks of CHUNK_BYTES, each read with a positional read by a fork-join worker of the common pool, and
+ * split into lines there. A chunk holds the lines that start in it: it skips the end of a line started in the previous
+ * chunk, and reads on past its end to complete its last line. Only the lines of the chunks being read are in memory
+ * at a time, unless they are all returned (readLines). Failures are thrown as IOException.
+ */
+public class SimpleSetLoader {
+    /* Class members - constant variables */
+    private static final int CHUNK_BYTES = 1 << 20; // Bytes read by each worker task.
+    private static final byte NEWLINE = '\n'; // Line terminator.
+    private static final byte CARRIAGE_RETURN = '\r'; // Removed from the end of a line, for "\r\n" terminators.
+    private static final int REGION_BYTES = 1 << 30; // Bytes of a file mapped to memory at a time by countContained.
+
+    /* Public static Methods */
+
+    /**
+     * Adds every line of a file to a set. Workers add the lines of each chunk holding the set lock (synchronized on
+     * the set), so any set can be loaded, while reading and decoding the file is done in parallel.
+     *
+     * @param file   Text file to load, a key per line.
+     * @param target Set to add the lines to.
+     * @return Number of lines that were added, i.e. were not in the set yet.
+     * @throws IOException If the file cannot be read.
+     */
+    public static long addAll(Path file, SimpleSet target) throws IOException {
+        LongAdder added = new LongAdder();
+        forEachChunk(file, (lines, chunk) -> {
+            synchronized (target) {
+                for (String line : lines)
+                    if (target.add(line))
+                        added.increment();
+            }
+        });
+        return added.sum();
+    }
+
+    /**
+     * Performs an action on every line of a file, from the fork-join workers reading the file, in no particular order.
+     * The action must be thread-safe, e.g. adding to a LockFreeHashSet or ConcurrentSimpleHashSet.
+     *
+     * @param file   Text file to read, a key per line.
+     * @param action Action to perform on each line, concurrently.
+     * @throws IOException If the file cannot be read.
+     */
+    public static void forEachLine(Path file, Consumer<String> action) throws IOException {
+        forEachChunk(file, (lines, chunk) -> lines.forEach(action));
+    }
+
+    /**
+     * Reads the lines of a file into an array, in the file order. Replaces Ex4Utils.file2array, reading in parallel
+     * and allocating the array once, in its final size.
+     *
+     * @param file Text file to read, a key per line.
+     * @return Array with the file lines.
+     * @throws IOException If the file cannot be read.
+     */
+    public static String[] readLines(Path file) throws IOException {
+        List<List<String>> chunks = new ArrayList<>();
+        forEachChunk(file, (lines, chunk) -> {
+            synchronized (chunks) {
+                while (chunks.size() <= chunk)
+                    chunks.add(null);
+                chunks.set(chunk, lines);
+            }
+        });
+        int size = 0;
+        for (List<String> lines : chunks)
+            size += lines.size();
+        String[] result = new String[size];
+        int index = 0;
+        for (List<String> lines : chunks)
+            for (String line : lines)
+                result[index++] = line;
+        return result;
+    }
+
+    /**
+     * Counts the lines of a file that are in a set, searching each line straight from the file mapped to memory (see
+     * SimpleSet.contains(ByteBuffer)): sets that search bytes in place, like OpenHashSet and ClosedHashSet, create no
+     * object per line. The file is mapped REGION_BYTES at a time, each region ending after its last complete line,
+     * and read by the calling thread, since searching a set is not thread-safe for every set.
+     *
+     * @param file Text file to read, a key per line.
+     * @param set  Set to search the lines in.
+     * @return Number of lines found in the set.
+     * @throws IOException If the file cannot be read, or has a line longer than REGION_BYTES.
+     */
+    public static long countContained(Path file, SimpleSet set) throws IOException {
+        long found = 0;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            for (long start = 0; start < fileSize; ) {
+                int regionSize = (int) Math.min(REGION_BYTES, fileSize - start);
+                MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, start, regionSize);
+                int end = regionSize; // Region bytes up to the end of its last complete line.
+                if (start + regionSize < fileSize) {
+                    while (end > 0 && region.get(end - 1) != NEWLINE)
+                        end--;
+                    if (end == 0)
+                        throw new IOException("Line longer than " + REGION_BYTES + " bytes in " + file);
+                }
+                found += countContained(region, end, set);
+                start += end;
+            }
+        }
+        return found;
+    }
+
+    /* Private static Methods */
+
+    /**
+     * Counts the lines of a region of a file that are in a set, passing each line to the set as the remaining bytes
+     * of a single view of the region.
+     *
+     * @param region Mapped region of the file.
+     * @param end    Region bytes up to the end of its last line.
+     * @param set    Set to search the lines in.
+     * @return Number of lines found in the set.
+     */
+    private static long countContained(ByteBuffer region, int end, SimpleSet set) {
+        long found = 0;
+        for (int position = 0; position < end; ) {
+            int lineEnd = position;
+            while (lineEnd < end && region.get(lineEnd) != NEWLINE)
+                lineEnd++;
+            int lineLimit = lineEnd > position && region.get(lineEnd - 1) == CARRIAGE_RETURN ? lineEnd - 1 : lineEnd;
+            region.limit(lineLimit).position(position);
+            if (set.contains(region))
+                found++;
+            region.limit(region.capacity());
+            position = lineEnd + 1;
+        }
+        return found;
+    }
+
+    /**
+     * Splits a file into chunks, and reads the lines of each chunk in a fork-join task.
+     *
+     * @param file    Text file to read.
+     * @param handler Called by each task with the lines of its chunk, and the chunk index.
+     * @throws IOException If the file cannot be read.
+     */
+    private static void forEachChunk(Path file, ObjIntConsumer<List<String>> handler) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            int chunks = (int) ((fileSize + CHUNK_BYTES - 1) / CHUNK_BYTES);
+            if (chunks > 0)
+                ForkJoinPool.commonPool().invoke(new ChunkTask(channel, fileSize, 0, chunks, handler));
+        } catch (UncheckedIOException e) {
+            throw e.getCause(); // Thrown by a task.
+        }
+    }
+
+    /**
+     * Reads the lines that start in a chunk of a file.
+     *
+     * @param channel  Channel of the file.
+     * @param fileSize Size of the file.
+     * @param chunk    Index of the chunk.
+     * @return The lines that start in the chunk, the last one read up to its end even if it is after the chunk end.
+     * @throws IOException If the file cannot be read.
+     */
+    private static List<String> readChunk(FileChannel channel, long fileSize, int chunk) throws IOException {
+        long start = (long) chunk * CHUNK_BYTES;
+        long from = Math.max(0, start - 1); // The byte before the chunk tells if a line starts at the chunk start.
+        byte[] bytes = new byte[(int) (Math.min(fileSize, start + CHUNK_BYTES) - from)];
+        int chunkEnd = bytes.length; // Lines starting at this index or after it belong to the next chunk.
+        int length = read(channel, bytes, 0, from);
+        int position = (int) (start - from);
+        if (start > 0 && bytes[0] != NEWLINE) {
+            // Skips the end of a line that started in the previous chunk.
+            while (position < length && bytes[position] != NEWLINE)
+                position++;
+            position++;
+        }
+        List<String> lines = new ArrayList<>();
+        while (position < chunkEnd) {
+            int lineEnd = position;
+            while (true) {
+                while (lineEnd < length && bytes[lineEnd] != NEWLINE)
+                    lineEnd++;
+                if (lineEnd < length || from + length == fileSize)
+                    break; // Line end, or file end, was found.
+                // The last line goes on in the next chunk: reads on to its end.
+                bytes = Arrays.copyOf(bytes, length + (int) Math.min(CHUNK_BYTES, fileSize - from - length));
+                length += read(channel, bytes, length, from + length);
+            }
+            int lineLength = lineEnd - position;
+            if (lineLength > 0 && bytes[lineEnd - 1] == CARRIAGE_RETURN)
+                lineLength--;
+            lines.add(new String(bytes, position, lineLength, StandardCharsets.UTF_8));
+            position = lineEnd + 1;
+        }
+        return lines;
+    }
+
+    /**
+     * Reads bytes of a file into an array, from a position of the file, without changing the channel position.
+     *
+     * @param channel  Channel of the file.
+     * @param bytes    Array to read into.
+     * @param offset   Index of the array to read into, until the array end.
+     * @param position Position of the file to read from.
+     * @return Number of bytes read.
+     * @throws IOException If the file cannot be read, or is shorter than expected.
+     */
+    private static int read(FileChannel channel, byte[] bytes, int offset, long position) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, offset, bytes.length - offset);
+        while (buffer.hasRemaining())
+            if (channel.read(buffer, position + buffer.position() - offset) < 0)
+                throw new IOException("File was truncated while being read");
+        return bytes.length - offset;
+    }
+
+    /* Nested classes */
+
+    /**
+     * A fork-join task reading a range of chunks, by splitting it in halves down to single chunks.
+     */
+    private static class ChunkTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L; // Tasks are never serialized.
+        private final FileChannel channel; // Channel of the file.
+        private final long fileSize; // Size of the file.
+        private final int fromChunk; // First chunk of the range.
+        private final int toChunk; // Chunk after the range.
+        private final ObjIntConsumer<List<String>> handler; // Called with the lines of each chunk.
+
+        /**
+         * @param channel   Channel of the file.
+         * @param fileSize  Size of the file.
+         * @param fromChunk First chunk of the range.
+         * @param toChunk   Chunk after the range.
+         * @param handler   Called with the lines of each chunk, and the chunk index.
+         */
+        ChunkTask(FileChannel channel, long fileSize, int fromChunk, int toChunk,
+                  ObjIntConsumer<List<String>> handler) {
+            this.channel = channel;
+            this.fileSize = fileSize;
+            this.fromChunk = fromChunk;
+            this.toChunk = toChunk;
+            this.handler = handler;
+        }
+
+        /**
+         * Reads a single chunk, or forks tasks reading each half of the range.
+         *
+         * @throws UncheckedIOException If the file cannot be read.
+         */
+        @Override
+        protected void compute() {
+            if (this.toChunk - this.fromChunk > 1) {
+                int middle = (this.fromChunk + this.toChunk) >>> 1;
+                invokeAll(new ChunkTask(this.channel, this.fileSize, this.fromChunk, middle, this.handler),
+                        new ChunkTask(this.channel, this.fileSize, middle, this.toChunk, this.handler));
+                return;
+            }
+            try {
+                this.handler.accept(readChunk(this.channel, this.fileSize, this.fromChunk), this.fromChunk);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
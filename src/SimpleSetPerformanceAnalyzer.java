@@ -1,3 +1,5 @@
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.*;
 
 /**
@@ -5,7 +7,8 @@ import java.util.*;
  */
 public class SimpleSetPerformanceAnalyzer {
     /* UI menu constant variables */
-    private static final char[] INPUT_OPTIONS = {'1', '2', '3', '4', '5', '6', 'a', 'q'}; // Valid input characters.
+    // Valid input characters.
+    private static final char[] INPUT_OPTIONS = {'1', '2', '3', '4', '5', '6', '7', '8', '9', 'a', 'q'};
     // User message at beginning of UI.
     private static final String OPTIONS_MENU =
             "CHOOSE WHICH TEST\\S TO PERFORM: TO CHOOSE TESTS PRESS THEIR NUMBERS (NO SPACES), TO CHOOSE ALL TESTS " +
@@ -24,7 +27,10 @@ public class SimpleSetPerformanceAnalyzer {
     private static final String NANOSECONDS = " ns."; // Nanoseconds string representation.
     // Index of all data-structs and their tests numbers.
     private static final String DATA_STRUCTS_INDEX =
-            "(1) OpenHashSet (2) ClosedHashSet (3) Java TreeSet (4) Java LinkedList (5) Java HashSet";
+            "(1) OpenHashSet (2) ClosedHashSet (3) Java TreeSet (4) Java LinkedList (5) Java HashSet " +
+                    "(6) ConcurrentSimpleHashSet (7) LockFreeHashSet (8) SwissHashSet " +
+                    "(9) RobinHoodHashSet (10) OffHeapStringSet (11) NumericStringSet (12) CuckooHashSet " +
+                    "(13) SlabStringSet (14) FrozenStringSet (tests 3-6 only)";
     /* Test 1 constant variables */
     private static final String TEST1_MSG = "TEST 1: add('data1') to all data-structures."; // Test 1 message.
     /* Test 2 constant variables */
@@ -40,12 +46,52 @@ public class SimpleSetPerformanceAnalyzer {
     private static final String TEST5_VALUE = "23"; // Test 5 value.
     /* Test 6 constant variables */
     private static final String TEST6_MSG = "TEST 6: contains(\"hi\") in 'data2'."; // Test 6 message.
+    /* Test 7 constant variables */
+    private static final String TEST7_MSG = "TEST 7: add('data2') latency percentiles."; // Test 7 message.
+    private static final double[] TEST7_PERCENTILES = {50, 90, 99, 99.9, 100}; // Reported percentiles (100 is max).
+    // Labels of reported percentiles.
+    private static final String[] TEST7_LABELS = {"p50", "p90", "p99", "p99.9", "max"};
+    // Index of the hash sets and their numbers in test 7.
+    private static final String TEST7_INDEX = "TEST 7: (1) OpenHashSet (2) OpenHashSet incremental (3) ClosedHashSet " +
+            "(4) ClosedHashSet incremental";
+    /* Test 8 constant variables */
+    // Test 8 message.
+    private static final String TEST8_MSG = "TEST 8: contains() misses in 'data1' and 'data2', without and with a " +
+            "Bloom filter.";
+    private static final String TEST8_MISS_SUFFIX = "x"; // Appended to each data value to make a missing value.
+    private static final String TEST8_RATE = " false positive rate "; // False positive rate string representation.
+    private static final String PERCENT = "%"; // Percent string representation.
+    // Index of the hash sets and their numbers in test 8.
+    private static final String TEST8_INDEX = "TEST 8: (1) OpenHashSet (2) OpenHashSet filtered (3) ClosedHashSet " +
+            "(4) ClosedHashSet filtered";
+    /* Test 9 constant variables */
+    // Test 9 message.
+    private static final String TEST9_MSG = "TEST 9: add('data2') and contains() of all its values as numbers, in " +
+            "the specialized sets.";
+    private static final int TEST9_ROUNDS = 10; // Rounds of every set, the fastest one is reported.
+    private static final String TEST9_ADD = " add "; // Precedes the 'add' run-time of a set.
+    private static final String TEST9_CONTAINS = " contains "; // Precedes the 'contains' run-time of a set.
+    // Index of the sets and their numbers in test 9.
+    private static final String TEST9_INDEX = "TEST 9: (1) IntOpenHashSet (2) LongOpenHashSet " +
+            "(3) ObjectOpenHashSet<Long> (4) Java HashSet<Long> (5) OpenHashSet of the Strings";
+    /* Data-structs constant variables */
+    // Names of the data-structs of initDataStructsArray(), by index, also used by SimpleSetBenchmark.
+    static final String[] DATA_STRUCT_NAMES = {"OpenHashSet", "ClosedHashSet", "JavaTreeSet", "JavaLinkedList",
+            "JavaHashSet", "ConcurrentSimpleHashSet", "LockFreeHashSet", "SwissHashSet", "RobinHoodHashSet",
+            "OffHeapStringSet", "NumericStringSet", "CuckooHashSet", "SlabStringSet"};
+    /* Specialized sets constant variables */
+    // Names of the specialized sets of initValueStructsArray(), also used by SimpleSetBenchmark.
+    static final String[] VALUE_STRUCT_NAMES = {"IntOpenHashSet", "LongOpenHashSet", "ObjectOpenHashSet",
+            "JavaHashSet<Long>"};
+    static final int INT_VALUE_STRUCT_INDEX = 0; // Index of IntOpenHashSet, that holds only values in the int range.
     /* Data structures SimpleSet array */
-    private static SimpleSet[] dataStructs = initDataStructsArray(); // Array holding all relevant data-structs.
+    private static SimpleSet[] dataStructs; // Array holding all relevant data-structs, re-initialized by each test.
     private static final int LINKED_LIST_INDEX = 3; // Index in said array were LinkedList is stored.
-    /* Data lists arrays */
-    private static final String[] data1 = Ex4Utils.file2array("data1.txt"); // Array holding data1.txt values.
-    private static final String[] data2 = Ex4Utils.file2array("data2.txt"); // Array holding data2.txt values.
+    /* Data lists arrays, read on first use (see data1()) */
+    private static final String DATA1_FILE = "data1.txt"; // File of data1 values.
+    private static final String DATA2_FILE = "data2.txt"; // File of data2 values.
+    private static String[] data1 = null; // Array holding data1.txt values, null until read.
+    private static String[] data2 = null; // Array holding data2.txt values, null until read.
 
     /**
      * Main method that initializes the user menu to choose between tests.
@@ -62,7 +108,8 @@ public class SimpleSetPerformanceAnalyzer {
     private static void printMenu() {
         Scanner input = new Scanner(System.in); // New scanner object to collect user input.
         // Assign array to hold all tests messages.
-        String[] testsMsg = {TEST1_MSG, TEST2_MSG, TEST3_MSG, TEST4_MSG, TEST5_MSG, TEST6_MSG};
+        String[] testsMsg = {TEST1_MSG, TEST2_MSG, TEST3_MSG, TEST4_MSG, TEST5_MSG, TEST6_MSG, TEST7_MSG,
+                TEST8_MSG, TEST9_MSG};
         System.out.println(OPTIONS_MENU); // Prints UI explanation message.
         for (String msg : testsMsg)
             System.out.println(msg); // Prints each test explanation message.
@@ -137,6 +184,15 @@ public class SimpleSetPerformanceAnalyzer {
             case '6':
                 runTest6();
                 break;
+            case '7':
+                runTest7();
+                break;
+            case '8':
+                runTest8();
+                break;
+            case '9':
+                runTest9();
+                break;
             case 'a':
                 runAllTests();
                 break;
@@ -164,46 +220,109 @@ public class SimpleSetPerformanceAnalyzer {
      * Runs test1 as specified in the exercise description.
      */
     private static void runTest1() {
-        testAdd(data1, TEST1_MSG);
+        testAdd(data1(), TEST1_MSG);
     }
 
     /**
      * Runs test2 as specified in the exercise description.
      */
     private static void runTest2() {
-        testAdd(data2, TEST2_MSG);
+        testAdd(data2(), TEST2_MSG);
     }
 
     /**
      * Runs test3 as specified in the exercise description.
      */
     private static void runTest3() {
-        testContains(data1, TEST3_VALUE, TEST3_MSG);
+        testContains(data1(), TEST3_VALUE, TEST3_MSG);
     }
 
     /**
      * Runs test4 as specified in the exercise description.
      */
     private static void runTest4() {
-        testContains(data1, TEST4_VALUE, TEST4_MSG);
+        testContains(data1(), TEST4_VALUE, TEST4_MSG);
     }
 
     /**
      * Runs test5 as specified in the exercise description.
      */
     private static void runTest5() {
-        testContains(data2, TEST5_VALUE, TEST5_MSG);
+        testContains(data2(), TEST5_VALUE, TEST5_MSG);
     }
 
     /**
      * Runs test6 as specified in the exercise description.
      */
     private static void runTest6() {
-        testContains(data2, TEST3_VALUE, TEST6_MSG);
+        testContains(data2(), TEST3_VALUE, TEST6_MSG);
+    }
+
+    /**
+     * Runs test7: latency distribution of 'add', showing the effect of incremental resize on the slowest additions.
+     */
+    private static void runTest7() {
+        System.out.println(TEST7_MSG); // Prints test explanation message.
+        // Warm-up pass, so the measured pass is not dominated by JIT compilation.
+        for (SimpleSet dataStruct : initResizeStructsArray())
+            addAll(data2(), dataStruct);
+        SimpleSet[] resizeStructs = initResizeStructsArray();
+        for (int i = 0; i < resizeStructs.length; i++) {
+            LatencyHistogram latencies = measureAddLatencies(data2(), resizeStructs[i]);
+            System.out.print("(" + (i + 1) + ")");
+            // Prints each percentile of this data-struct.
+            for (int j = 0; j < TEST7_PERCENTILES.length; j++)
+                System.out.print(" " + TEST7_LABELS[j] + " " + latencies.getValueAtPercentile(TEST7_PERCENTILES[j]) +
+                        NANOSECONDS);
+            System.out.println();
+        }
+        System.out.println(TEST7_INDEX);
+    }
+
+    /**
+     * Runs test8: 'contains' run-time of values that are not in the set, and the false positive rate of the filter,
+     * for the hash sets with and without a Bloom filter in front of them.
+     */
+    private static void runTest8() {
+        System.out.println(TEST8_MSG); // Prints test explanation message.
+        testMisses(data1());
+        testMisses(data2());
+        System.out.println(TEST8_INDEX);
     }
 
     /**
-     * Runs all tests (1-6).
+     * Runs test9: 'add' and 'contains' run-times of the values of 'data2' as numbers, in the sets specialized by
+     * OpenHashSetGenerator, against a boxed Java HashSet and an OpenHashSet of the Strings. The values are parsed
+     * (and boxed, for the boxed sets) before measuring, and the fastest of TEST9_ROUNDS rounds is reported.
+     */
+    private static void runTest9() {
+        System.out.println(TEST9_MSG); // Prints test explanation message.
+        String[] data = data2();
+        long[] values = new long[data.length];
+        for (int i = 0; i < data.length; i++)
+            values[i] = Long.parseLong(data[i]);
+        // Best times of each set over all rounds: the first rounds compile the shared loops, and any round may be
+        // slowed down by a garbage collection of the previous rounds' sets.
+        long[][] bestTimes = new long[VALUE_STRUCT_NAMES.length + 1][];
+        for (int round = 0; round < TEST9_ROUNDS; round++) {
+            ValueSet[] valueStructs = initTest9StructsArray(values);
+            for (int i = 0; i < valueStructs.length; i++) {
+                long[] times = measureValues(valueStructs[i], values.length);
+                if (bestTimes[i] == null)
+                    bestTimes[i] = times;
+                for (int j = 0; j < times.length; j++)
+                    bestTimes[i][j] = Math.min(bestTimes[i][j], times[j]);
+            }
+        }
+        for (int i = 0; i < bestTimes.length; i++)
+            System.out.print("(" + (i + 1) + ")" + TEST9_ADD + bestTimes[i][0] + MILLISECONDS + TEST9_CONTAINS +
+                    bestTimes[i][1] + NANOSECONDS + " ");
+        System.out.println();
+        System.out.println(TEST9_INDEX);
+    }
+
+    /**
+     * Runs all tests (1-9).
      */
     private static void runAllTests() {
         runTest1();
@@ -212,6 +331,9 @@ public class SimpleSetPerformanceAnalyzer {
         runTest4();
         runTest5();
         runTest6();
+        runTest7();
+        runTest8();
+        runTest9();
     }
 
     /**
@@ -244,14 +366,30 @@ public class SimpleSetPerformanceAnalyzer {
     }
 
     /**
-     * Adds all elements in data array to specified data-struct.
+     * Measures run-time of each 'add' call for specified data-struct.
      *
      * @param dataList   The specified array to add to data-struct (data1/data2).
      * @param dataStruct The specified data-struct to add data to.
+     * @return Histogram of the number of nanoseconds each addition took.
      */
-    private static void addAll(String[] dataList, SimpleSet dataStruct) {
-        for (String item : dataList)
+    private static LatencyHistogram measureAddLatencies(String[] dataList, SimpleSet dataStruct) {
+        LatencyHistogram latencies = new LatencyHistogram();
+        for (String item : dataList) {
+            long timeBefore = System.nanoTime(); // Measure time before addition started.
             dataStruct.add(item);
+            latencies.recordValue(System.nanoTime() - timeBefore);
+        }
+        return latencies;
+    }
+
+    /**
+     * Adds all elements in data array to specified data-struct, with its batch add.
+     *
+     * @param dataList   The specified array to add to data-struct (data1/data2).
+     * @param dataStruct The specified data-struct to add data to.
+     */
+    private static void addAll(String[] dataList, SimpleSet dataStruct) {
+        dataStruct.addAll(dataList);
     }
 
     /**
@@ -263,7 +401,7 @@ public class SimpleSetPerformanceAnalyzer {
      */
     private static void testContains(String[] dataList, String item, String testMsg) {
         dataStructs = initDataStructsArray(); // Re-initializes data-structs array.
-        long[] result = new long[dataStructs.length]; // Assign long array to hold test results.
+        long[] result = new long[dataStructs.length + 1]; // Assign long array to hold test results, frozen set last.
         for (int i = 0; i < dataStructs.length; i++) {
             addAll(dataList, dataStructs[i]); // Adds data-list items to each data-struct.
             // If data-struct is LinkedList, call dedicated method that measures LinkedList 'contains' run-time.
@@ -273,9 +411,70 @@ public class SimpleSetPerformanceAnalyzer {
             else
                 result[i] = measureContainsGeneral(dataStructs[i], item); // Assign result to result array.
         }
+        // The read-only FrozenStringSet cannot be added to, so it is built from the filled OpenHashSet.
+        result[dataStructs.length] = measureContainsGeneral(new FrozenStringSet(dataStructs[0]), item);
         printTest(testMsg, result, NANOSECONDS); // Prints test result with dedicated method.
     }
 
+    /**
+     * Tests 'contains' method run-time for values that are not in the set, relevant for test 8. Each data value with
+     * TEST8_MISS_SUFFIX appended is searched once per pass, in a warm-up pass and a measured pass.
+     *
+     * @param dataList The specified array to add to the hash sets (data1/data2).
+     */
+    private static void testMisses(String[] dataList) {
+        SimpleHashSet[] hashSets = {new OpenHashSet(dataList), new ClosedHashSet(dataList)};
+        String[] misses = new String[dataList.length];
+        for (int i = 0; i < dataList.length; i++)
+            misses[i] = dataList[i] + TEST8_MISS_SUFFIX;
+        for (int i = 0; i < hashSets.length; i++) {
+            BloomFilteredSet filtered = new BloomFilteredSet(hashSets[i]);
+            int falsePositives = 0;
+            for (String item : misses)
+                if (filtered.mightContain(item))
+                    falsePositives++;
+            System.out.print("(" + (2 * i + 1) + ") " + measureMisses(hashSets[i], misses) + NANOSECONDS + " (" +
+                    (2 * i + 2) + ") " + measureMisses(filtered, misses) + NANOSECONDS + TEST8_RATE +
+                    String.format("%.2f", 100.0 * falsePositives / misses.length) + PERCENT + " ");
+        }
+        System.out.println();
+    }
+
+    /**
+     * Measures the average run-time of 'contains' over values that are not in the specified data-struct.
+     *
+     * @param dataStruct The specified data-struct to search.
+     * @param misses     Values to search for, none of them in the data-struct.
+     * @return Average number of nanoseconds a search took.
+     */
+    private static long measureMisses(SimpleSet dataStruct, String[] misses) {
+        for (String item : misses)
+            dataStruct.contains(item); // Warm-up pass.
+        long timeBefore = System.nanoTime(); // Measure time before process started.
+        for (String item : misses)
+            dataStruct.contains(item);
+        return misses.length == 0 ? 0 : (System.nanoTime() - timeBefore) / misses.length;
+    }
+
+    /**
+     * Measures the run-time of adding all the values of a set of test 9, and then the average run-time of searching
+     * each of them.
+     *
+     * @param valueStruct The set to add the values to, and search them in.
+     * @param count       Number of values.
+     * @return Number of milliseconds the additions took, and average number of nanoseconds a search took.
+     */
+    private static long[] measureValues(ValueSet valueStruct, int count) {
+        long timeBefore = System.nanoTime(); // Measure time before additions started.
+        for (int i = 0; i < count; i++)
+            valueStruct.add.test(i);
+        long addTime = (System.nanoTime() - timeBefore) / NANO_TO_MS;
+        timeBefore = System.nanoTime(); // Measure time before searches started.
+        for (int i = 0; i < count; i++)
+            valueStruct.contains.test(i);
+        return new long[]{addTime, count == 0 ? 0 : (System.nanoTime() - timeBefore) / count};
+    }
+
     /**
      * Measures run-time for 'contains' method for specified data-struct (except for LinkedList, according to
      * exercise description).
@@ -314,13 +513,168 @@ public class SimpleSetPerformanceAnalyzer {
     /**
      * @return Reinitialized SimpleSet array that holds all relevant data-structs.
      */
-    private static SimpleSet[] initDataStructsArray() {
+    static SimpleSet[] initDataStructsArray() {
+        SimpleSet[] dataStructs = new SimpleSet[DATA_STRUCT_NAMES.length];
+        for (int i = 0; i < dataStructs.length; i++)
+            dataStructs[i] = newDataStruct(i);
+        return dataStructs;
+    }
+
+    /**
+     * Also used by SimpleSetBenchmark, to create only the data-struct it benchmarks.
+     *
+     * @param index Index of the data-struct in the data-structs array, named by DATA_STRUCT_NAMES.
+     * @return A new, empty data-struct.
+     */
+    static SimpleSet newDataStruct(int index) {
+        switch (index) {
+            case 0:
+                return new OpenHashSet();
+            case 1:
+                return new ClosedHashSet();
+            case 2:
+                return new CollectionFacadeSet(new TreeSet<>());
+            case 3:
+                return new CollectionFacadeSet(new LinkedList<>());
+            case 4:
+                return new CollectionFacadeSet(new HashSet<>());
+            case 5:
+                return new ConcurrentSimpleHashSet();
+            case 6:
+                return new LockFreeHashSet();
+            case 7:
+                return new SwissHashSet();
+            case 8:
+                return new RobinHoodHashSet();
+            case 9:
+                return new OffHeapStringSet();
+            case 10:
+                return new NumericStringSet();
+            case 11:
+                return new CuckooHashSet();
+            case 12:
+                return new SlabStringSet();
+            default:
+                throw new IllegalArgumentException("No data-struct of index " + index);
+        }
+    }
+
+    /**
+     * @return New SimpleSet array that holds the hash sets of test 7, in both resize modes.
+     */
+    private static SimpleSet[] initResizeStructsArray() {
         return new SimpleSet[]{
                 new OpenHashSet(),
+                new OpenHashSet(SimpleHashSet.DEFAULT_HIGHER_CAPACITY, SimpleHashSet.DEFAULT_LOWER_CAPACITY, true),
                 new ClosedHashSet(),
-                new CollectionFacadeSet(new TreeSet<>()),
-                new CollectionFacadeSet(new LinkedList<>()),
-                new CollectionFacadeSet(new HashSet<>())
+                new ClosedHashSet(SimpleHashSet.DEFAULT_HIGHER_CAPACITY, SimpleHashSet.DEFAULT_LOWER_CAPACITY, true)
         };
     }
+
+    /**
+     * @param values Values the sets operate on, named by VALUE_STRUCT_NAMES.
+     * @return New ValueSet array that holds all the specialized sets, and a boxed Java HashSet to compare them to.
+     */
+    static ValueSet[] initValueStructsArray(long[] values) {
+        Long[] boxed = boxValues(values);
+        ValueSet[] valueStructs = new ValueSet[VALUE_STRUCT_NAMES.length];
+        for (int i = 0; i < valueStructs.length; i++)
+            valueStructs[i] = newValueStruct(i, values, boxed);
+        return valueStructs;
+    }
+
+    /**
+     * Also used by SimpleSetBenchmark, to create only the set it benchmarks. The set is new and empty, and operates on
+     * the values of an array by their index: the ObjectOpenHashSet and the Java HashSet of Longs on the values boxed
+     * by boxValues(), and the IntOpenHashSet on the values cast to int (only valid if they are all in the int range).
+     *
+     * @param index  Index of the set in the specialized sets array, named by VALUE_STRUCT_NAMES.
+     * @param values Values the set operates on.
+     * @param boxed  The same values, boxed once by boxValues() so all iterations and sets share them.
+     * @return A new, empty specialized set, or boxed Java HashSet.
+     */
+    static ValueSet newValueStruct(int index, long[] values, Long[] boxed) {
+        switch (index) {
+            case 0:
+                IntOpenHashSet intSet = new IntOpenHashSet();
+                return new ValueSet(i -> intSet.add((int) values[i]), i -> intSet.contains((int) values[i]),
+                        i -> intSet.delete((int) values[i]));
+            case 1:
+                LongOpenHashSet longSet = new LongOpenHashSet();
+                return new ValueSet(i -> longSet.add(values[i]), i -> longSet.contains(values[i]),
+                        i -> longSet.delete(values[i]));
+            case 2:
+                ObjectOpenHashSet<Long> objectSet = new ObjectOpenHashSet<>();
+                return new ValueSet(i -> objectSet.add(boxed[i]), i -> objectSet.contains(boxed[i]),
+                        i -> objectSet.delete(boxed[i]));
+            case 3:
+                HashSet<Long> javaSet = new HashSet<>();
+                return new ValueSet(i -> javaSet.add(boxed[i]), i -> javaSet.contains(boxed[i]),
+                        i -> javaSet.remove(boxed[i]));
+            default:
+                throw new IllegalArgumentException("No specialized set of index " + index);
+        }
+    }
+
+    /**
+     * @param values Values the sets operate on.
+     * @return The values, boxed.
+     */
+    static Long[] boxValues(long[] values) {
+        Long[] boxed = new Long[values.length];
+        for (int i = 0; i < values.length; i++)
+            boxed[i] = values[i];
+        return boxed;
+    }
+
+    /**
+     * @param values Values of 'data2'.
+     * @return New ValueSet array that holds the sets of test 9: the specialized sets and the boxed Java HashSet, and
+     * an OpenHashSet of the values as Strings.
+     */
+    private static ValueSet[] initTest9StructsArray(long[] values) {
+        ValueSet[] valueStructs = Arrays.copyOf(initValueStructsArray(values), VALUE_STRUCT_NAMES.length + 1);
+        OpenHashSet stringSet = new OpenHashSet();
+        String[] data = data2();
+        valueStructs[VALUE_STRUCT_NAMES.length] = new ValueSet(index -> stringSet.add(data[index]),
+                index -> stringSet.contains(data[index]), index -> stringSet.delete(data[index]));
+        return valueStructs;
+    }
+
+    /**
+     * Reads data1.txt on first use, rather than when the class is loaded: SimpleSetBenchmark creates its data-structs
+     * through this class, and must run where the data files are not (e.g. on synthetic data sets only).
+     *
+     * @return Array holding data1.txt values.
+     */
+    private static String[] data1() {
+        if (data1 == null)
+            data1 = readDataFile(DATA1_FILE);
+        return data1;
+    }
+
+    /**
+     * Reads data2.txt on first use (see data1()).
+     *
+     * @return Array holding data2.txt values.
+     */
+    private static String[] data2() {
+        if (data2 == null)
+            data2 = readDataFile(DATA2_FILE);
+        return data2;
+    }
+
+    /**
+     * Reads a data file, failing the run if it cannot be read.
+     *
+     * @param fileName Text file to read, a value per line.
+     * @return Array with the file's lines.
+     */
+    private static String[] readDataFile(String fileName) {
+        try {
+            return SimpleSetLoader.readLines(Path.of(fileName));
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read data file " + fileName, e);
+        }
+    }
 }
@@ -0,0 +1,207 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Single-threaded regression checks of the data-structs, each for a bug that was found and fixed. Runs every check,
+ * and reports the ones that failed. A check that does not finish in time, e.g. on a probing loop that never ends,
+ * fails too. Exits with status 1 if any check failed.
+ * <p>
+ * Usage: java SimpleSetRegressions
+ */
+public class SimpleSetRegressions {
+    /* Class members - constant variables */
+    private static final int CHECK_FAILED = 1; // Exit status when a check failed.
+    private static final long CHECK_TIMEOUT_MILLIS = 10_000; // Time a check may take before it fails, in milliseconds.
+    private static final long SEED = 42; // Seed of the orders in which the checks delete keys.
+    private static final int FULL_TABLE_ROUNDS = 8; // Orders in which the keys of a full table are deleted.
+    // Keys that are not valid UTF-16 (a lone surrogate), next to the keys that replacing it by '?' would turn them to.
+    private static final String[] LONE_SURROGATE_KEYS = {"\uD800", "\uDFFF", "a\uDBFFb", "\uDC00\uD800", "?", "a?b",
+            "??", "\uD83D\uDE00"};
+    private static final int TRAVERSAL_ROUNDS = 300; // Sets filled and traversed by the traversal check.
+    private static final int TRAVERSAL_MAX_OPERATIONS = 3000; // Most adds and deletes on a set before it is traversed.
+    private static final int TRAVERSAL_KEYS = 4000; // Number of distinct keys the traversal check adds and deletes.
+
+    /**
+     * Main method that runs all the checks.
+     *
+     * @param args Command line args - ignored.
+     */
+    public static void main(String[] args) {
+        int failed = 0;
+        for (Map.Entry<String, Supplier<String>> check : checks().entrySet()) {
+            String failure = run(check.getValue());
+            System.out.println(check.getKey() + ": " + (failure == null ? "passed" : "FAILED, " + failure));
+            if (failure != null)
+                failed++;
+        }
+        if (failed > 0)
+            System.exit(CHECK_FAILED);
+    }
+
+    /* Private static Methods */
+
+    /**
+     * @return All the checks, by name. A check returns null if it passed, and a description of the failure otherwise.
+     */
+    private static Map<String, Supplier<String>> checks() {
+        Map<String, Supplier<String>> checks = new LinkedHashMap<>();
+        checks.put("OffHeapStringSet full table delete",
+                () -> checkFullTable(() -> new OffHeapStringSet(1.0f, 0.25f)));
+        checks.put("SlabStringSet full table delete", () -> checkFullTable(() -> new SlabStringSet(1.0f, 0.25f)));
+        checks.put("OffHeapStringSet lone surrogates", () -> checkExactKeys(new OffHeapStringSet()));
+        checks.put("SlabStringSet lone surrogates", () -> checkExactKeys(new SlabStringSet()));
+        checks.put("LockFreeHashSet traversal during a resize", () -> checkTraversal(LockFreeHashSet::new));
+        return checks;
+    }
+
+    /**
+     * Runs a check on a new thread, so a check that never ends fails rather than blocking the others.
+     *
+     * @param check Check to run.
+     * @return Null if the check passed, a description of the failure otherwise.
+     */
+    private static String run(Supplier<String> check) {
+        AtomicReference<String> failure = new AtomicReference<>("did not finish within " + CHECK_TIMEOUT_MILLIS +
+                " ms");
+        Thread runner = new Thread(() -> {
+            try {
+                failure.set(check.get());
+            } catch (RuntimeException | Error e) {
+                failure.set("threw " + e);
+            }
+        });
+        runner.setDaemon(true); // A stuck check must not keep the JVM from exiting.
+        runner.start();
+        try {
+            runner.join(CHECK_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return failure.get();
+    }
+
+    /**
+     * Fills the table of a set whose upper load factor is 1, so no slot is left empty, then deletes the keys in
+     * several orders, checking after each delete that all the other keys are still found. Probing loops that stop
+     * only at an empty slot never end on a full table.
+     *
+     * @param factory Creates a new set with an upper load factor of 1.
+     * @return Null if the check passed, a description of the failure otherwise.
+     */
+    private static String checkFullTable(Supplier<SimpleHashSet> factory) {
+        Random random = new Random(SEED);
+        for (int round = 0; round < FULL_TABLE_ROUNDS; round++) {
+            SimpleHashSet dataStruct = factory.get();
+            try {
+                List<String> keys = new ArrayList<>();
+                for (int i = 0; i < dataStruct.capacity(); i++)
+                    keys.add("key" + i);
+                for (String key : keys)
+                    dataStruct.add(key);
+                if (dataStruct.size() != dataStruct.capacity())
+                    return "the table was not full: size " + dataStruct.size() + ", capacity " +
+                            dataStruct.capacity();
+                Collections.shuffle(keys, random);
+                for (int deleted = 0; deleted < keys.size(); deleted++) {
+                    if (!dataStruct.delete(keys.get(deleted)))
+                        return "delete(" + keys.get(deleted) + ") returned false";
+                    for (int i = 0; i < keys.size(); i++)
+                        if (dataStruct.contains(keys.get(i)) != i > deleted)
+                            return "contains(" + keys.get(i) + ") returned " + !(i > deleted) + " after " +
+                                    (deleted + 1) + " deletes";
+                }
+            } finally {
+                if (dataStruct instanceof OffHeapStringSet)
+                    ((OffHeapStringSet) dataStruct).close();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Adds keys that are not valid UTF-16 to a set that stores copies of its elements rather than the Strings, and
+     * checks that it traverses them exactly as they were added, and finds the traversed elements. A set that replaces
+     * a lone surrogate when it stores a key returns a different String, which it may not find, and may traverse two
+     * keys as the same String.
+     *
+     * @param dataStruct A new, empty set.
+     * @return Null if the check passed, a description of the failure otherwise.
+     */
+    private static String checkExactKeys(SimpleSet dataStruct) {
+        try {
+            for (String key : LONE_SURROGATE_KEYS)
+                if (!dataStruct.add(key))
+                    return "add(" + escape(key) + ") returned false";
+            Set<String> traversed = new HashSet<>();
+            for (String element : dataStruct) {
+                if (!traversed.add(element))
+                    return escape(element) + " traversed twice";
+                if (!dataStruct.contains(element))
+                    return "contains(" + escape(element) + ") returned false for a traversed element";
+            }
+            if (!traversed.equals(Set.of(LONE_SURROGATE_KEYS)))
+                return "traversed " + traversed.size() + " elements, not the " + LONE_SURROGATE_KEYS.length +
+                        " added ones";
+            return null;
+        } finally {
+            if (dataStruct instanceof OffHeapStringSet)
+                ((OffHeapStringSet) dataStruct).close();
+        }
+    }
+
+    /**
+     * Adds and deletes random keys, so the sets are left at many points of a resize, and checks that each traversal
+     * returns the elements that are in the set, each once, as many as its size. A set whose resize copies the table
+     * cells over several operations holds a key added meanwhile only in the next table, which a traversal of the
+     * current table alone misses.
+     *
+     * @param factory Creates a new, empty set.
+     * @return Null if the check passed, a description of the failure otherwise.
+     */
+    private static String checkTraversal(Supplier<SimpleSet> factory) {
+        Random random = new Random(SEED);
+        for (int round = 0; round < TRAVERSAL_ROUNDS; round++) {
+            SimpleSet dataStruct = factory.get();
+            Set<String> expected = new HashSet<>();
+            int operations = 1 + random.nextInt(TRAVERSAL_MAX_OPERATIONS);
+            for (int operation = 0; operation < operations; operation++) {
+                String key = "key" + random.nextInt(TRAVERSAL_KEYS);
+                if (random.nextInt(4) == 0) {
+                    dataStruct.delete(key);
+                    expected.remove(key);
+                } else {
+                    dataStruct.add(key);
+                    expected.add(key);
+                }
+            }
+            Set<String> traversed = new HashSet<>();
+            for (String element : dataStruct)
+                if (!traversed.add(element))
+                    return "round " + round + ": " + element + " traversed twice";
+            if (!traversed.equals(expected) || dataStruct.size() != expected.size())
+                return "round " + round + ": traversed " + traversed.size() + " elements of " + expected.size() +
+                        ", size " + dataStruct.size();
+        }
+        return null;
+    }
+
+    /**
+     * @param key A key.
+     * @return The key, with every char outside printable ASCII escaped as in Java source.
+     */
+    private static String escape(String key) {
+        StringBuilder escaped = new StringBuilder();
+        for (char current : key.toCharArray())
+            escaped.append(current >= ' ' && current <= '~' ? String.valueOf(current) :
+                    String.format("\\u%04X", (int) current));
+        return escaped.toString();
+    }
+}
@@ -0,0 +1,496 @@
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A hash-set that copies its elements into large shared byte arrays (slabs) on the heap, rather than holding their
+ * String objects. Extends SimpleHashSet. An element whose chars all fit in a byte is stored in Latin-1 (a byte per
+ * char), and any other element in UTF-16 (two bytes per char), so every String, valid UTF-16 or not, is stored
+ * exactly. Elements are indexed by an open-addressing table of long entries (slab, offset, byte length and encoding)
+ * and a parallel array of their hash codes, with linear probing and backward shift deletion. Searches compare the
+ * searched String with the stored bytes in place, so the garbage collector sees a few arrays regardless of the set
+ * size, and the set stays on the heap, with no buffers to free.
+ * The table is always resized all at once, into new slabs holding only the elements still in the set.
+ */
+public class SlabStringSet extends SimpleHashSet {
+    /* Class members - constant variables */
+    private static final int NOT_FOUND = -1; // Slot returned when probing did not find the requested element.
+    private static final long EMPTY = 0; // Entry of an empty slot, stored entries have a slab number of at least 1.
+    private static final int SLAB_SHIFT = 48; // Entry bits 48-63: slab index + 1.
+    private static final int OFFSET_SHIFT = 28; // Entry bits 28-47: offset within the slab.
+    private static final int LENGTH_SHIFT = 1; // Entry bits 1-27: byte length.
+    private static final long UTF16 = 1; // Entry bit 0: set if the element is stored in UTF-16, clear for Latin-1.
+    private static final int MAX_SLABS = (1 << 16) - 1; // Largest number of slabs an entry can point to.
+    private static final int SLAB_BYTES = 1 << 20; // Size of a full slab, the largest offset an entry can hold.
+    private static final int INITIAL_SLAB_BYTES = 256; // Size of the first slab, each next slab is twice as large.
+    private static final int MAX_ELEMENT_BYTES = (1 << 27) - 1; // Largest byte length an entry can hold.
+    private static final int LATIN1_LIMIT = 0xFF; // Largest char stored in a single byte.
+    private static final int INITIAL_SLAB_COUNT = 4; // Length of the slab array of a newly created set.
+    /* Class members - variables */
+    private long[] entries = new long[INITIAL_CAPACITY]; // Hash table representation, an element entry per slot.
+    private int[] hashes = new int[INITIAL_CAPACITY]; // Cached hash code of each table element, by slot.
+    private byte[][] slabs = new byte[INITIAL_SLAB_COUNT][]; // Slabs holding the elements bytes, null if unused.
+    private int slabCount = 0; // Number of slabs in use, the last one is being filled.
+    private int slabEnd = 0; // Offset in the last slab to store the next element at.
+    private long storedBytes = 0; // Bytes of the elements stored in the slabs since they were created.
+    private long deadBytes = 0; // Bytes of the elements that were deleted since the slabs were created.
+    // Table, hash cache and slabs before last resize, while their elements are being migrated.
+    private long[] previousEntries = null;
+    private int[] previousHashes = null;
+    private byte[][] previousSlabs = null;
+    private int elementCounter = 0; // Table's element counter. Updated on each successful add/delete.
+
+    /* Constructors */
+
+    /**
+     * A default constructor. Constructs a new, empty table with default initial capacity (16),
+     * upper load factor (0.75) and lower load factor (0.25).
+     */
+    public SlabStringSet() {
+        super();
+    }
+
+    /**
+     * Constructs a new, empty table with the specified load factors, and the default initial capacity (16).
+     *
+     * @param upperLoadFactor The upper load factor of the hash table.
+     * @param lowerLoadFactor The lower load factor of the hash table.
+     */
+    public SlabStringSet(float upperLoadFactor, float lowerLoadFactor) {
+        super(upperLoadFactor, lowerLoadFactor);
+    }
+
+    /**
+     * Constructs a new, empty table with the specified load factors, pre-sized to hold the expected number of elements
+     * without increasing. The table is never decreased below this initial capacity, so deleting elements of a set
+     * that is expected to grow back does not re-hash it.
+     *
+     * @param expectedSize    The expected number of elements in the set.
+     * @param upperLoadFactor The upper load factor of the hash table.
+     * @param lowerLoadFactor The lower load factor of the hash table.
+     */
+    public SlabStringSet(int expectedSize, float upperLoadFactor, float lowerLoadFactor) {
+        super(upperLoadFactor, lowerLoadFactor);
+        this.createTable(capacityFor(expectedSize, upperLoadFactor));
+        this.setMinCapacity(this.capacity());
+    }
+
+    /**
+     * Data constructor - builds the hash set by adding the elements one by one. Duplicate values should be ignored.
+     * The new table has the default values of upper load factor (0.75) and lower load factor (0.25), and an initial
+     * capacity large enough to hold all the elements without increasing (at least 16).
+     *
+     * @param data Values to add to the set.
+     */
+    public SlabStringSet(String[] data) {
+        super();
+        this.createTable(Math.max(INITIAL_CAPACITY, capacityFor(data.length, DEFAULT_HIGHER_CAPACITY)));
+        for (String item : data)
+            this.add(item);
+    }
+
+    /* Public instance Methods */
+
+    /**
+     * Add a specified element to the set if it's not already in it.
+     *
+     * @param newValue New value to add to the set
+     * @return False iff newValue already exists in the set.
+     * @throws IllegalStateException If newValue is longer than an entry can hold, or the slabs cannot grow to hold it.
+     */
+    public boolean add(String newValue) {
+        int hash = hash(newValue);
+        if (this.findSlot(newValue, hash) != NOT_FOUND)
+            return false; // If item exists in table, do nothing and return false.
+        this.elementCounter++; // Item not in table. Appends element counter by 1.
+        this.countModification();
+        // Checks if increasing table is needed, if so call method and resize/re-hash table, also with new value.
+        if (this.shouldIncrease()) {
+            this.resize(true, newValue);
+            return true;
+        }
+        // Full slabs that are mostly deleted elements are re-built in place, rather than followed by a new slab.
+        if (!this.fitsLastSlab(byteLength(newValue)) && this.deadBytes > this.storedBytes / 2) {
+            this.rehash(this.capacity(), newValue);
+            return true;
+        }
+        this.addUnique(newValue, hash);
+        return true;
+    }
+
+    /**
+     * Look for a specified value in the set.
+     *
+     * @param searchVal Value to search for
+     * @return True iff searchVal is found in the set.
+     */
+    public boolean contains(String searchVal) {
+        return this.findSlot(searchVal, hash(searchVal)) != NOT_FOUND;
+    }
+
+    /**
+     * Remove the input element from the set. The following elements of its probing run that may be placed before it
+     * are shifted back, so no deleted slot is left behind. Its bytes are left in its slab until the next resize.
+     *
+     * @param toDelete Value to delete
+     * @return True iff toDelete is found and deleted.
+     */
+    public boolean delete(String toDelete) {
+        int slot = this.findSlot(toDelete, hash(toDelete));
+        if (slot == NOT_FOUND)
+            return false; // Item not in table therefore cannot be deleted, return false.
+        this.deadBytes += lengthOf(this.entries[slot]);
+        this.removeSlot(slot);
+        this.elementCounter--; // Removes 1 from element counter.
+        this.countModification();
+        if (this.elementCounter == 0)
+            this.clearSlabs(); // Nothing in the slabs is in use anymore.
+        if (this.shouldDecrease())
+            this.resize(false, toDelete); // Checks if decrease-resizing is needed.
+        return true;
+    }
+
+    /**
+     * @return The number of elements currently in the set.
+     */
+    public int size() {
+        return this.elementCounter;
+    }
+
+    /**
+     * Specified by: capacity in class SimpleHashSet.
+     *
+     * @return The current capacity (number of slots) of the table.
+     */
+    public int capacity() {
+        return this.entries.length;
+    }
+
+    /* Protected instance Methods */
+
+    /**
+     * Reinitialize hash table, hash cache and slabs based on new capacity. The current ones are kept as the previous
+     * table, until all its elements are migrated to the new table.
+     *
+     * @param newCapacity New table capacity.
+     */
+    protected void newTable(int newCapacity) {
+        this.previousEntries = this.entries;
+        this.previousHashes = this.hashes;
+        this.previousSlabs = this.slabs;
+        this.createTable(newCapacity); // Creates new empty table with specified capacity.
+        this.slabs = new byte[INITIAL_SLAB_COUNT][];
+        this.clearSlabs();
+    }
+
+    /**
+     * Copies the bytes of all the elements of the previous table (if any) to the new slabs, and inserts them to the
+     * current table with their cached hash codes. The table is always migrated all at once.
+     *
+     * @param maxCells Not used, all the previous table cells are migrated.
+     */
+    protected void migrate(int maxCells) {
+        if (this.previousEntries == null)
+            return; // No resize in progress.
+        for (int slot = 0; slot < this.previousEntries.length; slot++) {
+            long entry = this.previousEntries[slot];
+            if (entry == EMPTY)
+                continue;
+            int length = lengthOf(entry);
+            long location = this.reserve(length);
+            System.arraycopy(this.previousSlabs[slabOf(entry)], offsetOf(entry), this.slabs[slabOf(location)],
+                    offsetOf(location), length);
+            this.insert(location | ((long) length << LENGTH_SHIFT) | (entry & UTF16), this.previousHashes[slot]);
+        }
+        this.previousEntries = null;
+        this.previousHashes = null;
+        this.previousSlabs = null;
+    }
+
+    /**
+     * Adds String element (no duplicates, no null) to new resized table.
+     *
+     * @param item Element to add.
+     */
+    protected void addUnique(String item) {
+        this.addUnique(item, hash(item));
+    }
+
+    /**
+     * Specified by: probeLengths in class SimpleHashSet.
+     *
+     * @return Number of slots probed to find each element of the current table.
+     */
+    protected int[] probeLengths() {
+        int[] lengths = new int[this.elementCounter];
+        int count = 0;
+        for (int slot = 0; slot < this.entries.length && count < lengths.length; slot++)
+            if (this.entries[slot] != EMPTY)
+                lengths[count++] = this.distance(slot) + 1;
+        return Arrays.copyOf(lengths, count);
+    }
+
+    /**
+     * Specified by: cellElement in class SimpleHashSet.
+     *
+     * @param index    Index of the slot.
+     * @param position Position of the element in the slot.
+     * @return A new String of the slot element if position is 0, null if the slot is empty or position is not 0.
+     */
+    protected String cellElement(int index, int position) {
+        long entry = this.entries[index];
+        return position == 0 && entry != EMPTY ? this.readElement(entry) : null;
+    }
+
+    /* Private instance Methods */
+
+    /**
+     * Creates new empty table and hash cache with specified capacity, replacing the current ones.
+     *
+     * @param capacity New table capacity.
+     */
+    private void createTable(int capacity) {
+        this.entries = new long[capacity];
+        this.hashes = new int[capacity];
+    }
+
+    /**
+     * Drops the slabs, keeping their array, so the next element is stored in a new first slab.
+     */
+    private void clearSlabs() {
+        Arrays.fill(this.slabs, null);
+        this.slabCount = 0;
+        this.slabEnd = 0;
+        this.storedBytes = 0;
+        this.deadBytes = 0;
+    }
+
+    /**
+     * Adds String element (no duplicates, no null) to the table: stores its bytes in the last slab, and inserts its
+     * entry.
+     *
+     * @param item Element to add.
+     * @param hash Hash code of item (see hash()).
+     */
+    private void addUnique(String item, int hash) {
+        boolean latin1 = isLatin1(item);
+        int length = latin1 ? item.length() : 2 * item.length();
+        long location = this.reserve(length);
+        byte[] slab = this.slabs[slabOf(location)];
+        int offset = offsetOf(location);
+        if (latin1) {
+            for (int index = 0; index < item.length(); index++)
+                slab[offset + index] = (byte) item.charAt(index);
+        } else {
+            for (int index = 0; index < item.length(); index++) {
+                char current = item.charAt(index);
+                slab[offset + 2 * index] = (byte) (current >>> 8);
+                slab[offset + 2 * index + 1] = (byte) current;
+            }
+        }
+        this.insert(location | ((long) length << LENGTH_SHIFT) | (latin1 ? 0 : UTF16), hash);
+    }
+
+    /**
+     * Inserts an entry to the first empty slot of its probing run. The table has an empty slot for it, since an upper
+     * load factor of at most 1 is only reached by the element that fills the table.
+     *
+     * @param entry Entry of an element (not in the table).
+     * @param hash  Hash code of the element.
+     */
+    private void insert(long entry, int hash) {
+        int slot = this.clamp(hash);
+        for (int probe = 1; probe < this.entries.length && this.entries[slot] != EMPTY; probe++)
+            slot = this.clamp(slot + 1); // Linear probing.
+        this.entries[slot] = entry;
+        this.hashes[slot] = hash;
+    }
+
+    /**
+     * Empties a slot, and shifts back the following entries of its probing run that may be placed in it: those whose
+     * hash slot is not after the empty slot (cyclically). Repeats for the slot each shifted entry left. Stops at the
+     * next empty slot, or, in a full table (an upper load factor of 1), once it wraps around to the slot being emptied.
+     *
+     * @param slot Slot to empty.
+     */
+    private void removeSlot(int slot) {
+        int next = this.clamp(slot + 1);
+        while (next != slot && this.entries[next] != EMPTY) {
+            // An element may be shifted back if its distance from its hash slot reaches back to the empty slot.
+            if (this.distance(next) >= this.clamp(next - slot)) {
+                this.entries[slot] = this.entries[next];
+                this.hashes[slot] = this.hashes[next];
+                slot = next;
+            }
+            next = this.clamp(next + 1);
+        }
+        this.entries[slot] = EMPTY;
+    }
+
+    /**
+     * Finds the slot of an element, comparing cached hash codes first, and then the stored bytes.
+     *
+     * @param item String value to look for.
+     * @param hash Hash code of item (see hash()).
+     * @return Slot of item in table, NOT_FOUND if item is not in table.
+     */
+    private int findSlot(String item, int hash) {
+        int slot = this.clamp(hash);
+        for (int probe = 0; probe < this.entries.length; probe++) {
+            long entry = this.entries[slot];
+            if (entry == EMPTY)
+                return NOT_FOUND;
+            if (this.hashes[slot] == hash && this.elementEquals(entry, item))
+                return slot;
+            slot = this.clamp(slot + 1); // Linear probing.
+        }
+        return NOT_FOUND; // If iteration completed and no empty slot or equal val found.
+    }
+
+    /**
+     * @param slot Slot of a table element.
+     * @return The distance of the element from its hash slot.
+     */
+    private int distance(int slot) {
+        return this.clamp(slot - this.hashes[slot]);
+    }
+
+    /**
+     * Compares the stored bytes of an element with a String, char by char.
+     *
+     * @param entry Entry of the element.
+     * @param item  String to compare with.
+     * @return True iff the element is item.
+     */
+    private boolean elementEquals(long entry, String item) {
+        byte[] slab = this.slabs[slabOf(entry)];
+        int offset = offsetOf(entry);
+        int length = lengthOf(entry);
+        if ((entry & UTF16) == 0) {
+            if (length != item.length())
+                return false;
+            for (int index = 0; index < length; index++)
+                if (item.charAt(index) != (slab[offset + index] & LATIN1_LIMIT))
+                    return false;
+            return true;
+        }
+        if (length != 2 * item.length())
+            return false;
+        for (int index = 0; index < item.length(); index++)
+            if (item.charAt(index) != utf16Char(slab, offset + 2 * index))
+                return false;
+        return true;
+    }
+
+    /**
+     * @param entry Entry of an element.
+     * @return A new String of the element.
+     */
+    private String readElement(long entry) {
+        byte[] slab = this.slabs[slabOf(entry)];
+        int offset = offsetOf(entry);
+        int length = lengthOf(entry);
+        if ((entry & UTF16) == 0)
+            return new String(slab, offset, length, StandardCharsets.ISO_8859_1);
+        char[] chars = new char[length / 2];
+        for (int index = 0; index < chars.length; index++)
+            chars[index] = utf16Char(slab, offset + 2 * index);
+        return new String(chars);
+    }
+
+    /**
+     * @param length Byte length of an element.
+     * @return True iff the element fits in the rest of the last slab.
+     */
+    private boolean fitsLastSlab(int length) {
+        return this.slabCount > 0 && this.slabEnd + length <= this.slabs[this.slabCount - 1].length;
+    }
+
+    /**
+     * Reserves bytes for an element at the end of the last slab, or at the start of a new slab if it does not fit. A
+     * new slab is twice as large as the last one, up to SLAB_BYTES, or exactly as large as an element longer than that.
+     *
+     * @param length Byte length of the element.
+     * @return Location of the reserved bytes: an entry with the slab and offset, but no length and encoding.
+     * @throws IllegalStateException If the element is longer than an entry can hold, or no slab can be added.
+     */
+    private long reserve(int length) {
+        if (length > MAX_ELEMENT_BYTES)
+            throw new IllegalStateException("Cannot store an element longer than " + MAX_ELEMENT_BYTES + " bytes");
+        if (!this.fitsLastSlab(length)) {
+            if (this.slabCount == MAX_SLABS)
+                throw new IllegalStateException("Cannot add slabs beyond " + MAX_SLABS);
+            int slabBytes = this.slabCount == 0 ? INITIAL_SLAB_BYTES :
+                    Math.min(SLAB_BYTES, 2 * this.slabs[this.slabCount - 1].length);
+            if (this.slabCount == this.slabs.length)
+                this.slabs = Arrays.copyOf(this.slabs, Math.min(MAX_SLABS, 2 * this.slabs.length));
+            this.slabs[this.slabCount++] = new byte[Math.max(slabBytes, length)];
+            this.slabEnd = 0;
+        }
+        long location = ((long) this.slabCount << SLAB_SHIFT) | ((long) this.slabEnd << OFFSET_SHIFT);
+        this.slabEnd += length;
+        this.storedBytes += length;
+        return location;
+    }
+
+    /* Private static Methods */
+
+    /**
+     * @param item String to hash.
+     * @return Hash code for String input, mixed (see SimpleHashSet.mix()).
+     */
+    private static int hash(String item) {
+        return mix(item.hashCode());
+    }
+
+    /**
+     * @param item A String.
+     * @return True iff every char of item fits in a byte.
+     */
+    private static boolean isLatin1(String item) {
+        for (int index = 0; index < item.length(); index++)
+            if (item.charAt(index) > LATIN1_LIMIT)
+                return false;
+        return true;
+    }
+
+    /**
+     * @param item A String.
+     * @return Number of bytes item is stored in.
+     */
+    private static int byteLength(String item) {
+        return isLatin1(item) ? item.length() : 2 * item.length();
+    }
+
+    /**
+     * @param slab   A slab.
+     * @param offset Offset of a UTF-16 char in the slab.
+     * @return The char, stored high byte first.
+     */
+    private static char utf16Char(byte[] slab, int offset) {
+        return (char) ((slab[offset] << 8) | (slab[offset + 1] & LATIN1_LIMIT));
+    }
+
+    /**
+     * @param entry Entry (or location) of an element.
+     * @return Index of the slab of the element.
+     */
+    private static int slabOf(long entry) {
+        return (int) (entry >>> SLAB_SHIFT) - 1;
+    }
+
+    /**
+     * @param entry Entry (or location) of an element.
+     * @return Offset of the element in its slab.
+     */
+    private static int offsetOf(long entry) {
+        return (int) (entry >>> OFFSET_SHIFT) & (SLAB_BYTES - 1);
+    }
+
+    /**
+     * @param entry Entry of an element.
+     * @return Byte length of the element.
+     */
+    private static int lengthOf(long entry) {
+        return (int) (entry >>> LENGTH_SHIFT) & MAX_ELEMENT_BYTES;
+    }
+}
@@ -0,0 +1,485 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * A hash-set based on closed-hashing in the manner of SwissTable. Extends SimpleHashSet. The table is divided into
+ * groups of 16 cells, and a control byte per cell tells if it is empty, deleted, or full, in which case it holds 7 bits
+ * of its element's hash code. Probing goes over whole groups: the control bytes of a group are compared to the 7 bits
+ * of the searched element 8 at a time, so String.equals is only called on cells whose bits match, and a search mostly
+ * stays within one group even at a high load factor.
+ */
+public class SwissHashSet extends SimpleHashSet {
+    /* Class members - constant variables */
+    private static final int GROUP_SIZE = 16; // Number of cells in a group. Capacity is a multiple of it.
+    private static final int GROUP_SHIFT = 4; // Shift from a group number to the index of its first cell.
+    // Describes the higher load factor of a newly created Swiss hash set, higher than SimpleHashSet's since probing
+    // a group costs little more than checking a single cell.
+    private static final float DEFAULT_SWISS_HIGHER_CAPACITY = 0.875f;
+    private static final int NOT_FOUND = -1; // Index returned when probing did not find the requested cell.
+    // Control bytes: a full cell's control byte is 7 bits of its element's hash code, so its highest bit is 0.
+    private static final byte EMPTY = (byte) 0x80; // Control byte of a never used cell.
+    private static final byte DELETED = (byte) 0xFE; // Control byte of a deleted cell, probing continues beyond it.
+    private static final int TAG_SHIFT = Integer.SIZE - 7; // Shift of a hash code to its 7 bits in control bytes.
+    private static final long LOW_BITS = 0x0101010101010101L; // The lowest bit of every byte of a long.
+    private static final long HIGH_BITS = 0x8080808080808080L; // The highest bit of every byte of a long.
+    private static final int HASH_MULTIPLIER = 0x9E3779B9; // Odd constant (golden ratio) that mixes hash codes.
+    // Reads 8 control bytes as a little-endian long, so byte i of the long is the control byte of cell i.
+    private static final VarHandle CONTROL_WORD = MethodHandles.byteArrayViewVarHandle(long[].class,
+            ByteOrder.LITTLE_ENDIAN);
+    /* Class members - variables */
+    private String[] table = new String[INITIAL_CAPACITY]; // Hash table representation.
+    private byte[] control = newControl(INITIAL_CAPACITY); // Control byte of each table cell, by index.
+    // Table and control bytes before last resize, while its elements are being migrated.
+    private String[] previousTable = null;
+    private byte[] previousControl = null;
+    private int migrationIndex = 0; // Next previous table index to migrate.
+    private int elementCounter = 0; // Table's element counter. Updated on each successful add/delete.
+    private int deletedCounter = 0; // Number of cells currently marked as deleted.
+
+    /* Constructors */
+
+    /**
+     * A default constructor. Constructs a new, empty table with default initial capacity (16),
+     * upper load factor (0.875) and lower load factor (0.25).
+     */
+    public SwissHashSet() {
+        this(DEFAULT_SWISS_HIGHER_CAPACITY, DEFAULT_LOWER_CAPACITY);
+    }
+
+    /**
+     * Constructs a new, empty table with the specified load factors, and the default initial capacity (16).
+     *
+     * @param upperLoadFactor The upper load factor of the hash table.
+     * @param lowerLoadFactor The lower load factor of the hash table.
+     */
+    public SwissHashSet(float upperLoadFactor, float lowerLoadFactor) {
+        this(upperLoadFactor, lowerLoadFactor, false);
+    }
+
+    /**
+     * Constructs a new, empty table with the specified load factors and resize mode, and the default initial
+     * capacity (16).
+     *
+     * @param upperLoadFactor   The upper load factor of the hash table.
+     * @param lowerLoadFactor   The lower load factor of the hash table.
+     * @param incrementalResize True to migrate cells a few at a time after a resize, false to migrate all at once.
+     */
+    public SwissHashSet(float upperLoadFactor, float lowerLoadFactor, boolean incrementalResize) {
+        super(upperLoadFactor, lowerLoadFactor, incrementalResize);
+        this.setMinCapacity(GROUP_SIZE); // The table holds at least one group.
+    }
+
+    /**
+     * Constructs a new, empty table with the specified load factors, pre-sized to hold the expected number of elements
+     * without increasing. The table is never decreased below this initial capacity, so deleting elements of a set
+     * that is expected to grow back does not re-hash it.
+     *
+     * @param expectedSize    The expected number of elements in the set.
+     * @param upperLoadFactor The upper load factor of the hash table.
+     * @param lowerLoadFactor The lower load factor of the hash table.
+     */
+    public SwissHashSet(int expectedSize, float upperLoadFactor, float lowerLoadFactor) {
+        super(upperLoadFactor, lowerLoadFactor);
+        this.createTable(Math.max(GROUP_SIZE, capacityFor(expectedSize, upperLoadFactor)));
+        this.setMinCapacity(this.capacity());
+    }
+
+    /**
+     * Data constructor - builds the hash set by adding the elements one by one. Duplicate values should be ignored.
+     * The new table has the default values of upper load factor (0.875) and lower load factor (0.25), and an initial
+     * capacity large enough to hold all the elements without increasing (at least 16).
+     *
+     * @param data Values to add to the set.
+     */
+    public SwissHashSet(String[] data) {
+        this();
+        this.createTable(Math.max(INITIAL_CAPACITY, capacityFor(data.length, DEFAULT_SWISS_HIGHER_CAPACITY)));
+        for (String item : data)
+            this.add(item);
+    }
+
+    /* Public instance Methods */
+
+    /**
+     * Add a specified element to the set if it's not already in it.
+     *
+     * @param newValue New value to add to the set
+     * @return False iff newValue already exists in the set.
+     */
+    public boolean add(String newValue) {
+        this.migrationStep();
+        int hash = this.hash(newValue);
+        long tags = LOW_BITS * tag(hash); // Element's control byte, in every byte.
+        int freeIndex = NOT_FOUND; // First empty or deleted index on the probing sequence.
+        int groupMask = groupMask(this.table);
+        int group = hash & groupMask;
+        // Iterates over probing sequence until item found, or a group with a cell that was never used is reached.
+        for (int attempt = 1; attempt <= groupMask + 1; attempt++) {
+            boolean hasEmpty = false;
+            for (int index = group << GROUP_SHIFT; index < (group + 1) << GROUP_SHIFT; index += Long.BYTES) {
+                long word = (long) CONTROL_WORD.get(this.control, index);
+                for (long matches = matchTag(word, tags); matches != 0; matches &= matches - 1)
+                    if (newValue.equals(this.table[index + byteIndex(matches)]))
+                        return false; // If item exists in table, do nothing and return false.
+                long free = matchEmptyOrDeleted(word);
+                if (freeIndex == NOT_FOUND && free != 0)
+                    freeIndex = index + byteIndex(free);
+                hasEmpty |= matchEmpty(word) != 0;
+            }
+            if (hasEmpty)
+                break; // Item cannot be found beyond a group with a cell that was never used.
+            group = (group + attempt) & groupMask; // Quadratic probing of groups by triangular numbers.
+        }
+        // If a resize is in progress, item may still be in the previous table.
+        if (this.previousTable != null && findIndex(this.previousTable, this.previousControl, newValue, hash) !=
+                NOT_FOUND)
+            return false;
+        this.elementCounter++; // Item not in table. Appends element counter by 1.
+        this.countModification();
+        // Checks if increasing table is needed, if so call method and resize/re-hash table, also with new value.
+        if (freeIndex == NOT_FOUND || this.shouldIncrease()) {
+            this.resize(true, newValue);
+            return true;
+        }
+        this.store(freeIndex, newValue, hash);
+        // Deleted cells only lengthen the probing, so when too many of them pile up re-hash in the same capacity.
+        if (this.shouldPurge())
+            this.rehash(this.capacity(), null);
+        return true;
+    }
+
+    /**
+     * Look for a specified value in the set.
+     *
+     * @param searchVal Value to search for
+     * @return True iff searchVal is found in the set.
+     */
+    public boolean contains(String searchVal) {
+        this.migrationStep();
+        int hash = this.hash(searchVal);
+        if (findIndex(this.table, this.control, searchVal, hash) != NOT_FOUND)
+            return true;
+        // If a resize is in progress, item may still be in the previous table.
+        return this.previousTable != null &&
+                findIndex(this.previousTable, this.previousControl, searchVal, hash) != NOT_FOUND;
+    }
+
+    /**
+     * Remove the input element from the set.
+     *
+     * @param toDelete Value to delete
+     * @return True iff toDelete is found and deleted.
+     */
+    public boolean delete(String toDelete) {
+        this.migrationStep();
+        int hash = this.hash(toDelete);
+        int index = findIndex(this.table, this.control, toDelete, hash);
+        if (index != NOT_FOUND) {
+            if (erase(this.table, this.control, index))
+                this.deletedCounter++;
+        } else {
+            // If a resize is in progress, item may still be in the previous table.
+            if (this.previousTable != null)
+                index = findIndex(this.previousTable, this.previousControl, toDelete, hash);
+            if (index == NOT_FOUND)
+                return false; // Item not in table therefore cannot be deleted, return false.
+            erase(this.previousTable, this.previousControl, index);
+        }
+        this.elementCounter--; // Removes 1 from element counter.
+        this.countModification();
+        if (this.shouldDecrease())
+            this.resize(false, toDelete); // Checks if decrease-resizing is needed.
+        return true;
+    }
+
+    /**
+     * @return The number of elements currently in the set.
+     */
+    public int size() {
+        return this.elementCounter;
+    }
+
+    /**
+     * Specified by: capacity in class SimpleHashSet.
+     *
+     * @return The current capacity (number of cells) of the table.
+     */
+    public int capacity() {
+        return this.table.length;
+    }
+
+    /* Protected instance Methods */
+
+    /**
+     * Reinitialize hash table and control bytes based on new capacity. The current ones are kept as the previous
+     * table, until all its elements are migrated to the new table.
+     *
+     * @param newCapacity New table capacity.
+     */
+    protected void newTable(int newCapacity) {
+        this.previousTable = this.table;
+        this.previousControl = this.control;
+        this.migrationIndex = 0;
+        this.createTable(newCapacity); // Creates new empty table with specified capacity.
+    }
+
+    /**
+     * Moves the elements of the previous table cells (if any) to the current table, continuing from the last migrated
+     * cell. A migrated cell is marked as deleted in the previous table, so probing there still continues beyond it.
+     * Once all the previous table cells were migrated, the previous table is released.
+     *
+     * @param maxCells Maximal number of previous table cells to migrate.
+     */
+    protected void migrate(int maxCells) {
+        if (this.previousTable == null)
+            return; // No resize in progress.
+        int end = (int) Math.min(this.previousTable.length, (long) this.migrationIndex + maxCells);
+        for (; this.migrationIndex < end; this.migrationIndex++) {
+            String item = this.previousTable[this.migrationIndex];
+            if (item == null)
+                continue;
+            this.addUnique(item);
+            this.previousTable[this.migrationIndex] = null;
+            this.previousControl[this.migrationIndex] = DELETED;
+        }
+        if (this.migrationIndex == this.previousTable.length) {
+            // All cells migrated.
+            this.previousTable = null;
+            this.previousControl = null;
+        }
+    }
+
+    /**
+     * Adds String element (no duplicates, no null) to the table, in the first empty or deleted cell of its probing
+     * sequence.
+     *
+     * @param item Element to add.
+     */
+    protected void addUnique(String item) {
+        int hash = this.hash(item);
+        int groupMask = groupMask(this.table);
+        int group = hash & groupMask;
+        // Iterates over probing sequence, until a group with an empty or deleted cell found.
+        for (int attempt = 1; ; attempt++) {
+            for (int index = group << GROUP_SHIFT; index < (group + 1) << GROUP_SHIFT; index += Long.BYTES) {
+                long free = matchEmptyOrDeleted((long) CONTROL_WORD.get(this.control, index));
+                if (free != 0) {
+                    this.store(index + byteIndex(free), item, hash);
+                    return;
+                }
+            }
+            group = (group + attempt) & groupMask; // Quadratic probing of groups by triangular numbers.
+        }
+    }
+
+    /**
+     * Specified by: probeLengths in class SimpleHashSet. Follows the probing sequence of each element from its hash
+     * code to its group.
+     *
+     * @return Number of groups probed to find each element of the current table.
+     */
+    protected int[] probeLengths() {
+        String[] cells = this.table;
+        int groupMask = groupMask(cells);
+        int[] lengths = new int[cells.length];
+        int count = 0;
+        for (int index = 0; index < cells.length; index++) {
+            if (cells[index] == null)
+                continue;
+            int group = this.hash(cells[index]) & groupMask;
+            int attempt = 0;
+            while (group != index >>> GROUP_SHIFT && attempt <= groupMask)
+                group = (group + ++attempt) & groupMask; // Quadratic probing of groups by triangular numbers.
+            lengths[count++] = attempt + 1;
+        }
+        return Arrays.copyOf(lengths, count);
+    }
+
+    /**
+     * Specified by: deletedCells in class SimpleHashSet.
+     *
+     * @return Number of cells of the current table that are marked as deleted.
+     */
+    protected int deletedCells() {
+        return this.deletedCounter;
+    }
+
+    /**
+     * Specified by: cellElement in class SimpleHashSet.
+     *
+     * @param index    Index of the cell.
+     * @param position Position of the element in the cell.
+     * @return The element of the cell if position is 0, null if the cell is empty or position is not 0.
+     */
+    protected String cellElement(int index, int position) {
+        return position == 0 ? this.table[index] : null;
+    }
+
+    /* Private instance Methods */
+
+    /**
+     * Mixes the String hash code, so both its bits that select a group and its bits in the control bytes depend on
+     * all of its bits.
+     *
+     * @param item String to hash.
+     * @return Hash code for String input.
+     */
+    private int hash(String item) {
+        int hash = item.hashCode() * HASH_MULTIPLIER;
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Creates new empty table and control bytes with specified capacity, replacing the current ones.
+     *
+     * @param capacity New table capacity.
+     */
+    private void createTable(int capacity) {
+        this.table = new String[capacity];
+        this.control = newControl(capacity);
+        this.deletedCounter = 0;
+    }
+
+    /**
+     * Stores item in specified empty or deleted index, and its hash code bits in the index control byte.
+     *
+     * @param index Index to store item in.
+     * @param item  Item to store.
+     * @param hash  Hash code of item.
+     */
+    private void store(int index, String item, int hash) {
+        if (this.control[index] == DELETED)
+            this.deletedCounter--; // Index was deleted before, reuse it.
+        this.table[index] = item;
+        this.control[index] = tag(hash);
+    }
+
+    /**
+     * Checks if the deleted cells should be cleared by re-hashing the table in its current capacity: once elements
+     * and deleted cells together take more than half the space left above the upper load factor.
+     *
+     * @return True if table should be re-hashed in place, false otherwise.
+     */
+    private boolean shouldPurge() {
+        float maxUsedFactor = (1 + this.getUpperLoadFactor()) / 2;
+        return this.deletedCounter > 0 &&
+                this.elementCounter + this.deletedCounter > maxUsedFactor * this.capacity();
+    }
+
+    /* Private static Methods */
+
+    /**
+     * Finds the index of an item in a table.
+     *
+     * @param cells   Table to search, its length is a power of 2 multiple of GROUP_SIZE.
+     * @param control Control bytes of the table.
+     * @param item    String value to look for.
+     * @param hash    Hash code of item.
+     * @return Index of item in table, NOT_FOUND if item is not in table.
+     */
+    private static int findIndex(String[] cells, byte[] control, String item, int hash) {
+        long tags = LOW_BITS * tag(hash); // Item's control byte, in every byte.
+        int groupMask = groupMask(cells);
+        int group = hash & groupMask;
+        // Iterates over probing sequence, until item found or a group with a cell that was never used is reached.
+        for (int attempt = 1; attempt <= groupMask + 1; attempt++) {
+            boolean hasEmpty = false;
+            for (int index = group << GROUP_SHIFT; index < (group + 1) << GROUP_SHIFT; index += Long.BYTES) {
+                long word = (long) CONTROL_WORD.get(control, index);
+                for (long matches = matchTag(word, tags); matches != 0; matches &= matches - 1)
+                    if (item.equals(cells[index + byteIndex(matches)]))
+                        return index + byteIndex(matches);
+                hasEmpty |= matchEmpty(word) != 0;
+            }
+            if (hasEmpty)
+                return NOT_FOUND;
+            group = (group + attempt) & groupMask; // Quadratic probing of groups by triangular numbers.
+        }
+        return NOT_FOUND; // If iteration completed and no empty cell or equal val found.
+    }
+
+    /**
+     * Deletes the element in specified index of a table. The cell is marked as empty if its group has an empty cell,
+     * since then no probing ever continued beyond this group, and as deleted otherwise.
+     *
+     * @param cells   Table to delete from.
+     * @param control Control bytes of the table.
+     * @param index   Index of the element to delete.
+     * @return True if the cell was marked as deleted, false if it was marked as empty.
+     */
+    private static boolean erase(String[] cells, byte[] control, int index) {
+        cells[index] = null;
+        int first = index & -GROUP_SIZE; // First index of the group.
+        boolean hasEmpty = false;
+        for (int wordIndex = first; wordIndex < first + GROUP_SIZE; wordIndex += Long.BYTES)
+            hasEmpty |= matchEmpty((long) CONTROL_WORD.get(control, wordIndex)) != 0;
+        control[index] = hasEmpty ? EMPTY : DELETED;
+        return !hasEmpty;
+    }
+
+    /**
+     * @param capacity Capacity of the new table.
+     * @return New control bytes, all empty.
+     */
+    private static byte[] newControl(int capacity) {
+        byte[] control = new byte[capacity];
+        Arrays.fill(control, EMPTY);
+        return control;
+    }
+
+    /**
+     * @param cells A table.
+     * @return Mask of the table's group numbers (number of groups - 1).
+     */
+    private static int groupMask(String[] cells) {
+        return (cells.length >>> GROUP_SHIFT) - 1;
+    }
+
+    /**
+     * @param hash Hash code of an element.
+     * @return The control byte of the element: its hash code's highest 7 bits.
+     */
+    private static byte tag(int hash) {
+        return (byte) (hash >>> TAG_SHIFT);
+    }
+
+    /**
+     * Finds the control bytes that equal an element's control byte. May also report a full cell right above a
+     * matching one, which is harmless since the cell's element is compared anyway.
+     *
+     * @param word 8 control bytes.
+     * @param tags The element's control byte, in every byte.
+     * @return The highest bit of every matching byte.
+     */
+    private static long matchTag(long word, long tags) {
+        long difference = word ^ tags; // Zero bytes where matching.
+        return (difference - LOW_BITS) & ~difference & HIGH_BITS;
+    }
+
+    /**
+     * @param word 8 control bytes.
+     * @return The highest bit of every empty byte (the only one whose highest bit is set and second lowest is not).
+     */
+    private static long matchEmpty(long word) {
+        return word & ~(word << 6) & HIGH_BITS;
+    }
+
+    /**
+     * @param word 8 control bytes.
+     * @return The highest bit of every empty or deleted byte (the only ones whose highest bit is set and lowest is
+     * not).
+     */
+    private static long matchEmptyOrDeleted(long word) {
+        return word & ~(word << 7) & HIGH_BITS;
+    }
+
+    /**
+     * @param matches The highest bit of every matching byte of a long (at least one).
+     * @return Index of the lowest matching byte in the long.
+     */
+    private static int byteIndex(long matches) {
+        return Long.numberOfTrailingZeros(matches) >>> 3;
+    }
+}
@@ -0,0 +1,26 @@
+import java.util.function.IntPredicate;
+
+/**
+ * The operations of a set on the values of an array, by their index, so that SimpleSetPerformanceAnalyzer (test 9)
+ * and SimpleSetBenchmark measure sets of different value types (the specialized sets of OpenHashSetGenerator, and
+ * boxed or String sets to compare them to) by the same loops, with no value converted while measuring.
+ */
+class ValueSet {
+    /* Class members - variables */
+    final IntPredicate add; // Adds the value of an index, returns false iff it was already in the set.
+    final IntPredicate contains; // Searches the value of an index, returns true iff it is in the set.
+    final IntPredicate delete; // Deletes the value of an index, returns true iff it was in the set.
+
+    /* Constructors */
+
+    /**
+     * @param add      Adds the value of an index.
+     * @param contains Searches the value of an index.
+     * @param delete   Deletes the value of an index.
+     */
+    ValueSet(IntPredicate add, IntPredicate contains, IntPredicate delete) {
+        this.add = add;
+        this.contains = contains;
+        this.delete = delete;
+    }
+}